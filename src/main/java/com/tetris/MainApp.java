@@ -99,6 +99,12 @@ public class MainApp extends Application {
             event.consume(); // Consome o evento de qualquer forma
         });
 
+        // Soltar a tecla também vai para o motor (DAS, ARR e queda suave dependem disso)
+        scene.setOnKeyReleased(event -> {
+            gameEngine.handleKeyRelease(event.getCode());
+            event.consume();
+        });
+
         // 8. Carregar as Fontes
         try {
             Font.loadFont(Objects.requireNonNull(
@@ -117,6 +123,13 @@ public class MainApp extends Application {
         primaryStage.setFullScreen(true); // Tela cheia
         primaryStage.setFullScreenExitKeyCombination(javafx.scene.input.KeyCombination.NO_MATCH);
 
+        // A simulação roda na sua própria thread: para junto com a janela
+        primaryStage.setOnCloseRequest(event -> gameEngine.shutdown());
+        // Sem foco, os "soltou" não chegam: nenhuma tecla fica presa
+        primaryStage.focusedProperty().addListener((obs, wasFocused, focused) -> {
+            if (!focused) gameEngine.releaseAllKeys();
+        });
+
         gamePanel.requestFocus();
         primaryStage.show();
 
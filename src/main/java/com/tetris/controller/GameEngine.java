@@ -2,26 +2,60 @@ package com.tetris.controller;
 
 import com.tetris.model.Board;
 import com.tetris.model.GameState;
+import com.tetris.model.PieceType;
+import com.tetris.model.RotationSystem;
+import com.tetris.model.tetromino.PackedPiece;
+import com.tetris.model.tetromino.Randomizer;
 import com.tetris.model.tetromino.Tetromino;
 import com.tetris.model.tetromino.TetrominoFactory;
+import com.tetris.simulation.DeltaRing;
+import com.tetris.simulation.FrameSnapshot;
+import com.tetris.simulation.GameSimulation;
+import com.tetris.simulation.GravityCurve;
+import com.tetris.simulation.Input;
+import com.tetris.simulation.InputHandler;
+import com.tetris.simulation.Replay;
+import com.tetris.simulation.ReplayRecorder;
+import com.tetris.simulation.SimulationThread;
+import com.tetris.simulation.StateDelta;
+import com.tetris.simulation.TickJitter;
+import com.tetris.simulation.TripleBuffer;
 import javafx.animation.AnimationTimer;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.scene.input.KeyCode;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Motor do Jogo (GameEngine).
- * Classe central que coordena toda a lógica, o estado e o loop principal do jogo.
- * Conecta o modelo (Board, Tetromino) com a visão (GamePanel, InfoPanel).
+ * Adaptador JavaFX da {@link GameSimulation}: a lógica toda mora na simulação
+ * (Java puro, em quadros fixos), que roda na sua própria {@link SimulationThread};
+ * aqui as teclas viram {@link Input} e o estado é espelhado nas propriedades
+ * que a visão (GamePanel, InfoPanel) observa.
+ *
+ * O espelho não acompanha cada mutação: a simulação publica um {@link StateDelta}
+ * por quadro num {@link DeltaRing}, e cada pulso do AnimationTimer junta os
+ * deltas pendentes e atualiza as propriedades uma vez só, cada uma apenas se
+ * mudou. Para desenhar, o GamePanel pega a {@link FrameSnapshot} mais recente
+ * ({@link #latestFrame()}), sem esperar a simulação.
+ *
+ * Em modo de teste não há thread nem timer: cada chamada roda a simulação na
+ * hora e atualiza as propriedades antes de voltar.
  */
 public class GameEngine {
 
-    private final Board board;
-    private Tetromino currentPiece;
-    private Tetromino nextPiece;
+    /** Quantas peças a fila de "next" mostra à frente (o HUD usa só a primeira). */
+    public static final int PREVIEW_DEPTH = GameSimulation.PREVIEW_DEPTH;
+
+    // Deltas por pulso: cabe o pior caso de recuperação com folga (cheio, a simulação só acumula)
+    private static final int EVENT_RING_CAPACITY = 16;
+
+    private final GameSimulation simulation;
 
     // Propriedades JavaFX para notificar a UI sobre mudanças (Padrão Observer)
     private final IntegerProperty score = new SimpleIntegerProperty(0);
@@ -30,16 +64,58 @@ public class GameEngine {
     private final ObjectProperty<GameState> gameState = new SimpleObjectProperty<>(GameState.PLAYING);
     private final ObjectProperty<Tetromino> nextPieceProperty = new SimpleObjectProperty<>();
     private final ObjectProperty<List<Integer>> linesToClearProperty = new SimpleObjectProperty<>(null);
-    private Tetromino heldPiece; // Onde a peça fica guardada
     private final ObjectProperty<Tetromino> heldPieceProperty = new SimpleObjectProperty<>(null); // Para a UI
-    private boolean canHold; // Regra "uma vez por peça"
     private boolean isTestMode = false; // Flag para pular lógicas de JavaFX em testes
 
+    // Deltas da simulação e o acumulador do pulso (tudo pré-alocado)
+    private final DeltaRing eventRing;
+    private final StateDelta pending;
+    // O que next/hold mostram agora, empacotado (a UI recebe um adaptador novo só quando muda)
+    private int publishedNext = PackedPiece.NONE;
+    private int publishedHeld = PackedPiece.NONE;
+    // A fila de prévia e a semente, como o último delta trouxe (a UI não lê a fila da simulação)
+    private final PieceType[] preview = new PieceType[PREVIEW_DEPTH];
+    private long seed;
+    private boolean mirroring; // Aplicando um delta: as propriedades não voltam para a simulação
+
+    // A thread da simulação e as fotos que ela entrega para o GamePanel
+    private final SimulationThread simulationThread;
+    private final TripleBuffer<FrameSnapshot> frames;
+    // Teclas com horário (DAS/ARR/queda suave), aplicadas pela thread da simulação
+    private final InputHandler inputHandler = new InputHandler();
+
+    // Toda partida é gravada; o replay sai no fim do jogo (ou quando a partida é abandonada)
+    private final ReplayRecorder recorder = new ReplayRecorder();
+    private final ObjectProperty<Replay> lastReplayProperty = new SimpleObjectProperty<>(null);
+
     private final AnimationTimer gameLoop;
-    private long lastDropTime;
 
     public GameEngine() {
-        this.board = new Board();
+        this(Board.WIDTH, Board.HEIGHT);
+    }
+
+    /** Motor com um tabuleiro de dimensões próprias (ex: 40x80 cooperativo). */
+    public GameEngine(int width, int height) {
+        this.simulation = new GameSimulation(width, height);
+        // A limpeza de linhas espera a animação da View (onAnimationFinished)
+        simulation.setLineClearFrames(GameSimulation.MANUAL_LINE_CLEAR);
+        simulation.setRecorder(recorder);
+        this.eventRing = new DeltaRing(EVENT_RING_CAPACITY, height);
+        this.pending = new StateDelta(height);
+        simulation.setEventRing(eventRing);
+        this.frames = new TripleBuffer<>(() -> new FrameSnapshot(width, height));
+        this.simulationThread = new SimulationThread(simulation, frames);
+        simulationThread.setInputHandler(inputHandler);
+        // Quem muda as propriedades de fora (testes, cheats) muda a simulação também
+        score.addListener((obs, old, value) -> {
+            if (!mirroring) edit(sim -> sim.setScore(value.intValue()));
+        });
+        level.addListener((obs, old, value) -> {
+            if (!mirroring) edit(sim -> sim.setLevel(value.intValue()));
+        });
+        linesCleared.addListener((obs, old, value) -> {
+            if (!mirroring) edit(sim -> sim.setLinesCleared(value.intValue()));
+        });
         this.gameLoop = createGameLoop();
     }
 
@@ -47,294 +123,318 @@ public class GameEngine {
         return new AnimationTimer() {
             @Override
             public void handle(long now) {
-                if (gameState.get() == GameState.PLAYING) {
-                    if (now - lastDropTime >= getDropInterval()) {
-                        moveDown();
-                        lastDropTime = now;
-                    }
-                }
+                sync(); // Um pulso: o que a simulação publicou desde o último
             }
         };
     }
 
     public void initializeGame() {
-        board.clear();
-        score.set(0);
-        level.set(1);
-        linesCleared.set(0);
-
-        heldPiece = null; // <-- NOVO
-        heldPieceProperty.set(null); // <-- NOVO
-        canHold = true; // <-- NOVO
-
-        currentPiece = TetrominoFactory.getRandomTetromino();
-        nextPiece = TetrominoFactory.getRandomTetromino();
-        nextPieceProperty.set(nextPiece);
-        gameState.set(GameState.PLAYING);
-
+        boolean wasRunning = simulationThread.stop(); // A partida nova começa do quadro 0
+        if (recorder.isRecording()) {
+            lastReplayProperty.set(recorder.finish(simulation)); // Partida abandonada
+        }
+        inputHandler.reset(); // Os "soltou" com a thread parada não chegaram
+        simulation.initializeGame();
+        sync();
+        if (wasRunning) {
+            resumeLoop();
+        }
     }
 
     public void start() {
         initializeGame();
-        lastDropTime = System.nanoTime();
-        gameLoop.start();
+        resumeLoop();
     }
 
-
+    /**
+     * Com a thread rodando, a tecla vai com o horário para o {@link InputHandler}
+     * (DAS, ARR e queda suave no relógio da simulação; a repetição do sistema é
+     * ignorada). Sem a thread (testes), vale um toque na hora.
+     */
     public void handleKeyPress(KeyCode code) {
-        if (gameState.get() != GameState.PLAYING) {
+        int button = inputFor(code);
+        if (button == Input.NONE) {
             return;
         }
-        switch (code) {
-            case LEFT:  moveLeft(); break;
-            case RIGHT: moveRight(); break;
-            case DOWN:  moveDown(); score.set(score.get() + 1); break; // Pontos por queda suave
-            case UP:    rotate(); break;
-            case SPACE: hardDrop(); break;
-            case C:     hold(); break; // <-- TECLA DE CAPTURA DA PEÇA
+        if (simulationThread.isRunning()) {
+            inputHandler.getQueue().press(button, System.nanoTime());
+        } else if (gameState.get() == GameState.PLAYING) {
+            simulation.apply(button);
+            sync();
         }
     }
 
-    public void togglePause() {
-        if (gameState.get() == GameState.PLAYING) {
-            gameState.set(GameState.PAUSED);
-            if (!isTestMode) { // <-- PROTEÇÃO ADICIONADA
-                gameLoop.stop();
-            }
-        } else if (gameState.get() == GameState.PAUSED) {
-            gameState.set(GameState.PLAYING);
-            if (!isTestMode) { // <-- PROTEÇÃO ADICIONADA
-                lastDropTime = System.nanoTime();
-                gameLoop.start();
-            }
+    /** Soltar a tecla encerra a repetição lateral ou a queda suave dela. */
+    public void handleKeyRelease(KeyCode code) {
+        int button = inputFor(code);
+        if (button != Input.NONE && simulationThread.isRunning()) {
+            inputHandler.getQueue().release(button, System.nanoTime());
         }
     }
 
-    private void move(int dx, int dy) {
-        currentPiece.setX(currentPiece.getX() + dx);
-        currentPiece.setY(currentPiece.getY() + dy);
-        if (!board.isValidPosition(currentPiece)) {
-            // Reverte o movimento se for inválido
-            currentPiece.setX(currentPiece.getX() - dx);
-            currentPiece.setY(currentPiece.getY() - dy);
-            // Se o movimento inválido foi para baixo, a peça travou
-            if (dy > 0) {
-                lockPiece();
-            }
-        }
+    /** Solta todas as teclas (ex: a janela perdeu o foco e os "soltou" não vão chegar). */
+    public void releaseAllKeys() {
+        edit(sim -> inputHandler.reset());
     }
 
-    private void moveLeft() { move(-1, 0); }
-    private void moveRight() { move(1, 0); }
-    private void moveDown() { move(0, 1); }
+    private static int inputFor(KeyCode code) {
+        return switch (code) {
+            case LEFT -> Input.LEFT;
+            case RIGHT -> Input.RIGHT;
+            case DOWN -> Input.SOFT_DROP; // Pontos por queda suave
+            case UP, X -> Input.ROTATE_CW;
+            case Z -> Input.ROTATE_CCW;
+            case A -> Input.ROTATE_180;
+            case SPACE -> Input.HARD_DROP;
+            case C -> Input.HOLD; // <-- TECLA DE CAPTURA DA PEÇA
+            default -> Input.NONE;
+        };
+    }
 
-    private void hardDrop() {
-        while (board.isValidPosition(currentPiece)) {
-            currentPiece.setY(currentPiece.getY() + 1);
-            score.set(score.get() + 2); // Pontos por queda rápida
-        }
-        currentPiece.setY(currentPiece.getY() - 1); // Volta uma posição
-        lockPiece();
+    public void togglePause() {
+        edit(GameSimulation::togglePause);
     }
 
-    /**
-     * NOVO MÉTODO rotate() (Lógica "Verifica-e-Depois-Gira")
-     * Usa o novo método do Board para testar "wall kicks"
-     * antes de aplicar a rotação.
-     */
-    private void rotate() {
-        // 1. Pega a forma futura SEM girar a peça
-        int[][] futuraForma = currentPiece.getNextRotationShape();
-
-        // 2. Define os "chutes" que queremos testar.
-        //    Ordem: Posição Atual (0), Chute para Direita (+1), Chute para Esquerda (-1)
-        int[] chutesX = {0, 1, -1, 2, -2};
-
-        // 3. Itera por cada "chute"
-        for (int chute : chutesX) {
-            int novoX = currentPiece.getX() + chute;
-            int novoY = currentPiece.getY(); // (Não estamos testando chutes verticais)
-
-            // 4. Pergunta ao tabuleiro: "Esta forma FUTURA é válida nesta NOVA posição?"
-            //    (Agora está chamando o método "Trabalhador" do Board)
-            if (board.isValidPosition(futuraForma, novoX, novoY)) {
-
-                // 5. SIM! A rotação é válida!
-                currentPiece.setX(novoX);  // Aplica o "chute" (move a peça se chute != 0)
-                currentPiece.rotate();      // AGORA SIM, aplica a rotação
-                return; // Sai do método, o trabalho está feito.
-            }
-        }
+    // Ganchos dos testes (sem a thread): mexem na simulação direto
 
-        // 6. Se saiu do loop, é porque NENHUM chute funcionou.
-        //    Não fazemos nada. A rotação falha silenciosamente.
+    /*private*/ void lockPiece() {
+        simulation.lockPiece();
+        sync();
     }
 
-    /*
-     * Trava a peça atual no tabuleiro e lida com a limpeza de linhas.
-     * Esta é a nova versão que suportará animações.
-     */
     /**
-     * Trava a peça e inicia o processo de limpeza de linha (com animação).
-     * Esta é a versão final que o teste está esperando.
+     * Chamado pelo GamePanel (View) quando a animação de limpeza termina.
+     * O teste 'testLineClearingAnimationFlow' também simula essa chamada.
      */
-    /*private*/ void lockPiece() {
-        // 1. Coloca a peça no tabuleiro
-        board.placePiece(currentPiece);
+    public void onAnimationFinished() {
+        edit(sim -> {
+            if (sim.getState() == GameState.LINE_CLEARING) { // Senão, nada esperava a animação
+                sim.finishLineClear();
+            }
+        });
+    }
 
-        // 2. PERGUNTA ao tabuleiro quais linhas estão cheias
-        List<Integer> linesToClear = board.findFullLines();
-        int cleared = linesToClear.size();
+    /*private*/ void spawnNewPiece() {
+        simulation.spawnNewPiece();
+        sync();
+    }
 
-        // 3. Verifica se alguma linha precisa ser limpa
-        if (cleared > 0) {
-            // === INÍCIO DA LÓGICA DE ANIMAÇÃO ===
+    /*private*/ void updateScore(int cleared) {
+        simulation.updateScore(cleared);
+        sync();
+    }
 
-            // 4. Pausamos o estado do jogo
-            gameState.set(GameState.LINE_CLEARING); // <-- O teste quer ver isso!
+    /*private*/ void updateLevel() {
+        simulation.updateLevel();
+        sync();
+    }
 
-            // 5. "Avisamos" o GamePanel quais linhas animar
-            linesToClearProperty.set(linesToClear);
+    // ========================================================================
+    // ==     ESPELHO SIMULAÇÃO -> PROPRIEDADES      ==
+    // ========================================================================
 
-            // 6. SÓ paramos o loop SE NÃO ESTIVER EM TESTE
-            // (Isso corrige o bug do 'pulseTimer' que teríamos)
-            if (!isTestMode) {
-                gameLoop.stop();
+    /**
+     * Publica o que ainda não saiu da simulação, junta os deltas pendentes e
+     * aplica o resultado às propriedades da UI, cada uma só se mudou. A ordem
+     * importa para o GamePanel: ao entrar em LINE_CLEARING o estado muda antes
+     * da lista de linhas; ao sair, a lista é apagada antes.
+     */
+    private void sync() {
+        if (!simulationThread.isRunning()) {
+            if (simulation.getCurrentPiece() == null) {
+                return; // Configurando antes da primeira partida: nada para espelhar
             }
-
-            // O método termina AQUI.
-            // O 'spawnNewPiece()' NÃO é chamado.
-            // Ele agora espera o 'onAnimationFinished()' ser chamado.
-
-        } else {
-            // Nenhuma linha para limpar, apenas cria a próxima peça
-            spawnNewPiece();
+            // Sem a thread, quem publica é quem acabou de mexer na simulação
+            simulation.flushEvents();
+            simulationThread.publishFrame();
+        }
+        eventRing.drainInto(pending);
+        if (pending.getChanges() == 0) {
+            return;
+        }
+        if (pending.getState() == GameState.GAME_OVER) {
+            // Fim de jogo: para a thread antes de ler a simulação (para o replay)
+            simulationThread.stop();
+            gameLoop.stop();
+        }
+        mirroring = true;
+        try {
+            apply(pending);
+        } finally {
+            mirroring = false;
+            pending.clearChanges();
         }
     }
 
     /**
-     * NOVO MÉTODO PÚBLICO
-     * Chamado pelo GamePanel (View) quando a animação de limpeza termina.
-     * O nosso teste 'testLineClearingAnimationFlow' também simula essa chamada.
+     * Roda uma mudança na simulação: na thread dela, se estiver rodando (as
+     * propriedades mudam num pulso seguinte); senão, na hora.
      */
-    public void onAnimationFinished() {
-        // 1. Pega as linhas que acabaram de ser animadas
-        List<Integer> linesToClear = linesToClearProperty.get();
-        // Adiciona uma checagem de segurança (boa prática)
-        int cleared = (linesToClear != null) ? linesToClear.size() : 0;
+    private void edit(Consumer<GameSimulation> change) {
+        if (simulationThread.isRunning()) {
+            simulationThread.submit(change);
+        } else {
+            change.accept(simulation);
+            sync();
+        }
+    }
 
-        if (cleared > 0) {
-            // 2. MANDA o tabuleiro remover as linhas
-            board.removeLines(linesToClear);
+    private void apply(StateDelta delta) {
+        if (delta.changed(StateDelta.SCORE)) score.set(delta.getScore());
+        if (delta.changed(StateDelta.LEVEL)) level.set(delta.getLevel());
+        if (delta.changed(StateDelta.LINES)) linesCleared.set(delta.getLinesCleared());
 
-            // 3. Atualiza a pontuação
-            updateScore(cleared);
+        if (delta.changed(StateDelta.PIECES)) {
+            publishedNext = publish(nextPieceProperty, publishedNext, delta.getNext());
+            publishedHeld = publish(heldPieceProperty, publishedHeld, delta.getHeld());
+            for (int i = 0; i < PREVIEW_DEPTH; i++) {
+                preview[i] = delta.getPreview(i);
+            }
+            seed = delta.getSeed();
         }
 
-        // 4. Limpa a propriedade de aviso
-        linesToClearProperty.set(null);
-
-        // 5. Cria a próxima peça
-        spawnNewPiece();
+        GameState state = delta.getState();
+        if (state == GameState.LINE_CLEARING) {
+            gameState.set(state);
+            if (delta.changed(StateDelta.CLEARING) || linesToClearProperty.get() == null) {
+                // A lista só é montada aqui, para a animação da View
+                int count = delta.getClearingLineCount();
+                List<Integer> linesToClear = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    linesToClear.add(delta.getClearingLine(i));
+                }
+                linesToClearProperty.set(linesToClear);
+            }
+        } else {
+            linesToClearProperty.set(null);
+            gameState.set(state);
+        }
 
-        // 6. Retoma o jogo
-        gameState.set(GameState.PLAYING);
+        if (state == GameState.GAME_OVER && recorder.isRecording()) {
+            lastReplayProperty.set(recorder.finish(simulation));
+        }
+    }
 
-        // 7. SÓ liga o loop SE NÃO ESTIVER EM TESTE
-        //    (Esta é a correção para o bug do pulseTimer)
-        if (!isTestMode) {
-            lastDropTime = System.nanoTime();
+    /** Liga a thread da simulação e o pulso que espelha o estado (fora do modo de teste). */
+    private void resumeLoop() {
+        if (!isTestMode && simulation.getState() != GameState.GAME_OVER) {
+            simulationThread.start();
             gameLoop.start();
         }
     }
 
-    /*private*/ void spawnNewPiece() {
-        currentPiece = nextPiece;
-        nextPiece = TetrominoFactory.getRandomTetromino();
-        nextPieceProperty.set(nextPiece);
-
-        canHold = true; // <-- CAPTURA UMA VEZ POR PEÇA
+    /** Para a thread da simulação (ex: ao fechar a janela). */
+    public void shutdown() {
+        simulationThread.stop();
+        gameLoop.stop();
+        sync();
+    }
 
-        if (!board.isValidPosition(currentPiece)) {
-            gameState.set(GameState.GAME_OVER);
-            if (!isTestMode) { // <-- PROTEÇÃO ADICIONADA
-                gameLoop.stop();
-            }
+    /**
+     * Publica a peça para a UI num adaptador novo, ou null para {@link PackedPiece#NONE}:
+     * a propriedade avisa uma vez só, e o valor antigo que os listeners recebem
+     * não é reescrito. Mesmo estado empacotado = nada a avisar. Só aloca quando
+     * next/hold mudam (uma vez por peça, não por quadro).
+     * @return O estado publicado.
+     */
+    private static int publish(ObjectProperty<Tetromino> property, int published, int packed) {
+        if (packed == published) {
+            return published;
         }
+        property.set(toPiece(packed));
+        return packed;
     }
 
-    /*private*/ void updateScore(int cleared) {
-        linesCleared.set(linesCleared.get() + cleared);
-        int points = switch (cleared) {
-            case 1 -> 40;
-            case 2 -> 100;
-            case 3 -> 300;
-            case 4 -> 1200; // Conhecido como "Tetris"
-            default -> 0;
-        };
-        score.set(score.get() + points * level.get());
-        updateLevel();
+    /** @return Um adaptador novo com o estado empacotado, ou null para {@link PackedPiece#NONE}. */
+    private static Tetromino toPiece(int packed) {
+        if (packed == PackedPiece.NONE) {
+            return null;
+        }
+        Tetromino piece = TetrominoFactory.create(PackedPiece.type(packed));
+        piece.setState(packed);
+        return piece;
     }
 
-    /*private*/ void updateLevel() {
-        level.set((linesCleared.get() / 10) + 1);
+    // ========================================================================
+    // ==     HASH DA POSIÇÃO      ==
+    // ========================================================================
+
+    /**
+     * Hash Zobrist de 64 bits da posição (ver {@link GameSimulation#getPositionHash()}).
+     * Usado para tabelas de transposição, deduplicação de replays e detecção de desync.
+     * Com a thread rodando, ela para um instante (ver {@link #readStopped}).
+     */
+    public long getPositionHash() {
+        return readStopped(GameSimulation::getPositionHash);
     }
 
-    private long getDropInterval() {
-        int currentLevel = level.get();
-        double seconds;
-        if (currentLevel <= 3) {
-            seconds = 1.0;
-        } else if (currentLevel <= 6) {
-            seconds = 0.7;
-        } else {
-            seconds = 0.4;
-        }
-        return (long) (seconds * 1_000_000_000L); // em nanossegundos
+    /** O mesmo hash recalculado do zero (varre o tabuleiro); serve para conferência. */
+    public long computePositionHash() {
+        return readStopped(GameSimulation::computePositionHash);
     }
 
+    // ========================================================================
+    // ==     ESTADO SALVO (usado pelo GameStateCodec)      ==
+    // ========================================================================
+
     /**
-     * NOVO MÉTODO: Lógica de "Segurar" (Hold)
-     * Troca a peça atual pela peça guardada.
+     * Lê a simulação de fora da thread dela: para a thread (rodando os comandos
+     * pendentes, como em initializeGame), lê e religa. A leitura vê um quadro
+     * inteiro, mas o jogo perde um quadro: não é para cada pulso.
      */
-    private void hold() {
-        // 1. Verifica a regra "uma vez por peça".
-        if (!canHold) {
-            return; // Já usou o hold nesta rodada, não faz nada.
+    <T> T readStopped(Function<GameSimulation, T> read) {
+        boolean wasRunning = simulationThread.stop();
+        try {
+            return read.apply(simulation);
+        } finally {
+            if (wasRunning) {
+                resumeLoop();
+            }
         }
+    }
 
-        if (heldPiece == null) {
-            // 2. Caso 1: Slot de "Hold" está vazio (primeira vez no jogo)
-            heldPiece = currentPiece;
-            spawnNewPiece(); // Pega uma peça nova do "next"
-        } else {
-            // 3. Caso 2: Troca a peça atual pela peça guardada
-            Tetromino temp = currentPiece;
-            currentPiece = heldPiece;
-            heldPiece = temp;
-
-            // 4. Reseta a posição da peça que saiu do "Hold" para o topo
-            //    (Assumindo que 3,0 é a sua posição inicial de spawn)
-            currentPiece.setX(3);
-            currentPiece.setY(0);
-
-            // 5. Verifica se a peça que saiu do "Hold" é válida no topo
-            if (!board.isValidPosition(currentPiece)) {
-                // Se a peça trocada colide imediatamente, é Game Over.
-                gameState.set(GameState.GAME_OVER);
-                if (!isTestMode) { // <-- PROTEÇÃO ADICIONADA
-                    gameLoop.stop();
-                }
+    /**
+     * Sobrescreve a simulação (ex: o codec carregando um estado) com a thread
+     * parada e atualiza as propriedades antes de religá-la.
+     */
+    void restore(Consumer<GameSimulation> restore) {
+        boolean wasRunning = simulationThread.stop();
+        try {
+            restore.accept(simulation);
+        } finally {
+            linesToClearProperty.set(null);
+            sync();
+            if (wasRunning) {
+                resumeLoop();
             }
         }
+    }
 
-        // 6. Atualiza a UI para mostrar a nova peça guardada
-        heldPieceProperty.set(heldPiece);
+    // ========================================================================
+    // ==     CONFIGURAÇÃO E CONSULTA      ==
+    // ========================================================================
+
+    /**
+     * @return A simulação por trás do motor (para replays, bots, rede). Enquanto
+     *         a thread da simulação roda, só ela pode mexer nisso (nem ler: use
+     *         o {@link GameStateCodec}, os hashes ou {@link #latestFrame()}).
+     */
+    public GameSimulation getSimulation() { return simulation; }
 
-        // 7. Trava o "Hold" até que uma nova peça apareça
-        canHold = false;
+    /**
+     * A foto mais recente para desenhar, sem esperar a simulação. Só para a
+     * thread do JavaFX (o consumidor do buffer triplo); vale até a próxima chamada.
+     */
+    public FrameSnapshot latestFrame() {
+        return frames.latest();
     }
 
+    /** @return O atraso dos quadros da thread da simulação em relação ao relógio. */
+    public TickJitter getTickJitter() { return simulationThread.getJitter(); }
+
+    /** @return O handler das teclas (para ajustar DAS, ARR e fator de queda suave). */
+    public InputHandler getInputHandler() { return inputHandler; }
+
     /**
      * NOVO MÉTODO: Permite que o teste "avise" ao GameEngine
      * que ele não deve tentar iniciar os timers de animação.
@@ -343,9 +443,94 @@ public class GameEngine {
         this.isTestMode = isTest;
     }
 
+    /** Escolhe o sistema de rotação (CLASSIC, o padrão, SRS ou ARS). */
+    public void setRotationSystem(RotationSystem rotationSystem) {
+        edit(sim -> sim.setRotationSystem(rotationSystem));
+    }
+
+    public RotationSystem getRotationSystem() { return simulation.getRotationSystem(); }
+
+    /** Escolhe a curva de gravidade (com o atraso de travamento padrão dela). */
+    public void setGravityCurve(GravityCurve curve) {
+        edit(sim -> sim.setGravityCurve(curve));
+    }
+
+    public GravityCurve getGravityCurve() { return simulation.getGravityCurve(); }
+
+    /** Escolhe o gerador de peças (vale a partir do próximo initializeGame()). */
+    public void setRandomizer(Randomizer.Kind kind) {
+        edit(sim -> sim.setRandomizer(kind));
+    }
+
+    public Randomizer.Kind getRandomizerKind() { return simulation.getRandomizerKind(); }
+
+    /**
+     * Fixa a semente dos próximos jogos (mesma semente = mesma sequência de peças).
+     * @param seed A semente, ou null para sortear uma nova a cada jogo.
+     */
+    public void setSeed(Long seed) {
+        edit(sim -> sim.setSeed(seed));
+    }
+
+    /**
+     * @return A semente do jogo atual (para guardar junto de um replay), como o
+     *         último pulso espelhou.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @param index 0 = a próxima peça (a mesma do nextPieceProperty), 1 = a seguinte...
+     *              até PREVIEW_DEPTH - 1. Como o último pulso espelhou (a fila da
+     *              simulação é só da thread dela).
+     */
+    public PieceType getPreview(int index) {
+        if (index < 0 || index >= PREVIEW_DEPTH) {
+            throw new IndexOutOfBoundsException("Posição " + index + " fora da prévia de " + PREVIEW_DEPTH);
+        }
+        return preview[index];
+    }
+
+    /** Dimensões do tabuleiro (fixas: servem de qualquer thread). */
+    public int getBoardWidth() { return simulation.getBoard().getWidth(); }
+    public int getBoardHeight() { return simulation.getBoard().getHeight(); }
+
+    /**
+     * Com a thread parada (testes), o tabuleiro da simulação em si. Com ela
+     * rodando, uma cópia solta montada da {@link #latestFrame()} (aloca; só na
+     * thread do JavaFX): escrever nela não muda o jogo.
+     */
+    public Board getBoard() {
+        if (!simulationThread.isRunning()) {
+            return simulation.getBoard();
+        }
+        FrameSnapshot frame = latestFrame();
+        Board copy = new Board(frame.getWidth(), frame.getHeight());
+        for (int y = 0; y < frame.getHeight(); y++) {
+            for (int x = 0; x < frame.getWidth(); x++) {
+                PieceType cell = frame.getCell(x, y);
+                if (cell != null) {
+                    copy.setCell(x, y, cell);
+                }
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Com a thread parada (testes), a peça em jogo da simulação em si. Com ela
+     * rodando, um adaptador novo com a peça da {@link #latestFrame()} (só na
+     * thread do JavaFX).
+     */
+    public Tetromino getCurrentPiece() {
+        if (!simulationThread.isRunning()) {
+            return simulation.getCurrentPiece();
+        }
+        return toPiece(latestFrame().getCurrent());
+    }
+
     // Getters para as propriedades, para a UI poder observá-las
-    public Board getBoard() { return board; }
-    public Tetromino getCurrentPiece() { return currentPiece; }
     public IntegerProperty scoreProperty() { return score; }
     public IntegerProperty levelProperty() { return level; }
     public IntegerProperty linesClearedProperty() { return linesCleared; }
@@ -354,7 +539,6 @@ public class GameEngine {
     // Getter para a propriedade da peça guardada (para a UI)
     public ObjectProperty<Tetromino> heldPieceProperty() {return heldPieceProperty;}
     public ObjectProperty<List<Integer>> linesToClearProperty() {return linesToClearProperty;}
-
-
-
-}
\ No newline at end of file
+    /** O replay da última partida terminada (para arquivar: {@link Replay#toBytes()}). */
+    public ObjectProperty<Replay> lastReplayProperty() { return lastReplayProperty; }
+}
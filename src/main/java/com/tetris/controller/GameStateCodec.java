@@ -0,0 +1,393 @@
+package com.tetris.controller;
+
+import com.tetris.model.Board;
+import com.tetris.model.GameState;
+import com.tetris.model.PieceType;
+import com.tetris.model.tetromino.PackedPiece;
+import com.tetris.model.tetromino.PieceDefinition;
+import com.tetris.model.tetromino.PieceQueue;
+import com.tetris.model.tetromino.Tetromino;
+import com.tetris.simulation.GameSimulation;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codec binário compacto do estado completo de uma {@link GameSimulation}
+ * (ou do {@link GameEngine} por cima dela): save states, sincronização em rede,
+ * armazenamento de posições em massa.
+ * Sem reflexão nem serialização Java: cada campo é escrito à mão.
+ *
+ * Formato (versão 2), em ordem:
+ * <pre>
+ *   byte    versão (2)
+ *   byte    largura - 1
+ *   byte    altura - 1
+ *   byte    flags: bit 0 = pode usar o hold, bit 1 = tem peça no hold,
+ *                  bit 2 = células com tipo, bits 3-4 = GameState
+ *   varint  linhas vazias no topo (não são escritas)
+ *   bits    ocupação das linhas restantes, 'largura' bits por linha (bit x = coluna x);
+ *           se "células com tipo", mais 4 bits (ordinal do PieceType) por célula ocupada.
+ *           O fluxo de bits é completado com zeros até fechar o byte.
+ *   peça    atual, próxima e (se houver) a do hold:
+ *           byte (tipo << 2 | rotação), varint zigzag x, varint zigzag y
+ *   varint  pontuação, nível, linhas
+ *   fila    a fila de peças com o gerador ({@link PieceQueue#writeTo}): tipo, semente e
+ *           estado do gerador (mais o saco ou o histórico), profundidade e as peças
+ *           à frente; a sequência de peças continua exatamente igual depois do decode.
+ * </pre>
+ * Num jogo normal todas as células travadas são LOCKED e o tipo não é escrito:
+ * um 10x20 cabe em no máximo 86 bytes (25 do tabuleiro cheio, até 32 da fila).
+ */
+public final class GameStateCodec {
+
+    public static final int VERSION = 2;
+
+    private static final int FLAG_CAN_HOLD = 1;
+    private static final int FLAG_HAS_HELD = 1 << 1;
+    private static final int FLAG_TYPED_CELLS = 1 << 2;
+    private static final int STATE_SHIFT = 3;
+
+    private static final int TYPE_BITS = 4;
+
+    private GameStateCodec() {
+    }
+
+    // ========================================================================
+    // ==     CODIFICAÇÃO      ==
+    // ========================================================================
+
+    /**
+     * Escreve o estado do jogo a partir da posição atual do buffer (com a
+     * thread da simulação parada enquanto isso; ver {@link GameEngine#readStopped}).
+     * @throws java.nio.BufferOverflowException se o buffer não tiver espaço.
+     */
+    public static void encode(GameEngine engine, ByteBuffer out) {
+        engine.readStopped(simulation -> {
+            encode(simulation, out);
+            return out;
+        });
+    }
+
+    /** Conveniência: codifica num array do tamanho exato. */
+    public static byte[] encode(GameEngine engine) {
+        return engine.readStopped(GameStateCodec::encode);
+    }
+
+    /**
+     * Escreve o estado da simulação a partir da posição atual do buffer.
+     * @throws java.nio.BufferOverflowException se o buffer não tiver espaço.
+     */
+    public static void encode(GameSimulation simulation, ByteBuffer out) {
+        Board board = simulation.getBoard();
+        int width = board.getWidth();
+        int height = board.getHeight();
+
+        int emptyTop = 0;
+        while (emptyTop < height && board.getRowFill(emptyTop) == 0) {
+            emptyTop++;
+        }
+        boolean typed = false;
+        for (int y = emptyTop; y < height && !typed; y++) {
+            for (int x = 0; x < width; x++) {
+                PieceType cell = board.getCell(x, y);
+                if (cell != null && cell != PieceType.LOCKED) {
+                    typed = true;
+                    break;
+                }
+            }
+        }
+
+        Tetromino held = simulation.getHeldPiece();
+        int flags = simulation.getState().ordinal() << STATE_SHIFT;
+        if (simulation.isHoldAvailable()) flags |= FLAG_CAN_HOLD;
+        if (held != null) flags |= FLAG_HAS_HELD;
+        if (typed) flags |= FLAG_TYPED_CELLS;
+
+        out.put((byte) VERSION);
+        out.put((byte) (width - 1));
+        out.put((byte) (height - 1));
+        out.put((byte) flags);
+        writeVarInt(out, emptyTop);
+
+        BitWriter bits = new BitWriter(out);
+        for (int y = emptyTop; y < height; y++) {
+            for (int word = 0; word * Long.SIZE < width; word++) {
+                bits.write(board.getRowWord(y, word), Math.min(Long.SIZE, width - word * Long.SIZE));
+            }
+        }
+        if (typed) {
+            for (int y = emptyTop; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    PieceType cell = board.getCell(x, y);
+                    if (cell != null) {
+                        bits.write(cell.ordinal(), TYPE_BITS);
+                    }
+                }
+            }
+        }
+        bits.flush();
+
+        writePiece(out, simulation.getCurrentPiece());
+        writePiece(out, simulation.getNextPiece());
+        if (held != null) {
+            writePiece(out, held);
+        }
+        writeVarInt(out, simulation.getScore());
+        writeVarInt(out, simulation.getLevel());
+        writeVarInt(out, simulation.getLinesCleared());
+        simulation.getPieceQueue().writeTo(out);
+    }
+
+    /** Conveniência: codifica num array do tamanho exato. */
+    public static byte[] encode(GameSimulation simulation) {
+        Board board = simulation.getBoard();
+        ByteBuffer buffer = ByteBuffer.allocate(maxEncodedSize(board.getWidth(), board.getHeight()));
+        encode(simulation, buffer);
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /** @return O maior tamanho possível (em bytes) de um estado codificado com essas dimensões. */
+    public static int maxEncodedSize(int width, int height) {
+        int cells = width * height;
+        int boardBytes = (cells + cells * TYPE_BITS + 7) / 8;
+        // cabeçalho (4 + varint) + 3 peças (1 + 2 varints de 5) + 3 varints de 5 + fila
+        return 4 + 5 + boardBytes + 3 * 11 + 3 * 5 + PieceQueue.maxEncodedSize(GameSimulation.PREVIEW_DEPTH);
+    }
+
+    // ========================================================================
+    // ==     DECODIFICAÇÃO      ==
+    // ========================================================================
+
+    /**
+     * Lê um estado e cria um GameEngine novo com as dimensões gravadas.
+     * @throws IllegalArgumentException se a versão ou algum campo for inválido.
+     */
+    public static GameEngine decode(ByteBuffer in) {
+        int start = in.position();
+        readVersion(in);
+        int width = (in.get() & 0xFF) + 1;
+        int height = (in.get() & 0xFF) + 1;
+        in.position(start);
+        GameEngine engine = new GameEngine(width, height);
+        decode(in, engine);
+        return engine;
+    }
+
+    /** Como {@link #decode(ByteBuffer)}, mas cria só a simulação (sem JavaFX). */
+    public static GameSimulation decodeSimulation(ByteBuffer in) {
+        int start = in.position();
+        readVersion(in);
+        int width = (in.get() & 0xFF) + 1;
+        int height = (in.get() & 0xFF) + 1;
+        in.position(start);
+        GameSimulation simulation = new GameSimulation(width, height);
+        decode(in, simulation);
+        return simulation;
+    }
+
+    /**
+     * Lê um estado por cima de um GameEngine existente (ex: rollback, load),
+     * com a thread da simulação parada enquanto isso.
+     * @throws IllegalArgumentException se as dimensões gravadas forem diferentes das do tabuleiro.
+     */
+    public static void decode(ByteBuffer in, GameEngine engine) {
+        engine.restore(simulation -> decode(in, simulation));
+    }
+
+    /**
+     * Lê um estado por cima de uma simulação existente.
+     * @throws IllegalArgumentException se as dimensões gravadas forem diferentes das do tabuleiro.
+     */
+    public static void decode(ByteBuffer in, GameSimulation simulation) {
+        readVersion(in);
+        Board board = simulation.getBoard();
+        int width = (in.get() & 0xFF) + 1;
+        int height = (in.get() & 0xFF) + 1;
+        if (width != board.getWidth() || height != board.getHeight()) {
+            throw new IllegalArgumentException("Estado de " + width + "x" + height
+                    + " não serve num tabuleiro " + board.getWidth() + "x" + board.getHeight());
+        }
+        int flags = in.get() & 0xFF;
+        int stateOrdinal = flags >>> STATE_SHIFT;
+        GameState[] states = GameState.values();
+        if (stateOrdinal >= states.length) {
+            throw new IllegalArgumentException("Estado de jogo inválido: " + stateOrdinal);
+        }
+        int emptyTop = readVarInt(in);
+        if (emptyTop > height) {
+            throw new IllegalArgumentException("Linhas vazias demais: " + emptyTop);
+        }
+
+        board.clear();
+        BitReader bits = new BitReader(in);
+        PieceType locked = PieceType.LOCKED;
+        for (int y = emptyTop; y < height; y++) {
+            for (int word = 0; word * Long.SIZE < width; word++) {
+                int count = Math.min(Long.SIZE, width - word * Long.SIZE);
+                long mask = bits.read(count);
+                for (; mask != 0; mask &= mask - 1) {
+                    board.setCell(word * Long.SIZE + Long.numberOfTrailingZeros(mask), y, locked);
+                }
+            }
+        }
+        if ((flags & FLAG_TYPED_CELLS) != 0) {
+            PieceType[] types = PieceType.values();
+            for (int y = emptyTop; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (board.getCell(x, y) != null) {
+                        int type = (int) bits.read(TYPE_BITS);
+                        if (type >= types.length) {
+                            throw new IllegalArgumentException("Tipo de célula inválido: " + type);
+                        }
+                        board.setCell(x, y, types[type]);
+                    }
+                }
+            }
+        }
+
+        int current = readPiece(in);
+        int next = readPiece(in);
+        int held = (flags & FLAG_HAS_HELD) != 0 ? readPiece(in) : PackedPiece.NONE;
+        int score = readVarInt(in);
+        int level = readVarInt(in);
+        int lines = readVarInt(in);
+        PieceQueue queue = PieceQueue.readFrom(in);
+        if (queue.getDepth() != GameSimulation.PREVIEW_DEPTH) {
+            throw new IllegalArgumentException("Fila de " + queue.getDepth() + " peças, a simulação usa "
+                    + GameSimulation.PREVIEW_DEPTH);
+        }
+        if (queue.peek(0) != PackedPiece.typeOrdinal(next)) {
+            throw new IllegalArgumentException("A próxima peça não é a frente da fila");
+        }
+
+        simulation.restoreState(current, next, held, queue, (flags & FLAG_CAN_HOLD) != 0,
+                score, level, lines, states[stateOrdinal]);
+    }
+
+    private static void readVersion(ByteBuffer in) {
+        int version = in.get() & 0xFF;
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versão de estado não suportada: " + version);
+        }
+    }
+
+    // ========================================================================
+    // ==     PEÇAS E INTEIROS      ==
+    // ========================================================================
+
+    private static void writePiece(ByteBuffer out, Tetromino piece) {
+        int state = piece.getState();
+        out.put((byte) (PackedPiece.typeOrdinal(state) << 2 | PackedPiece.rotation(state)));
+        writeVarInt(out, zigZag(PackedPiece.x(state)));
+        writeVarInt(out, zigZag(PackedPiece.y(state)));
+    }
+
+    /** @return A peça lida, já empacotada (ver {@link PackedPiece}). */
+    private static int readPiece(ByteBuffer in) {
+        int packed = in.get() & 0xFF;
+        if ((packed >>> 2) >= PieceDefinition.count()) {
+            throw new IllegalArgumentException("Tipo de peça inválido: " + (packed >>> 2));
+        }
+        int x = unZigZag(readVarInt(in));
+        int y = unZigZag(readVarInt(in));
+        return PackedPiece.of(packed >>> 2, packed & 3, x, y); // IAE se x/y não couberem
+    }
+
+    /** Inteiro sem sinal em 7 bits por byte (o bit alto diz "tem mais"). */
+    static void writeVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint longo demais");
+    }
+
+    /** Leva inteiros pequenos com sinal para varints curtos (-1 -> 1, 1 -> 2). */
+    static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    // ========================================================================
+    // ==     FLUXO DE BITS (LSB primeiro)      ==
+    // ========================================================================
+
+    private static final class BitWriter {
+        private final ByteBuffer out;
+        private int pending;     // Bits ainda não escritos (sempre menos de 8)
+        private int pendingBits;
+
+        BitWriter(ByteBuffer out) {
+            this.out = out;
+        }
+
+        /** Escreve os 'count' (1..64) bits mais baixos de 'value'. */
+        void write(long value, int count) {
+            for (int written = 0; written < count; ) {
+                int take = Math.min(count - written, 8 - pendingBits);
+                pending |= (int) ((value >>> written) & ((1L << take) - 1)) << pendingBits;
+                pendingBits += take;
+                written += take;
+                if (pendingBits == 8) {
+                    out.put((byte) pending);
+                    pending = 0;
+                    pendingBits = 0;
+                }
+            }
+        }
+
+        /** Completa o último byte com zeros. */
+        void flush() {
+            if (pendingBits > 0) {
+                out.put((byte) pending);
+                pending = 0;
+                pendingBits = 0;
+            }
+        }
+    }
+
+    private static final class BitReader {
+        private final ByteBuffer in;
+        private int current;
+        private int available;
+
+        BitReader(ByteBuffer in) {
+            this.in = in;
+        }
+
+        /** Lê 'count' (1..64) bits. */
+        long read(int count) {
+            long value = 0;
+            for (int read = 0; read < count; ) {
+                if (available == 0) {
+                    current = in.get() & 0xFF;
+                    available = 8;
+                }
+                int take = Math.min(count - read, available);
+                value |= (long) (current & ((1 << take) - 1)) << read;
+                current >>>= take;
+                available -= take;
+                read += take;
+            }
+            return value;
+        }
+    }
+}
@@ -1,166 +1,886 @@
 package com.tetris.model;
 
+import com.tetris.model.tetromino.PackedPiece;
+import com.tetris.model.tetromino.PieceShape;
 import com.tetris.model.tetromino.Tetromino;
-// O import de 'javafx.scene.paint.Color' foi REMOVIDO!
-import com.tetris.model.PieceType; // <-- IMPORTA O NOVO ENUM
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 
 /**
  * Representa o tabuleiro (grelha) do jogo.
- * (Versão 2 - Refatorada para usar PieceType[][] em vez de Color[][])
+ * (Versão 4 - Bitboard com dimensões por instância + PieceType[][] para o desenho)
+ *
+ * A colisão é feita só com as máscaras de bits: cada linha do tabuleiro é uma
+ * máscara (bit x = coluna x) e cada linha da peça também, então testar uma linha
+ * custa um deslocamento e um AND. O PieceType[][] continua existindo apenas como
+ * "array lateral" para a View saber qual textura desenhar.
+ *
+ * As dimensões são escolhidas na construção (o padrão continua 10x20) e o
+ * armazenamento das máscaras é especializado pela largura (ver {@link RowStorage}):
+ * 'int' por linha até 32 colunas, 'long' até 64, várias palavras acima disso.
+ *
+ * As linhas do array lateral ficam num ANEL: a linha lógica 'y' mora na linha
+ * física (ringBase + y) % altura. Limpar k linhas só troca referências abaixo
+ * da linha removida mais alta, gira o anel em k e apaga k linhas físicas -
+ * nenhuma célula é copiada.
+ *
+ * {@link #snapshot()} tira uma foto imutável ({@link BoardSnapshot}) que
+ * COMPARTILHA as linhas de células com o tabuleiro: cada linha só é copiada
+ * na primeira escrita depois da foto (copy-on-write por linha).
+ *
+ * O hash Zobrist da ocupação ({@link #getHash()}) também é incremental:
+ * cada linha guarda o XOR das chaves das suas colunas ocupadas (ver {@link ZobristKeys}).
+ *
+ * Outras threads leem pelo {@link BoardView} ({@link #view()}): cada método que
+ * escreve no tabuleiro passa por um seqlock (contador de versão ímpar durante a
+ * escrita), e o leitor copia as células e tenta de novo se a versão mudou.
+ * O Board continua sendo de UMA thread escritora, que nunca espera por leitores.
  */
 public class Board {
+    /** Dimensões do tabuleiro padrão (as de {@link #Board()}). */
     public static final int WIDTH = 10;
     public static final int HEIGHT = 20;
 
-    // --- A MUDANÇA CENTRAL ESTÁ AQUI ---
-    // O grid agora armazena o "Tipo" do bloco, não a "Cor".
-    private final PieceType[][] grid;
+    /** Maior largura/altura aceita (limite das tabelas do {@link ZobristKeys}). */
+    public static final int MAX_DIMENSION = ZobristKeys.MAX_DIMENSION;
+
+    private final int width;
+    private final int height;
+
+    // Array lateral: o "Tipo" de cada bloco (só para renderização).
+    // Indexado por linha FÍSICA (ver physicalRow()).
+    private final PieceType[][] cells;
+    private int ringBase; // Linha física onde está a linha lógica 0
+
+    // Copy-on-write: a linha física p só pode ser escrita no lugar se
+    // rowEpoch[p] == epoch. Cada snapshot() incrementa 'epoch', o que
+    // marca TODAS as linhas atuais como compartilhadas em O(1).
+    private final long[] rowEpoch;
+    private long epoch;
+
+    // Bitboard: o bit x da linha y está ligado se a célula (x, y) está ocupada.
+    private final RowStorage rows;
+
+    // Linhas cheias mantidas de forma incremental (placePiece/removeLines/clear):
+    // quantas existem e o intervalo [fullTop, fullBottom] onde elas estão.
+    // Depois de um lock, o intervalo é exatamente o das linhas que a peça tocou.
+    private int fullRowCount;
+    private int fullTop;
+    private int fullBottom = -1;
+
+    // Hash Zobrist: rowContent[y] = XOR das chaves das colunas ocupadas da linha
+    // lógica 'y'; 'hash' = XOR das contribuições (conteúdo, posição) de todas as linhas.
+    private final long[] rowContent;
+    private long hash;
+
+    // Índice das colunas, mantido de forma incremental:
+    // columnHeights[x] = altura da pilha (0 = coluna vazia, height = até o topo);
+    // columnFill[x] = blocos na coluna. Buracos = altura - blocos.
+    private final int[] columnHeights;
+    private final int[] columnFill;
 
+    // Seqlock: ímpar enquanto um método de escrita está no meio do caminho.
+    // Só a thread dona do Board escreve; leitores comparam antes/depois da cópia.
+    private long version;
+    private static final VarHandle VERSION;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(Board.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private BoardView view;
+
+    /** Cria o tabuleiro padrão ({@value #WIDTH}x{@value #HEIGHT}). */
     public Board() {
-        grid = new PieceType[HEIGHT][WIDTH]; // <-- MUDOU DE Color[][]
+        this(WIDTH, HEIGHT);
     }
 
+    /**
+     * Cria um tabuleiro com as dimensões dadas (ex: 40x80 cooperativo, 64 de largura).
+     * @throws IllegalArgumentException se alguma dimensão estiver fora de 1..{@value #MAX_DIMENSION}.
+     */
+    public Board(int width, int height) {
+        if (width < 1 || width > MAX_DIMENSION || height < 1 || height > MAX_DIMENSION) {
+            throw new IllegalArgumentException("Dimensões inválidas: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        cells = new PieceType[height][width];
+        rowEpoch = new long[height];
+        rows = RowStorage.forWidth(width, height);
+        rowContent = new long[height];
+        columnHeights = new int[width];
+        columnFill = new int[width];
+        fullTop = height;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
     // ========================================================================
-    // ==     MÉTODOS DE COLISÃO (LÓGICA 100% INALTERADA)      ==
+    // ==     MÉTODOS DE COLISÃO (BITBOARD)      ==
     // ========================================================================
-    // A lógica de 'grid[boardY][boardX] != null' funciona perfeitamente
-    // para qualquer tipo de objeto (Color ou PieceType).
 
+    /**
+     * Versão genérica (aceita qualquer matriz, ex: {{1}} nos testes).
+     * Monta a máscara de cada linha da forma e testa a linha inteira de uma vez.
+     */
     public boolean isValidPosition(int[][] shape, int pieceX, int pieceY) {
         for (int y = 0; y < shape.length; y++) {
-            for (int x = 0; x < shape[y].length; x++) {
-                if (shape[y][x] != 0) { // É um bloco da peça
-
-                    int boardX = pieceX + x; // Usa o parâmetro pieceX
-                    int boardY = pieceY + y; // Usa o parâmetro pieceY
-
-                    // 1. Verificação de colisão com as bordas
-                    if (boardX < 0 || boardX >= WIDTH || boardY >= HEIGHT) {
-                        return false;
-                    }
-
-                    // 2. Verificação de colisão com peças já posicionadas
-                    if (boardY >= 0 && grid[boardY][boardX] != null) {
-                        return false;
-                    }
+            int[] line = shape[y];
+            int mask = 0;
+            for (int x = 0; x < line.length; x++) {
+                if (line[x] != 0) {
+                    mask |= 1 << x;
                 }
             }
+            if (mask != 0 && !rowFits(mask, pieceX, pieceY + y)) {
+                return false;
+            }
         }
         return true; // Posição é válida!
     }
 
+    /**
+     * Versão rápida: recebe as máscaras de linha já calculadas da peça
+     * (ver {@link Tetromino#getShapeMasks()}). Custo: um shift + AND por linha.
+     */
+    public boolean isValidPosition(int[] shapeMasks, int pieceX, int pieceY) {
+        for (int y = 0; y < shapeMasks.length; y++) {
+            int mask = shapeMasks[y];
+            if (mask != 0 && !rowFits(mask, pieceX, pieceY + y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Versão pré-compilada: só as linhas da caixa envolvente da forma são testadas
+     * (ver {@link PieceShape}).
+     */
+    public boolean isValidPosition(PieceShape shape, int pieceX, int pieceY) {
+        for (int y = shape.getMinY(); y <= shape.getMaxY(); y++) {
+            int mask = shape.getRowMask(y);
+            if (mask != 0 && !rowFits(mask, pieceX, pieceY + y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public boolean isValidPosition(Tetromino piece) {
-        return isValidPosition(piece.getShape(), piece.getX(), piece.getY());
+        return isValidPosition(piece.getPieceShape(), piece.getX(), piece.getY());
+    }
+
+    /** Versão para o estado empacotado (ver {@link PackedPiece}): não aloca nada. */
+    public boolean isValidPosition(int packedPiece) {
+        return isValidPosition(PackedPiece.shape(packedPiece), PackedPiece.x(packedPiece), PackedPiece.y(packedPiece));
+    }
+
+    /**
+     * Testa UMA linha da peça contra o tabuleiro.
+     * @param mask  Máscara da linha da peça (bit x = coluna x da forma).
+     * @param pieceX Deslocamento horizontal da peça.
+     * @param boardY Linha do tabuleiro onde essa linha da peça cairia.
+     */
+    private boolean rowFits(int mask, int pieceX, int boardY) {
+        // 1. Borda inferior
+        if (boardY >= height) {
+            return false;
+        }
+
+        // 2. Acima do topo só contam as bordas laterais
+        if (boardY < 0) {
+            return rowFitsSideways(mask, pieceX);
+        }
+
+        // 3. Bordas laterais + colisão com peças já posicionadas (no armazenamento)
+        return rows.fits(mask, pieceX, boardY);
+    }
+
+    /** Nenhum bit da linha da peça pode "sair" do tabuleiro pelos lados. */
+    private boolean rowFitsSideways(int mask, int pieceX) {
+        int low = pieceX + Integer.numberOfTrailingZeros(mask);
+        int high = pieceX + (Integer.SIZE - 1 - Integer.numberOfLeadingZeros(mask));
+        return low >= 0 && high < width;
     }
 
     // ========================================================================
-    // ==     MÉTODOS DE MANIPULAÇÃO DO GRID (MODIFICADOS)      ==
+    // ==     MÉTODOS DE MANIPULAÇÃO DO GRID      ==
     // ========================================================================
 
     /**
      * Fixa um tetrominó no tabuleiro.
-     * IMPLEMENTA A SUA IDEIA: Todas as peças travadas são salvas
-     * com o tipo 'LOCKED' (para que a View possa pintá-las de cinza).
+     * Todas as peças travadas são salvas com o tipo 'LOCKED'
+     * (para que a View possa pintá-las de cinza).
+     * Assume que a posição já foi validada com isValidPosition().
      * @param piece O tetrominó a ser fixado.
      */
     public void placePiece(Tetromino piece) {
-        int[][] shape = piece.getShape();
+        placePiece(piece.getPieceShape(), piece.getX(), piece.getY());
+    }
 
-        for (int y = 0; y < shape.length; y++) {
-            for (int x = 0; x < shape[y].length; x++) {
-                if (shape[y][x] != 0) {
-                    int boardX = piece.getX() + x;
-                    int boardY = piece.getY() + y;
-                    if (boardY >= 0) {
-                        // Em vez de salvar a cor/tipo da peça (piece.getType()),
-                        // nós salvamos o tipo "LOCKED" (Travado).
-                        grid[boardY][boardX] = PieceType.LOCKED;
+    /** Fixa uma peça dada pelo estado empacotado (ver {@link PackedPiece}). */
+    public void placePiece(int packedPiece) {
+        placePiece(PackedPiece.shape(packedPiece), PackedPiece.x(packedPiece), PackedPiece.y(packedPiece));
+    }
+
+    /** Fixa uma forma pré-compilada na posição (pieceX, pieceY). */
+    public void placePiece(PieceShape shape, int pieceX, int pieceY) {
+        beginWrite();
+        try {
+            // Só as linhas da caixa envolvente (as 4 células estão nelas)
+            for (int y = shape.getMinY(); y <= shape.getMaxY(); y++) {
+                int mask = shape.getRowMask(y);
+                int boardY = pieceY + y;
+                if (mask == 0 || boardY < 0) {
+                    continue;
+                }
+                boolean wasFull = rows.isFull(boardY);
+                rows.or(mask, pieceX, boardY);
+                trackFullRow(boardY, wasFull);
+
+                // Atualiza o array lateral e o índice das colunas só nas colunas ligadas
+                PieceType[] line = writableRow(boardY);
+                int cellHeight = height - boardY;
+                long addedContent = 0;
+                for (int bits = mask; bits != 0; bits &= bits - 1) {
+                    int x = pieceX + Integer.numberOfTrailingZeros(bits);
+                    line[x] = PieceType.LOCKED;
+                    addedContent ^= ZobristKeys.column(x);
+                    columnFill[x]++;
+                    if (cellHeight > columnHeights[x]) {
+                        columnHeights[x] = cellHeight;
                     }
                 }
+                setRowContent(boardY, rowContent[boardY] ^ addedContent);
             }
+        } finally {
+            endWrite();
         }
     }
 
     /**
-     * Encontra as linhas cheias. A lógica é a mesma ('== null').
+     * Encontra as linhas cheias (comparação direta da máscara com a linha cheia).
+     * Versão de compatibilidade: aloca a lista. O jogo usa {@link #findFullLines(int[])}.
      * @return Uma lista com os números (índices 'y') das linhas cheias.
      */
     public List<Integer> findFullLines() {
-        List<Integer> fullLines = new ArrayList<>();
-
-        for (int y = HEIGHT - 1; y >= 0; y--) {
-            boolean lineIsFull = true;
-            for (int x = 0; x < WIDTH; x++) {
-                if (grid[y][x] == null) {
-                    lineIsFull = false;
-                    break;
-                }
-            }
-            if (lineIsFull) {
-                fullLines.add(y);
-            }
+        int[] buffer = new int[height];
+        int count = findFullLines(buffer);
+        List<Integer> fullLines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            fullLines.add(buffer[i]);
         }
         return fullLines;
     }
 
     /**
-     * Remove fisicamente as linhas do grid e desce as de cima.
-     * @param linesToRemove A lista de linhas (índices 'y') para remover.
+     * Encontra as linhas cheias SEM alocar nada.
+     * Não varre o tabuleiro: usa o contador incremental (O(1) quando não há
+     * linhas cheias) e só olha o intervalo onde elas podem estar - depois de
+     * um lock, as linhas que a peça tocou.
+     * @param buffer Array reutilizável do chamador (getHeight() posições bastam sempre;
+     *               depois de um lock, o número de linhas da forma da peça basta).
+     * @return Quantas linhas cheias foram escritas no buffer, de baixo para cima
+     *         (ordem decrescente de 'y', a ordem que {@link #removeLines(int[], int)} espera).
      */
+    public int findFullLines(int[] buffer) {
+        if (fullRowCount == 0) {
+            return 0;
+        }
+        int count = 0;
+        for (int y = fullBottom; y >= fullTop; y--) {
+            if (rows.isFull(y)) {
+                buffer[count++] = y;
+            }
+        }
+        return count;
+    }
+
     /**
-     * MÉTODO CORRIGIDO (O Bug do Multi-Line Clear)
      * Remove fisicamente as linhas do grid e desce as de cima.
-     * Esta lógica (com o contador 'linesToMoveDown') garante que
-     * a "descida" (drop down) funcione para múltiplas linhas.
-     * (Agora adaptada para PieceType[][])
+     * Versão de compatibilidade (aceita a lista em qualquer ordem).
+     * @param linesToRemove A lista de linhas (índices 'y') para remover.
      */
     public void removeLines(List<Integer> linesToRemove) {
-        // 1. Ordena a lista em ordem crescente (ex: [16, 17, 18, 19])
-        Collections.sort(linesToRemove);
+        // (Índices fora do tabuleiro são ignorados, como antes)
+        int[] lines = linesToRemove.stream()
+                .mapToInt(Integer::intValue)
+                .filter(y -> y >= 0 && y < height)
+                .sorted()
+                .toArray();
+        // removeLines(int[], int) quer ordem decrescente
+        for (int i = 0, j = lines.length - 1; i < j; i++, j--) {
+            int tmp = lines[i];
+            lines[i] = lines[j];
+            lines[j] = tmp;
+        }
+        removeLines(lines, lines.length);
+    }
+
+    /**
+     * Remove as linhas e compacta o tabuleiro NO LUGAR, sem alocar.
+     * As máscaras (uma por linha) descem numa passada de baixo para cima;
+     * as linhas de células não são copiadas: ver {@link #rotateRowsOut(int[], int)}.
+     * @param lines Índices 'y' das linhas (0 a getHeight()-1), em ordem DECRESCENTE
+     *              (exatamente o que {@link #findFullLines(int[])} produz).
+     * @param count Quantas posições de 'lines' usar.
+     */
+    public void removeLines(int[] lines, int count) {
+        beginWrite();
+        try {
+            if (count == 0) {
+                return;
+            }
+
+            int next = 0;            // Próxima linha a remover (em 'lines')
+            int write = height - 1;  // Para onde a próxima linha sobrevivente desce
+            resetFullRows();         // Recontadas durante a própria passada
+
+            for (int y = height - 1; y >= 0; y--) {
+                if (next < count && lines[next] == y) {
+                    // Linha removida: não é copiada (pula repetições, se houver)
+                    if (rows.isFull(y)) { // O caso comum: todas as colunas perdem um bloco
+                        for (int x = 0; x < width; x++) {
+                            columnFill[x]--;
+                        }
+                    } else {
+                        for (int x = rows.nextSetBit(y, 0); x >= 0; x = rows.nextSetBit(y, x + 1)) {
+                            columnFill[x]--;
+                        }
+                    }
+                    hash ^= ZobristKeys.rowContribution(rowContent[y], y);
+                    while (next < count && lines[next] == y) {
+                        next++;
+                    }
+                } else {
+                    if (write != y) {
+                        rows.copyRow(y, write);
+                        long content = rowContent[y];
+                        hash ^= ZobristKeys.rowContribution(content, y)
+                                ^ ZobristKeys.rowContribution(content, write);
+                        rowContent[write] = content;
+                    }
+                    trackFullRow(write, false);
+                    write--;
+                }
+            }
 
-        // 2. Itera de baixo para cima no tabuleiro
-        int linesToMoveDown = 0; // Contador de "espaços vazios"
+            // Limpa as máscaras do topo (que agora estão vazias)
+            for (int y = write; y >= 0; y--) {
+                rows.clearRow(y);
+                rowContent[y] = 0;
+            }
 
-        for (int y = HEIGHT - 1; y >= 0; y--) {
-            if (linesToRemove.contains(y)) {
-                // Se a linha 'y' está na lista de remoção,
-                // apenas incrementamos o contador de "espaços".
-                linesToMoveDown++;
-            } else if (linesToMoveDown > 0) {
-                // Se a linha 'y' NÃO está na lista, mas temos "espaços"
-                // abaixo dela, nós a movemos para baixo.
+            rotateRowsOut(lines, count);
 
-                // Move a linha 'y' para a posição 'y + linesToMoveDown'
-                System.arraycopy(grid[y], 0, grid[y + linesToMoveDown], 0, WIDTH);
+            // As pilhas só podem ter baixado: procura o novo topo a partir do antigo
+            for (int x = 0; x < width; x++) {
+                recomputeColumnHeight(x, height - columnHeights[x]);
+            }
+        } finally {
+            endWrite();
+        }
+    }
+
+    /**
+     * Tira as linhas removidas do anel de linhas de células.
+     * 1. Abaixo da linha removida mais alta, as sobreviventes "sobem" trocando
+     *    referências, empurrando as removidas para o fim (linhas lógicas H-k..H-1).
+     * 2. O anel gira k posições: as removidas viram as k linhas do topo e
+     *    tudo acima da linha removida mais alta desce k sem ser tocado.
+     * 3. Só essas k linhas físicas são apagadas.
+     * Custo: O(linhas abaixo da remoção + k * largura), em vez de O(altura * largura).
+     */
+    private void rotateRowsOut(int[] lines, int count) {
+        int top = lines[count - 1]; // A menor (mais alta) linha removida
+        int next = count - 1;
+        int write = top;
 
-                // E limpa a linha original 'y'
-                grid[y] = new PieceType[WIDTH];
+        for (int y = top; y < height; y++) {
+            if (next >= 0 && lines[next] == y) {
+                while (next >= 0 && lines[next] == y) {
+                    next--;
+                }
+            } else {
+                if (write != y) {
+                    int a = physicalRow(write);
+                    int b = physicalRow(y);
+                    PieceType[] tmp = cells[a];
+                    cells[a] = cells[b];
+                    cells[b] = tmp;
+                    long tmpEpoch = rowEpoch[a]; // A "posse" da linha vai junto
+                    rowEpoch[a] = rowEpoch[b];
+                    rowEpoch[b] = tmpEpoch;
+                }
+                write++;
             }
         }
 
-        // 3. Limpa as linhas do topo (que agora estão vazias)
-        for(int y = 0; y < linesToMoveDown; y++) {
-            grid[y] = new PieceType[WIDTH];
+        // [write, height) agora guarda as linhas removidas: apaga e gira o anel
+        for (int y = write; y < height; y++) {
+            blankRow(physicalRow(y));
         }
+        ringBase = physicalRow(write);
     }
 
-    /** Limpa o tabuleiro completamente (a lógica ' = null' é a mesma). */
+    /** Limpa o tabuleiro completamente. */
     public void clear() {
-        for (int y = 0; y < HEIGHT; y++) {
-            for (int x = 0; x < WIDTH; x++) {
-                grid[y][x] = null;
+        beginWrite();
+        try {
+            for (int y = 0; y < height; y++) {
+                blankRow(y);
+            }
+            rows.clearAll();
+            ringBase = 0;
+            Arrays.fill(rowContent, 0);
+            hash = 0;
+            Arrays.fill(columnHeights, 0);
+            Arrays.fill(columnFill, 0);
+            resetFullRows();
+        } finally {
+            endWrite();
+        }
+    }
+
+    // ========================================================================
+    // ==     ACESSO ÀS CÉLULAS      ==
+    // ========================================================================
+
+    /**
+     * Lê o tipo de uma célula sem expor o array interno
+     * (a View deve preferir este método a getGrid()).
+     */
+    public PieceType getCell(int x, int y) {
+        return row(y)[x];
+    }
+
+    /** Escreve uma célula mantendo o bitboard sincronizado. */
+    public void setCell(int x, int y, PieceType type) {
+        beginWrite();
+        try {
+            boolean wasOccupied = rows.get(x, y);
+            boolean wasFull = rows.isFull(y);
+            writableRow(y)[x] = type;
+            if (type != null) {
+                rows.set(x, y);
+            } else {
+                rows.clear(x, y);
+            }
+            trackFullRow(y, wasFull);
+
+            if (wasOccupied != (type != null)) {
+                setRowContent(y, rowContent[y] ^ ZobristKeys.column(x));
+                if (type != null) {
+                    columnFill[x]++;
+                    columnHeights[x] = Math.max(columnHeights[x], height - y);
+                } else {
+                    columnFill[x]--;
+                    if (height - y == columnHeights[x]) {
+                        recomputeColumnHeight(x, y + 1); // Tirou o bloco do topo
+                    }
+                }
+            }
+        } finally {
+            endWrite();
+        }
+    }
+
+    // ========================================================================
+    // ==     CONSULTAS DE PILHA (ALTURAS, BURACOS, QUEDA)      ==
+    // ========================================================================
+
+    /** @return A altura da pilha na coluna 'x' (0 = vazia). */
+    public int getColumnHeight(int x) {
+        return columnHeights[x];
+    }
+
+    /** @return Quantas células vazias existem abaixo do topo da coluna 'x'. */
+    public int getColumnHoles(int x) {
+        return columnHeights[x] - columnFill[x];
+    }
+
+    /** @return A soma dos buracos de todas as colunas. */
+    public int getTotalHoles() {
+        int holes = 0;
+        for (int x = 0; x < width; x++) {
+            holes += columnHeights[x] - columnFill[x];
+        }
+        return holes;
+    }
+
+    /** @return A maior altura de pilha do tabuleiro. */
+    public int getMaxHeight() {
+        int max = 0;
+        for (int x = 0; x < width; x++) {
+            max = Math.max(max, columnHeights[x]);
+        }
+        return max;
+    }
+
+    /**
+     * Quantas linhas a peça ainda pode cair a partir da posição atual
+     * (que deve ser válida).
+     * @see #dropDistance(int[], int[], int, int)
+     */
+    public int dropDistance(Tetromino piece) {
+        return dropDistance(piece.getPieceShape(), piece.getX(), piece.getY());
+    }
+
+    /** Queda do estado empacotado (ver {@link PackedPiece}). */
+    public int dropDistance(int packedPiece) {
+        return dropDistance(PackedPiece.shape(packedPiece), PackedPiece.x(packedPiece), PackedPiece.y(packedPiece));
+    }
+
+    /**
+     * Versão pré-compilada do cálculo de queda: só as colunas da caixa envolvente.
+     * @see #dropDistance(int[], int[], int, int)
+     */
+    public int dropDistance(PieceShape shape, int pieceX, int pieceY) {
+        int[] columnBottoms = shape.getColumnBottoms();
+        int distance = Integer.MAX_VALUE;
+        for (int c = shape.getMinX(); c <= shape.getMaxX(); c++) {
+            int bottom = columnBottoms[c];
+            if (bottom < 0) {
+                continue;
+            }
+            int surface = height - columnHeights[pieceX + c];
+            int cellY = pieceY + bottom;
+            if (cellY >= surface) {
+                return dropDistanceByProbing(shape.getRowMasks(), pieceX, pieceY);
             }
+            distance = Math.min(distance, surface - 1 - cellY);
         }
+        return distance == Integer.MAX_VALUE ? 0 : distance;
     }
 
     /**
-     * Retorna o grid lógico do jogo.
-     * @return Um grid 2D de PieceType.
+     * "Onde esta peça cai?" - calculado pelas alturas das colunas em O(largura da peça).
+     * Se a peça estiver abaixo do topo de alguma das suas colunas (encaixada
+     * debaixo de uma saliência), as alturas não dizem nada e o cálculo cai
+     * para o teste linha a linha com as máscaras.
+     * @param shapeMasks    Máscaras de linha da forma.
+     * @param columnBottoms Para cada coluna da forma, a linha do seu bloco mais baixo (-1 = coluna vazia).
+     * @param pieceX Posição X atual (válida).
+     * @param pieceY Posição Y atual (válida).
+     * @return Quantas linhas a peça pode descer (0 = já está apoiada).
      */
-    public PieceType[][] getGrid() { // <-- MUDOU O TIPO DE RETORNO
+    public int dropDistance(int[] shapeMasks, int[] columnBottoms, int pieceX, int pieceY) {
+        int distance = Integer.MAX_VALUE;
+        for (int c = 0; c < columnBottoms.length; c++) {
+            int bottom = columnBottoms[c];
+            if (bottom < 0) {
+                continue;
+            }
+            int surface = height - columnHeights[pieceX + c]; // Primeira linha ocupada (ou height)
+            int cellY = pieceY + bottom;
+            if (cellY >= surface) {
+                return dropDistanceByProbing(shapeMasks, pieceX, pieceY);
+            }
+            distance = Math.min(distance, surface - 1 - cellY);
+        }
+        return distance == Integer.MAX_VALUE ? 0 : distance;
+    }
+
+    private int dropDistanceByProbing(int[] shapeMasks, int pieceX, int pieceY) {
+        int distance = 0;
+        while (isValidPosition(shapeMasks, pieceX, pieceY + distance + 1)) {
+            distance++;
+        }
+        return distance;
+    }
+
+    /** Procura o topo da coluna 'x' a partir da linha 'fromRow' (para baixo). */
+    private void recomputeColumnHeight(int x, int fromRow) {
+        for (int y = Math.max(fromRow, 0); y < height; y++) {
+            if (rows.get(x, y)) {
+                columnHeights[x] = height - y;
+                return;
+            }
+        }
+        columnHeights[x] = 0;
+    }
+
+    /** @return Quantas células da linha 'y' estão ocupadas. */
+    public int getRowFill(int y) {
+        return rows.count(y);
+    }
+
+    /**
+     * @return A máscara de ocupação da linha 'y' (bit x = coluna x).
+     * @throws UnsupportedOperationException em tabuleiros com mais de 32 colunas
+     *         (use {@link #getRowWord(int, int)}).
+     */
+    public int getRowMask(int y) {
+        if (width > Integer.SIZE) {
+            throw new UnsupportedOperationException("Linha de " + width + " colunas não cabe num int");
+        }
+        return (int) rows.word(y, 0);
+    }
+
+    /** @return A palavra 'word' da linha 'y' (bits das colunas 64*word até 64*word+63). */
+    public long getRowWord(int y, int word) {
+        return rows.word(y, word);
+    }
+
+    /**
+     * Retorna uma cópia do grid lógico do jogo (aloca a cada chamada).
+     * ATENÇÃO: é uma cópia solta; escrever nela não muda o tabuleiro (use
+     * {@link #setCell(int, int, PieceType)}). Para ler, prefira {@link #getCell(int, int)}.
+     * @return Um grid 2D de PieceType (linha 0 = topo).
+     */
+    public PieceType[][] getGrid() {
+        PieceType[][] grid = new PieceType[height][];
+        for (int y = 0; y < height; y++) {
+            grid[y] = row(y).clone();
+        }
         return grid;
     }
-}
\ No newline at end of file
+
+    /** @return A linha física (no anel) da linha lógica 'y'. */
+    private int physicalRow(int y) {
+        int p = ringBase + y;
+        return p >= height ? p - height : p;
+    }
+
+    /** @return As células da linha lógica 'y' (somente leitura: pode ser de um snapshot). */
+    private PieceType[] row(int y) {
+        return cells[physicalRow(y)];
+    }
+
+    /** @return As células da linha lógica 'y', copiando-a antes se ela for compartilhada. */
+    private PieceType[] writableRow(int y) {
+        int p = physicalRow(y);
+        if (rowEpoch[p] != epoch) {
+            cells[p] = cells[p].clone();
+            rowEpoch[p] = epoch;
+        }
+        return cells[p];
+    }
+
+    /** Apaga a linha física 'p' (troca por uma nova se ela for compartilhada). */
+    private void blankRow(int p) {
+        if (rowEpoch[p] == epoch) {
+            Arrays.fill(cells[p], null);
+        } else {
+            cells[p] = new PieceType[width];
+            rowEpoch[p] = epoch;
+        }
+    }
+
+    // ========================================================================
+    // ==     SNAPSHOTS (PERSISTENTES)      ==
+    // ========================================================================
+
+    /**
+     * Tira uma foto imutável do tabuleiro.
+     * Custo: copia uma referência + uma máscara por linha; as linhas de células
+     * são compartilhadas, e só as que forem escritas depois serão copiadas.
+     * @return Um BoardSnapshot que não muda mais, não importa o que aconteça com o Board.
+     */
+    public BoardSnapshot snapshot() {
+        PieceType[][] sharedRows = new PieceType[height][];
+        for (int y = 0; y < height; y++) {
+            sharedRows[y] = row(y);
+        }
+        epoch++; // Todas as linhas atuais passam a ser compartilhadas
+        return new BoardSnapshot(width, height, rows.copy(), sharedRows);
+    }
+
+    /**
+     * Volta o tabuleiro para o estado de uma foto (desfazer, replay, rollback).
+     * As linhas da foto são reaproveitadas (compartilhadas), não copiadas.
+     * @throws IllegalArgumentException se a foto for de um tabuleiro de outras dimensões.
+     */
+    public void restore(BoardSnapshot snapshot) {
+        if (snapshot.getWidth() != width || snapshot.getHeight() != height) {
+            throw new IllegalArgumentException("Foto de " + snapshot.getWidth() + "x" + snapshot.getHeight()
+                    + " não serve num tabuleiro " + width + "x" + height);
+        }
+        beginWrite();
+        try {
+            epoch++; // Nenhuma linha atual pode ser escrita no lugar depois disso
+            ringBase = 0;
+            rows.copyFrom(snapshot.rows());
+            for (int y = 0; y < height; y++) {
+                cells[y] = snapshot.sharedRow(y);
+            }
+            rebuildIndexes();
+        } finally {
+            endWrite();
+        }
+    }
+
+    // ========================================================================
+    // ==     CÓPIA PLANA (ROLLBACK)      ==
+    // ========================================================================
+
+    /**
+     * Copia as células para 'dest' (a célula (x, y) vai para dest[y * largura + x]).
+     * Ao contrário de {@link #snapshot()}, não compartilha nada com o tabuleiro:
+     * reaproveitando 'dest', salvar a cada quadro não aloca (ex: o anel de rollback).
+     */
+    public void copyCellsInto(PieceType[] dest) {
+        checkCellBuffer(dest);
+        copyCellsRacy(dest);
+    }
+
+    /**
+     * Volta o tabuleiro para as células de uma cópia feita por {@link #copyCellsInto(PieceType[])},
+     * escrevendo nas linhas atuais (só copia as que estiverem compartilhadas com snapshots).
+     */
+    public void loadCells(PieceType[] src) {
+        checkCellBuffer(src);
+        beginWrite();
+        try {
+            for (int y = 0; y < height; y++) {
+                PieceType[] line = writableRow(y);
+                System.arraycopy(src, y * width, line, 0, width);
+                rows.clearRow(y);
+                for (int x = 0; x < width; x++) {
+                    if (line[x] != null) {
+                        rows.set(x, y);
+                    }
+                }
+            }
+            rebuildIndexes();
+        } finally {
+            endWrite();
+        }
+    }
+
+    private void checkCellBuffer(PieceType[] buffer) {
+        if (buffer.length != width * height) {
+            throw new IllegalArgumentException("Esperava " + width * height + " células, veio " + buffer.length);
+        }
+    }
+
+    // ========================================================================
+    // ==     LEITURA CONCORRENTE (SEQLOCK)      ==
+    // ========================================================================
+
+    /**
+     * @return A visão somente leitura deste tabuleiro, segura para outras threads.
+     * Deve ser pedida pela thread dona (ex: antes de entregar para o renderizador).
+     */
+    public BoardView view() {
+        if (view == null) {
+            view = new BoardView(this);
+        }
+        return view;
+    }
+
+    /** Marca o início de uma escrita (versão ímpar) antes de tocar em qualquer célula. */
+    private void beginWrite() {
+        VERSION.setOpaque(this, version + 1);
+        VarHandle.storeStoreFence(); // As escritas seguintes não sobem acima do "ímpar"
+    }
+
+    /** Publica a escrita (versão par); tudo o que veio antes fica visível junto. */
+    private void endWrite() {
+        VERSION.setRelease(this, version + 1);
+    }
+
+    long readVersion() {
+        return (long) VERSION.getAcquire(this);
+    }
+
+    /**
+     * Copia as células (linha a linha, dest[y * largura + x]) sem sincronização.
+     * Pode ver um estado inconsistente se houver uma escrita em curso:
+     * quem chama confere a versão antes e depois (ver {@link BoardView}).
+     */
+    void copyCellsRacy(PieceType[] dest) {
+        int base = ringBase;
+        PieceType[][] rowsOfCells = cells;
+        for (int y = 0; y < height; y++) {
+            int p = base + y;
+            PieceType[] line = rowsOfCells[p >= height ? p - height : p];
+            System.arraycopy(line, 0, dest, y * width, width);
+        }
+    }
+
+    /** Refaz linhas cheias, índice das colunas e hash a partir das máscaras. */
+    private void rebuildIndexes() {
+        resetFullRows();
+        Arrays.fill(columnHeights, 0);
+        Arrays.fill(columnFill, 0);
+        hash = 0;
+        for (int y = 0; y < height; y++) {
+            long content = 0;
+            for (int x = rows.nextSetBit(y, 0); x >= 0; x = rows.nextSetBit(y, x + 1)) {
+                content ^= ZobristKeys.column(x);
+                columnFill[x]++;
+                columnHeights[x] = Math.max(columnHeights[x], height - y);
+            }
+            rowContent[y] = content;
+            hash ^= ZobristKeys.rowContribution(content, y);
+            trackFullRow(y, false);
+        }
+    }
+
+    // ========================================================================
+    // ==     HASH ZOBRIST      ==
+    // ========================================================================
+
+    /** @return O hash Zobrist da ocupação do tabuleiro (mantido incrementalmente, O(1)). */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Recalcula o hash do zero a partir das células (O(altura * largura)).
+     * Serve para conferir o valor incremental; o jogo usa {@link #getHash()}.
+     */
+    public long computeHash() {
+        long fresh = 0;
+        for (int y = 0; y < height; y++) {
+            PieceType[] line = row(y);
+            long content = 0;
+            for (int x = 0; x < width; x++) {
+                if (line[x] != null) {
+                    content ^= ZobristKeys.column(x);
+                }
+            }
+            fresh ^= ZobristKeys.rowContribution(content, y);
+        }
+        return fresh;
+    }
+
+    /** Troca o conteúdo (para o hash) da linha 'y', atualizando o hash do tabuleiro. */
+    private void setRowContent(int y, long content) {
+        hash ^= ZobristKeys.rowContribution(rowContent[y], y) ^ ZobristKeys.rowContribution(content, y);
+        rowContent[y] = content;
+    }
+
+    /**
+     * Atualiza o contador de linhas cheias depois que a linha 'y' mudou.
+     * @param wasFull Se a linha estava cheia antes da mudança.
+     */
+    private void trackFullRow(int y, boolean wasFull) {
+        boolean isFull = rows.isFull(y);
+        if (isFull && !wasFull) {
+            fullRowCount++;
+            fullTop = Math.min(fullTop, y);
+            fullBottom = Math.max(fullBottom, y);
+        } else if (wasFull && !isFull && --fullRowCount == 0) {
+            resetFullRows();
+        }
+    }
+
+    private void resetFullRows() {
+        fullRowCount = 0;
+        fullTop = height;
+        fullBottom = -1;
+    }
+}
@@ -0,0 +1,64 @@
+package com.tetris.model;
+
+/**
+ * Foto imutável de um {@link Board} (para desfazer, replay e rollback).
+ *
+ * É "persistente": as linhas de células são as mesmas do Board no momento
+ * da foto e de outras fotos tiradas antes/depois. O Board nunca escreve numa
+ * linha compartilhada (copy-on-write por linha), então guardar milhares de
+ * fotos custa basicamente as linhas que realmente mudaram entre elas.
+ */
+public final class BoardSnapshot {
+
+    private final int width;
+    private final int height;
+    private final RowStorage rows;       // Máscaras de ocupação (cópia própria da foto)
+    private final PieceType[][] cells;   // Linhas compartilhadas (NUNCA escrever nelas)
+
+    BoardSnapshot(int width, int height, RowStorage rows, PieceType[][] cells) {
+        this.width = width;
+        this.height = height;
+        this.rows = rows;
+        this.cells = cells;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    /** @return O tipo da célula (x, y) no momento da foto. */
+    public PieceType getCell(int x, int y) {
+        return cells[y][x];
+    }
+
+    /**
+     * @return A máscara de ocupação da linha 'y' no momento da foto.
+     * @throws UnsupportedOperationException em fotos com mais de 32 colunas
+     *         (use {@link #getRowWord(int, int)}).
+     */
+    public int getRowMask(int y) {
+        if (width > Integer.SIZE) {
+            throw new UnsupportedOperationException("Linha de " + width + " colunas não cabe num int");
+        }
+        return (int) rows.word(y, 0);
+    }
+
+    /** @return A palavra 'word' da linha 'y' (colunas 64*word até 64*word+63). */
+    public long getRowWord(int y, int word) {
+        return rows.word(y, word);
+    }
+
+    /** @return true se as duas fotos usam o MESMO array para a linha 'y' (compartilhamento). */
+    public boolean sharesRowWith(BoardSnapshot other, int y) {
+        return cells[y] == other.cells[y];
+    }
+
+    /** Entrega a linha para o Board.restore() (que também a trata como compartilhada). */
+    PieceType[] sharedRow(int y) {
+        return cells[y];
+    }
+
+    /** As máscaras, para o Board.restore() copiar. */
+    RowStorage rows() {
+        return rows;
+    }
+}
@@ -0,0 +1,83 @@
+package com.tetris.model;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ * Visão somente leitura de um {@link Board} para OUTRAS threads
+ * (renderizador, bots, transmissão para espectadores).
+ *
+ * Funciona como um seqlock: a leitura copia as células para um buffer do
+ * chamador e confere se a versão do tabuleiro era a mesma (e par) antes e
+ * depois da cópia. Se uma escrita aconteceu no meio, a cópia é refeita.
+ * Assim o leitor nunca vê um tabuleiro "meio limpo" e a thread do jogo nunca
+ * espera por ninguém.
+ */
+public final class BoardView {
+
+    private final Board board;
+
+    BoardView(Board board) {
+        this.board = board;
+    }
+
+    public int getWidth() { return board.getWidth(); }
+    public int getHeight() { return board.getHeight(); }
+
+    /** @return A versão atual (par = estável; muda a cada escrita no tabuleiro). */
+    public long getVersion() {
+        return board.readVersion();
+    }
+
+    /** @return Um buffer do tamanho certo para {@link #copyInto(PieceType[])}. */
+    public PieceType[] newBuffer() {
+        return new PieceType[board.getWidth() * board.getHeight()];
+    }
+
+    /**
+     * Uma tentativa de cópia consistente (não espera).
+     * @param dest Buffer com largura * altura posições; a célula (x, y) vai para dest[y * largura + x].
+     * @return A versão copiada, ou -1 se uma escrita atrapalhou (o conteúdo de 'dest' não vale).
+     */
+    public long tryCopyInto(PieceType[] dest) {
+        checkBuffer(dest);
+        long before = board.readVersion();
+        if ((before & 1) != 0) {
+            return -1; // Escrita em andamento
+        }
+        board.copyCellsRacy(dest);
+        VarHandle.loadLoadFence(); // As leituras da cópia terminam antes de reler a versão
+        return board.readVersion() == before ? before : -1;
+    }
+
+    /**
+     * Copia um estado consistente, tentando de novo enquanto houver escritas no meio.
+     * @return A versão copiada (sempre par).
+     */
+    public long copyInto(PieceType[] dest) {
+        while (true) {
+            long copied = tryCopyInto(dest);
+            if (copied >= 0) {
+                return copied;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Copia só se o tabuleiro mudou desde 'lastVersion' (ex: o renderizador
+     * não precisa recopiar um quadro igual).
+     * @return A nova versão copiada, ou 'lastVersion' se nada mudou.
+     */
+    public long copyIfChanged(PieceType[] dest, long lastVersion) {
+        if (board.readVersion() == lastVersion) {
+            return lastVersion;
+        }
+        return copyInto(dest);
+    }
+
+    private void checkBuffer(PieceType[] dest) {
+        if (dest.length < board.getWidth() * board.getHeight()) {
+            throw new IllegalArgumentException("Buffer pequeno demais: " + dest.length);
+        }
+    }
+}
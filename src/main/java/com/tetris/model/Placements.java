@@ -0,0 +1,53 @@
+package com.tetris.model;
+
+import com.tetris.model.tetromino.PackedPiece;
+import com.tetris.model.tetromino.PieceDefinition;
+import com.tetris.model.tetromino.PieceShape;
+
+/**
+ * Geração de candidatos para busca/IA: todas as posições finais de uma peça
+ * largada do topo (cada rotação distinta x cada coluna), como estados
+ * empacotados ({@link PackedPiece}) num buffer do chamador. Não aloca nada.
+ *
+ * "Largada do topo" = a peça desce em linha reta a partir da linha 0; encaixes
+ * que só se alcançam deslizando por baixo de outras peças não entram.
+ */
+public final class Placements {
+
+    private Placements() {
+    }
+
+    /** @return Quantos candidatos cabem no pior caso (tamanho de buffer seguro). */
+    public static int maxCount(Board board) {
+        return 4 * board.getWidth();
+    }
+
+    /**
+     * Escreve em 'out' os estados finais (já na linha de pouso) de cada posição.
+     * Rotações que repetem as células de outra (ex: as 4 da 'O') são puladas.
+     * @param out Buffer com pelo menos {@link #maxCount(Board)} posições.
+     * @return Quantos candidatos foram escritos.
+     */
+    public static int generate(Board board, PieceType type, int[] out) {
+        PieceDefinition definition = PieceDefinition.of(type);
+        int width = board.getWidth();
+        int count = 0;
+        for (int rotation = 0; rotation < definition.getRotationCount(); rotation++) {
+            if (definition.isDuplicateRotation(rotation)) {
+                continue;
+            }
+            PieceShape shape = definition.getShape(rotation);
+            int startY = -shape.getMinY(); // Topo da forma na linha 0
+            int firstX = -shape.getMinX();
+            int lastX = width - 1 - shape.getMaxX();
+            int base = PackedPiece.of(type, rotation, firstX, startY);
+            for (int x = firstX; x <= lastX; x++) {
+                int piece = PackedPiece.moved(base, x - firstX, 0);
+                if (board.isValidPosition(shape, x, startY)) {
+                    out[count++] = PackedPiece.moved(piece, 0, board.dropDistance(shape, x, startY));
+                }
+            }
+        }
+        return count;
+    }
+}
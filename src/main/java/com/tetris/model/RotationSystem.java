@@ -0,0 +1,217 @@
+package com.tetris.model;
+
+import com.tetris.model.tetromino.PackedPiece;
+import com.tetris.model.tetromino.PieceDefinition;
+
+/**
+ * Sistemas de rotação: para cada (tipo de peça, estado de origem, sentido)
+ * uma lista de "chutes" (deslocamentos) pré-calculada, testada em ordem pelo
+ * caminho rápido de colisão do Board. O primeiro chute que cabe vence.
+ *
+ * <ul>
+ *   <li>{@link #CLASSIC}: o comportamento antigo do jogo (só chutes horizontais 0, +1, -1, +2, -2).</li>
+ *   <li>{@link #SRS}: as tabelas do Super Rotation System (JLSTZ e I), incluindo os chutes
+ *       verticais que permitem T-spins; o 180° usa a tabela do SRS+ (TETR.IO).</li>
+ *   <li>{@link #ARS}: Arika (TGM): só a posição atual, 1 para a direita e 1 para a esquerda;
+ *       a 'I' não chuta. (A regra da "coluna central" do TGM não está implementada.)</li>
+ * </ul>
+ *
+ * As formas do jogo são as matrizes 5x5 de cada peça, cuja rotação 0 nem sempre
+ * é a de nascimento do SRS. Cada tipo tem um deslocamento fixo entre o nosso
+ * índice de rotação e o estado SRS (0, R, 2, L). Para J, L e T a correspondência
+ * é exata; I, S e Z aqui só alternam entre duas formas (sem o deslocamento de
+ * meia célula do SRS), então para elas as tabelas são uma aproximação.
+ *
+ * Tudo é montado na carga da classe; girar não aloca nada.
+ */
+public enum RotationSystem {
+
+    CLASSIC,
+    SRS,
+    ARS;
+
+    /** Sentidos de rotação (em quartos de volta, como em {@link PackedPiece#rotated(int, int)}). */
+    public static final int CW = 1;
+    public static final int CCW = -1;
+    public static final int HALF = 2;
+
+    private static final int TYPES = PieceDefinition.count();
+    private static final int DIRECTIONS = 3; // CW, CCW, 180
+
+    // Chutes de todas as transições em sequência: os de 'index' vão de
+    // start[index] até start[index + 1] - 1. Cada um é um deslocamento já
+    // no formato de PackedPiece.offset (somado direto ao estado empacotado).
+    private int[] kicks;
+    private int[] kickX;
+    private int[] kickY;
+    private int[] start;
+
+    static {
+        for (RotationSystem system : values()) {
+            system.build();
+        }
+    }
+
+    /**
+     * Tenta girar a peça 'turns' quartos de volta (CW, CCW ou HALF),
+     * testando os chutes em ordem.
+     * @return O novo estado empacotado, ou {@link PackedPiece#NONE} se nenhum chute couber.
+     */
+    public int rotate(Board board, int piece, int turns) {
+        int index = index(PackedPiece.typeOrdinal(piece), PackedPiece.rotation(piece), turns);
+        int rotated = PackedPiece.rotated(piece, turns);
+        int[] table = kicks;
+        for (int i = start[index], end = start[index + 1]; i < end; i++) {
+            int candidate = PackedPiece.moved(rotated, table[i]);
+            if (board.isValidPosition(candidate)) {
+                return candidate;
+            }
+        }
+        return PackedPiece.NONE;
+    }
+
+    /** @return Quantos chutes são testados para essa transição. */
+    public int kickCount(PieceType type, int fromRotation, int turns) {
+        int index = index(type.ordinal(), fromRotation, turns);
+        return start[index + 1] - start[index];
+    }
+
+    /** @return O deslocamento horizontal do chute 'i' (coordenadas do tabuleiro). */
+    public int kickX(PieceType type, int fromRotation, int turns, int i) {
+        return kickX[start[index(type.ordinal(), fromRotation, turns)] + i];
+    }
+
+    /** @return O deslocamento vertical do chute 'i' (coordenadas do tabuleiro: + é para baixo). */
+    public int kickY(PieceType type, int fromRotation, int turns, int i) {
+        return kickY[start[index(type.ordinal(), fromRotation, turns)] + i];
+    }
+
+    private static int index(int type, int fromRotation, int turns) {
+        int direction = switch (turns & 3) {
+            case 1 -> 0;
+            case 3 -> 1;
+            case 2 -> 2;
+            default -> throw new IllegalArgumentException("Rotação de 0 quartos de volta");
+        };
+        return (type * 4 + fromRotation) * DIRECTIONS + direction;
+    }
+
+    // ========================================================================
+    // ==     MONTAGEM DAS TABELAS      ==
+    // ========================================================================
+
+    private void build() {
+        int[][][] all = new int[TYPES * 4 * DIRECTIONS][][];
+        int total = 0;
+        for (int type = 0; type < TYPES; type++) {
+            for (int from = 0; from < 4; from++) {
+                for (int turns : new int[]{CW, CCW, HALF}) {
+                    int[][] list = kicksFor(type, from, turns);
+                    all[index(type, from, turns)] = list;
+                    total += list.length;
+                }
+            }
+        }
+        kicks = new int[total];
+        kickX = new int[total];
+        kickY = new int[total];
+        start = new int[all.length + 1];
+        int next = 0;
+        for (int index = 0; index < all.length; index++) {
+            start[index] = next;
+            for (int[] kick : all[index]) {
+                kickX[next] = kick[0];
+                kickY[next] = kick[1];
+                kicks[next] = PackedPiece.offset(kick[0], kick[1]);
+                next++;
+            }
+        }
+        start[all.length] = next;
+    }
+
+    /** Os chutes (dx, dy) em coordenadas do tabuleiro (y para baixo). */
+    private int[][] kicksFor(int type, int from, int turns) {
+        boolean isI = type == PieceType.I.ordinal();
+        boolean isO = type == PieceType.O.ordinal();
+        switch (this) {
+            case CLASSIC:
+                return Tables.CLASSIC;
+            case ARS:
+                return isI ? Tables.NONE : Tables.ARS;
+            default:
+                if (isO) {
+                    return Tables.NONE;
+                }
+                int srsFrom = (from + Tables.SRS_SHIFT[type]) & 3;
+                int srsTo = (srsFrom + turns) & 3;
+                int[][] srs = (turns & 3) == 2
+                        ? Tables.SRS_180[srsFrom]
+                        : (isI ? Tables.SRS_I : Tables.SRS_JLSTZ)[transition(srsFrom, srsTo)];
+                return flipY(srs);
+        }
+    }
+
+    /** Índice da transição nas tabelas SRS: 0->R, R->0, R->2, 2->R, 2->L, L->2, L->0, 0->L. */
+    private static int transition(int from, int to) {
+        int clockwise = ((to - from) & 3) == 1 ? 1 : 0;
+        return switch (from) {
+            case 0 -> clockwise == 1 ? 0 : 7;
+            case 1 -> clockwise == 1 ? 2 : 1;
+            case 2 -> clockwise == 1 ? 4 : 3;
+            default -> clockwise == 1 ? 6 : 5;
+        };
+    }
+
+    /** As tabelas do SRS usam y para cima; o tabuleiro, para baixo. */
+    private static int[][] flipY(int[][] kicks) {
+        int[][] flipped = new int[kicks.length][];
+        for (int i = 0; i < kicks.length; i++) {
+            flipped[i] = new int[]{kicks[i][0], -kicks[i][1]};
+        }
+        return flipped;
+    }
+
+    /** Dados brutos (só usados na montagem). */
+    private static final class Tables {
+
+        static final int[][] NONE = {{0, 0}};
+        static final int[][] CLASSIC = {{0, 0}, {1, 0}, {-1, 0}, {2, 0}, {-2, 0}};
+        static final int[][] ARS = {{0, 0}, {1, 0}, {-1, 0}};
+
+        // Nosso índice de rotação + SRS_SHIFT = estado SRS (0 = nascimento, 1 = R, 2, 3 = L),
+        // por ordinal do PieceType (I, J, L, O, S, T, Z)
+        static final int[] SRS_SHIFT = {3, 3, 1, 0, 0, 2, 0};
+
+        // Tabelas do SRS (y para cima), na ordem de transition()
+        static final int[][][] SRS_JLSTZ = {
+                {{0, 0}, {-1, 0}, {-1, 1}, {0, -2}, {-1, -2}}, // 0 -> R
+                {{0, 0}, {1, 0}, {1, -1}, {0, 2}, {1, 2}},     // R -> 0
+                {{0, 0}, {1, 0}, {1, -1}, {0, 2}, {1, 2}},     // R -> 2
+                {{0, 0}, {-1, 0}, {-1, 1}, {0, -2}, {-1, -2}}, // 2 -> R
+                {{0, 0}, {1, 0}, {1, 1}, {0, -2}, {1, -2}},    // 2 -> L
+                {{0, 0}, {-1, 0}, {-1, -1}, {0, 2}, {-1, 2}},  // L -> 2
+                {{0, 0}, {-1, 0}, {-1, -1}, {0, 2}, {-1, 2}},  // L -> 0
+                {{0, 0}, {1, 0}, {1, 1}, {0, -2}, {1, -2}},    // 0 -> L
+        };
+        static final int[][][] SRS_I = {
+                {{0, 0}, {-2, 0}, {1, 0}, {-2, -1}, {1, 2}},   // 0 -> R
+                {{0, 0}, {2, 0}, {-1, 0}, {2, 1}, {-1, -2}},   // R -> 0
+                {{0, 0}, {-1, 0}, {2, 0}, {-1, 2}, {2, -1}},   // R -> 2
+                {{0, 0}, {1, 0}, {-2, 0}, {1, -2}, {-2, 1}},   // 2 -> R
+                {{0, 0}, {2, 0}, {-1, 0}, {2, 1}, {-1, -2}},   // 2 -> L
+                {{0, 0}, {-2, 0}, {1, 0}, {-2, -1}, {1, 2}},   // L -> 2
+                {{0, 0}, {1, 0}, {-2, 0}, {1, -2}, {-2, 1}},   // L -> 0
+                {{0, 0}, {-1, 0}, {2, 0}, {-1, 2}, {2, -1}},   // 0 -> L
+        };
+        // 180° (SRS+), por estado de origem
+        static final int[][][] SRS_180 = {
+                {{0, 0}, {0, 1}, {1, 1}, {-1, 1}, {1, 0}, {-1, 0}},     // 0 -> 2
+                {{0, 0}, {1, 0}, {1, 2}, {1, 1}, {0, 2}, {0, 1}},       // R -> L
+                {{0, 0}, {0, -1}, {-1, -1}, {1, -1}, {-1, 0}, {1, 0}},  // 2 -> 0
+                {{0, 0}, {-1, 0}, {-1, 2}, {-1, 1}, {0, 2}, {0, 1}},    // L -> R
+        };
+
+        private Tables() {
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.tetris.model;
+
+import java.util.Arrays;
+
+/**
+ * Armazenamento das máscaras de ocupação do Board (bit x da linha y = célula ocupada).
+ * A implementação é escolhida pela largura do tabuleiro:
+ * <ul>
+ *   <li>até 32 colunas: um 'int' por linha ({@link IntRows}, o tabuleiro padrão 10x20);</li>
+ *   <li>até 64 colunas: um 'long' por linha ({@link LongRows});</li>
+ *   <li>acima disso: várias palavras de 64 bits por linha ({@link WideRows}).</li>
+ * </ul>
+ * As linhas das peças continuam sendo um 'int' (formas de até 32 colunas);
+ * cada implementação só desloca essa máscara para a sua palavra.
+ */
+abstract class RowStorage {
+
+    protected final int width;
+    protected final int height;
+
+    RowStorage(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /** Escolhe a implementação mais compacta para a largura. */
+    static RowStorage forWidth(int width, int height) {
+        if (width <= Integer.SIZE) {
+            return new IntRows(width, height);
+        }
+        if (width <= Long.SIZE) {
+            return new LongRows(width, height);
+        }
+        return new WideRows(width, height);
+    }
+
+    /**
+     * Testa UMA linha de peça contra a linha 'y' (0 <= y < height),
+     * incluindo as bordas laterais.
+     * @param mask Máscara da linha da peça (bit i = coluna i da forma), != 0.
+     * @param pieceX Deslocamento horizontal da peça (pode ser negativo).
+     */
+    abstract boolean fits(int mask, int pieceX, int y);
+
+    /** Liga os bits da linha de peça (já validada com fits()). */
+    abstract void or(int mask, int pieceX, int y);
+
+    abstract boolean get(int x, int y);
+
+    abstract void set(int x, int y);
+
+    abstract void clear(int x, int y);
+
+    abstract boolean isFull(int y);
+
+    abstract boolean isEmpty(int y);
+
+    /** @return Quantos bits estão ligados na linha 'y'. */
+    abstract int count(int y);
+
+    /** @return O próximo bit ligado da linha 'y' a partir da coluna 'from', ou -1. */
+    abstract int nextSetBit(int y, int from);
+
+    /** Copia a linha 'from' sobre a linha 'to'. */
+    abstract void copyRow(int from, int to);
+
+    abstract void clearRow(int y);
+
+    abstract void clearAll();
+
+    /** @return A palavra 'word' (bits 64*word .. 64*word+63) da linha 'y'. */
+    abstract long word(int y, int word);
+
+    abstract RowStorage copy();
+
+    /** Copia todo o conteúdo de 'other' (mesma implementação e dimensões). */
+    abstract void copyFrom(RowStorage other);
+
+    // ========================================================================
+    // ==     ATÉ 32 COLUNAS: UM 'int' POR LINHA      ==
+    // ========================================================================
+
+    static final class IntRows extends RowStorage {
+        private final int[] rows;
+        private final int fullRow;
+
+        IntRows(int width, int height) {
+            super(width, height);
+            this.rows = new int[height];
+            this.fullRow = width == Integer.SIZE ? -1 : (1 << width) - 1;
+        }
+
+        @Override
+        boolean fits(int mask, int pieceX, int y) {
+            int shifted;
+            if (pieceX >= 0) {
+                if (pieceX >= width) {
+                    return false;
+                }
+                shifted = mask << pieceX;
+                // Nenhum bit pode "sair" pela direita (nem sumir no shift)
+                if ((shifted & ~fullRow) != 0 || shifted >>> pieceX != mask) {
+                    return false;
+                }
+            } else {
+                if (pieceX <= -Integer.SIZE || (mask & ((1 << -pieceX) - 1)) != 0) {
+                    return false;
+                }
+                shifted = mask >>> -pieceX;
+            }
+            return (rows[y] & shifted) == 0;
+        }
+
+        @Override
+        void or(int mask, int pieceX, int y) {
+            rows[y] |= pieceX >= 0 ? mask << pieceX : mask >>> -pieceX;
+        }
+
+        @Override
+        boolean get(int x, int y) { return (rows[y] & (1 << x)) != 0; }
+
+        @Override
+        void set(int x, int y) { rows[y] |= 1 << x; }
+
+        @Override
+        void clear(int x, int y) { rows[y] &= ~(1 << x); }
+
+        @Override
+        boolean isFull(int y) { return rows[y] == fullRow; }
+
+        @Override
+        boolean isEmpty(int y) { return rows[y] == 0; }
+
+        @Override
+        int count(int y) { return Integer.bitCount(rows[y]); }
+
+        @Override
+        int nextSetBit(int y, int from) {
+            if (from >= Integer.SIZE) {
+                return -1;
+            }
+            int bits = rows[y] & (-1 << from);
+            return bits == 0 ? -1 : Integer.numberOfTrailingZeros(bits);
+        }
+
+        @Override
+        void copyRow(int from, int to) { rows[to] = rows[from]; }
+
+        @Override
+        void clearRow(int y) { rows[y] = 0; }
+
+        @Override
+        void clearAll() { Arrays.fill(rows, 0); }
+
+        @Override
+        long word(int y, int word) { return word == 0 ? rows[y] & 0xFFFFFFFFL : 0; }
+
+        @Override
+        RowStorage copy() {
+            IntRows copy = new IntRows(width, height);
+            System.arraycopy(rows, 0, copy.rows, 0, height);
+            return copy;
+        }
+
+        @Override
+        void copyFrom(RowStorage other) {
+            System.arraycopy(((IntRows) other).rows, 0, rows, 0, height);
+        }
+    }
+
+    // ========================================================================
+    // ==     ATÉ 64 COLUNAS: UM 'long' POR LINHA      ==
+    // ========================================================================
+
+    static final class LongRows extends RowStorage {
+        private final long[] rows;
+        private final long fullRow;
+
+        LongRows(int width, int height) {
+            super(width, height);
+            this.rows = new long[height];
+            this.fullRow = width == Long.SIZE ? -1L : (1L << width) - 1;
+        }
+
+        @Override
+        boolean fits(int mask, int pieceX, int y) {
+            long bits = mask & 0xFFFFFFFFL;
+            long shifted;
+            if (pieceX >= 0) {
+                if (pieceX >= width) {
+                    return false;
+                }
+                shifted = bits << pieceX;
+                if ((shifted & ~fullRow) != 0 || shifted >>> pieceX != bits) {
+                    return false;
+                }
+            } else {
+                if (pieceX <= -Integer.SIZE || (bits & ((1L << -pieceX) - 1)) != 0) {
+                    return false;
+                }
+                shifted = bits >>> -pieceX;
+            }
+            return (rows[y] & shifted) == 0;
+        }
+
+        @Override
+        void or(int mask, int pieceX, int y) {
+            long bits = mask & 0xFFFFFFFFL;
+            rows[y] |= pieceX >= 0 ? bits << pieceX : bits >>> -pieceX;
+        }
+
+        @Override
+        boolean get(int x, int y) { return (rows[y] & (1L << x)) != 0; }
+
+        @Override
+        void set(int x, int y) { rows[y] |= 1L << x; }
+
+        @Override
+        void clear(int x, int y) { rows[y] &= ~(1L << x); }
+
+        @Override
+        boolean isFull(int y) { return rows[y] == fullRow; }
+
+        @Override
+        boolean isEmpty(int y) { return rows[y] == 0; }
+
+        @Override
+        int count(int y) { return Long.bitCount(rows[y]); }
+
+        @Override
+        int nextSetBit(int y, int from) {
+            if (from >= Long.SIZE) {
+                return -1;
+            }
+            long bits = rows[y] & (-1L << from);
+            return bits == 0 ? -1 : Long.numberOfTrailingZeros(bits);
+        }
+
+        @Override
+        void copyRow(int from, int to) { rows[to] = rows[from]; }
+
+        @Override
+        void clearRow(int y) { rows[y] = 0; }
+
+        @Override
+        void clearAll() { Arrays.fill(rows, 0); }
+
+        @Override
+        long word(int y, int word) { return word == 0 ? rows[y] : 0; }
+
+        @Override
+        RowStorage copy() {
+            LongRows copy = new LongRows(width, height);
+            System.arraycopy(rows, 0, copy.rows, 0, height);
+            return copy;
+        }
+
+        @Override
+        void copyFrom(RowStorage other) {
+            System.arraycopy(((LongRows) other).rows, 0, rows, 0, height);
+        }
+    }
+
+    // ========================================================================
+    // ==     MAIS DE 64 COLUNAS: VÁRIAS PALAVRAS POR LINHA      ==
+    // ========================================================================
+
+    /**
+     * As palavras de todas as linhas ficam num único long[] (linha y começa em
+     * y * wordsPerRow), para manter a linha contígua na memória.
+     */
+    static final class WideRows extends RowStorage {
+        private final int wordsPerRow;
+        private final long[] words;
+        private final long lastWordFull; // Bits válidos da última palavra da linha
+
+        WideRows(int width, int height) {
+            super(width, height);
+            this.wordsPerRow = (width + Long.SIZE - 1) / Long.SIZE;
+            this.words = new long[wordsPerRow * height];
+            int tail = width % Long.SIZE;
+            this.lastWordFull = tail == 0 ? -1L : (1L << tail) - 1;
+        }
+
+        @Override
+        boolean fits(int mask, int pieceX, int y) {
+            // Bordas: o bit mais baixo e o mais alto da forma precisam cair dentro
+            int low = pieceX + Integer.numberOfTrailingZeros(mask);
+            int high = pieceX + (Integer.SIZE - 1 - Integer.numberOfLeadingZeros(mask));
+            if (low < 0 || high >= width) {
+                return false;
+            }
+            long bits = mask & 0xFFFFFFFFL;
+            if (pieceX < 0) { // Os bits "cortados" são zeros (a borda já foi testada)
+                bits >>>= -pieceX;
+                pieceX = 0;
+            }
+            int base = y * wordsPerRow + (pieceX >>> 6);
+            int offset = pieceX & 63;
+            if ((words[base] & (bits << offset)) != 0) {
+                return false;
+            }
+            // A parte que transborda para a próxima palavra (se houver)
+            return offset == 0 || (bits >>> (Long.SIZE - offset)) == 0
+                    || (words[base + 1] & (bits >>> (Long.SIZE - offset))) == 0;
+        }
+
+        @Override
+        void or(int mask, int pieceX, int y) {
+            long bits = mask & 0xFFFFFFFFL;
+            if (pieceX < 0) {
+                bits >>>= -pieceX;
+                pieceX = 0;
+            }
+            int base = y * wordsPerRow + (pieceX >>> 6);
+            int offset = pieceX & 63;
+            words[base] |= bits << offset;
+            if (offset != 0 && (bits >>> (Long.SIZE - offset)) != 0) {
+                words[base + 1] |= bits >>> (Long.SIZE - offset);
+            }
+        }
+
+        @Override
+        boolean get(int x, int y) {
+            return (words[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+        }
+
+        @Override
+        void set(int x, int y) { words[y * wordsPerRow + (x >>> 6)] |= 1L << x; }
+
+        @Override
+        void clear(int x, int y) { words[y * wordsPerRow + (x >>> 6)] &= ~(1L << x); }
+
+        @Override
+        boolean isFull(int y) {
+            int base = y * wordsPerRow;
+            for (int w = 0; w < wordsPerRow - 1; w++) {
+                if (words[base + w] != -1L) {
+                    return false;
+                }
+            }
+            return words[base + wordsPerRow - 1] == lastWordFull;
+        }
+
+        @Override
+        boolean isEmpty(int y) {
+            int base = y * wordsPerRow;
+            for (int w = 0; w < wordsPerRow; w++) {
+                if (words[base + w] != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int count(int y) {
+            int base = y * wordsPerRow;
+            int count = 0;
+            for (int w = 0; w < wordsPerRow; w++) {
+                count += Long.bitCount(words[base + w]);
+            }
+            return count;
+        }
+
+        @Override
+        int nextSetBit(int y, int from) {
+            if (from >= width) {
+                return -1;
+            }
+            int base = y * wordsPerRow;
+            int w = from >>> 6;
+            long bits = words[base + w] & (-1L << from);
+            while (true) {
+                if (bits != 0) {
+                    return w * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                }
+                if (++w == wordsPerRow) {
+                    return -1;
+                }
+                bits = words[base + w];
+            }
+        }
+
+        @Override
+        void copyRow(int from, int to) {
+            System.arraycopy(words, from * wordsPerRow, words, to * wordsPerRow, wordsPerRow);
+        }
+
+        @Override
+        void clearRow(int y) {
+            Arrays.fill(words, y * wordsPerRow, (y + 1) * wordsPerRow, 0);
+        }
+
+        @Override
+        void clearAll() { Arrays.fill(words, 0); }
+
+        @Override
+        long word(int y, int word) {
+            return word < wordsPerRow ? words[y * wordsPerRow + word] : 0;
+        }
+
+        @Override
+        RowStorage copy() {
+            WideRows copy = new WideRows(width, height);
+            System.arraycopy(words, 0, copy.words, 0, words.length);
+            return copy;
+        }
+
+        @Override
+        void copyFrom(RowStorage other) {
+            System.arraycopy(((WideRows) other).words, 0, words, 0, words.length);
+        }
+    }
+}
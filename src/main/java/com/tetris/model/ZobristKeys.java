@@ -0,0 +1,115 @@
+package com.tetris.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Chaves aleatórias de 64 bits para o hash Zobrist da posição do jogo
+ * (tabuleiro + peça ativa + hold + next).
+ *
+ * A semente é FIXA: o mesmo tabuleiro dá o mesmo hash em qualquer execução,
+ * o que permite comparar hashes entre processos (replays, rede, tabelas).
+ *
+ * O tabuleiro usa um esquema "por linha": o conteúdo de cada linha é o XOR
+ * das chaves das suas colunas, e a linha entra no hash misturada com a chave
+ * da sua posição ({@link #rowContribution(long, int)}). Assim, quando uma
+ * limpeza desce uma linha, basta trocar a contribuição dela (O(1) por linha)
+ * em vez de refazer célula por célula.
+ */
+public final class ZobristKeys {
+
+    /** Maior dimensão (largura/altura) suportada pelas tabelas de chaves. */
+    public static final int MAX_DIMENSION = 256;
+
+    // Margem para posições de peça fora do tabuleiro (ex: x = -2 da 'I' vertical)
+    private static final int POSITION_OFFSET = 16;
+    private static final int MAX_ROTATIONS = 4;
+    private static final int MAX_TYPES = 64;
+
+    private static final long[] COLUMN = new long[MAX_DIMENSION];
+    private static final long[] ROW = new long[MAX_DIMENSION];
+    private static final long[] PIECE = new long[MAX_TYPES * MAX_ROTATIONS];
+    private static final long[] PIECE_X = new long[MAX_DIMENSION + 2 * POSITION_OFFSET];
+    private static final long[] PIECE_Y = new long[MAX_DIMENSION + 2 * POSITION_OFFSET];
+    private static final long[] HOLD = new long[MAX_TYPES * MAX_ROTATIONS + 1]; // +1: hold vazio
+    private static final long[] NEXT = new long[MAX_TYPES];
+    private static final long CAN_HOLD;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x7E7215_2025L);
+        fill(COLUMN, random);
+        fill(ROW, random);
+        fill(PIECE, random);
+        fill(PIECE_X, random);
+        fill(PIECE_Y, random);
+        fill(HOLD, random);
+        fill(NEXT, random);
+        CAN_HOLD = random.nextLong();
+    }
+
+    private ZobristKeys() {
+    }
+
+    private static void fill(long[] keys, SplittableRandom random) {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+
+    // --- Tabuleiro ---
+
+    /** @return A chave da coluna 'x' (o conteúdo de uma linha é o XOR destas chaves). */
+    public static long column(int x) {
+        return COLUMN[x];
+    }
+
+    /**
+     * Contribuição de uma linha para o hash do tabuleiro.
+     * @param content XOR das chaves das colunas ocupadas (0 = linha vazia).
+     * @param y A linha (lógica) onde esse conteúdo está.
+     */
+    public static long rowContribution(long content, int y) {
+        return content == 0 ? 0 : mix(content ^ ROW[y]);
+    }
+
+    // --- Peças ---
+
+    /** @return A chave de (tipo, rotação, x, y) da peça ativa. */
+    public static long piece(int type, int rotation, int x, int y) {
+        return PIECE[type * MAX_ROTATIONS + rotation] ^ pieceX(x) ^ pieceY(y);
+    }
+
+    public static long pieceRotation(int type, int rotation) {
+        return PIECE[type * MAX_ROTATIONS + rotation];
+    }
+
+    public static long pieceX(int x) {
+        return PIECE_X[x + POSITION_OFFSET];
+    }
+
+    public static long pieceY(int y) {
+        return PIECE_Y[y + POSITION_OFFSET];
+    }
+
+    /**
+     * A peça guardada volta com a rotação que tinha, então ela entra na chave.
+     * @param type O ordinal do tipo guardado, ou -1 para hold vazio.
+     */
+    public static long hold(int type, int rotation) {
+        return type < 0 ? HOLD[0] : HOLD[1 + type * MAX_ROTATIONS + rotation];
+    }
+
+    public static long next(int type) {
+        return NEXT[type];
+    }
+
+    public static long canHold() {
+        return CAN_HOLD;
+    }
+
+    /** Finalizador do SplitMix64 (espalha bem os bits do conteúdo da linha). */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,67 @@
+package com.tetris.model.tetromino;
+
+import java.nio.ByteBuffer;
+
+/**
+ * "Saco de 7" (padrão das diretrizes modernas): as 7 peças são embaralhadas
+ * (Fisher-Yates) e entregues uma a uma; quando o saco esvazia, outro é embaralhado.
+ * Garante, por exemplo, no máximo 12 peças entre duas 'I'.
+ */
+public class BagRandomizer extends Randomizer {
+
+    private final int[] bag = new int[PIECE_TYPES];
+    private int position = PIECE_TYPES; // Saco vazio: embaralha no primeiro next()
+
+    public BagRandomizer(long seed) {
+        super(seed);
+        for (int i = 0; i < bag.length; i++) {
+            bag[i] = i;
+        }
+    }
+
+    @Override
+    public int next() {
+        if (position == bag.length) {
+            for (int i = bag.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int tmp = bag[i];
+                bag[i] = bag[j];
+                bag[j] = tmp;
+            }
+            position = 0;
+        }
+        return bag[position++];
+    }
+
+    @Override
+    public Kind getKind() { return Kind.BAG; }
+
+    @Override
+    public void copyFrom(Randomizer other) {
+        super.copyFrom(other);
+        BagRandomizer source = (BagRandomizer) other;
+        System.arraycopy(source.bag, 0, bag, 0, bag.length);
+        position = source.position;
+    }
+
+    @Override
+    protected void writeState(ByteBuffer out) {
+        for (int piece : bag) {
+            out.put((byte) piece);
+        }
+        out.put((byte) position);
+    }
+
+    @Override
+    protected void readState(ByteBuffer in) {
+        int seen = 0;
+        for (int i = 0; i < bag.length; i++) {
+            bag[i] = readPiece(in);
+            seen |= 1 << bag[i];
+        }
+        position = in.get() & 0xFF;
+        if (seen != (1 << PIECE_TYPES) - 1 || position > bag.length) {
+            throw new IllegalArgumentException("Saco inválido");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.tetris.model.tetromino;
+
+import com.tetris.model.PieceType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Gerador com histórico, no estilo do TGM (The Grand Master 2):
+ * sorteia uma peça e, se ela estiver entre as últimas 4, sorteia de novo
+ * (até 6 vezes; a última tentativa vale de qualquer jeito).
+ * O histórico começa com Z, S, Z, S e a primeira peça nunca é S, Z ou O.
+ */
+public class HistoryRandomizer extends Randomizer {
+
+    public static final int HISTORY_SIZE = 4;
+    public static final int ROLLS = 6;
+
+    private static final int[] FIRST_PIECES = {
+            PieceType.I.ordinal(), PieceType.J.ordinal(), PieceType.L.ordinal(), PieceType.T.ordinal()
+    };
+
+    // Anel com as últimas peças entregues
+    private final int[] history = {
+            PieceType.Z.ordinal(), PieceType.S.ordinal(), PieceType.Z.ordinal(), PieceType.S.ordinal()
+    };
+    private int oldest;
+    private boolean first = true;
+
+    public HistoryRandomizer(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public int next() {
+        int piece;
+        if (first) {
+            first = false;
+            piece = FIRST_PIECES[random.nextInt(FIRST_PIECES.length)];
+        } else {
+            piece = random.nextInt(PIECE_TYPES);
+            for (int roll = 1; roll < ROLLS && inHistory(piece); roll++) {
+                piece = random.nextInt(PIECE_TYPES);
+            }
+        }
+        history[oldest] = piece;
+        oldest = (oldest + 1) % HISTORY_SIZE;
+        return piece;
+    }
+
+    @Override
+    public Kind getKind() { return Kind.HISTORY; }
+
+    @Override
+    public void copyFrom(Randomizer other) {
+        super.copyFrom(other);
+        HistoryRandomizer source = (HistoryRandomizer) other;
+        System.arraycopy(source.history, 0, history, 0, HISTORY_SIZE);
+        oldest = source.oldest;
+        first = source.first;
+    }
+
+    @Override
+    protected void writeState(ByteBuffer out) {
+        for (int piece : history) {
+            out.put((byte) piece);
+        }
+        out.put((byte) oldest);
+        out.put((byte) (first ? 1 : 0));
+    }
+
+    @Override
+    protected void readState(ByteBuffer in) {
+        for (int i = 0; i < HISTORY_SIZE; i++) {
+            history[i] = readPiece(in);
+        }
+        oldest = in.get() & 0xFF;
+        if (oldest >= HISTORY_SIZE) {
+            throw new IllegalArgumentException("Histórico inválido: " + oldest);
+        }
+        first = in.get() != 0;
+    }
+
+    private boolean inHistory(int piece) {
+        for (int recent : history) {
+            if (recent == piece) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
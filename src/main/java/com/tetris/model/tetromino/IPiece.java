@@ -5,7 +5,7 @@ import com.tetris.model.PieceType;
 public class IPiece extends Tetromino {
 
     // Define os estados de rotação para a 'I' (só tem 2 estados)
-    private static final int[][][] SHAPES = new int[][][]{
+    static final int[][][] SHAPES = new int[][][]{
             { // Estado 0 (Vertical)
                     {0, 0, 1, 0, 0},
                     {0, 0, 1, 0, 0},
@@ -37,9 +37,9 @@ public class IPiece extends Tetromino {
     };
 
     /**
-     * Construtor: Passa as 4 formas e o TIPO 'I' para a classe-mãe.
+     * Construtor: Passa as 4 formas (já pré-compiladas em PieceShapes) e o TIPO 'I' para a classe-mãe.
      */
     public IPiece() {
-        super(SHAPES, PieceType.I);
+        super(PieceShapes.rotations(PieceType.I), PieceType.I);
     }
 }
\ No newline at end of file
@@ -5,7 +5,7 @@ import com.tetris.model.PieceType;
 public class JPiece extends Tetromino {
 
     // Define os 4 estados de rotação para a 'J'
-    private static final int[][][] SHAPES = new int[][][]{
+    static final int[][][] SHAPES = new int[][][]{
             { // Estado 0 (Inicial)
                     {0, 0, 0, 0, 0},
                     {0, 0, 1, 0, 0},
@@ -37,9 +37,9 @@ public class JPiece extends Tetromino {
     };
 
     /**
-     * Construtor: Passa as 4 formas e o TIPO 'J' para a classe-mãe.
+     * Construtor: Passa as 4 formas (já pré-compiladas em PieceShapes) e o TIPO 'J' para a classe-mãe.
      */
     public JPiece() {
-        super(SHAPES, PieceType.J);
+        super(PieceShapes.rotations(PieceType.J), PieceType.J);
     }
 }
\ No newline at end of file
@@ -5,7 +5,7 @@ import com.tetris.model.PieceType;
 public class LPiece extends Tetromino {
 
     // Define os 4 estados de rotação para a 'L' (gancho para a DIREITA)
-    private static final int[][][] SHAPES = new int[][][]{
+    static final int[][][] SHAPES = new int[][][]{
             { // Estado 0 (Inicial)
                     {0, 0, 0, 0, 0},
                     {0, 0, 1, 0, 0},
@@ -37,9 +37,9 @@ public class LPiece extends Tetromino {
     };
 
     /**
-     * Construtor: Passa as 4 formas e o TIPO 'L' para a classe-mãe.
+     * Construtor: Passa as 4 formas (já pré-compiladas em PieceShapes) e o TIPO 'L' para a classe-mãe.
      */
     public LPiece() {
-        super(SHAPES, PieceType.L);
+        super(PieceShapes.rotations(PieceType.L), PieceType.L);
     }
 }
\ No newline at end of file
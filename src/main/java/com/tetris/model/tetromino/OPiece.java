@@ -14,7 +14,7 @@ public class OPiece extends Tetromino {
     };
 
     // Repete o único estado 4 vezes para o construtor da classe-mãe
-    private static final int[][][] SHAPES = new int[][][]{
+    static final int[][][] SHAPES = new int[][][]{
             SHAPE,
             SHAPE,
             SHAPE,
@@ -22,10 +22,10 @@ public class OPiece extends Tetromino {
     };
 
     /**
-     * Construtor: Passa as 4 formas (iguais) e o TIPO 'O' para a classe-mãe.
+     * Construtor: Passa as 4 formas (iguais, já pré-compiladas em PieceShapes) e o TIPO 'O' para a classe-mãe.
      */
     public OPiece() {
-        super(SHAPES, PieceType.O);
+        super(PieceShapes.rotations(PieceType.O), PieceType.O);
     }
 
     /**
@@ -0,0 +1,131 @@
+package com.tetris.model.tetromino;
+
+import com.tetris.model.PieceType;
+import com.tetris.model.ZobristKeys;
+
+/**
+ * O estado de uma peça em jogo (tipo, rotação, x, y) empacotado num único 'int'.
+ * Copiar, comparar ou guardar uma peça custa o mesmo que um inteiro, e mover
+ * ou girar não aloca nada: é só aritmética sobre o valor.
+ *
+ * Layout dos bits:
+ * <pre>
+ *   bits  0-9   x + 512
+ *   bits 10-19  y + 512
+ *   bits 20-21  rotação
+ *   bits 22-24  ordinal do PieceType (0..6)
+ * </pre>
+ * x e y aceitam -512..511, o que cobre qualquer tabuleiro suportado
+ * (até {@link ZobristKeys#MAX_DIMENSION}) com folga para as peças fora da borda.
+ * A forma e o resto do que não muda vêm da {@link PieceDefinition} do tipo.
+ */
+public final class PackedPiece {
+
+    /** "Sem peça" (ex: hold vazio). Nenhuma peça válida tem esse valor. */
+    public static final int NONE = -1;
+
+    private static final int COORD_BITS = 10;
+    private static final int COORD_MASK = (1 << COORD_BITS) - 1;
+    private static final int COORD_BIAS = 1 << (COORD_BITS - 1);
+    private static final int Y_SHIFT = COORD_BITS;
+    private static final int ROTATION_SHIFT = 2 * COORD_BITS;
+    private static final int TYPE_SHIFT = ROTATION_SHIFT + 2;
+
+    /** Menor e maior coordenada que cabem no estado. */
+    public static final int MIN_COORD = -COORD_BIAS;
+    public static final int MAX_COORD = COORD_BIAS - 1;
+
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private PackedPiece() {
+    }
+
+    /**
+     * @throws IllegalArgumentException se algum campo não couber no layout.
+     */
+    public static int of(PieceType type, int rotation, int x, int y) {
+        return of(type.ordinal(), rotation, x, y);
+    }
+
+    public static int of(int typeOrdinal, int rotation, int x, int y) {
+        if (typeOrdinal < 0 || typeOrdinal >= 8 || rotation < 0 || rotation > 3
+                || x < MIN_COORD || x > MAX_COORD || y < MIN_COORD || y > MAX_COORD) {
+            throw new IllegalArgumentException("Peça fora do layout: tipo=" + typeOrdinal
+                    + " rot=" + rotation + " x=" + x + " y=" + y);
+        }
+        return typeOrdinal << TYPE_SHIFT | rotation << ROTATION_SHIFT
+                | (y + COORD_BIAS) << Y_SHIFT | (x + COORD_BIAS);
+    }
+
+    // --- Leitura dos campos ---
+
+    public static int typeOrdinal(int piece) { return piece >>> TYPE_SHIFT; }
+    public static PieceType type(int piece) { return TYPES[piece >>> TYPE_SHIFT]; }
+    public static int rotation(int piece) { return (piece >>> ROTATION_SHIFT) & 3; }
+    public static int x(int piece) { return (piece & COORD_MASK) - COORD_BIAS; }
+    public static int y(int piece) { return ((piece >>> Y_SHIFT) & COORD_MASK) - COORD_BIAS; }
+
+    /** @return A definição (compartilhada) do tipo da peça. */
+    public static PieceDefinition definition(int piece) {
+        return PieceDefinition.of(piece >>> TYPE_SHIFT);
+    }
+
+    /** @return A forma pré-compilada da peça no seu estado de rotação. */
+    public static PieceShape shape(int piece) {
+        return definition(piece).getShape(rotation(piece));
+    }
+
+    // --- Movimentos (sem checar colisão: isso é com o Board) ---
+
+    /** Desloca a peça; x e y resultantes precisam continuar em MIN_COORD..MAX_COORD. */
+    public static int moved(int piece, int dx, int dy) {
+        return piece + dx + (dy << Y_SHIFT);
+    }
+
+    /**
+     * Um deslocamento (dx, dy) pré-somado num único 'int', para quem aplica o
+     * mesmo deslocamento muitas vezes (ex: tabelas de chutes de rotação).
+     * moved(p, offset(dx, dy)) == moved(p, dx, dy).
+     */
+    public static int offset(int dx, int dy) {
+        return dx + (dy << Y_SHIFT);
+    }
+
+    /** Aplica um deslocamento criado por {@link #offset(int, int)}. */
+    public static int moved(int piece, int offset) {
+        return piece + offset;
+    }
+
+    public static int withX(int piece, int x) {
+        return (piece & ~COORD_MASK) | (x + COORD_BIAS);
+    }
+
+    public static int withY(int piece, int y) {
+        return (piece & ~(COORD_MASK << Y_SHIFT)) | (y + COORD_BIAS) << Y_SHIFT;
+    }
+
+    public static int withPosition(int piece, int x, int y) {
+        return withY(withX(piece, x), y);
+    }
+
+    public static int withRotation(int piece, int rotation) {
+        return (piece & ~(3 << ROTATION_SHIFT)) | rotation << ROTATION_SHIFT;
+    }
+
+    /** Gira 'turns' passos no sentido horário (negativo = anti-horário), módulo 4. */
+    public static int rotated(int piece, int turns) {
+        return withRotation(piece, (rotation(piece) + turns) & 3);
+    }
+
+    /** @return A chave Zobrist da peça (a mesma de {@link Tetromino#getHash()}). */
+    public static long hash(int piece) {
+        return ZobristKeys.piece(typeOrdinal(piece), rotation(piece), x(piece), y(piece));
+    }
+
+    public static String toString(int piece) {
+        if (piece == NONE) {
+            return "NONE";
+        }
+        return type(piece) + "[rot=" + rotation(piece) + ", x=" + x(piece) + ", y=" + y(piece) + "]";
+    }
+}
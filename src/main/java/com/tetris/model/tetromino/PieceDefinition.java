@@ -0,0 +1,90 @@
+package com.tetris.model.tetromino;
+
+import com.tetris.model.PieceType;
+
+/**
+ * Definição imutável de um tipo de peça (flyweight): uma única instância por
+ * PieceType, compartilhada por todas as peças, motores e threads.
+ *
+ * Guarda só o que não muda durante o jogo (tipo e formas de cada rotação).
+ * O estado de uma peça em jogo (tipo, rotação, x, y) fica num 'int'
+ * empacotado, ver {@link PackedPiece}.
+ */
+public final class PieceDefinition {
+
+    private static final PieceDefinition[] DEFINITIONS = new PieceDefinition[7];
+
+    static {
+        for (int i = 0; i < DEFINITIONS.length; i++) {
+            PieceType type = PieceType.values()[i];
+            DEFINITIONS[i] = new PieceDefinition(type, PieceShapes.rotations(type));
+        }
+    }
+
+    private final PieceType type;
+    private final PieceShape[] rotations;
+    // Rotações que ocupam as mesmas células de uma rotação anterior (só
+    // deslocadas): ex. as 4 da 'O'. Quem gera candidatos pode pulá-las.
+    private final boolean[] duplicate;
+
+    private PieceDefinition(PieceType type, PieceShape[] rotations) {
+        this.type = type;
+        this.rotations = rotations;
+        this.duplicate = new boolean[rotations.length];
+        for (int r = 1; r < rotations.length; r++) {
+            for (int q = 0; q < r && !duplicate[r]; q++) {
+                duplicate[r] = sameFootprint(rotations[q], rotations[r]);
+            }
+        }
+    }
+
+    /** Compara as máscaras das duas formas alinhadas no canto da caixa envolvente. */
+    private static boolean sameFootprint(PieceShape a, PieceShape b) {
+        if (a.getBoxWidth() != b.getBoxWidth() || a.getBoxHeight() != b.getBoxHeight()) {
+            return false;
+        }
+        for (int dy = 0; dy < a.getBoxHeight(); dy++) {
+            int maskA = a.getRowMask(a.getMinY() + dy) >>> a.getMinX();
+            int maskB = b.getRowMask(b.getMinY() + dy) >>> b.getMinX();
+            if (maskA != maskB) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return A definição compartilhada do tipo.
+     * @throws IllegalArgumentException para LOCKED/GHOST, que não são peças.
+     */
+    public static PieceDefinition of(PieceType type) {
+        return of(type.ordinal());
+    }
+
+    /** Mesma coisa, pelo ordinal do tipo (o que vai no estado empacotado). */
+    public static PieceDefinition of(int typeOrdinal) {
+        if (typeOrdinal < 0 || typeOrdinal >= DEFINITIONS.length) {
+            throw new IllegalArgumentException("Não é um tipo de peça: " + typeOrdinal);
+        }
+        return DEFINITIONS[typeOrdinal];
+    }
+
+    /** @return Quantos tipos de peça existem (I, J, L, O, S, T, Z). */
+    public static int count() {
+        return DEFINITIONS.length;
+    }
+
+    public PieceType getType() { return type; }
+
+    public int getRotationCount() { return rotations.length; }
+
+    /** @return A forma pré-compilada do estado de rotação. */
+    public PieceShape getShape(int rotation) {
+        return rotations[rotation];
+    }
+
+    /** @return true se a rotação repete as células de uma rotação menor (só deslocadas). */
+    public boolean isDuplicateRotation(int rotation) {
+        return duplicate[rotation];
+    }
+}
@@ -0,0 +1,143 @@
+package com.tetris.model.tetromino;
+
+import com.tetris.model.PieceType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fila de pré-visualização ("next") com N peças à frente, sobre um anel de
+ * tamanho potência de 2. Sempre cheia: tirar a peça da frente já pede a
+ * próxima ao {@link Randomizer} e a põe no fim. Não aloca depois de criada.
+ */
+public final class PieceQueue {
+
+    private final Randomizer randomizer;
+    private final int[] ring;
+    private final int mask;
+    private final int depth;
+    private int head;
+
+    /**
+     * @param depth Quantas peças ficam visíveis à frente (ex: 1 no HUD, 5+ para bots).
+     */
+    public PieceQueue(Randomizer randomizer, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Profundidade inválida: " + depth);
+        }
+        this.randomizer = randomizer;
+        this.depth = depth;
+        this.ring = new int[Integer.highestOneBit(depth * 2 - 1)]; // Menor potência de 2 >= depth
+        this.mask = ring.length - 1;
+        for (int i = 0; i < depth; i++) {
+            ring[i] = randomizer.next();
+        }
+    }
+
+    /** Cópia independente (fila e gerador no mesmo ponto da sequência). */
+    public PieceQueue(PieceQueue other) {
+        this.randomizer = other.randomizer.copy();
+        this.depth = other.depth;
+        this.ring = other.ring.clone();
+        this.mask = other.mask;
+        this.head = other.head;
+    }
+
+    /** Fila já cheia, com as peças em 'ring[0..depth)' (usado na leitura). */
+    private PieceQueue(Randomizer randomizer, int[] ring, int depth) {
+        this.randomizer = randomizer;
+        this.depth = depth;
+        this.ring = ring;
+        this.mask = ring.length - 1;
+    }
+
+    /**
+     * Copia a fila e o gerador de outra (sem alocar).
+     * @throws IllegalArgumentException se a profundidade ou o tipo de gerador forem diferentes.
+     */
+    public void copyFrom(PieceQueue other) {
+        if (other.depth != depth) {
+            throw new IllegalArgumentException("Fila de " + other.depth + " não copia numa de " + depth);
+        }
+        randomizer.copyFrom(other.randomizer);
+        System.arraycopy(other.ring, 0, ring, 0, ring.length);
+        head = other.head;
+    }
+
+    /** @return Quantas peças a fila mostra à frente. */
+    public int getDepth() { return depth; }
+
+    public Randomizer getRandomizer() { return randomizer; }
+
+    /**
+     * @param index 0 = a próxima peça, 1 = a seguinte, ... até getDepth() - 1.
+     * @return O ordinal (PieceType) da peça nessa posição.
+     */
+    public int peek(int index) {
+        if (index < 0 || index >= depth) {
+            throw new IndexOutOfBoundsException("Posição " + index + " fora da fila de " + depth);
+        }
+        return ring[(head + index) & mask];
+    }
+
+    /** @return O tipo da peça nessa posição (ver {@link #peek(int)}). */
+    public PieceType peekType(int index) {
+        return PieceDefinition.of(peek(index)).getType();
+    }
+
+    /** Tira a peça da frente e completa a fila com uma nova do gerador. */
+    public int next() {
+        int piece = ring[head];
+        ring[(head + depth) & mask] = randomizer.next();
+        head = (head + 1) & mask;
+        return piece;
+    }
+
+    // ========================================================================
+    // ==     FILA EM BYTES (save states)      ==
+    // ========================================================================
+
+    /** @return O maior tamanho (em bytes) que {@link #writeTo(ByteBuffer)} escreve para essa profundidade. */
+    public static int maxEncodedSize(int depth) {
+        return Randomizer.MAX_ENCODED_SIZE + 1 + depth;
+    }
+
+    /**
+     * Escreve o gerador ({@link Randomizer#writeTo(ByteBuffer)}), a profundidade
+     * (um byte) e as peças da fila, da frente para trás (um byte cada).
+     * @throws java.nio.BufferOverflowException se o buffer não tiver espaço.
+     */
+    public void writeTo(ByteBuffer out) {
+        randomizer.writeTo(out);
+        out.put((byte) depth);
+        for (int i = 0; i < depth; i++) {
+            out.put((byte) peek(i));
+        }
+    }
+
+    /**
+     * Lê uma fila escrita por {@link #writeTo(ByteBuffer)}: as mesmas peças à
+     * frente e o gerador no mesmo ponto, então a sequência continua igual.
+     * @throws IllegalArgumentException se o gerador, a profundidade ou alguma peça forem inválidos.
+     */
+    public static PieceQueue readFrom(ByteBuffer in) {
+        Randomizer randomizer = Randomizer.readFrom(in);
+        int depth = in.get() & 0xFF;
+        if (depth < 1) {
+            throw new IllegalArgumentException("Profundidade inválida: " + depth);
+        }
+        int[] ring = new int[Integer.highestOneBit(depth * 2 - 1)];
+        for (int i = 0; i < depth; i++) {
+            ring[i] = Randomizer.readPiece(in);
+        }
+        return new PieceQueue(randomizer, ring, depth);
+    }
+
+    /**
+     * Troca a peça da frente (ex: ao restaurar um estado salvo que só guardou o "next").
+     * O resto da fila e o gerador continuam como estavam.
+     */
+    public void replaceFront(int piece) {
+        PieceDefinition.of(piece); // Valida o ordinal
+        ring[head] = piece;
+    }
+}
@@ -0,0 +1,159 @@
+package com.tetris.model.tetromino;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Um conjunto de peças gerado a partir de dados (sem uma classe por peça).
+ * As tabelas de cada {@link Polyomino} são montadas uma vez, na criação do
+ * conjunto; durante o jogo tudo é consulta a arrays, então o custo de
+ * colisão/lock/queda só depende do tamanho das formas, não do conjunto.
+ *
+ * Formato de texto de uma peça: "NOME=linha/linha/...", com 'X' (ou '#')
+ * para célula e '.' para vazio. Ex: "T=.X./XXX".
+ */
+public final class PieceSet {
+
+    /** Os 7 tetrominós (com as rotações geradas, não as matrizes 5x5 das classes). */
+    public static final PieceSet TETROMINOES = parse(
+            "I=XXXX", "J=X../XXX", "L=..X/XXX", "O=XX/XX",
+            "S=.XX/XX.", "T=.X./XXX", "Z=XX./.XX");
+
+    /** Os 18 pentominós "de um lado" (os 12 livres + os espelhos que não são rotações). */
+    public static final PieceSet PENTOMINOES = parse(
+            "F=.XX/XX./.X.", "F'=XX./.XX/.X.", "I=XXXXX",
+            "L=X.../XXXX", "L'=...X/XXXX", "N=XX../.XXX", "N'=..XX/XXX.",
+            "P=XX/XX/X.", "P'=XX/XX/.X", "T=XXX/.X./.X.", "U=X.X/XXX",
+            "V=X../X../XXX", "W=X../XX./.XX", "X=.X./XXX/.X.",
+            "Y=.X../XXXX", "Y'=..X./XXXX", "Z=XX./.X./.XX", "Z'=.XX/.X./XX.");
+
+    // Enumerar todas as peças cresce exponencialmente; acima disso é melhor descrever o conjunto.
+    private static final int MAX_ENUMERATED_CELLS = 8;
+
+    private final Polyomino[] pieces;
+    private final int maxBoxSize;
+
+    public PieceSet(List<Polyomino> pieces) {
+        if (pieces.isEmpty()) {
+            throw new IllegalArgumentException("Conjunto de peças vazio");
+        }
+        this.pieces = pieces.toArray(new Polyomino[0]);
+        int max = 0;
+        for (Polyomino piece : this.pieces) {
+            max = Math.max(max, piece.getBoxSize());
+        }
+        this.maxBoxSize = max;
+    }
+
+    /**
+     * Monta um conjunto a partir do formato de texto ("T=.X./XXX").
+     * @throws IllegalArgumentException se alguma definição for inválida.
+     */
+    public static PieceSet parse(String... definitions) {
+        List<Polyomino> pieces = new ArrayList<>(definitions.length);
+        for (String definition : definitions) {
+            int eq = definition.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Esperado NOME=desenho: " + definition);
+            }
+            String[] rows = definition.substring(eq + 1).split("/");
+            List<int[]> cells = new ArrayList<>();
+            for (int y = 0; y < rows.length; y++) {
+                for (int x = 0; x < rows[y].length(); x++) {
+                    char c = rows[y].charAt(x);
+                    if (c == 'X' || c == '#') {
+                        cells.add(new int[]{x, y});
+                    } else if (c != '.') {
+                        throw new IllegalArgumentException("Caractere inválido '" + c + "': " + definition);
+                    }
+                }
+            }
+            pieces.add(new Polyomino(definition.substring(0, eq), cells.toArray(new int[0][])));
+        }
+        return new PieceSet(pieces);
+    }
+
+    /**
+     * Gera TODAS as peças "de um lado" com 'cells' células (rotações iguais,
+     * espelhos diferentes): 7 para 4 células, 18 para 5, 60 para 6...
+     * Os nomes são "P0", "P1"... numa ordem fixa.
+     */
+    public static PieceSet oneSided(int cells) {
+        if (cells < 1 || cells > MAX_ENUMERATED_CELLS) {
+            throw new IllegalArgumentException("Número de células fora de 1.." + MAX_ENUMERATED_CELLS + ": " + cells);
+        }
+        // Cresce célula a célula; cada forma é guardada pela sua chave canônica (a menor das 4 rotações)
+        Set<String> seen = new HashSet<>();
+        List<int[][]> current = new ArrayList<>();
+        current.add(new int[][]{{0, 0}});
+        for (int size = 1; size < cells; size++) {
+            List<int[][]> grown = new ArrayList<>();
+            seen.clear();
+            for (int[][] shape : current) {
+                for (int[] cell : shape) {
+                    for (int[] d : new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}}) {
+                        int[] added = {cell[0] + d[0], cell[1] + d[1]};
+                        if (contains(shape, added)) {
+                            continue;
+                        }
+                        int[][] candidate = Arrays.copyOf(shape, shape.length + 1);
+                        candidate[shape.length] = added;
+                        if (seen.add(canonicalKey(candidate))) {
+                            grown.add(candidate);
+                        }
+                    }
+                }
+            }
+            current = grown;
+        }
+        current.sort(Comparator.comparing(PieceSet::canonicalKey));
+        List<Polyomino> pieces = new ArrayList<>(current.size());
+        for (int i = 0; i < current.size(); i++) {
+            pieces.add(new Polyomino("P" + i, current.get(i)));
+        }
+        return new PieceSet(pieces);
+    }
+
+    private static boolean contains(int[][] cells, int[] cell) {
+        for (int[] c : cells) {
+            if (c[0] == cell[0] && c[1] == cell[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** A menor chave normalizada entre as 4 rotações (igual para peças que só diferem por rotação). */
+    static String canonicalKey(int[][] cells) {
+        Polyomino piece = new Polyomino("", cells);
+        String best = null;
+        for (int r = 0; r < piece.getRotationCount(); r++) {
+            String key = Arrays.toString(Polyomino.normalizedKey(piece.getShape(r).getMatrix()));
+            if (best == null || key.compareTo(best) < 0) {
+                best = key;
+            }
+        }
+        return piece.getBoxSize() + ":" + best;
+    }
+
+    public int size() { return pieces.length; }
+
+    public Polyomino get(int index) { return pieces[index]; }
+
+    /** @return A peça com esse nome, ou null. */
+    public Polyomino find(String name) {
+        for (Polyomino piece : pieces) {
+            if (piece.getName().equals(name)) {
+                return piece;
+            }
+        }
+        return null;
+    }
+
+    /** @return O maior lado de caixa entre as peças (ex: para dimensionar previews). */
+    public int getMaxBoxSize() { return maxBoxSize; }
+}
@@ -0,0 +1,113 @@
+package com.tetris.model.tetromino;
+
+import java.util.Arrays;
+
+/**
+ * Uma forma "pré-compilada" (um estado de rotação de uma peça), imutável.
+ *
+ * A matriz 5x5 só é varrida uma vez, na construção; depois disso colisão,
+ * lock, queda e desenho usam direto o que interessa:
+ * <ul>
+ *   <li>as células ocupadas (4 num tetrominó) como deslocamentos (x, y) na matriz;</li>
+ *   <li>a caixa envolvente [minX..maxX] x [minY..maxY];</li>
+ *   <li>uma máscara de bits por linha da matriz (bit x = coluna x);</li>
+ *   <li>a linha do bloco mais baixo de cada coluna (para a queda).</li>
+ * </ul>
+ * As coordenadas continuam relativas ao canto da matriz (a mesma origem de
+ * {@link Tetromino#getX()}/{@link Tetromino#getY()}).
+ */
+public final class PieceShape {
+
+    private final int[][] matrix;
+    private final int[] cellX;
+    private final int[] cellY;
+    private final int minX, maxX, minY, maxY;
+    private final int[] rowMasks;
+    private final int[] columnBottoms;
+
+    private PieceShape(int[][] matrix) {
+        this.matrix = matrix;
+        int cols = 0;
+        int count = 0;
+        for (int[] line : matrix) {
+            cols = Math.max(cols, line.length);
+            for (int value : line) {
+                if (value != 0) count++;
+            }
+        }
+        cellX = new int[count];
+        cellY = new int[count];
+        rowMasks = new int[matrix.length];
+        columnBottoms = new int[cols];
+        Arrays.fill(columnBottoms, -1);
+
+        int left = Integer.MAX_VALUE, right = -1, top = Integer.MAX_VALUE, bottom = -1;
+        int i = 0;
+        for (int y = 0; y < matrix.length; y++) {
+            for (int x = 0; x < matrix[y].length; x++) {
+                if (matrix[y][x] != 0) {
+                    cellX[i] = x;
+                    cellY[i] = y;
+                    i++;
+                    rowMasks[y] |= 1 << x;
+                    columnBottoms[x] = y;
+                    left = Math.min(left, x);
+                    right = Math.max(right, x);
+                    top = Math.min(top, y);
+                    bottom = Math.max(bottom, y);
+                }
+            }
+        }
+        if (count == 0) { // Forma vazia: caixa vazia (minX > maxX)
+            left = top = 0;
+        }
+        minX = left;
+        maxX = right;
+        minY = top;
+        maxY = bottom;
+    }
+
+    /** Pré-compila uma matriz (qualquer valor != 0 é um bloco). */
+    public static PieceShape compile(int[][] matrix) {
+        return new PieceShape(matrix);
+    }
+
+    /** Pré-compila todos os estados de rotação de uma peça. */
+    public static PieceShape[] compileAll(int[][][] matrices) {
+        PieceShape[] shapes = new PieceShape[matrices.length];
+        for (int i = 0; i < matrices.length; i++) {
+            shapes[i] = compile(matrices[i]);
+        }
+        return shapes;
+    }
+
+    /** @return A matriz original (compartilhada: NÃO modificar). */
+    public int[][] getMatrix() { return matrix; }
+
+    /** @return Quantas células a forma ocupa (4 num tetrominó). */
+    public int getCellCount() { return cellX.length; }
+    public int getCellX(int i) { return cellX[i]; }
+    public int getCellY(int i) { return cellY[i]; }
+
+    public int getMinX() { return minX; }
+    public int getMaxX() { return maxX; }
+    public int getMinY() { return minY; }
+    public int getMaxY() { return maxY; }
+
+    /** @return Largura da caixa envolvente (0 para forma vazia). */
+    public int getBoxWidth() { return maxX - minX + 1; }
+
+    /** @return Altura da caixa envolvente (0 para forma vazia). */
+    public int getBoxHeight() { return maxY - minY + 1; }
+
+    /** @return A máscara da linha 'y' da matriz (bit x = coluna x; 0 fora da forma). */
+    public int getRowMask(int y) {
+        return y >= 0 && y < rowMasks.length ? rowMasks[y] : 0;
+    }
+
+    /** @return As máscaras de todas as linhas da matriz (compartilhadas: NÃO modificar). */
+    public int[] getRowMasks() { return rowMasks; }
+
+    /** @return A linha do bloco mais baixo de cada coluna, -1 se vazia (compartilhado: NÃO modificar). */
+    public int[] getColumnBottoms() { return columnBottoms; }
+}
@@ -0,0 +1,44 @@
+package com.tetris.model.tetromino;
+
+import com.tetris.model.PieceType;
+
+/**
+ * Tabela das formas pré-compiladas das 7 peças, por (PieceType, rotação).
+ * Montada uma única vez, quando a classe é carregada; todas as instâncias de
+ * IPiece..ZPiece compartilham as mesmas {@link PieceShape}.
+ */
+public final class PieceShapes {
+
+    private static final PieceShape[][] TABLE = new PieceShape[7][];
+
+    static {
+        TABLE[PieceType.I.ordinal()] = PieceShape.compileAll(IPiece.SHAPES);
+        TABLE[PieceType.J.ordinal()] = PieceShape.compileAll(JPiece.SHAPES);
+        TABLE[PieceType.L.ordinal()] = PieceShape.compileAll(LPiece.SHAPES);
+        TABLE[PieceType.O.ordinal()] = PieceShape.compileAll(OPiece.SHAPES);
+        TABLE[PieceType.S.ordinal()] = PieceShape.compileAll(SPiece.SHAPES);
+        TABLE[PieceType.T.ordinal()] = PieceShape.compileAll(TPiece.SHAPES);
+        TABLE[PieceType.Z.ordinal()] = PieceShape.compileAll(ZPiece.SHAPES);
+    }
+
+    private PieceShapes() {
+    }
+
+    /** @return A forma pré-compilada do tipo nesse estado de rotação. */
+    public static PieceShape get(PieceType type, int rotation) {
+        return rotations(type)[rotation];
+    }
+
+    /** @return Quantos estados de rotação o tipo tem. */
+    public static int rotationCount(PieceType type) {
+        return rotations(type).length;
+    }
+
+    /** Os estados de rotação do tipo (array compartilhado, só para as peças). */
+    static PieceShape[] rotations(PieceType type) {
+        if (type.ordinal() >= TABLE.length) {
+            throw new IllegalArgumentException("Não é um tipo de peça: " + type);
+        }
+        return TABLE[type.ordinal()];
+    }
+}
@@ -0,0 +1,152 @@
+package com.tetris.model.tetromino;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uma peça genérica (qualquer conjunto de células ligadas: tetrominó,
+ * pentominó ou forma própria), com as tabelas geradas a partir das células.
+ *
+ * As células vão para o canto de cima/esquerda de uma caixa NxN
+ * (N = o maior lado da peça) e giram dentro dela, no sentido horário:
+ * (x, y) -> (N - 1 - y, x). Rotações que repetem as células da rotação 0
+ * (ex: as da 'O', ou a segunda metade das da 'I') são descartadas, então
+ * a peça tem 1, 2 ou 4 estados. Cada estado vira uma {@link PieceShape}
+ * pré-compilada (células, caixa envolvente, máscaras por linha), o mesmo
+ * formato que o Board já usa para colisão, lock e queda.
+ */
+public final class Polyomino {
+
+    /** Maior caixa suportada (as máscaras de linha da PieceShape são 'int'). */
+    public static final int MAX_BOX_SIZE = Integer.SIZE;
+
+    private final String name;
+    private final int cellCount;
+    private final int boxSize;
+    private final PieceShape[] rotations;
+
+    /**
+     * @param cells Pares {x, y} (qualquer origem; são normalizados).
+     * @throws IllegalArgumentException se não houver células, houver repetidas
+     *         ou a peça não couber em {@link #MAX_BOX_SIZE}.
+     */
+    public Polyomino(String name, int[][] cells) {
+        if (cells.length == 0) {
+            throw new IllegalArgumentException("Peça sem células: " + name);
+        }
+        this.name = name;
+        this.cellCount = cells.length;
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int[] cell : cells) {
+            minX = Math.min(minX, cell[0]);
+            minY = Math.min(minY, cell[1]);
+            maxX = Math.max(maxX, cell[0]);
+            maxY = Math.max(maxY, cell[1]);
+        }
+        this.boxSize = Math.max(maxX - minX, maxY - minY) + 1;
+        if (boxSize > MAX_BOX_SIZE) {
+            throw new IllegalArgumentException("Peça grande demais (" + boxSize + "): " + name);
+        }
+
+        int[][] matrix = new int[boxSize][boxSize];
+        for (int[] cell : cells) {
+            int x = cell[0] - minX;
+            int y = cell[1] - minY;
+            if (matrix[y][x] != 0) {
+                throw new IllegalArgumentException("Célula repetida (" + cell[0] + ", " + cell[1] + "): " + name);
+            }
+            matrix[y][x] = 1;
+        }
+
+        // Gira até voltar às células da rotação 0 (período 1, 2 ou 4)
+        List<int[][]> states = new ArrayList<>(4);
+        states.add(matrix);
+        for (int[][] next = rotateClockwise(matrix); !sameFootprint(next, matrix); next = rotateClockwise(next)) {
+            states.add(next);
+        }
+        this.rotations = new PieceShape[states.size()];
+        for (int i = 0; i < rotations.length; i++) {
+            rotations[i] = PieceShape.compile(states.get(i));
+        }
+    }
+
+    private static int[][] rotateClockwise(int[][] matrix) {
+        int n = matrix.length;
+        int[][] rotated = new int[n][n];
+        for (int y = 0; y < n; y++) {
+            for (int x = 0; x < n; x++) {
+                rotated[x][n - 1 - y] = matrix[y][x];
+            }
+        }
+        return rotated;
+    }
+
+    /** Mesmas células, a menos de um deslocamento. */
+    static boolean sameFootprint(int[][] a, int[][] b) {
+        return Arrays.equals(normalizedKey(a), normalizedKey(b));
+    }
+
+    /** As células (y * N + x) depois de encostar a peça no canto; serve de chave de comparação. */
+    static int[] normalizedKey(int[][] matrix) {
+        int n = matrix.length;
+        int minX = n, minY = n, count = 0;
+        for (int y = 0; y < n; y++) {
+            for (int x = 0; x < n; x++) {
+                if (matrix[y][x] != 0) {
+                    minX = Math.min(minX, x);
+                    minY = Math.min(minY, y);
+                    count++;
+                }
+            }
+        }
+        int[] key = new int[count];
+        int i = 0;
+        for (int y = 0; y < n; y++) {
+            for (int x = 0; x < n; x++) {
+                if (matrix[y][x] != 0) {
+                    key[i++] = (y - minY) * n + (x - minX);
+                }
+            }
+        }
+        return key;
+    }
+
+    public String getName() { return name; }
+
+    /** @return Quantas células a peça tem (4 num tetrominó, 5 num pentominó). */
+    public int getCellCount() { return cellCount; }
+
+    /** @return O lado da caixa onde a peça gira. */
+    public int getBoxSize() { return boxSize; }
+
+    /** @return Quantos estados de rotação distintos (1, 2 ou 4). */
+    public int getRotationCount() { return rotations.length; }
+
+    /** @return A forma pré-compilada do estado (0..getRotationCount() - 1). */
+    public PieceShape getShape(int rotation) {
+        return rotations[rotation];
+    }
+
+    /** @return O estado depois de 'turns' quartos de volta (negativo = anti-horário). */
+    public int rotate(int rotation, int turns) {
+        return Math.floorMod(rotation + turns, rotations.length);
+    }
+
+    /** @return A coluna de nascimento (caixa da rotação 0 centralizada no tabuleiro). */
+    public int spawnX(int boardWidth) {
+        PieceShape shape = rotations[0];
+        return (boardWidth - shape.getBoxWidth()) / 2 - shape.getMinX();
+    }
+
+    /** @return A linha de nascimento (a rotação 0 encostada no topo). */
+    public int spawnY() {
+        return -rotations[0].getMinY();
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + cellCount + " células, " + rotations.length + " rotações)";
+    }
+}
@@ -0,0 +1,128 @@
+package com.tetris.model.tetromino;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Gerador da sequência de peças de UM jogo.
+ *
+ * Cada instância tem o seu próprio gerador SplitMix64 (a mesma sequência do
+ * {@link java.util.SplittableRandom}), criado a partir da semente do jogo: a mesma semente dá sempre a mesma sequência (replays,
+ * testes, partidas "de mesma seed"), e simulações em paralelo não disputam
+ * nenhum estado compartilhado. Não é thread-safe (um por jogo).
+ *
+ * As peças saem como ordinal do PieceType (0..6), sem alocar nada.
+ * O estado inteiro pode ser copiado ({@link #copy()}, {@link #copyFrom(Randomizer)})
+ * para keyframes de replay e rollback, e gravado em bytes ({@link #writeTo(ByteBuffer)},
+ * {@link #readFrom(ByteBuffer)}) para save states.
+ */
+public abstract class Randomizer {
+
+    /** As implementações disponíveis. */
+    public enum Kind {
+        /** Sorteio uniforme e independente (o comportamento original do jogo). */
+        UNIFORM,
+        /** "Saco de 7": cada grupo de 7 peças tem uma de cada, em ordem embaralhada. */
+        BAG,
+        /** Estilo TGM: evita repetir as últimas 4 peças (até 6 novos sorteios). */
+        HISTORY;
+
+        public Randomizer create(long seed) {
+            return switch (this) {
+                case UNIFORM -> new UniformRandomizer(seed);
+                case BAG -> new BagRandomizer(seed);
+                case HISTORY -> new HistoryRandomizer(seed);
+            };
+        }
+    }
+
+    protected static final int PIECE_TYPES = 7;
+
+    /** O maior tamanho (em bytes) que {@link #writeTo(ByteBuffer)} escreve. */
+    public static final int MAX_ENCODED_SIZE = 1 + 8 + 8 + 8;
+
+    protected final SplitMix64 random;
+    private long seed;
+
+    protected Randomizer(long seed) {
+        this.seed = seed;
+        this.random = new SplitMix64(seed);
+    }
+
+    /** @return O ordinal (PieceType) da próxima peça da sequência. */
+    public abstract int next();
+
+    /** @return Qual das implementações este gerador é. */
+    public abstract Kind getKind();
+
+    /** @return Um gerador independente, no mesmo ponto da sequência. */
+    public Randomizer copy() {
+        Randomizer copy = getKind().create(seed);
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Copia o estado de outro gerador do mesmo tipo (sem alocar).
+     * As subclasses copiam o que têm a mais e chamam super.copyFrom().
+     * @throws IllegalArgumentException se o outro gerador for de outro tipo.
+     */
+    public void copyFrom(Randomizer other) {
+        if (other.getClass() != getClass()) {
+            throw new IllegalArgumentException("Gerador " + other.getKind() + " não copia em " + getKind());
+        }
+        seed = other.seed;
+        random.setState(other.random.getState());
+    }
+
+    // ========================================================================
+    // ==     ESTADO EM BYTES (save states)      ==
+    // ========================================================================
+
+    /**
+     * Escreve o tipo e o estado inteiro: byte do Kind, long semente, long estado
+     * do SplitMix64 e o que a subclasse tiver a mais.
+     * @throws java.nio.BufferOverflowException se o buffer não tiver espaço.
+     */
+    public final void writeTo(ByteBuffer out) {
+        out.put((byte) getKind().ordinal());
+        out.putLong(seed);
+        out.putLong(random.getState());
+        writeState(out);
+    }
+
+    /**
+     * Lê um gerador escrito por {@link #writeTo(ByteBuffer)}, no mesmo ponto da sequência.
+     * @throws IllegalArgumentException se o tipo ou o estado forem inválidos.
+     */
+    public static Randomizer readFrom(ByteBuffer in) {
+        int ordinal = in.get() & 0xFF;
+        Kind[] kinds = Kind.values();
+        if (ordinal >= kinds.length) {
+            throw new IllegalArgumentException("Gerador inválido: " + ordinal);
+        }
+        Randomizer randomizer = kinds[ordinal].create(in.getLong());
+        randomizer.random.setState(in.getLong());
+        randomizer.readState(in);
+        return randomizer;
+    }
+
+    /** O estado a mais da subclasse (o sorteio uniforme não tem nenhum). */
+    protected void writeState(ByteBuffer out) {
+    }
+
+    /** @throws IllegalArgumentException se o estado lido for inválido. */
+    protected void readState(ByteBuffer in) {
+    }
+
+    /** Lê um ordinal de peça (um byte), validando. */
+    protected static int readPiece(ByteBuffer in) {
+        int piece = in.get() & 0xFF;
+        if (piece >= PIECE_TYPES) {
+            throw new IllegalArgumentException("Peça inválida: " + piece);
+        }
+        return piece;
+    }
+
+    /** @return A semente com que este gerador foi criado. */
+    public long getSeed() { return seed; }
+}
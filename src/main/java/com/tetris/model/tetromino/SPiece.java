@@ -22,7 +22,7 @@ public class SPiece extends Tetromino {
     };
 
     // Repete os 2 estados
-    private static final int[][][] SHAPES = new int[][][]{
+    static final int[][][] SHAPES = new int[][][]{
             STATE_0,
             STATE_1,
             STATE_0,
@@ -30,9 +30,9 @@ public class SPiece extends Tetromino {
     };
 
     /**
-     * Construtor: Passa as 4 formas e o TIPO 'S' para a classe-mãe.
+     * Construtor: Passa as 4 formas (já pré-compiladas em PieceShapes) e o TIPO 'S' para a classe-mãe.
      */
     public SPiece() {
-        super(SHAPES, PieceType.S);
+        super(PieceShapes.rotations(PieceType.S), PieceType.S);
     }
 }
\ No newline at end of file
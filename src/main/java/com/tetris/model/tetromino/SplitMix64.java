@@ -0,0 +1,43 @@
+package com.tetris.model.tetromino;
+
+/**
+ * O mesmo gerador do {@link java.util.SplittableRandom} (SplitMix64, com a
+ * mesma sequência para a mesma semente), mas com o estado à mostra: um único
+ * 'long' que pode ser copiado e restaurado (keyframes de replay, rollback).
+ */
+final class SplitMix64 {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    SplitMix64(long seed) {
+        this.state = seed;
+    }
+
+    /** @return Um inteiro uniforme em [0, bound). */
+    int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Limite inválido: " + bound);
+        }
+        int r = nextInt();
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return r & m; // Potência de 2: só os bits baixos
+        }
+        // Rejeição (como o SplittableRandom): descarta o pedaço final que daria viés
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt() >>> 1) {
+        }
+        return r;
+    }
+
+    int nextInt() {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    long getState() { return state; }
+
+    void setState(long state) { this.state = state; }
+}
@@ -5,7 +5,7 @@ import com.tetris.model.PieceType;
 public class TPiece extends Tetromino {
 
     // Define os 4 estados de rotação para a 'T'
-    private static final int[][][] SHAPES = new int[][][]{
+    static final int[][][] SHAPES = new int[][][]{
             { // Estado 0 (Inicial)
                     {0, 0, 0, 0, 0},
                     {0, 0, 0, 0, 0},
@@ -37,9 +37,9 @@ public class TPiece extends Tetromino {
     };
 
     /**
-     * Construtor: Passa as 4 formas e o TIPO 'T' para a classe-mãe.
+     * Construtor: Passa as 4 formas (já pré-compiladas em PieceShapes) e o TIPO 'T' para a classe-mãe.
      */
     public TPiece() {
-        super(SHAPES, PieceType.T);
+        super(PieceShapes.rotations(PieceType.T), PieceType.T);
     }
 }
\ No newline at end of file
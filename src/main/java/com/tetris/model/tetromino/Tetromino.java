@@ -2,36 +2,61 @@ package com.tetris.model.tetromino;
 
 // Importa o nosso novo "coração"
 import com.tetris.model.PieceType;
+import com.tetris.model.ZobristKeys;
 
 // O 'import javafx.scene.paint.Color;' foi REMOVIDO!
 
 /**
  * Classe abstrata que representa um Tetrominó (uma peça do Tetris).
  * (Versão 2 - Refatorada para usar PieceType em vez de Color)
+ *
+ * (Versão 3) Hoje é um adaptador fino: o estado (tipo, rotação, x, y) é um
+ * único 'int' empacotado ({@link PackedPiece}) e as formas são as tabelas
+ * compartilhadas. O motor mexe direto no 'int'; a View continua usando esta API.
  */
 public abstract class Tetromino {
 
     protected int[][][] shapes;
-    protected int currentState;
+    // Formas pré-compiladas de cada estado (células, caixa, máscaras de linha).
+    // Nas 7 peças padrão é o array compartilhado de PieceShapes.
+    protected PieceShape[] rotations;
 
     // --- A GRANDE MUDANÇA ESTÁ AQUI ---
     // protected Color color; // <-- ISSO FOI REMOVIDO
     protected PieceType type; // <-- ISSO FOI ADICIONADO
     // ---------------------------------
 
-    protected int x, y;
+    // Tipo, rotação, x e y empacotados (ver PackedPiece)
+    protected int state;
+
+    // Chave Zobrist de (tipo, rotação, x, y), atualizada a cada movimento
+    protected long hash;
 
     /**
      * Construtor atualizado.
+     * Pré-compila as matrizes recebidas (formas avulsas, ex: em testes);
+     * as 7 peças padrão usam {@link #Tetromino(PieceShape[], PieceType)}.
      * @param shapes As 4 matrizes de rotação.
      * @param type O *tipo* da peça (ex: PieceType.L), não mais a cor.
      */
     public Tetromino(int[][][] shapes, PieceType type) { // <-- MUDOU AQUI
-        this.shapes = shapes;
+        this(PieceShape.compileAll(shapes), type);
+    }
+
+    /**
+     * Construtor com as formas já pré-compiladas (não varre matriz nenhuma).
+     * @param rotations Um PieceShape por estado de rotação.
+     * @param type O tipo da peça.
+     */
+    protected Tetromino(PieceShape[] rotations, PieceType type) {
+        this.rotations = rotations;
+        this.shapes = new int[rotations.length][][];
+        for (int i = 0; i < rotations.length; i++) {
+            this.shapes[i] = rotations[i].getMatrix();
+        }
         this.type = type; // <-- MUDOU AQUI
-        this.currentState = 0;
-        this.x = 3;
-        this.y = 0;
+        this.state = PackedPiece.of(type, 0, 3, 0);
+        this.hash = computeHash();
     }
 
     /**
@@ -40,7 +65,7 @@ public abstract class Tetromino {
      */
     public void rotate() {
         // Avança para o próximo estado (0 -> 1 -> 2 -> 3 -> 0)
-        currentState = (currentState + 1) % shapes.length;
+        setRotation((PackedPiece.rotation(state) + 1) % rotations.length);
     }
 
     /**
@@ -48,7 +73,33 @@ public abstract class Tetromino {
      * Agora retorna a matriz do estado de rotação ATUAL.
      */
     public int[][] getShape() {
-        return shapes[currentState];
+        return shapes[PackedPiece.rotation(state)];
+    }
+
+    /**
+     * @return As máscaras de linha do estado ATUAL (bit x = coluna x da forma).
+     * Usado pelo Board para testar colisão com shift + AND.
+     */
+    public int[] getShapeMasks() {
+        return rotations[PackedPiece.rotation(state)].getRowMasks();
+    }
+
+    /** @return A forma pré-compilada do estado ATUAL (células, caixa e máscaras). */
+    public PieceShape getPieceShape() {
+        return rotations[PackedPiece.rotation(state)];
+    }
+
+    /** @return A forma pré-compilada da próxima rotação (para testar antes de girar). */
+    public PieceShape getNextPieceShape() {
+        return rotations[(PackedPiece.rotation(state) + 1) % rotations.length];
+    }
+
+    /**
+     * @return Para cada coluna da forma atual, a linha do bloco mais baixo
+     * (-1 se a coluna estiver vazia). Usado no cálculo de queda do Board.
+     */
+    public int[] getColumnBottoms() {
+        return rotations[PackedPiece.rotation(state)].getColumnBottoms();
     }
 
     // --- O GETTER DE COR FOI REMOVIDO ---
@@ -60,15 +111,82 @@ public abstract class Tetromino {
         return type;
     }
 
-    // Getters e Setters de Posição (continuam iguais)
-    public int getX() { return x; }
-    public int getY() { return y; }
-    public void setX(int x) { this.x = x; }
-    public void setY(int y) { this.y = y; }
+    /** @return O estado de rotação atual (índice em 'shapes'). */
+    public int getRotation() { return PackedPiece.rotation(state); }
+
+    /** Põe a peça direto num estado de rotação (ex: ao carregar um estado salvo). */
+    public void setRotation(int rotation) {
+        if (rotation < 0 || rotation >= shapes.length) {
+            throw new IllegalArgumentException("Rotação inválida: " + rotation);
+        }
+        int ordinal = type.ordinal();
+        hash ^= ZobristKeys.pieceRotation(ordinal, getRotation()) ^ ZobristKeys.pieceRotation(ordinal, rotation);
+        state = PackedPiece.withRotation(state, rotation);
+    }
+
+    // Getters e Setters de Posição (os setters também atualizam o hash)
+    public int getX() { return PackedPiece.x(state); }
+    public int getY() { return PackedPiece.y(state); }
+
+    public void setX(int x) {
+        hash ^= ZobristKeys.pieceX(getX()) ^ ZobristKeys.pieceX(x);
+        state = PackedPiece.withX(state, x);
+    }
+
+    public void setY(int y) {
+        hash ^= ZobristKeys.pieceY(getY()) ^ ZobristKeys.pieceY(y);
+        state = PackedPiece.withY(state, y);
+    }
+
+    /** @return O estado empacotado (tipo, rotação, x, y); ver {@link PackedPiece}. */
+    public int getState() { return state; }
+
+    /**
+     * Substitui rotação e posição de uma vez pelo estado empacotado.
+     * @throws IllegalArgumentException se o estado for de outro tipo ou de uma rotação que a peça não tem.
+     */
+    public void setState(int packed) {
+        if (PackedPiece.typeOrdinal(packed) != type.ordinal() || PackedPiece.rotation(packed) >= rotations.length) {
+            throw new IllegalArgumentException("Estado incompatível com " + type + ": " + PackedPiece.toString(packed));
+        }
+        state = packed;
+        hash = PackedPiece.hash(packed);
+    }
+
+    /** @return A chave Zobrist da peça (tipo, rotação, x, y), mantida incrementalmente. */
+    public long getHash() { return hash; }
+
+    /** Recalcula a chave da peça do zero (para conferência). */
+    public long computeHash() {
+        return PackedPiece.hash(state);
+    }
 
     // (Opcional) Para detecção de colisão, você pode precisar "olhar" a próxima rotação
     public int[][] getNextRotationShape() {
-        int nextState = (currentState + 1) % shapes.length;
+        int nextState = (PackedPiece.rotation(state) + 1) % shapes.length;
         return shapes[nextState];
     }
-}
\ No newline at end of file
+
+    /** Máscaras de linha da próxima rotação (o equivalente de getNextRotationShape()). */
+    public int[] getNextRotationMasks() {
+        return getNextPieceShape().getRowMasks();
+    }
+
+    /**
+     * Converte uma matriz de forma em uma máscara por linha.
+     * @param shape Matriz da forma (qualquer valor != 0 é um bloco).
+     * @return Um 'int' por linha, com o bit x ligado se a coluna x tem bloco.
+     */
+    public static int[] toRowMasks(int[][] shape) {
+        return PieceShape.compile(shape).getRowMasks();
+    }
+
+    /**
+     * Para cada coluna da forma, a linha do seu bloco mais baixo.
+     * @param shape Matriz da forma (qualquer valor != 0 é um bloco).
+     * @return Um 'int' por coluna; -1 quando a coluna não tem bloco.
+     */
+    public static int[] toColumnBottoms(int[][] shape) {
+        return PieceShape.compile(shape).getColumnBottoms();
+    }
+}
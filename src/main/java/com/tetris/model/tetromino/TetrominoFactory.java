@@ -1,6 +1,8 @@
 package com.tetris.model.tetromino;
 
-import java.util.Random;
+import com.tetris.model.PieceType;
+
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Supplier;
 
 /**
@@ -10,6 +12,7 @@ import java.util.function.Supplier;
  */
 public class TetrominoFactory {
     // Array de construtores de peças para facilitar a seleção aleatória
+    // (na mesma ordem do enum PieceType: I, J, L, O, S, T, Z)
     private static final Supplier<Tetromino>[] PIECE_SUPPLIERS = new Supplier[]{
             IPiece::new,
             JPiece::new,
@@ -20,12 +23,43 @@ public class TetrominoFactory {
             ZPiece::new
     };
 
-    private static final Random random = new Random();
-
     /**
      * @return Uma instância de Tetrominó selecionada aleatoriamente.
      */
     public static Tetromino getRandomTetromino() {
-        return PIECE_SUPPLIERS[random.nextInt(PIECE_SUPPLIERS.length)].get();
+        return PIECE_SUPPLIERS[ThreadLocalRandom.current().nextInt(PIECE_SUPPLIERS.length)].get();
+    }
+
+    /**
+     * @return Um tipo de peça aleatório, sem criar objeto nenhum
+     * (para quem guarda a peça como estado empacotado, ver {@link PackedPiece}).
+     * Sem semente: para sequências reproduzíveis use um {@link Randomizer}.
+     */
+    public static PieceType getRandomType() {
+        return PieceDefinition.of(ThreadLocalRandom.current().nextInt(PIECE_SUPPLIERS.length)).getType();
+    }
+
+    /**
+     * @param type Um dos 7 tipos de peça (I, J, L, O, S, T ou Z).
+     * @return Uma peça nova desse tipo (rotação 0, posição inicial).
+     * @throws IllegalArgumentException para LOCKED/GHOST, que não são peças.
+     */
+    public static Tetromino create(PieceType type) {
+        if (type.ordinal() >= PIECE_SUPPLIERS.length) {
+            throw new IllegalArgumentException("Não é um tipo de peça: " + type);
+        }
+        return PIECE_SUPPLIERS[type.ordinal()].get();
+    }
+
+    /**
+     * @return Uma peça de cada tipo, indexadas pelo ordinal do PieceType
+     * (adaptadores reaproveitáveis: quem guarda a peça empacotada só troca o estado).
+     */
+    public static Tetromino[] createOneOfEach() {
+        Tetromino[] pieces = new Tetromino[PIECE_SUPPLIERS.length];
+        for (int i = 0; i < pieces.length; i++) {
+            pieces[i] = PIECE_SUPPLIERS[i].get();
+        }
+        return pieces;
     }
-}
\ No newline at end of file
+}
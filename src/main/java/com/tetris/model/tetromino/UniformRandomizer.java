@@ -0,0 +1,20 @@
+package com.tetris.model.tetromino;
+
+/**
+ * Sorteio uniforme e independente entre as 7 peças
+ * (o que o TetrominoFactory sempre fez, agora com semente).
+ */
+public class UniformRandomizer extends Randomizer {
+
+    public UniformRandomizer(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public int next() {
+        return random.nextInt(PIECE_TYPES);
+    }
+
+    @Override
+    public Kind getKind() { return Kind.UNIFORM; }
+}
@@ -22,7 +22,7 @@ public class ZPiece extends Tetromino {
     };
 
     // Repete os 2 estados
-    private static final int[][][] SHAPES = new int[][][]{
+    static final int[][][] SHAPES = new int[][][]{
             STATE_0,
             STATE_1,
             STATE_0,
@@ -30,9 +30,9 @@ public class ZPiece extends Tetromino {
     };
 
     /**
-     * Construtor: Passa as 4 formas e o TIPO 'Z' para a classe-mãe.
+     * Construtor: Passa as 4 formas (já pré-compiladas em PieceShapes) e o TIPO 'Z' para a classe-mãe.
      */
     public ZPiece() {
-        super(SHAPES, PieceType.Z);
+        super(PieceShapes.rotations(PieceType.Z), PieceType.Z);
     }
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+package com.tetris.net;
+
+import com.tetris.simulation.RollbackSession;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Leva as entradas de uma {@link RollbackSession} até um par remoto por UDP.
+ *
+ * Cada pacote repete todas as entradas locais que o outro lado ainda não
+ * confirmou (perder um pacote não custa nada: o próximo traz tudo de novo) e
+ * diz até que quadro já chegaram as entradas dele:
+ * <pre>
+ *   byte   jogador que enviou
+ *   long   quadro da primeira entrada
+ *   long   último quadro recebido do outro lado (confirmação), -1 = nenhum
+ *   short  número de entradas
+ *   byte   entradas (bits de Input), uma por quadro
+ * </pre>
+ * O canal é não bloqueante e os buffers são fixos: enviar e receber a cada
+ * quadro não aloca. Não há handshake nem reenvio próprio: quem chama só
+ * precisa chamar {@link #send()} e {@link #poll()} a cada quadro.
+ */
+public final class UdpInputLink implements AutoCloseable {
+
+    private static final int HEADER_BYTES = 1 + 8 + 8 + 2;
+    private static final int MAX_INPUTS = 1024;
+
+    private final RollbackSession session;
+    private final int remotePlayer;
+    private final DatagramChannel channel;
+    private final ByteBuffer out = ByteBuffer.allocateDirect(HEADER_BYTES + MAX_INPUTS);
+    private final ByteBuffer in = ByteBuffer.allocateDirect(HEADER_BYTES + MAX_INPUTS);
+    private long ackedByPeer = -1; // Último quadro local que o outro lado confirmou
+    private long packetsSent;
+    private long packetsReceived;
+    private long packetsDropped;
+
+    /**
+     * @param session      A sessão deste par.
+     * @param remotePlayer O jogador controlado pelo outro lado.
+     * @param local        Endereço local (porta 0 = qualquer uma livre).
+     * @param remote       Endereço do outro par.
+     */
+    public UdpInputLink(RollbackSession session, int remotePlayer,
+                        InetSocketAddress local, InetSocketAddress remote) throws IOException {
+        this(session, remotePlayer, DatagramChannel.open(StandardProtocolFamily.INET).bind(local));
+        connect(remote);
+    }
+
+    /**
+     * Liga a sessão a um canal já aberto (ainda sem destino: ver {@link #connect(InetSocketAddress)}).
+     * Útil para abrir os dois lados antes de saber as portas um do outro.
+     */
+    public UdpInputLink(RollbackSession session, int remotePlayer, DatagramChannel channel) throws IOException {
+        this.session = session;
+        this.remotePlayer = remotePlayer;
+        this.channel = channel;
+        channel.configureBlocking(false);
+    }
+
+    /** Fixa o par remoto (só aceita pacotes dele). */
+    public void connect(InetSocketAddress remote) throws IOException {
+        channel.connect(remote);
+    }
+
+    /** @return O endereço local (ex: a porta escolhida para a porta 0). */
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return (InetSocketAddress) channel.getLocalAddress();
+    }
+
+    /** Envia as entradas locais que o outro lado ainda não confirmou. */
+    public void send() throws IOException {
+        long first = Math.max(ackedByPeer + 1, session.getOldestLocalFrame());
+        long end = session.getCurrentFrame();
+        int count = (int) Math.min(end - first, MAX_INPUTS);
+        if (count < 0) {
+            count = 0;
+        }
+        out.clear();
+        out.put((byte) session.getLocalPlayer());
+        out.putLong(first);
+        out.putLong(session.getConfirmedFrame(remotePlayer));
+        out.putShort((short) count);
+        for (int i = 0; i < count; i++) {
+            out.put((byte) session.getLocalInput(first + i));
+        }
+        out.flip();
+        channel.write(out); // UDP: se o buffer do sistema estiver cheio, o pacote se perde (e vai de novo)
+        packetsSent++;
+    }
+
+    /**
+     * Lê todos os pacotes que já chegaram e passa as entradas para a sessão.
+     * Pacotes malformados, de outro jogador ou com quadros fora da janela da
+     * sessão (o outro lado muito adiantado, ou lixo) são descartados inteiros,
+     * sem derrubar os que vêm depois.
+     * @return Quantos pacotes foram lidos (sem os descartados).
+     */
+    public int poll() throws IOException {
+        int packets = 0;
+        while (true) {
+            in.clear();
+            if (channel.read(in) <= 0) {
+                break;
+            }
+            in.flip();
+            if (in.remaining() < HEADER_BYTES) {
+                packetsDropped++; // Pacote estranho: ignora
+                continue;
+            }
+            int player = in.get();
+            long first = in.getLong();
+            long ack = in.getLong();
+            int count = in.getShort();
+            if (player != remotePlayer || count < 0 || count > in.remaining() || !inWindow(first, count)) {
+                packetsDropped++;
+                continue;
+            }
+            ackedByPeer = Math.max(ackedByPeer, ack);
+            for (int i = 0; i < count; i++) {
+                long frame = first + i;
+                if (frame > session.getConfirmedFrame(remotePlayer)) {
+                    session.addRemoteInput(remotePlayer, frame, in.get() & 0xFF);
+                } else {
+                    in.get(); // Já confirmada
+                }
+            }
+            packets++;
+        }
+        packetsReceived += packets;
+        return packets;
+    }
+
+    /** As entradas ainda não confirmadas do pacote (de 'first' a 'first + count - 1') cabem na sessão? */
+    private boolean inWindow(long first, int count) {
+        if (first < 0 || first > Long.MAX_VALUE - count) {
+            return false;
+        }
+        long from = Math.max(first, session.getConfirmedFrame(remotePlayer) + 1);
+        long last = first + count - 1;
+        return from > last // Nada novo: vazio ou tudo já confirmado
+                || (session.acceptsRemoteFrame(from) && session.acceptsRemoteFrame(last));
+    }
+
+    public long getPacketsSent() { return packetsSent; }
+    public long getPacketsReceived() { return packetsReceived; }
+    /** @return Pacotes descartados (malformados, de outro jogador ou fora da janela). */
+    public long getPacketsDropped() { return packetsDropped; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
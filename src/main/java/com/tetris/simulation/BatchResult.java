@@ -0,0 +1,162 @@
+package com.tetris.simulation;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * O resultado de um lote de jogos ({@link BatchSimulator}): os números de
+ * cada jogo, na ordem das sementes, e as distribuições agregadas.
+ */
+public final class BatchResult {
+
+    private final long[] seeds;
+    private final int[] scores;
+    private final int[] lines;
+    private final int[] pieces;
+    private final int[] frames;
+    private final boolean[] gameOver;
+    private final int mismatches;
+    private final long wallNanos;
+
+    BatchResult(long[] seeds, int[] scores, int[] lines, int[] pieces, int[] frames,
+                boolean[] gameOver, int mismatches, long wallNanos) {
+        this.seeds = seeds;
+        this.scores = scores;
+        this.lines = lines;
+        this.pieces = pieces;
+        this.frames = frames;
+        this.gameOver = gameOver;
+        this.mismatches = mismatches;
+        this.wallNanos = wallNanos;
+    }
+
+    public int getGames() { return scores.length; }
+
+    public long getSeed(int game) { return seeds[game]; }
+    public int getScore(int game) { return scores[game]; }
+    public int getLines(int game) { return lines[game]; }
+    public int getPieces(int game) { return pieces[game]; }
+    public int getFrames(int game) { return frames[game]; }
+    public boolean isGameOver(int game) { return gameOver[game]; }
+
+    /** @return Quantos jogos terminaram em GAME_OVER (os outros pararam pela meta ou pelo limite). */
+    public int getGameOverCount() {
+        int count = 0;
+        for (boolean over : gameOver) {
+            if (over) count++;
+        }
+        return count;
+    }
+
+    /** @return Em lotes de replays: quantos não bateram com o resultado gravado. */
+    public int getMismatchCount() { return mismatches; }
+
+    // ========================================================================
+    // ==     DISTRIBUIÇÕES      ==
+    // ========================================================================
+
+    public Distribution getScoreDistribution() {
+        return Distribution.of(scores.length, i -> scores[i]);
+    }
+
+    public Distribution getLinesDistribution() {
+        return Distribution.of(lines.length, i -> lines[i]);
+    }
+
+    /** Peças por segundo de jogo (não de relógio): peças / (quadros / 60). */
+    public Distribution getPiecesPerSecondDistribution() {
+        return Distribution.of(pieces.length,
+                i -> frames[i] == 0 ? 0 : pieces[i] * (double) GameSimulation.FPS / frames[i]);
+    }
+
+    /** Duração de cada jogo, em segundos de jogo. */
+    public Distribution getDurationDistribution() {
+        return Distribution.of(frames.length, i -> frames[i] / (double) GameSimulation.FPS);
+    }
+
+    // ========================================================================
+    // ==     VAZÃO      ==
+    // ========================================================================
+
+    /** @return O tempo de relógio do lote inteiro. */
+    public long getWallNanos() { return wallNanos; }
+
+    public double getGamesPerSecond() {
+        return scores.length * 1e9 / wallNanos;
+    }
+
+    /** @return Quadros simulados por segundo de relógio (somando todas as threads). */
+    public double getFramesPerSecond() {
+        long total = 0;
+        for (int f : frames) {
+            total += f;
+        }
+        return total * 1e9 / wallNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d jogos em %.1f ms (%.0f jogos/s, %.1f M quadros/s)%n"
+                        + "  pontos:         %s%n  linhas:         %s%n  peças/s:        %s%n  duração (s):    %s",
+                getGames(), wallNanos / 1e6, getGamesPerSecond(), getFramesPerSecond() / 1e6,
+                getScoreDistribution(), getLinesDistribution(),
+                getPiecesPerSecondDistribution(), getDurationDistribution());
+    }
+
+    /** Resumo de uma métrica: média, desvio, mínimo, máximo e percentis. */
+    public static final class Distribution {
+
+        private final double[] sorted;
+        private final double mean;
+        private final double stdDev;
+
+        private Distribution(double[] values) {
+            this.sorted = values;
+            Arrays.sort(sorted);
+            double sum = 0;
+            for (double v : sorted) {
+                sum += v;
+            }
+            this.mean = sorted.length == 0 ? 0 : sum / sorted.length;
+            double squares = 0;
+            for (double v : sorted) {
+                squares += (v - mean) * (v - mean);
+            }
+            this.stdDev = sorted.length == 0 ? 0 : Math.sqrt(squares / sorted.length);
+        }
+
+        private static Distribution of(int count, IntToDoubleFunction value) {
+            double[] values = new double[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = value.applyAsDouble(i);
+            }
+            return new Distribution(values);
+        }
+
+        public double getMean() { return mean; }
+        public double getStdDev() { return stdDev; }
+        public double getMin() { return sorted.length == 0 ? 0 : sorted[0]; }
+        public double getMax() { return sorted.length == 0 ? 0 : sorted[sorted.length - 1]; }
+
+        /**
+         * @param p Entre 0 e 100 (ex: 50 = mediana, 99).
+         * @return O valor do percentil (método do "valor mais próximo").
+         */
+        public double percentile(double p) {
+            if (p < 0 || p > 100) {
+                throw new IllegalArgumentException("Percentil fora de 0..100: " + p);
+            }
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p / 100 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("média %.1f ± %.1f  [mín %.1f  p50 %.1f  p90 %.1f  p99 %.1f  máx %.1f]",
+                    mean, stdDev, getMin(), percentile(50), percentile(90), percentile(99), getMax());
+        }
+    }
+}
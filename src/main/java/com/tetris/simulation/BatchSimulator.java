@@ -0,0 +1,152 @@
+package com.tetris.simulation;
+
+import com.tetris.model.GameState;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Roda lotes de jogos completos em paralelo (ajuste de gravidade/pontuação,
+ * testes de regressão de regras).
+ *
+ * Cada jogo tem a sua {@link GameSimulation}, o seu gerador de peças (a semente
+ * é a do lote + o índice do jogo) e a sua {@link InputPolicy}; nada é
+ * compartilhado entre jogos. Os jogos são repartidos num ForkJoinPool (roubo de
+ * trabalho: uma thread que acaba cedo pega metade do que sobrou de outra), e
+ * cada um escreve o seu resultado na sua própria posição dos arrays: não há
+ * trava nenhuma, e o resultado não depende do número de threads.
+ */
+public final class BatchSimulator {
+
+    private final int parallelism;
+
+    /** Usa todos os núcleos da máquina. */
+    public BatchSimulator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public BatchSimulator(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Paralelismo inválido: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    public int getParallelism() { return parallelism; }
+
+    /**
+     * Joga 'games' jogos com as sementes firstSeed, firstSeed + 1, ...
+     * @param policy Cria a política de entradas de cada jogo (ex: SimpleBot, RandomAgent).
+     */
+    public BatchResult run(GameConfig config, long firstSeed, int games, InputPolicy.Factory policy) {
+        Batch batch = new Batch(games) {
+            @Override
+            void play(int game) {
+                long seed = firstSeed + game;
+                GameSimulation simulation = config.newSimulation(seed);
+                InputPolicy inputs = policy.create(seed, simulation);
+                while (!config.isFinished(simulation)) {
+                    simulation.step(inputs.nextInputs(simulation));
+                }
+                store(game, seed, simulation);
+            }
+        };
+        return batch.run();
+    }
+
+    /**
+     * Refaz replays gravados em paralelo, no modo de verificação
+     * (ver {@link BatchResult#getMismatchCount()}).
+     */
+    public BatchResult runReplays(List<Replay> replays) {
+        Batch batch = new Batch(replays.size()) {
+            @Override
+            void play(int game) {
+                ReplayPlayer player = new ReplayPlayer(replays.get(game));
+                player.setKeyframeInterval(0, 0); // Só anda para frente: keyframes seriam só custo
+                if (!player.verify()) {
+                    mismatched[game] = true;
+                }
+                store(game, replays.get(game).getSeed(), player.getSimulation());
+            }
+        };
+        return batch.run();
+    }
+
+    /** Um lote: os arrays de resultado (um slot por jogo) + a repartição no pool. */
+    private abstract class Batch {
+        final long[] seeds;
+        final int[] scores;
+        final int[] lines;
+        final int[] pieces;
+        final int[] frames;
+        final boolean[] gameOver;
+        final boolean[] mismatched;
+
+        Batch(int games) {
+            if (games < 0) {
+                throw new IllegalArgumentException("Número de jogos inválido: " + games);
+            }
+            seeds = new long[games];
+            scores = new int[games];
+            lines = new int[games];
+            pieces = new int[games];
+            frames = new int[games];
+            gameOver = new boolean[games];
+            mismatched = new boolean[games];
+        }
+
+        abstract void play(int game);
+
+        void store(int game, long seed, GameSimulation simulation) {
+            seeds[game] = seed;
+            scores[game] = simulation.getScore();
+            lines[game] = simulation.getLinesCleared();
+            pieces[game] = (int) simulation.getLockCount();
+            frames[game] = (int) simulation.getFrame();
+            gameOver[game] = simulation.getState() == GameState.GAME_OVER;
+        }
+
+        BatchResult run() {
+            long start = System.nanoTime();
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new Range(this, 0, scores.length));
+            } finally {
+                pool.shutdown();
+            }
+            long wall = System.nanoTime() - start;
+            int mismatches = 0;
+            for (boolean m : mismatched) {
+                if (m) mismatches++;
+            }
+            return new BatchResult(seeds, scores, lines, pieces, frames, gameOver, mismatches, wall);
+        }
+    }
+
+    /** Divide o intervalo de jogos ao meio até sobrar um jogo por tarefa. */
+    private static final class Range extends RecursiveAction {
+        private final Batch batch;
+        private final int from;
+        private final int to;
+
+        Range(Batch batch, int from, int to) {
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) {
+                    batch.play(from);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Range(batch, from, middle), new Range(batch, middle, to));
+        }
+    }
+}
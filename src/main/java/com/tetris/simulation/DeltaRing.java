@@ -0,0 +1,72 @@
+package com.tetris.simulation;
+
+/**
+ * Anel pré-alocado de {@link StateDelta}: a simulação publica no máximo um
+ * delta por quadro e a interface drena o que houver uma vez por pulso.
+ *
+ * Um produtor e um consumidor (podem ser threads diferentes): cada lado só
+ * escreve o seu contador, e os contadores são voláteis, então não há trava.
+ * Com o anel cheio a simulação não publica; as mudanças continuam acumuladas
+ * nela e saem juntas no próximo delta (nada se perde, só se junta).
+ */
+public final class DeltaRing {
+
+    private final StateDelta[] slots;
+    private final int mask;
+    private volatile long published; // Escrito só pelo produtor
+    private volatile long consumed;  // Escrito só pelo consumidor
+
+    /**
+     * @param capacity    Quantos deltas cabem antes de a simulação passar a acumular
+     *                    (arredondado para potência de 2).
+     * @param boardHeight Altura do tabuleiro (tamanho das listas de linhas em limpeza).
+     */
+    public DeltaRing(int capacity, int boardHeight) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity * 2 - 1);
+        this.slots = new StateDelta[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new StateDelta(boardHeight);
+        }
+        this.mask = size - 1;
+    }
+
+    public int getCapacity() { return slots.length; }
+
+    // --- Produtor ---
+
+    /** @return O próximo slot livre para preencher, ou null se o anel estiver cheio. */
+    StateDelta claim() {
+        long next = published;
+        return next - consumed < slots.length ? slots[(int) next & mask] : null;
+    }
+
+    /** Publica o slot devolvido pelo último claim(). */
+    void publish() {
+        published = published + 1; // Escrita volátil: o conteúdo do slot fica visível antes
+    }
+
+    // --- Consumidor ---
+
+    /**
+     * Junta todos os deltas publicados em 'into' (ver {@link StateDelta#mergeFrom(StateDelta)})
+     * e devolve os slots ao produtor.
+     * @return Quantos deltas foram drenados.
+     */
+    public int drainInto(StateDelta into) {
+        long from = consumed;
+        long to = published;
+        for (long i = from; i < to; i++) {
+            into.mergeFrom(slots[(int) i & mask]);
+        }
+        consumed = to;
+        return (int) (to - from);
+    }
+
+    /** @return Quantos deltas estão esperando o consumidor. */
+    public int size() {
+        return (int) (published - consumed);
+    }
+}
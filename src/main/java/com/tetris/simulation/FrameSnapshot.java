@@ -0,0 +1,98 @@
+package com.tetris.simulation;
+
+import com.tetris.model.BoardView;
+import com.tetris.model.GameState;
+import com.tetris.model.PieceType;
+import com.tetris.model.tetromino.PackedPiece;
+
+/**
+ * Tudo o que o renderizador precisa para desenhar um quadro: as células do
+ * tabuleiro, a peça em jogo, a fantasma (onde ela cairia), next/hold e os
+ * números do HUD. Preenchida pela thread da simulação e entregue por um
+ * {@link TripleBuffer}: enquanto o leitor segura uma foto, ninguém escreve
+ * nela, então ela pode ser lida sem trava (não há setters públicos).
+ */
+public final class FrameSnapshot {
+
+    private final int width;
+    private final int height;
+    private final PieceType[] cells; // (x, y) em cells[y * largura + x]
+    private long boardVersion = -1;
+    private final int[] clearingLines;
+    private int clearingCount;
+
+    private long frame;
+    private int current = PackedPiece.NONE;
+    private int ghost = PackedPiece.NONE;
+    private int next = PackedPiece.NONE;
+    private int held = PackedPiece.NONE;
+    private int score;
+    private int level;
+    private int linesCleared;
+    private GameState state = GameState.PLAYING;
+
+    public FrameSnapshot(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = new PieceType[width * height];
+        this.clearingLines = new int[height];
+    }
+
+    /**
+     * Copia o estado atual da simulação (chamado pela thread dona dela).
+     * As células só são recopiadas se o tabuleiro mudou desde a última vez
+     * que ESTA foto foi preenchida.
+     */
+    void fill(GameSimulation simulation) {
+        BoardView view = simulation.getBoard().view();
+        boardVersion = view.copyIfChanged(cells, boardVersion);
+        frame = simulation.getFrame();
+        state = simulation.getState();
+        current = simulation.getCurrentPiece().getState();
+        ghost = simulation.getGhostPiece(); // Em cache: só muda quando a peça ou o tabuleiro mudam
+        next = simulation.getNextPiece().getState();
+        held = simulation.getHeldPiece() == null ? PackedPiece.NONE : simulation.getHeldPiece().getState();
+        score = simulation.getScore();
+        level = simulation.getLevel();
+        linesCleared = simulation.getLinesCleared();
+        clearingCount = simulation.getClearingLineCount();
+        for (int i = 0; i < clearingCount; i++) {
+            clearingLines[i] = simulation.getClearingLine(i);
+        }
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    /** @return O tipo da célula (x, y), ou null se estiver vazia. */
+    public PieceType getCell(int x, int y) {
+        return cells[y * width + x];
+    }
+
+    /** @return A versão do tabuleiro copiada (muda quando as células mudam). */
+    public long getBoardVersion() { return boardVersion; }
+
+    /** @return O quadro da simulação desta foto. */
+    public long getFrame() { return frame; }
+    public GameState getState() { return state; }
+
+    /** @return A peça em jogo, empacotada (ver {@link PackedPiece}). */
+    public int getCurrent() { return current; }
+    /** @return A peça em jogo já no ponto de pouso, ou NONE fora de PLAYING. */
+    public int getGhost() { return ghost; }
+    public int getNext() { return next; }
+    /** @return A peça do hold, ou {@link PackedPiece#NONE}. */
+    public int getHeld() { return held; }
+
+    public int getScore() { return score; }
+    public int getLevel() { return level; }
+    public int getLinesCleared() { return linesCleared; }
+
+    public int getClearingLineCount() { return clearingCount; }
+    public int getClearingLine(int i) {
+        if (i < 0 || i >= clearingCount) {
+            throw new IndexOutOfBoundsException("Linha " + i + " de " + clearingCount);
+        }
+        return clearingLines[i];
+    }
+}
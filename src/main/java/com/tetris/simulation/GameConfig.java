@@ -0,0 +1,90 @@
+package com.tetris.simulation;
+
+import com.tetris.model.Board;
+import com.tetris.model.GameState;
+import com.tetris.model.RotationSystem;
+import com.tetris.model.tetromino.Randomizer;
+
+/**
+ * As regras e limites de um jogo sem interface (ver {@link BatchSimulator}):
+ * tamanho do tabuleiro, gerador de peças, sistema de rotação, gravidade, espera da
+ * limpeza de linhas e quando parar (meta de linhas ou limite de quadros).
+ * Só a semente muda de um jogo para outro do lote.
+ */
+public final class GameConfig {
+
+    /** Limite padrão de um jogo: 1 hora de jogo. */
+    public static final int DEFAULT_MAX_FRAMES = 60 * 60 * GameSimulation.FPS;
+
+    private int width = Board.WIDTH;
+    private int height = Board.HEIGHT;
+    private Randomizer.Kind randomizerKind = Randomizer.Kind.UNIFORM;
+    private RotationSystem rotationSystem = RotationSystem.CLASSIC;
+    private GravityCurve gravityCurve = GravityCurve.CLASSIC;
+    private int lineClearFrames = 0;
+    private int lineGoal = 0; // 0 = joga até o fim do jogo
+    private int maxFrames = DEFAULT_MAX_FRAMES;
+
+    /** @return Uma simulação nova com estas regras e a semente dada, já iniciada. */
+    public GameSimulation newSimulation(long seed) {
+        GameSimulation simulation = new GameSimulation(width, height);
+        simulation.setRandomizer(randomizerKind);
+        simulation.setRotationSystem(rotationSystem);
+        simulation.setGravityCurve(gravityCurve);
+        simulation.setLineClearFrames(lineClearFrames);
+        simulation.setSeed(seed);
+        simulation.initializeGame();
+        return simulation;
+    }
+
+    /** @return true se o jogo já chegou ao fim pelas regras do lote (fim de jogo, meta ou limite). */
+    public boolean isFinished(GameSimulation simulation) {
+        return simulation.getState() == GameState.GAME_OVER
+                || simulation.getFrame() >= maxFrames
+                || (lineGoal > 0 && simulation.getLinesCleared() >= lineGoal);
+    }
+
+    public void setBoardSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public void setRandomizer(Randomizer.Kind kind) { this.randomizerKind = kind; }
+    public void setRotationSystem(RotationSystem rotationSystem) { this.rotationSystem = rotationSystem; }
+    public void setGravityCurve(GravityCurve gravityCurve) { this.gravityCurve = gravityCurve; }
+
+    /**
+     * @param frames Quadros de espera da limpeza de linhas (não pode ser manual:
+     *               num lote ninguém chamaria finishLineClear()).
+     */
+    public void setLineClearFrames(int frames) {
+        if (frames < 0) {
+            throw new IllegalArgumentException("Espera inválida num lote: " + frames);
+        }
+        this.lineClearFrames = frames;
+    }
+
+    /** @param lines Para o jogo ao chegar nessas linhas (ex: 40 num sprint); 0 = até o fim do jogo. */
+    public void setLineGoal(int lines) {
+        if (lines < 0) {
+            throw new IllegalArgumentException("Meta inválida: " + lines);
+        }
+        this.lineGoal = lines;
+    }
+
+    public void setMaxFrames(int frames) {
+        if (frames < 1) {
+            throw new IllegalArgumentException("Limite inválido: " + frames);
+        }
+        this.maxFrames = frames;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public Randomizer.Kind getRandomizerKind() { return randomizerKind; }
+    public RotationSystem getRotationSystem() { return rotationSystem; }
+    public GravityCurve getGravityCurve() { return gravityCurve; }
+    public int getLineClearFrames() { return lineClearFrames; }
+    public int getLineGoal() { return lineGoal; }
+    public int getMaxFrames() { return maxFrames; }
+}
@@ -0,0 +1,863 @@
+package com.tetris.simulation;
+
+import com.tetris.model.Board;
+import com.tetris.model.GameState;
+import com.tetris.model.PieceType;
+import com.tetris.model.RotationSystem;
+import com.tetris.model.ZobristKeys;
+import com.tetris.model.tetromino.PackedPiece;
+import com.tetris.model.tetromino.PieceQueue;
+import com.tetris.model.tetromino.Randomizer;
+import com.tetris.model.tetromino.Tetromino;
+import com.tetris.model.tetromino.TetrominoFactory;
+
+import java.util.SplittableRandom;
+
+/**
+ * Núcleo da simulação do jogo, em Java puro (sem JavaFX, sem relógio).
+ *
+ * O tempo anda em quadros fixos de 1/60 s: {@link #step(int)} aplica as
+ * entradas de um quadro e avança a gravidade; {@link #tick(int)} avança
+ * vários quadros sem entradas. Nada depende de System.nanoTime(), então um
+ * jogo inteiro roda tão rápido quanto a CPU deixar (servidor, CI, bots) e,
+ * com a mesma semente e as mesmas entradas, sempre do mesmo jeito.
+ *
+ * O {@link com.tetris.controller.GameEngine} é só um adaptador: traduz teclas
+ * em {@link Input}, avança os quadros pelo AnimationTimer e espelha o estado
+ * nas propriedades que a interface observa.
+ */
+public class GameSimulation {
+
+    /** Quadros por segundo da simulação. */
+    public static final int FPS = 60;
+    public static final long FRAME_NANOS = 1_000_000_000L / FPS;
+
+    /** {@link #setLineClearFrames(int)}: espera {@link #finishLineClear()} (ex: a animação da View). */
+    public static final int MANUAL_LINE_CLEAR = -1;
+
+    /** Quantas peças a fila de "next" mostra à frente (o HUD usa só a primeira). */
+    public static final int PREVIEW_DEPTH = 6;
+
+    private final Board board;
+    private Tetromino currentPiece;
+    private Tetromino nextPiece;
+    private Tetromino heldPiece; // Onde a peça fica guardada (null = vazio)
+    private boolean canHold; // Regra "uma vez por peça"
+
+    // Adaptadores pré-alocados (um por tipo em cada papel): a peça em jogo é um
+    // 'int' empacotado (PackedPiece) dentro do adaptador, e nascer/trocar peça
+    // só muda esse 'int' em vez de criar objetos.
+    private final Tetromino[] currentSlots = TetrominoFactory.createOneOfEach();
+    private final Tetromino[] nextSlots = TetrominoFactory.createOneOfEach();
+    private final Tetromino[] heldSlots = TetrominoFactory.createOneOfEach();
+    // Muda sempre que next/hold mudam (para quem espelha isso na interface)
+    private int pieceSerial;
+
+    private int score;
+    private int level = 1;
+    private int linesCleared;
+    private GameState state = GameState.PLAYING;
+
+    // Buffer reutilizável das linhas cheias (evita a lista/boxing a cada lock)
+    private final int[] fullLinesBuffer;
+    private int fullLinesCount;
+
+    // Coluna onde as peças nascem (centralizada; 3 no tabuleiro padrão)
+    private final int spawnX;
+
+    private RotationSystem rotationSystem = RotationSystem.CLASSIC; // Chutes de rotação
+
+    // Gravidade por nível e atraso de travamento (ver GravityCurve)
+    private GravityCurve gravityCurve = GravityCurve.CLASSIC;
+    private int lockDelayFrames = GravityCurve.CLASSIC.getLockDelayFrames();
+    private int maxLockResets = GravityCurve.CLASSIC.getMaxLockResets();
+
+    // Sequência de peças: um gerador com semente por jogo + a fila de pré-visualização
+    private Randomizer.Kind randomizerKind = Randomizer.Kind.UNIFORM;
+    private Long fixedSeed; // null = uma semente nova a cada jogo
+    private PieceQueue pieceQueue;
+
+    // Relógio em quadros
+    private long frame;
+    private long lockCount;
+    private int gravityCounter; // Quadros desde a última descida, em ponto fixo (GravityCurve.FRAME_UNIT)
+    private int lockTimer;      // Quadros que a peça atual passou encostada
+    private int lockResets;     // Move resets já gastos pela peça atual
+    private int lowestY;        // A linha mais baixa que a peça atual já alcançou
+    private int lineClearFrames = 0; // Quadros de espera na limpeza (0 = na hora)
+    private int lineClearCounter;
+
+    private ReplayRecorder recorder; // null = não grava
+
+    // Fantasma em cache (ver getGhostPiece()): o pouso só muda se a peça mudar de
+    // coluna/rotação/tipo, subir acima de onde foi calculado, ou se o tabuleiro mudar
+    private int ghostPiece = PackedPiece.NONE;
+    private int ghostKey = PackedPiece.NONE;   // A peça com y = 0
+    private int ghostFromY;                    // O y de onde o pouso foi calculado
+    private long ghostBoardVersion = -1;
+    private long ghostComputations;
+
+    // Publicação dos deltas (ver flushEvents()): os últimos valores publicados
+    private DeltaRing eventRing; // null = não publica
+    private boolean publishAll = true;
+    private int publishedScore;
+    private int publishedLevel;
+    private int publishedLines;
+    private GameState publishedState;
+    private int publishedSerial;
+    private int publishedCurrent;
+    private long publishedBoardHash;
+    private long publishedLockCount;
+    private int publishedClearingCount;
+
+    public GameSimulation() {
+        this(Board.WIDTH, Board.HEIGHT);
+    }
+
+    /** Simulação com um tabuleiro de dimensões próprias (ex: 40x80 cooperativo). */
+    public GameSimulation(int width, int height) {
+        this.board = new Board(width, height);
+        this.fullLinesBuffer = new int[height];
+        this.spawnX = (width - 4) / 2;
+    }
+
+    /** Começa um jogo novo (tabuleiro vazio, pontuação zerada, nova sequência de peças). */
+    public void initializeGame() {
+        board.clear();
+        score = 0;
+        level = 1;
+        linesCleared = 0;
+
+        heldPiece = null;
+        canHold = true;
+
+        pieceQueue = newPieceQueue();
+        currentPiece = adapt(currentSlots, PackedPiece.of(pieceQueue.next(), 0, spawnX, 0));
+        nextPiece = adapt(nextSlots, PackedPiece.of(pieceQueue.peek(0), 0, spawnX, 0));
+        pieceSerial++;
+        resetLockDelay();
+
+        frame = 0;
+        lockCount = 0;
+        gravityCounter = 0;
+        lineClearCounter = 0;
+        fullLinesCount = 0;
+        state = GameState.PLAYING;
+        publishAll = true;
+
+        if (recorder != null) {
+            recorder.begin(this);
+        }
+    }
+
+    // ========================================================================
+    // ==     PASSO DE TEMPO      ==
+    // ========================================================================
+
+    /**
+     * Um quadro: aplica as entradas e depois a gravidade (ou conta a espera
+     * da limpeza de linhas). Em pausa ou fim de jogo o tempo não anda.
+     * @param inputs Bits de {@link Input} (Input.NONE = só o tempo passa).
+     * @return O estado depois do quadro.
+     */
+    public GameState step(int inputs) {
+        if (state == GameState.PLAYING) {
+            apply(inputs);
+        }
+        advanceFrame();
+        return state;
+    }
+
+    /**
+     * Avança vários quadros sem entradas (para antes se o jogo acabar ou pausar).
+     * @return Quantos quadros foram simulados.
+     */
+    public int tick(int frames) {
+        int simulated = 0;
+        while (simulated < frames && (state == GameState.PLAYING || state == GameState.LINE_CLEARING)) {
+            advanceFrame();
+            simulated++;
+        }
+        return simulated;
+    }
+
+    private void advanceFrame() {
+        if (state == GameState.PLAYING) {
+            frame++;
+            gravityCounter += GravityCurve.FRAME_UNIT;
+            int framesPerRow = getFramesPerRow();
+            if (gravityCounter >= framesPerRow) {
+                // No máximo as linhas de um quadro (o nível pode ter acabado de subir);
+                // o que sobra além da fração de quadro se perde, como no contador antigo
+                int rows = Math.min(gravityCounter / framesPerRow,
+                        (GravityCurve.FRAME_UNIT + framesPerRow - 1) / framesPerRow);
+                gravityCounter = (gravityCounter - rows * framesPerRow) & (GravityCurve.FRAME_UNIT - 1);
+                // 20G é "até o fundo", qualquer que seja a altura do tabuleiro
+                fall(framesPerRow <= GravityCurve.TWENTY_G ? board.getHeight() : rows);
+            }
+            if (lockDelayFrames > 0 && state == GameState.PLAYING) {
+                countLockDelay();
+            }
+        } else if (state == GameState.LINE_CLEARING) {
+            frame++;
+            if (lineClearFrames != MANUAL_LINE_CLEAR && ++lineClearCounter > lineClearFrames) {
+                clearLines();
+            }
+        }
+        if (eventRing != null) {
+            flushEvents();
+        }
+    }
+
+    /**
+     * Aplica as entradas AGORA, sem passar tempo (o adaptador da interface chama
+     * isto a cada tecla). Ordem: hold, rotações, laterais, queda suave, queda rápida.
+     */
+    public void apply(int inputs) {
+        if (state != GameState.PLAYING || inputs == Input.NONE) {
+            return;
+        }
+        if (recorder != null) {
+            recorder.record(frame, inputs);
+        }
+        if ((inputs & Input.HOLD) != 0) hold();
+        if ((inputs & Input.ROTATE_CW) != 0) rotate(RotationSystem.CW);
+        if ((inputs & Input.ROTATE_CCW) != 0) rotate(RotationSystem.CCW);
+        if ((inputs & Input.ROTATE_180) != 0) rotate(RotationSystem.HALF);
+        if ((inputs & Input.LEFT) != 0) move(-1, 0);
+        if ((inputs & Input.RIGHT) != 0) move(1, 0);
+        if ((inputs & Input.SOFT_DROP) != 0 && state == GameState.PLAYING) softDrop();
+        if ((inputs & Input.HARD_DROP) != 0 && state == GameState.PLAYING) hardDrop();
+    }
+
+    /** Alterna entre PLAYING e PAUSED (nos outros estados não faz nada). */
+    public void togglePause() {
+        if (state == GameState.PLAYING) {
+            state = GameState.PAUSED;
+        } else if (state == GameState.PAUSED) {
+            state = GameState.PLAYING;
+        }
+    }
+
+    /**
+     * @return Quadros entre duas descidas por gravidade no nível atual, em ponto
+     *         fixo ({@link GravityCurve#FRAME_UNIT} = 1 quadro; menos que isso = várias linhas por quadro).
+     */
+    public int getFramesPerRow() {
+        return gravityCurve.framesPerRow(level);
+    }
+
+    // ========================================================================
+    // ==     AÇÕES      ==
+    // ========================================================================
+
+    private void move(int dx, int dy) {
+        // Testa o estado já movido (um 'int'); só grava se for válido
+        int moved = PackedPiece.moved(currentPiece.getState(), dx, dy);
+        if (board.isValidPosition(moved)) {
+            currentPiece.setState(moved);
+            onPieceMoved();
+        } else if (dy > 0) {
+            // Se o movimento inválido foi para baixo, a peça travou
+            lockPiece();
+        }
+    }
+
+    /**
+     * Queda suave: uma linha (e 1 ponto). Sem atraso de travamento, descer
+     * encostado trava a peça; com ele, encostada a tecla não faz nada.
+     */
+    private void softDrop() {
+        if (lockDelayFrames > 0 && board.dropDistance(currentPiece.getState()) == 0) {
+            return;
+        }
+        move(0, 1);
+        score += 1; // Pontos por queda suave
+    }
+
+    /**
+     * Gravidade: até 'rows' linhas de uma vez. A distância até encostar vem das
+     * alturas das colunas do Board, então 20G custa o mesmo que 1 linha.
+     * Já encostada e sem atraso de travamento, a peça trava (a descida falhou).
+     */
+    private void fall(int rows) {
+        int piece = currentPiece.getState();
+        int distance = board.dropDistance(piece);
+        if (distance > 0) {
+            currentPiece.setState(PackedPiece.moved(piece, 0, Math.min(rows, distance)));
+            onPieceMoved();
+        } else if (lockDelayFrames == 0) {
+            lockPiece();
+        }
+    }
+
+    // ========================================================================
+    // ==     ATRASO DE TRAVAMENTO      ==
+    // ========================================================================
+
+    /** Uma peça nova em jogo: atraso e resets do zero. */
+    private void resetLockDelay() {
+        lockTimer = 0;
+        lockResets = 0;
+        lowestY = PackedPiece.y(currentPiece.getState());
+    }
+
+    /**
+     * Depois de cada movimento ou rotação que deu certo: chegar numa linha
+     * mais baixa devolve todos os resets; mexer a peça encostada gasta um
+     * reset e zera o atraso (sem resets, o atraso continua contando).
+     */
+    private void onPieceMoved() {
+        if (lockDelayFrames == 0) {
+            return;
+        }
+        int y = PackedPiece.y(currentPiece.getState());
+        if (y > lowestY) {
+            lowestY = y;
+            lockResets = 0;
+            lockTimer = 0;
+        } else if (lockTimer > 0 && lockResets < maxLockResets) {
+            lockResets++;
+            lockTimer = 0;
+        }
+    }
+
+    /** Um quadro de atraso: encostada há 'lockDelayFrames' quadros, a peça trava. */
+    private void countLockDelay() {
+        if (board.dropDistance(currentPiece.getState()) == 0 && ++lockTimer >= lockDelayFrames) {
+            lockPiece();
+        }
+    }
+
+    /**
+     * Queda rápida: a distância vem das alturas das colunas do Board
+     * (O(largura da peça)), em vez de descer e testar linha por linha.
+     */
+    private void hardDrop() {
+        int piece = currentPiece.getState();
+        if (board.isValidPosition(piece)) {
+            int distance = board.dropDistance(piece);
+            currentPiece.setState(PackedPiece.moved(piece, 0, distance));
+            // Pontos por queda rápida (2 por passo testado)
+            score += 2 * (distance + 1);
+        } else {
+            currentPiece.setState(PackedPiece.moved(piece, 0, -1)); // Volta uma posição
+        }
+        lockPiece();
+    }
+
+    /**
+     * Gira com os chutes pré-calculados do sistema de rotação escolhido.
+     * @param turns RotationSystem.CW, CCW ou HALF (180°).
+     */
+    private void rotate(int turns) {
+        int rotated = rotationSystem.rotate(board, currentPiece.getState(), turns);
+        if (rotated != PackedPiece.NONE) {
+            currentPiece.setState(rotated); // Aplica chute + rotação de uma vez
+            onPieceMoved();
+        }
+        // Se nenhum chute funcionou, a rotação falha silenciosamente.
+    }
+
+    /** Troca a peça atual pela guardada ("uma vez por peça"). */
+    private void hold() {
+        if (!canHold) {
+            return;
+        }
+        if (heldPiece == null) {
+            heldPiece = adapt(heldSlots, currentPiece.getState());
+            spawnNewPiece(); // Pega uma peça nova do "next"
+        } else {
+            // A que sai do "Hold" volta para o topo, mantendo a rotação
+            int leaving = PackedPiece.withPosition(heldPiece.getState(), spawnX, 0);
+            heldPiece = adapt(heldSlots, currentPiece.getState());
+            currentPiece = adapt(currentSlots, leaving);
+            resetLockDelay();
+            if (!board.isValidPosition(currentPiece)) {
+                state = GameState.GAME_OVER; // A peça trocada colide logo no topo
+            }
+        }
+        pieceSerial++;
+        canHold = false;
+    }
+
+    /**
+     * Trava a peça atual. Se houver linhas cheias, entra em LINE_CLEARING
+     * (a limpeza acontece em {@link #finishLineClear()}); senão, nasce a próxima.
+     */
+    public void lockPiece() {
+        board.placePiece(currentPiece.getState());
+        lockCount++;
+        fullLinesCount = board.findFullLines(fullLinesBuffer);
+        if (fullLinesCount > 0) {
+            state = GameState.LINE_CLEARING;
+            lineClearCounter = 0;
+        } else {
+            spawnNewPiece();
+        }
+    }
+
+    /**
+     * Remove as linhas cheias, pontua e traz a próxima peça (o fim da animação de limpeza).
+     * No modo {@link #MANUAL_LINE_CLEAR} o momento da chamada vem de fora, então é gravado no replay.
+     */
+    public void finishLineClear() {
+        if (recorder != null && lineClearFrames == MANUAL_LINE_CLEAR && state == GameState.LINE_CLEARING) {
+            recorder.recordLineClear(frame);
+        }
+        clearLines();
+    }
+
+    private void clearLines() {
+        int cleared = fullLinesCount;
+        if (cleared > 0) {
+            board.removeLines(fullLinesBuffer, cleared);
+            updateScore(cleared);
+        }
+        fullLinesCount = 0;
+        state = GameState.PLAYING;
+        spawnNewPiece();
+    }
+
+    /** A próxima peça da fila entra em jogo; se já nascer colidindo, é GAME_OVER. */
+    public void spawnNewPiece() {
+        currentPiece = adapt(currentSlots, PackedPiece.withX(nextPiece.getState(), spawnX));
+        pieceQueue.next(); // A que acabou de entrar (era a frente da fila)
+        nextPiece = adapt(nextSlots, PackedPiece.of(pieceQueue.peek(0), 0, spawnX, 0));
+        pieceSerial++;
+        resetLockDelay();
+
+        canHold = true; // Captura uma vez por peça
+
+        if (!board.isValidPosition(currentPiece)) {
+            state = GameState.GAME_OVER;
+        }
+    }
+
+    public void updateScore(int cleared) {
+        linesCleared += cleared;
+        int points = switch (cleared) {
+            case 1 -> 40;
+            case 2 -> 100;
+            case 3 -> 300;
+            case 4 -> 1200; // Conhecido como "Tetris"
+            default -> 0;
+        };
+        score += points * level;
+        updateLevel();
+    }
+
+    public void updateLevel() {
+        level = (linesCleared / 10) + 1;
+    }
+
+    // ========================================================================
+    // ==     PUBLICAÇÃO DAS MUDANÇAS      ==
+    // ========================================================================
+
+    /**
+     * Publica no anel (ver {@link #setEventRing(DeltaRing)}) um único {@link StateDelta}
+     * com tudo o que mudou desde a última publicação. A simulação chama isto no fim
+     * de cada quadro; quem aplica entradas fora do passo de tempo (uma tecla com o
+     * jogo pausado, os testes) pode chamar também.
+     *
+     * As mudanças não são anotadas a cada mutação: o delta sai da comparação com os
+     * últimos valores publicados, então uma queda rápida que mexe a peça, trava,
+     * pontua e faz nascer outra vira um delta só. Sem mudanças, nada é publicado;
+     * com o anel cheio também não, e tudo segue acumulado para o próximo.
+     * @return true se um delta foi publicado.
+     */
+    public boolean flushEvents() {
+        if (eventRing == null) {
+            return false;
+        }
+        long boardHash = board.getHash();
+        int current = currentPiece.getState();
+        int changes;
+        if (publishAll) {
+            changes = StateDelta.ALL;
+        } else {
+            changes = 0;
+            if (score != publishedScore) changes |= StateDelta.SCORE;
+            if (level != publishedLevel) changes |= StateDelta.LEVEL;
+            if (linesCleared != publishedLines) changes |= StateDelta.LINES;
+            if (state != publishedState) changes |= StateDelta.STATE;
+            if (current != publishedCurrent) changes |= StateDelta.CURRENT;
+            if (pieceSerial != publishedSerial) changes |= StateDelta.PIECES;
+            if (boardHash != publishedBoardHash) changes |= StateDelta.BOARD;
+            if (fullLinesCount != publishedClearingCount
+                    || (fullLinesCount > 0 && lockCount != publishedLockCount)) {
+                changes |= StateDelta.CLEARING;
+            }
+            if (changes == 0) {
+                return false;
+            }
+        }
+        StateDelta delta = eventRing.claim();
+        if (delta == null) {
+            return false; // Anel cheio: fica tudo para o próximo delta
+        }
+        delta.fill(this, changes);
+        eventRing.publish();
+
+        publishAll = false;
+        publishedScore = score;
+        publishedLevel = level;
+        publishedLines = linesCleared;
+        publishedState = state;
+        publishedCurrent = current;
+        publishedSerial = pieceSerial;
+        publishedBoardHash = boardHash;
+        publishedLockCount = lockCount;
+        publishedClearingCount = fullLinesCount;
+        return true;
+    }
+
+    /**
+     * Liga a publicação dos deltas por quadro. O primeiro delta depois disto
+     * (e depois de cada initializeGame()) traz tudo marcado como mudado.
+     * @param ring O anel (da altura deste tabuleiro), ou null para não publicar.
+     */
+    public void setEventRing(DeltaRing ring) {
+        this.eventRing = ring;
+        this.publishAll = true;
+    }
+
+    public DeltaRing getEventRing() { return eventRing; }
+
+    // ========================================================================
+    // ==     HASH DA POSIÇÃO      ==
+    // ========================================================================
+
+    /**
+     * Hash Zobrist de 64 bits da posição: tabuleiro + peça ativa + hold + next
+     * (+ a permissão de hold). Board e Tetromino mantêm as suas partes a cada
+     * lock/limpeza/movimento, então aqui só se combinam as chaves (O(1)).
+     */
+    public long getPositionHash() {
+        return board.getHash() ^ currentPiece.getHash() ^ extrasHash();
+    }
+
+    /** O mesmo hash recalculado do zero (varre o tabuleiro); serve para conferência. */
+    public long computePositionHash() {
+        return board.computeHash() ^ currentPiece.computeHash() ^ extrasHash();
+    }
+
+    private long extrasHash() {
+        long h = heldPiece == null
+                ? ZobristKeys.hold(-1, 0)
+                : ZobristKeys.hold(heldPiece.getType().ordinal(), heldPiece.getRotation());
+        h ^= ZobristKeys.next(nextPiece.getType().ordinal());
+        return canHold ? h ^ ZobristKeys.canHold() : h;
+    }
+
+    // ========================================================================
+    // ==     ESTADO SALVO (codec, rollback)      ==
+    // ========================================================================
+
+    /**
+     * Substitui o estado lógico do jogo (o tabuleiro já deve ter sido restaurado).
+     * As peças vêm empacotadas (ver {@link PackedPiece}); 'held' = NONE se o hold estiver vazio.
+     * A fila (com o gerador) é copiada, então as próximas peças saem como no jogo salvo.
+     * Se o estado for LINE_CLEARING, as linhas cheias são recalculadas do tabuleiro
+     * para que {@link #finishLineClear()} continue de onde o jogo parou.
+     */
+    public void restoreState(int current, int next, int held, PieceQueue queue, boolean holdAvailable,
+                             int savedScore, int savedLevel, int savedLines, GameState savedState) {
+        if (recorder != null) {
+            recorder.cancel(); // Um estado carregado de fora não cabe no replay em andamento
+        }
+        currentPiece = adapt(currentSlots, current);
+        nextPiece = adapt(nextSlots, next);
+        heldPiece = held == PackedPiece.NONE ? null : adapt(heldSlots, held);
+        if (pieceQueue == null || pieceQueue.getRandomizer().getKind() != queue.getRandomizer().getKind()) {
+            pieceQueue = new PieceQueue(queue);
+        } else {
+            pieceQueue.copyFrom(queue);
+        }
+        pieceSerial++;
+        canHold = holdAvailable;
+        resetLockDelay();
+        score = savedScore;
+        level = savedLevel;
+        linesCleared = savedLines;
+
+        fullLinesCount = savedState == GameState.LINE_CLEARING ? board.findFullLines(fullLinesBuffer) : 0;
+        lineClearCounter = 0;
+        state = savedState;
+    }
+
+    /**
+     * Tira uma foto completa do estado (tabuleiro, peças, fila com o gerador,
+     * contadores de quadros) em 'into', reaproveitando o que der.
+     */
+    public void saveState(SimulationState into) {
+        into.board = board.snapshot();
+        copyLogicalState(into);
+    }
+
+    /**
+     * Como {@link #saveState(SimulationState)}, mas com uma cópia plana das células
+     * em vez do snapshot compartilhado: reaproveitando 'into', não aloca nada
+     * (é o que o anel de rollback usa a cada quadro).
+     */
+    public void copyState(SimulationState into) {
+        int size = board.getWidth() * board.getHeight();
+        if (into.cells == null || into.cells.length != size) {
+            into.cells = new PieceType[size];
+        }
+        board.copyCellsInto(into.cells);
+        into.board = null;
+        copyLogicalState(into);
+    }
+
+    private void copyLogicalState(SimulationState into) {
+        if (into.queue == null || into.queue.getRandomizer().getKind() != pieceQueue.getRandomizer().getKind()) {
+            into.queue = new PieceQueue(pieceQueue);
+        } else {
+            into.queue.copyFrom(pieceQueue);
+        }
+        into.current = currentPiece.getState();
+        into.next = nextPiece.getState();
+        into.held = heldPiece == null ? PackedPiece.NONE : heldPiece.getState();
+        into.canHold = canHold;
+        into.score = score;
+        into.level = level;
+        into.linesCleared = linesCleared;
+        into.state = state;
+        into.frame = frame;
+        into.lockCount = lockCount;
+        into.gravityCounter = gravityCounter;
+        into.lockTimer = lockTimer;
+        into.lockResets = lockResets;
+        into.lowestY = lowestY;
+        into.lineClearCounter = lineClearCounter;
+    }
+
+    /**
+     * Volta exatamente para uma foto tirada por {@link #saveState(SimulationState)}
+     * ou {@link #copyState(SimulationState)} (de uma simulação com as mesmas regras);
+     * os quadros seguintes saem iguais.
+     */
+    public void loadState(SimulationState from) {
+        if (recorder != null) {
+            recorder.cancel(); // O replay em andamento não tem como representar o salto
+        }
+        if (from.board != null) {
+            board.restore(from.board);
+        } else {
+            board.loadCells(from.cells);
+        }
+        if (pieceQueue == null || pieceQueue.getRandomizer().getKind() != from.queue.getRandomizer().getKind()) {
+            pieceQueue = new PieceQueue(from.queue);
+        } else {
+            pieceQueue.copyFrom(from.queue);
+        }
+        currentPiece = adapt(currentSlots, from.current);
+        nextPiece = adapt(nextSlots, from.next);
+        heldPiece = from.held == PackedPiece.NONE ? null : adapt(heldSlots, from.held);
+        pieceSerial++;
+        canHold = from.canHold;
+        score = from.score;
+        level = from.level;
+        linesCleared = from.linesCleared;
+        state = from.state;
+        frame = from.frame;
+        lockCount = from.lockCount;
+        gravityCounter = from.gravityCounter;
+        lockTimer = from.lockTimer;
+        lockResets = from.lockResets;
+        lowestY = from.lowestY;
+        lineClearCounter = from.lineClearCounter;
+        fullLinesCount = state == GameState.LINE_CLEARING ? board.findFullLines(fullLinesBuffer) : 0;
+    }
+
+    // ========================================================================
+    // ==     ADAPTADORES DAS PEÇAS      ==
+    // ========================================================================
+
+    /** Grava o estado no adaptador do tipo dele (sem alocar) e devolve o adaptador. */
+    private static Tetromino adapt(Tetromino[] slots, int packed) {
+        Tetromino piece = slots[PackedPiece.typeOrdinal(packed)];
+        piece.setState(packed);
+        return piece;
+    }
+
+    /** Gerador novo (semente fixa ou sorteada) + fila de pré-visualização cheia. */
+    private PieceQueue newPieceQueue() {
+        long seed = fixedSeed != null ? fixedSeed : new SplittableRandom().nextLong();
+        return new PieceQueue(randomizerKind.create(seed), PREVIEW_DEPTH);
+    }
+
+    // ========================================================================
+    // ==     CONFIGURAÇÃO E CONSULTA      ==
+    // ========================================================================
+
+    // As regras do jogo e os setters de placar valem na hora, mas o replay só
+    // guarda as regras de quando a partida começou e nenhum placar editado: a
+    // gravação em andamento deixa de valer (como num save state carregado).
+    private void cancelRecording() {
+        if (recorder != null) {
+            recorder.cancel();
+        }
+    }
+
+    /** Escolhe o sistema de rotação (CLASSIC, o padrão, SRS ou ARS). */
+    public void setRotationSystem(RotationSystem rotationSystem) {
+        this.rotationSystem = rotationSystem;
+        cancelRecording();
+    }
+
+    public RotationSystem getRotationSystem() { return rotationSystem; }
+
+    /** Escolhe a curva de gravidade; o atraso de travamento volta ao padrão dela. */
+    public void setGravityCurve(GravityCurve curve) {
+        this.gravityCurve = curve;
+        this.lockDelayFrames = curve.getLockDelayFrames();
+        this.maxLockResets = curve.getMaxLockResets();
+        cancelRecording();
+    }
+
+    public GravityCurve getGravityCurve() { return gravityCurve; }
+
+    /**
+     * Ajusta o atraso de travamento (depois de {@link #setGravityCurve(GravityCurve)}).
+     * @param frames    Quadros encostada até travar (0 = trava na primeira descida que falha).
+     * @param maxResets Quantas vezes mover/girar encostada reinicia o atraso.
+     */
+    public void setLockDelay(int frames, int maxResets) {
+        if (frames < 0 || maxResets < 0) {
+            throw new IllegalArgumentException("Atraso inválido: " + frames + " quadros, " + maxResets + " resets");
+        }
+        this.lockDelayFrames = frames;
+        this.maxLockResets = maxResets;
+        cancelRecording();
+    }
+
+    public int getLockDelayFrames() { return lockDelayFrames; }
+    public int getMaxLockResets() { return maxLockResets; }
+
+    /** @return Quadros que a peça atual já passou encostada (0 sem atraso de travamento). */
+    public int getLockTimer() { return lockTimer; }
+
+    /** Escolhe o gerador de peças (vale a partir do próximo initializeGame()). */
+    public void setRandomizer(Randomizer.Kind kind) {
+        this.randomizerKind = kind;
+    }
+
+    public Randomizer.Kind getRandomizerKind() { return randomizerKind; }
+
+    /**
+     * Fixa a semente dos próximos jogos (mesma semente = mesma sequência de peças).
+     * @param seed A semente, ou null para sortear uma nova a cada jogo.
+     */
+    public void setSeed(Long seed) {
+        this.fixedSeed = seed;
+    }
+
+    /** @return A semente do jogo atual (para guardar junto de um replay). */
+    public long getSeed() {
+        return pieceQueue.getRandomizer().getSeed();
+    }
+
+    /**
+     * @param index 0 = a próxima peça (a mesma de getNextPiece()), 1 = a seguinte...
+     *              até PREVIEW_DEPTH - 1.
+     */
+    public PieceType getPreview(int index) {
+        return pieceQueue.peekType(index);
+    }
+
+    /** @return A fila de peças com o gerador (para o codec gravar; não mexa nela). */
+    public PieceQueue getPieceQueue() { return pieceQueue; }
+
+    /**
+     * Quadros de espera entre travar uma peça que fecha linhas e limpá-las.
+     * @param frames 0 = limpa no quadro seguinte; {@link #MANUAL_LINE_CLEAR} = espera finishLineClear().
+     */
+    public void setLineClearFrames(int frames) {
+        if (frames < MANUAL_LINE_CLEAR) {
+            throw new IllegalArgumentException("Espera inválida: " + frames);
+        }
+        this.lineClearFrames = frames;
+        cancelRecording();
+    }
+
+    public int getLineClearFrames() { return lineClearFrames; }
+
+    /**
+     * Liga a gravação das entradas (vale a partir do próximo initializeGame()).
+     * @param recorder O gravador, ou null para parar de gravar.
+     */
+    public void setRecorder(ReplayRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    public ReplayRecorder getRecorder() { return recorder; }
+
+    /** @return Quantas linhas estão esperando a limpeza (0 fora de LINE_CLEARING). */
+    public int getClearingLineCount() { return fullLinesCount; }
+
+    /** @return O índice 'y' da i-ésima linha esperando a limpeza. */
+    public int getClearingLine(int i) {
+        if (i < 0 || i >= fullLinesCount) {
+            throw new IndexOutOfBoundsException("Linha " + i + " de " + fullLinesCount);
+        }
+        return fullLinesBuffer[i];
+    }
+
+    /** @return Muda sempre que a peça do "next" ou do hold muda (para espelhar na interface). */
+    public int getPieceSerial() { return pieceSerial; }
+
+    /**
+     * A peça atual já no ponto de pouso (a "fantasma"), sem recalcular a cada
+     * quadro: a descida pela gravidade ou pela queda suave não muda o pouso,
+     * então ele só é refeito quando a peça anda para o lado, gira, sobe (chute)
+     * ou é trocada, ou quando o tabuleiro muda (trava, limpeza, estado carregado).
+     * O recálculo é um dropDistance (alturas das colunas) e não aloca.
+     * @return A fantasma empacotada, ou {@link PackedPiece#NONE} fora de PLAYING.
+     */
+    public int getGhostPiece() {
+        if (state != GameState.PLAYING) {
+            return PackedPiece.NONE;
+        }
+        int piece = currentPiece.getState();
+        int y = PackedPiece.y(piece);
+        int key = PackedPiece.withPosition(piece, PackedPiece.x(piece), 0);
+        long version = board.view().getVersion();
+        if (key != ghostKey || version != ghostBoardVersion
+                || y < ghostFromY || y > PackedPiece.y(ghostPiece)) {
+            ghostPiece = PackedPiece.moved(piece, 0, board.dropDistance(piece));
+            ghostKey = key;
+            ghostFromY = y;
+            ghostBoardVersion = version;
+            ghostComputations++;
+        }
+        return ghostPiece;
+    }
+
+    /** @return Quantas vezes o pouso da fantasma foi recalculado (para testes e benchmarks). */
+    public long getGhostComputations() { return ghostComputations; }
+
+    /** @return Quantos quadros já foram simulados neste jogo. */
+    public long getFrame() { return frame; }
+
+    /** @return Quantas peças já travaram neste jogo. */
+    public long getLockCount() { return lockCount; }
+
+    public Board getBoard() { return board; }
+    public Tetromino getCurrentPiece() { return currentPiece; }
+    public Tetromino getNextPiece() { return nextPiece; }
+    public Tetromino getHeldPiece() { return heldPiece; }
+    public boolean isHoldAvailable() { return canHold; }
+    public GameState getState() { return state; }
+
+    public int getScore() { return score; }
+    public int getLevel() { return level; }
+    public int getLinesCleared() { return linesCleared; }
+
+    // Setters usados por quem edita o estado de fora (interface, testes); cancelam a gravação
+    public void setScore(int score) { this.score = score; cancelRecording(); }
+    public void setLevel(int level) { this.level = level; cancelRecording(); }
+    public void setLinesCleared(int linesCleared) { this.linesCleared = linesCleared; cancelRecording(); }
+}
@@ -0,0 +1,90 @@
+package com.tetris.simulation;
+
+/**
+ * Curvas de gravidade: quantos quadros a peça leva para cair uma linha em
+ * cada nível, em ponto fixo ({@link #FRAME_UNIT} = 1 quadro), e o atraso de
+ * travamento padrão de cada uma.
+ *
+ * <ul>
+ *   <li>{@link #CLASSIC}: o comportamento antigo do jogo (1,0 s, 0,7 s e 0,4 s por linha;
+ *       a peça trava na primeira descida que falha).</li>
+ *   <li>{@link #GUIDELINE}: a fórmula do guideline, (0,8 - (nível - 1) x 0,007)^(nível - 1)
+ *       segundos por linha, até 20G (a peça cai até o fundo no mesmo quadro) no nível 20;
+ *       meio segundo de atraso de travamento com até 15 "move resets".</li>
+ *   <li>{@link #NES}: a tabela de quadros por linha do NES (nível 1 daqui = nível 0 de lá),
+ *       sem atraso de travamento.</li>
+ * </ul>
+ * Menos de um quadro por linha é gravidade de várias linhas por quadro; o
+ * limite, {@link #TWENTY_G}, leva a peça até o fundo no mesmo quadro em
+ * qualquer altura de tabuleiro. As tabelas são montadas na carga da classe com
+ * StrictMath, então são as mesmas em qualquer máquina (os replays dependem disso).
+ */
+public enum GravityCurve {
+
+    CLASSIC(0, 0),
+    GUIDELINE(30, 15),
+    NES(0, 0);
+
+    /** Um quadro, em ponto fixo. */
+    public static final int FRAME_UNIT = 1 << 16;
+    /** Linhas por quadro da gravidade máxima (a altura do tabuleiro padrão). */
+    public static final int MAX_ROWS_PER_FRAME = 20;
+    /**
+     * Quadros por linha da gravidade máxima, o menor valor das tabelas. A
+     * simulação trata esse valor como "até o fundo" (não como 20 linhas), então
+     * 20G continua instantâneo num tabuleiro mais alto (ex: 40x80).
+     */
+    public static final int TWENTY_G = FRAME_UNIT / MAX_ROWS_PER_FRAME;
+
+    // Níveis com entrada própria na tabela (acima disso vale o último)
+    private static final int LEVELS = 30;
+    private static final int[] NES_FRAMES = {
+            48, 43, 38, 33, 28, 23, 18, 13, 8, 6,
+            5, 5, 5, 4, 4, 4, 3, 3, 3, 2,
+            2, 2, 2, 2, 2, 2, 2, 2, 2, 1};
+
+    private final int lockDelayFrames;
+    private final int maxLockResets;
+    private final int[] framesPerRow = new int[LEVELS];
+
+    static {
+        for (GravityCurve curve : values()) {
+            curve.build();
+        }
+    }
+
+    GravityCurve(int lockDelayFrames, int maxLockResets) {
+        this.lockDelayFrames = lockDelayFrames;
+        this.maxLockResets = maxLockResets;
+    }
+
+    private void build() {
+        for (int level = 1; level <= LEVELS; level++) {
+            framesPerRow[level - 1] = Math.max(TWENTY_G, compute(level));
+        }
+    }
+
+    private int compute(int level) {
+        return switch (this) {
+            case CLASSIC -> (level <= 3 ? GameSimulation.FPS
+                    : level <= 6 ? GameSimulation.FPS * 7 / 10
+                    : GameSimulation.FPS * 4 / 10) * FRAME_UNIT;
+            case GUIDELINE -> {
+                double seconds = StrictMath.pow(0.8 - (level - 1) * 0.007, level - 1);
+                yield (int) StrictMath.round(seconds * GameSimulation.FPS * FRAME_UNIT);
+            }
+            case NES -> NES_FRAMES[level - 1] * FRAME_UNIT;
+        };
+    }
+
+    /** @return Quadros por linha no nível, em ponto fixo (pelo menos {@link #TWENTY_G}). */
+    public int framesPerRow(int level) {
+        return framesPerRow[Math.max(1, Math.min(level, LEVELS)) - 1];
+    }
+
+    /** @return Quadros que a peça pode ficar encostada antes de travar (0 = trava na hora). */
+    public int getLockDelayFrames() { return lockDelayFrames; }
+
+    /** @return Quantas vezes mover/girar a peça encostada reinicia o atraso de travamento. */
+    public int getMaxLockResets() { return maxLockResets; }
+}
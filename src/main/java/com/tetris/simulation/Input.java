@@ -0,0 +1,45 @@
+package com.tetris.simulation;
+
+/**
+ * As entradas de um quadro da simulação, como bits de um 'int'
+ * (vários comandos podem chegar no mesmo quadro: LEFT | ROTATE_CW).
+ *
+ * Cada bit ligado é um "toque": a ação é aplicada uma vez naquele quadro.
+ * Dentro do quadro a ordem é fixa (ver {@link GameSimulation#apply(int)}).
+ */
+public final class Input {
+
+    public static final int NONE = 0;
+
+    public static final int LEFT = 1;
+    public static final int RIGHT = 1 << 1;
+    /** Queda suave: desce uma linha (e ganha 1 ponto). */
+    public static final int SOFT_DROP = 1 << 2;
+    public static final int HARD_DROP = 1 << 3;
+    public static final int ROTATE_CW = 1 << 4;
+    public static final int ROTATE_CCW = 1 << 5;
+    public static final int ROTATE_180 = 1 << 6;
+    public static final int HOLD = 1 << 7;
+
+    /** Todos os bits usados (para validar entradas vindas de fora). */
+    public static final int ALL = (1 << 8) - 1;
+
+    private Input() {
+    }
+
+    /** @return Os nomes dos bits ligados (para logs e mensagens de teste). */
+    public static String toString(int inputs) {
+        if (inputs == NONE) {
+            return "NONE";
+        }
+        String[] names = {"LEFT", "RIGHT", "SOFT_DROP", "HARD_DROP", "ROTATE_CW", "ROTATE_CCW", "ROTATE_180", "HOLD"};
+        StringBuilder sb = new StringBuilder();
+        for (int bit = 0; bit < names.length; bit++) {
+            if ((inputs & (1 << bit)) != 0) {
+                if (sb.length() > 0) sb.append('|');
+                sb.append(names[bit]);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,220 @@
+package com.tetris.simulation;
+
+import com.tetris.model.GameState;
+import com.tetris.model.tetromino.PackedPiece;
+
+/**
+ * Transforma teclas apertadas e soltas (com horário, numa {@link InputQueue})
+ * em entradas da simulação, com o "handling" configurável dos jogos
+ * competitivos, em vez de depender da repetição de teclas do sistema:
+ * <ul>
+ *   <li>DAS (atraso até a repetição lateral começar) e ARR (intervalo entre
+ *       repetições; 0 = a peça vai direto até a parede).</li>
+ *   <li>Fator de queda suave: segurar para baixo faz a peça cair 'fator' vezes
+ *       mais rápido que a gravidade do nível (0 = instantâneo). A queda suave
+ *       não trava a peça: ela para em cima do que houver e a gravidade trava.</li>
+ *   <li>Rotações, hold e queda rápida valem uma vez por aperto.</li>
+ * </ul>
+ * Tudo é medido no relógio da simulação: {@link #update(GameSimulation, long)}
+ * recebe o horário do quadro e aplica, em ordem, os eventos e as repetições
+ * que venceram até ele, cada um no horário exato em que aconteceu. Um quadro
+ * atrasado da thread não muda o resultado, só quando ele aparece.
+ *
+ * As entradas saem como chamadas a {@link GameSimulation#apply(int)}, então o
+ * replay grava exatamente o que a peça fez. Os ajustes podem mudar de qualquer
+ * thread; o resto roda só na thread da simulação.
+ */
+public final class InputHandler {
+
+    public static final int DEFAULT_DAS_MILLIS = 167;     // 10 quadros
+    public static final int DEFAULT_ARR_MILLIS = 33;      // 2 quadros
+    public static final int DEFAULT_SOFT_DROP_FACTOR = 20;
+    /** Fator de queda suave que leva a peça direto até onde ela encosta. */
+    public static final int INSTANT_SOFT_DROP = 0;
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final InputQueue queue;
+    private volatile long dasNanos = DEFAULT_DAS_MILLIS * NANOS_PER_MILLI;
+    private volatile long arrNanos = DEFAULT_ARR_MILLIS * NANOS_PER_MILLI;
+    private volatile int softDropFactor = DEFAULT_SOFT_DROP_FACTOR;
+
+    // Estado das teclas (só a thread da simulação)
+    private int held;
+    private int shiftDirection = Input.NONE;
+    private long nextShift;      // Quando vence a próxima repetição lateral
+    private long softDropFrom;   // Até onde a queda suave já foi contada
+    private long softDropCredit; // Resto da conta (tempo x fator) que ainda não deu uma linha
+
+    public InputHandler() {
+        this(new InputQueue());
+    }
+
+    public InputHandler(InputQueue queue) {
+        this.queue = queue;
+    }
+
+    /** @return A fila onde a interface grava as teclas. */
+    public InputQueue getQueue() { return queue; }
+
+    // ========================================================================
+    // ==     AJUSTES      ==
+    // ========================================================================
+
+    public void setDasMillis(int millis) {
+        dasNanos = checkNotNegative(millis) * NANOS_PER_MILLI;
+    }
+
+    /** @param millis 0 = a repetição leva a peça direto até a parede. */
+    public void setArrMillis(int millis) {
+        arrNanos = checkNotNegative(millis) * NANOS_PER_MILLI;
+    }
+
+    /** @param factor Multiplica a velocidade da gravidade ({@link #INSTANT_SOFT_DROP} = sem esperar). */
+    public void setSoftDropFactor(int factor) {
+        softDropFactor = checkNotNegative(factor);
+    }
+
+    public int getDasMillis() { return (int) (dasNanos / NANOS_PER_MILLI); }
+    public int getArrMillis() { return (int) (arrNanos / NANOS_PER_MILLI); }
+    public int getSoftDropFactor() { return softDropFactor; }
+
+    private static int checkNotNegative(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Valor negativo: " + value);
+        }
+        return value;
+    }
+
+    // ========================================================================
+    // ==     QUADRO      ==
+    // ========================================================================
+
+    /**
+     * Aplica na simulação tudo o que aconteceu até 'nanos' (o horário do quadro,
+     * antes de ele andar): os eventos da fila e as repetições, em ordem de tempo.
+     * Eventos depois de 'nanos' ficam para o próximo quadro.
+     */
+    public void update(GameSimulation simulation, long nanos) {
+        while (queue.hasEventUntil(nanos)) {
+            long time = queue.peekTime();
+            int code = queue.peekCode();
+            queue.remove();
+            repeat(simulation, time); // O que venceu antes deste evento
+            int button = code & Input.ALL;
+            if ((code & InputQueue.RELEASED) != 0) {
+                onRelease(button, time);
+            } else {
+                onPress(simulation, button, time);
+            }
+        }
+        repeat(simulation, nanos);
+    }
+
+    /**
+     * Solta todas as teclas e descarta a fila (ex: a janela perdeu o foco e os
+     * "soltou" não vão chegar). Na thread da simulação, ou com ela parada.
+     */
+    public void reset() {
+        queue.clear();
+        held = Input.NONE;
+        shiftDirection = Input.NONE;
+        softDropCredit = 0;
+    }
+
+    /** @return Os bits de {@link Input} das teclas seguradas agora. */
+    public int getHeld() { return held; }
+
+    private void onPress(GameSimulation simulation, int button, long time) {
+        if ((held & button) != 0) {
+            return; // Repetição do teclado do sistema: a tecla já estava apertada
+        }
+        held |= button;
+        if (button == Input.LEFT || button == Input.RIGHT) {
+            // A direção apertada por último manda, com o DAS contando de novo
+            shiftDirection = button;
+            nextShift = time + dasNanos;
+            shift(simulation, button, 1);
+        } else if (button == Input.SOFT_DROP) {
+            softDropFrom = time;
+            softDropCredit = 0;
+            softDrop(simulation, softDropFactor == INSTANT_SOFT_DROP ? Long.MAX_VALUE : 1);
+        } else if (simulation.getState() == GameState.PLAYING) {
+            simulation.apply(button);
+        }
+    }
+
+    private void onRelease(int button, long time) {
+        if ((held & button) == 0) {
+            return;
+        }
+        held &= ~button;
+        if (button == shiftDirection) {
+            // Se a outra direção continua apertada, ela volta a valer (com DAS novo, sem toque)
+            int other = button == Input.LEFT ? Input.RIGHT : Input.LEFT;
+            if ((held & other) != 0) {
+                shiftDirection = other;
+                nextShift = time + dasNanos;
+            } else {
+                shiftDirection = Input.NONE;
+            }
+        }
+    }
+
+    /** As repetições laterais e a queda suave até 'time'. */
+    private void repeat(GameSimulation simulation, long time) {
+        if (shiftDirection != Input.NONE && time - nextShift >= 0) {
+            long arr = arrNanos;
+            if (arr == 0) {
+                shift(simulation, shiftDirection, Long.MAX_VALUE); // Continua carregado: peças novas também
+            } else {
+                long count = (time - nextShift) / arr + 1;
+                nextShift += count * arr;
+                shift(simulation, shiftDirection, count);
+            }
+        }
+        if ((held & Input.SOFT_DROP) != 0) {
+            long elapsed = time - softDropFrom;
+            softDropFrom = time;
+            int factor = softDropFactor;
+            if (simulation.getState() != GameState.PLAYING) {
+                softDropCredit = 0;
+            } else if (factor == INSTANT_SOFT_DROP) {
+                softDrop(simulation, Long.MAX_VALUE);
+            } else {
+                long rowNanos = simulation.getFramesPerRow() * GameSimulation.FRAME_NANOS / GravityCurve.FRAME_UNIT;
+                softDropCredit += elapsed * factor;
+                long rows = softDropCredit / rowNanos;
+                softDropCredit -= rows * rowNanos;
+                softDrop(simulation, rows);
+            }
+        }
+    }
+
+    /** Até 'count' passos para o lado, parando na parede (passos que falham não viram entrada). */
+    private static void shift(GameSimulation simulation, int direction, long count) {
+        int dx = direction == Input.LEFT ? -1 : 1;
+        for (long i = 0; i < count && simulation.getState() == GameState.PLAYING; i++) {
+            int moved = PackedPiece.moved(simulation.getCurrentPiece().getState(), dx, 0);
+            if (!simulation.getBoard().isValidPosition(moved)) {
+                break;
+            }
+            simulation.apply(direction);
+        }
+    }
+
+    /** Até 'rows' linhas para baixo, sem passar de onde a peça encosta (então não trava). */
+    private void softDrop(GameSimulation simulation, long rows) {
+        if (rows <= 0 || simulation.getState() != GameState.PLAYING) {
+            return;
+        }
+        int distance = simulation.getBoard().dropDistance(simulation.getCurrentPiece().getState());
+        if (rows >= distance) {
+            rows = distance;
+            softDropCredit = 0; // Encostou: não guarda crédito para a próxima peça
+        }
+        for (long i = 0; i < rows; i++) {
+            simulation.apply(Input.SOFT_DROP);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.tetris.simulation;
+
+/**
+ * Quem decide as entradas de cada quadro numa simulação sem interface
+ * (bot, agente aleatório, replay). Uma instância por jogo: pode guardar
+ * estado próprio sem se preocupar com outras threads.
+ */
+public interface InputPolicy {
+
+    /** @return As entradas ({@link Input}) do próximo quadro. */
+    int nextInputs(GameSimulation simulation);
+
+    /** Cria a política de cada jogo de um lote (ver {@link BatchSimulator}). */
+    interface Factory {
+        InputPolicy create(long seed, GameSimulation simulation);
+    }
+}
@@ -0,0 +1,101 @@
+package com.tetris.simulation;
+
+/**
+ * Fila pré-alocada de teclas apertadas e soltas, cada uma com o horário em
+ * que chegou ({@link System#nanoTime()}, o mesmo relógio da
+ * {@link SimulationThread}). A thread do JavaFX escreve; o {@link InputHandler},
+ * na thread da simulação, lê só os eventos que já "aconteceram" no quadro
+ * que está simulando.
+ *
+ * Um produtor e um consumidor, contadores voláteis, sem trava (como o
+ * {@link DeltaRing}). Os horários de um mesmo produtor só crescem.
+ */
+public final class InputQueue {
+
+    /** Capacidade padrão: bem mais teclas do que cabem num quadro. */
+    public static final int DEFAULT_CAPACITY = 256;
+
+    // Marca de "soltou" no código do evento (o resto é o bit de Input)
+    static final int RELEASED = 1 << 31;
+
+    private final long[] times;
+    private final int[] codes;
+    private final int mask;
+    private volatile long written; // Escrito só pelo produtor
+    private volatile long read;    // Escrito só pelo consumidor
+
+    public InputQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** @param capacity Arredondada para potência de 2. */
+    public InputQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacidade inválida: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity * 2 - 1);
+        this.times = new long[size];
+        this.codes = new int[size];
+        this.mask = size - 1;
+    }
+
+    // --- Produtor ---
+
+    /**
+     * @param button Um bit de {@link Input}.
+     * @return false se a fila estiver cheia (o evento se perde).
+     */
+    public boolean press(int button, long nanos) {
+        return offer(checkButton(button), nanos);
+    }
+
+    /** @see #press(int, long) */
+    public boolean release(int button, long nanos) {
+        return offer(checkButton(button) | RELEASED, nanos);
+    }
+
+    private boolean offer(int code, long nanos) {
+        long next = written;
+        if (next - read == times.length) {
+            return false;
+        }
+        int slot = (int) next & mask;
+        times[slot] = nanos;
+        codes[slot] = code;
+        written = next + 1; // Escrita volátil: o evento fica visível antes
+        return true;
+    }
+
+    private static int checkButton(int button) {
+        if (Integer.bitCount(button) != 1 || (button & ~Input.ALL) != 0) {
+            throw new IllegalArgumentException("Não é uma tecla: " + button);
+        }
+        return button;
+    }
+
+    // --- Consumidor ---
+
+    /** @return true se o próximo evento chegou até 'nanos' (inclusive). */
+    boolean hasEventUntil(long nanos) {
+        long next = read;
+        return next != written && times[(int) next & mask] - nanos <= 0;
+    }
+
+    long peekTime() { return times[(int) read & mask]; }
+
+    int peekCode() { return codes[(int) read & mask]; }
+
+    void remove() {
+        read = read + 1;
+    }
+
+    /** Descarta tudo o que ainda não foi lido. */
+    void clear() {
+        read = written;
+    }
+
+    /** @return Quantos eventos estão esperando o consumidor. */
+    public int size() {
+        return (int) (written - read);
+    }
+}
@@ -0,0 +1,40 @@
+package com.tetris.simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * Agente aleatório: em cada quadro, com probabilidade 1/'period', aperta uma
+ * tecla sorteada (a queda rápida é mais rara, para as peças ainda andarem).
+ * Serve para cobrir estados estranhos em testes de regras, não para jogar bem.
+ */
+public final class RandomAgent implements InputPolicy {
+
+    private static final int[] MOVES = {
+            Input.LEFT, Input.RIGHT, Input.ROTATE_CW, Input.ROTATE_CCW,
+            Input.ROTATE_180, Input.SOFT_DROP, Input.HOLD
+    };
+
+    private final SplittableRandom random;
+    private final int period;
+
+    /**
+     * @param seed   Semente própria do agente (mesma semente = mesmas teclas).
+     * @param period Em média, uma tecla a cada 'period' quadros.
+     */
+    public RandomAgent(long seed, int period) {
+        if (period < 1) {
+            throw new IllegalArgumentException("Período inválido: " + period);
+        }
+        this.random = new SplittableRandom(seed);
+        this.period = period;
+    }
+
+    @Override
+    public int nextInputs(GameSimulation simulation) {
+        if (random.nextInt(period) != 0) {
+            return Input.NONE;
+        }
+        int roll = random.nextInt(MOVES.length + 1);
+        return roll == MOVES.length ? Input.HARD_DROP : MOVES[roll];
+    }
+}
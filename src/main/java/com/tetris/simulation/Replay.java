@@ -0,0 +1,261 @@
+package com.tetris.simulation;
+
+import com.tetris.model.RotationSystem;
+import com.tetris.model.tetromino.Randomizer;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Uma partida gravada: a configuração inicial (semente, gerador, rotação,
+ * gravidade, tabuleiro) + as entradas de cada quadro + o resultado final para conferência.
+ * Como a {@link GameSimulation} é determinística, isso basta para refazer o
+ * jogo inteiro (ver {@link ReplayPlayer}).
+ *
+ * Um evento é (quadro, entradas): as entradas são bits de {@link Input}
+ * aplicados naquele quadro, antes de o tempo andar. Entradas = {@link #LINE_CLEAR}
+ * marca o fim da limpeza de linhas quando ela é manual (a animação da View).
+ *
+ * Formato binário (versão 2), em ordem:
+ * <pre>
+ *   byte    versão (2)
+ *   byte    largura - 1
+ *   byte    altura - 1
+ *   byte    gerador (ordinal de Randomizer.Kind) &lt;&lt; 4 | sistema de rotação (ordinal)
+ *   byte    curva de gravidade (ordinal de GravityCurve)
+ *   varint  quadros de atraso de travamento, máximo de resets
+ *   varint  quadros de espera da limpeza + 1 (0 = manual)
+ *   long    semente (8 bytes, big-endian)
+ *   varint  número de eventos
+ *   evento  varint quadros desde o evento anterior, byte entradas
+ *   varint  quadros do último evento até o fim
+ *   varint  pontuação final, linhas finais
+ *   long    hash do tabuleiro final
+ * </pre>
+ * A versão 1 (sem a gravidade) ainda é lida, como {@link GravityCurve#CLASSIC}.
+ * Com um evento a cada poucos quadros (uma tecla), cada um ocupa 2 bytes:
+ * uma partida de 40 linhas fica abaixo de 1 KB.
+ */
+public final class Replay {
+
+    public static final int VERSION = 2;
+
+    /** Entradas de um evento que não é tecla: o fim manual da limpeza de linhas. */
+    public static final int LINE_CLEAR = Input.NONE;
+
+    private static final Randomizer.Kind[] KINDS = Randomizer.Kind.values();
+    private static final RotationSystem[] SYSTEMS = RotationSystem.values();
+    private static final GravityCurve[] CURVES = GravityCurve.values();
+
+    private final int width;
+    private final int height;
+    private final Randomizer.Kind randomizerKind;
+    private final RotationSystem rotationSystem;
+    private final GravityCurve gravityCurve;
+    private final int lockDelayFrames;
+    private final int maxLockResets;
+    private final int lineClearFrames;
+    private final long seed;
+    private final int[] frames;
+    private final int[] inputs;
+    private final int finalFrame;
+    private final int finalScore;
+    private final int finalLines;
+    private final long finalBoardHash;
+
+    Replay(int width, int height, Randomizer.Kind randomizerKind, RotationSystem rotationSystem,
+           GravityCurve gravityCurve, int lockDelayFrames, int maxLockResets,
+           int lineClearFrames, long seed, int[] frames, int[] inputs, int eventCount,
+           int finalFrame, int finalScore, int finalLines, long finalBoardHash) {
+        this.width = width;
+        this.height = height;
+        this.randomizerKind = randomizerKind;
+        this.rotationSystem = rotationSystem;
+        this.gravityCurve = gravityCurve;
+        this.lockDelayFrames = lockDelayFrames;
+        this.maxLockResets = maxLockResets;
+        this.lineClearFrames = lineClearFrames;
+        this.seed = seed;
+        this.frames = Arrays.copyOf(frames, eventCount);
+        this.inputs = Arrays.copyOf(inputs, eventCount);
+        this.finalFrame = finalFrame;
+        this.finalScore = finalScore;
+        this.finalLines = finalLines;
+        this.finalBoardHash = finalBoardHash;
+    }
+
+    // ========================================================================
+    // ==     CODIFICAÇÃO      ==
+    // ========================================================================
+
+    /** @return O replay no formato binário, num array do tamanho exato. */
+    public byte[] toBytes() {
+        ByteBuffer out = ByteBuffer.allocate(maxEncodedSize());
+        write(out);
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    /**
+     * Escreve o replay a partir da posição atual do buffer.
+     * @throws java.nio.BufferOverflowException se o buffer não tiver espaço.
+     */
+    public void write(ByteBuffer out) {
+        out.put((byte) VERSION);
+        out.put((byte) (width - 1));
+        out.put((byte) (height - 1));
+        out.put((byte) (randomizerKind.ordinal() << 4 | rotationSystem.ordinal()));
+        out.put((byte) gravityCurve.ordinal());
+        writeVarInt(out, lockDelayFrames);
+        writeVarInt(out, maxLockResets);
+        writeVarInt(out, lineClearFrames + 1);
+        out.putLong(seed);
+        writeVarInt(out, frames.length);
+        int previous = 0;
+        for (int i = 0; i < frames.length; i++) {
+            writeVarInt(out, frames[i] - previous);
+            out.put((byte) inputs[i]);
+            previous = frames[i];
+        }
+        writeVarInt(out, finalFrame - previous);
+        writeVarInt(out, finalScore);
+        writeVarInt(out, finalLines);
+        out.putLong(finalBoardHash);
+    }
+
+    /** @return O maior tamanho possível (em bytes) deste replay codificado. */
+    public int maxEncodedSize() {
+        // cabeçalho (5 + 3 varints + long + varint) + eventos (varint + byte) + fim (3 varints + long)
+        return 5 + 3 * 5 + 8 + 5 + frames.length * 6 + 3 * 5 + 8;
+    }
+
+    /** Lê um replay de um array (ex: um arquivo inteiro). */
+    public static Replay fromBytes(byte[] bytes) {
+        return read(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Lê um replay a partir da posição atual do buffer.
+     * @throws IllegalArgumentException se a versão ou algum campo for inválido,
+     *         ou se os dados acabarem antes do fim.
+     */
+    public static Replay read(ByteBuffer in) {
+        try {
+            int version = in.get() & 0xFF;
+            if (version != 1 && version != VERSION) {
+                throw new IllegalArgumentException("Versão de replay não suportada: " + version);
+            }
+            int width = (in.get() & 0xFF) + 1;
+            int height = (in.get() & 0xFF) + 1;
+            int rules = in.get() & 0xFF;
+            if ((rules >>> 4) >= KINDS.length || (rules & 0xF) >= SYSTEMS.length) {
+                throw new IllegalArgumentException("Regras inválidas: " + rules);
+            }
+            GravityCurve curve = GravityCurve.CLASSIC; // A versão 1 só tinha a gravidade antiga
+            int lockDelay = 0;
+            int lockResets = 0;
+            if (version >= 2) {
+                int ordinal = in.get() & 0xFF;
+                lockDelay = readVarInt(in);
+                lockResets = readVarInt(in);
+                if (ordinal >= CURVES.length || lockDelay < 0 || lockResets < 0) {
+                    throw new IllegalArgumentException("Gravidade inválida: " + ordinal + "/" + lockDelay + "/" + lockResets);
+                }
+                curve = CURVES[ordinal];
+            }
+            int lineClearFrames = readVarInt(in) - 1;
+            long seed = in.getLong();
+            int count = readVarInt(in);
+            if (count < 0 || count > in.remaining() / 2) {
+                throw new IllegalArgumentException("Número de eventos inválido: " + count);
+            }
+            int[] frames = new int[count];
+            int[] inputs = new int[count];
+            int frame = 0;
+            for (int i = 0; i < count; i++) {
+                frame = Math.addExact(frame, readDelta(in));
+                frames[i] = frame;
+                inputs[i] = in.get() & Input.ALL;
+            }
+            int finalFrame = Math.addExact(frame, readDelta(in));
+            int score = readVarInt(in);
+            int lines = readVarInt(in);
+            long boardHash = in.getLong();
+            return new Replay(width, height, KINDS[rules >>> 4], SYSTEMS[rules & 0xF], curve, lockDelay, lockResets,
+                    lineClearFrames, seed, frames, inputs, count, finalFrame, score, lines, boardHash);
+        } catch (BufferUnderflowException | ArithmeticException e) {
+            throw new IllegalArgumentException("Replay truncado ou corrompido", e);
+        }
+    }
+
+    private static int readDelta(ByteBuffer in) {
+        int delta = readVarInt(in);
+        if (delta < 0) {
+            throw new IllegalArgumentException("Quadros fora de ordem: " + delta);
+        }
+        return delta;
+    }
+
+    private static void writeVarInt(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint longo demais");
+    }
+
+    // ========================================================================
+    // ==     CONSULTA      ==
+    // ========================================================================
+
+    /** @return Uma simulação nova, com as regras e a semente da partida gravada (ainda não iniciada). */
+    public GameSimulation newSimulation() {
+        GameSimulation simulation = new GameSimulation(width, height);
+        simulation.setRandomizer(randomizerKind);
+        simulation.setRotationSystem(rotationSystem);
+        simulation.setGravityCurve(gravityCurve);
+        simulation.setLockDelay(lockDelayFrames, maxLockResets);
+        simulation.setLineClearFrames(lineClearFrames);
+        simulation.setSeed(seed);
+        return simulation;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public Randomizer.Kind getRandomizerKind() { return randomizerKind; }
+    public RotationSystem getRotationSystem() { return rotationSystem; }
+    public GravityCurve getGravityCurve() { return gravityCurve; }
+    public int getLockDelayFrames() { return lockDelayFrames; }
+    public int getMaxLockResets() { return maxLockResets; }
+    public int getLineClearFrames() { return lineClearFrames; }
+    public long getSeed() { return seed; }
+
+    public int getEventCount() { return frames.length; }
+    public int getEventFrame(int i) { return frames[i]; }
+    public int getEventInputs(int i) { return inputs[i]; }
+
+    /** @return Quantos quadros a partida durou. */
+    public int getFinalFrame() { return finalFrame; }
+    public int getFinalScore() { return finalScore; }
+    public int getFinalLines() { return finalLines; }
+    public long getFinalBoardHash() { return finalBoardHash; }
+
+    @Override
+    public String toString() {
+        return "Replay " + width + "x" + height + " " + randomizerKind + "/" + rotationSystem + "/" + gravityCurve
+                + " semente=" + seed + ", " + frames.length + " eventos, " + finalFrame + " quadros, "
+                + finalScore + " pontos, " + finalLines + " linhas";
+    }
+}
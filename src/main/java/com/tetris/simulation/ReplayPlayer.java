@@ -0,0 +1,256 @@
+package com.tetris.simulation;
+
+import com.tetris.model.GameState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Refaz uma partida gravada numa {@link GameSimulation} nova.
+ *
+ * <ul>
+ *   <li>{@link #runToEnd()}: o mais rápido possível (servidor, CI, arquivamento).</li>
+ *   <li>{@link #advance(int)}: alguns quadros por vez; quem chama controla o ritmo
+ *       (ex: um AnimationTimer convertendo o relógio em quadros, como o GameEngine).</li>
+ *   <li>{@link #playRealTime()}: bloqueia a thread e anda a 60 quadros por segundo.</li>
+ * </ul>
+ * {@link #verify()} confere se o resultado bate com o gravado
+ * (pontuação, linhas, quadros e hash do tabuleiro).
+ *
+ * Busca ({@link #seek(long)}): enquanto a reprodução anda para frente, o player
+ * guarda keyframes ({@link SimulationState}) a cada N quadros e/ou a cada M peças
+ * travadas. Buscar um quadro restaura o keyframe mais próximo antes dele e simula
+ * só o que falta (no máximo um intervalo), em vez de refazer tudo desde o quadro 0.
+ * Os tabuleiros dos keyframes compartilham as linhas que não mudaram, então o custo
+ * de memória é pequeno (ver {@link #getKeyframeMemoryBytes()}).
+ */
+public final class ReplayPlayer {
+
+    /** Intervalo padrão entre keyframes: 10 s de jogo. */
+    public static final int DEFAULT_KEYFRAME_FRAMES = 10 * GameSimulation.FPS;
+
+    private final Replay replay;
+    private final GameSimulation simulation;
+    private int nextEvent;
+
+    // Keyframes em ordem de quadro (o primeiro é sempre o quadro 0)
+    private final List<Keyframe> keyframes = new ArrayList<>();
+    private int keyframeFrames = DEFAULT_KEYFRAME_FRAMES;
+    private int keyframeLocks = 0;
+
+    /** Uma foto da simulação + o primeiro evento ainda não aplicado. */
+    private static final class Keyframe {
+        final SimulationState state = new SimulationState();
+        int nextEvent;
+    }
+
+    public ReplayPlayer(Replay replay) {
+        this.replay = replay;
+        this.simulation = replay.newSimulation();
+        simulation.initializeGame();
+        captureKeyframe();
+    }
+
+    /**
+     * Avança até 'frames' quadros, aplicando os eventos gravados nos quadros certos.
+     * @return Quantos quadros andaram (menos que 'frames' se a partida acabou).
+     */
+    public int advance(int frames) {
+        long start = simulation.getFrame();
+        long target = Math.min(start + frames, replay.getFinalFrame());
+        while (true) {
+            long now = simulation.getFrame();
+            maybeCaptureKeyframe(now);
+            applyEventsAt(now);
+            if (now >= target) {
+                break;
+            }
+            long until = nextEvent < replay.getEventCount()
+                    ? Math.min(target, replay.getEventFrame(nextEvent))
+                    : target;
+            if (keyframeFrames > 0) {
+                until = Math.min(until, lastKeyframe().state.getFrame() + keyframeFrames);
+            }
+            int wanted = (int) (until - now);
+            if (simulation.tick(wanted) < wanted) {
+                break; // Fim de jogo (ou a gravação não bate com a simulação)
+            }
+        }
+        return (int) (simulation.getFrame() - start);
+    }
+
+    private void applyEventsAt(long frame) {
+        while (nextEvent < replay.getEventCount() && replay.getEventFrame(nextEvent) == frame) {
+            int inputs = replay.getEventInputs(nextEvent++);
+            if (inputs == Replay.LINE_CLEAR) {
+                simulation.finishLineClear();
+            } else {
+                simulation.apply(inputs);
+            }
+        }
+    }
+
+    // ========================================================================
+    // ==     BUSCA E KEYFRAMES      ==
+    // ========================================================================
+
+    /**
+     * Vai para o quadro 'frame' (para frente ou para trás), com os eventos
+     * desse quadro já aplicados, como se {@link #advance(int)} tivesse parado nele.
+     * @param frame Limitado a 0..getFinalFrame() do replay.
+     */
+    public void seek(long frame) {
+        long target = Math.max(0, Math.min(frame, replay.getFinalFrame()));
+        Keyframe keyframe = keyframeAtOrBefore(target);
+        long now = simulation.getFrame();
+        // Se a posição atual já está entre o keyframe e o alvo, é só continuar daqui
+        if (now > target || now < keyframe.state.getFrame()) {
+            simulation.loadState(keyframe.state);
+            nextEvent = keyframe.nextEvent;
+        }
+        advance((int) (target - simulation.getFrame()));
+    }
+
+    /** Simula a partida inteira uma vez para ter keyframes em todo o replay (e volta para onde estava). */
+    public void buildKeyframes() {
+        long position = simulation.getFrame();
+        runToEnd();
+        seek(position);
+    }
+
+    /**
+     * Ajusta o intervalo entre keyframes (os já guardados, exceto o do quadro 0, são descartados).
+     * @param frames Um keyframe a cada 'frames' quadros (0 = não usa esse critério).
+     * @param locks  Um keyframe depois de cada 'locks' peças travadas, no primeiro evento
+     *               ou limite de quadros seguinte (0 = não usa esse critério).
+     */
+    public void setKeyframeInterval(int frames, int locks) {
+        if (frames < 0 || locks < 0) {
+            throw new IllegalArgumentException("Intervalo inválido: " + frames + " quadros, " + locks + " peças");
+        }
+        keyframeFrames = frames;
+        keyframeLocks = locks;
+        keyframes.subList(1, keyframes.size()).clear();
+    }
+
+    public int getKeyframeFrames() { return keyframeFrames; }
+    public int getKeyframeLocks() { return keyframeLocks; }
+    public int getKeyframeCount() { return keyframes.size(); }
+
+    /** @return Estimativa da memória dos keyframes guardados (linhas compartilhadas contam uma vez). */
+    public long getKeyframeMemoryBytes() {
+        long bytes = 0;
+        SimulationState previous = null;
+        for (Keyframe keyframe : keyframes) {
+            bytes += keyframe.state.estimateBytes(previous);
+            previous = keyframe.state;
+        }
+        return bytes;
+    }
+
+    private void maybeCaptureKeyframe(long now) {
+        SimulationState last = lastKeyframe().state;
+        if (now <= last.getFrame()) {
+            return; // Só estende para frente; atrás já existem keyframes
+        }
+        if ((keyframeFrames > 0 && now - last.getFrame() >= keyframeFrames)
+                || (keyframeLocks > 0 && simulation.getLockCount() - last.getLockCount() >= keyframeLocks)) {
+            captureKeyframe();
+        }
+    }
+
+    private void captureKeyframe() {
+        Keyframe keyframe = new Keyframe();
+        simulation.saveState(keyframe.state);
+        keyframe.nextEvent = nextEvent;
+        keyframes.add(keyframe);
+    }
+
+    private Keyframe lastKeyframe() {
+        return keyframes.get(keyframes.size() - 1);
+    }
+
+    /** Busca binária pelo último keyframe com quadro menor ou igual a 'frame'. */
+    private Keyframe keyframeAtOrBefore(long frame) {
+        int low = 0;
+        int high = keyframes.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (keyframes.get(mid).state.getFrame() <= frame) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return keyframes.get(low);
+    }
+
+    // ========================================================================
+    // ==     REPRODUÇÃO E VERIFICAÇÃO      ==
+    // ========================================================================
+
+    /** Refaz o resto da partida de uma vez, sem esperar o relógio. */
+    public GameSimulation runToEnd() {
+        while (!isFinished()) {
+            int applied = nextEvent;
+            if (advance(Integer.MAX_VALUE) == 0 && nextEvent == applied) {
+                break; // Travou num estado em que o tempo não anda (a gravação não bate)
+            }
+        }
+        return simulation;
+    }
+
+    /** Refaz o resto da partida na velocidade real (bloqueia a thread). */
+    public GameSimulation playRealTime() {
+        long next = System.nanoTime();
+        while (!isFinished()) {
+            int applied = nextEvent;
+            if (advance(1) == 0 && nextEvent == applied) {
+                break;
+            }
+            next += GameSimulation.FRAME_NANOS;
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+        return simulation;
+    }
+
+    /** @return true quando todos os eventos e quadros gravados já foram simulados (ou o jogo acabou). */
+    public boolean isFinished() {
+        return nextEvent >= replay.getEventCount()
+                && (simulation.getFrame() >= replay.getFinalFrame() || simulation.getState() == GameState.GAME_OVER);
+    }
+
+    /**
+     * Modo de verificação: refaz o que faltar e compara com o resultado gravado.
+     * @return true se pontuação, linhas, quadros e hash do tabuleiro batem.
+     */
+    public boolean verify() {
+        runToEnd();
+        return getMismatch() == null;
+    }
+
+    /** @return A primeira diferença com o resultado gravado, ou null se tudo bate. */
+    public String getMismatch() {
+        if (simulation.getFrame() != replay.getFinalFrame()) {
+            return "quadros: gravado " + replay.getFinalFrame() + ", refeito " + simulation.getFrame();
+        }
+        if (simulation.getScore() != replay.getFinalScore()) {
+            return "pontuação: gravada " + replay.getFinalScore() + ", refeita " + simulation.getScore();
+        }
+        if (simulation.getLinesCleared() != replay.getFinalLines()) {
+            return "linhas: gravadas " + replay.getFinalLines() + ", refeitas " + simulation.getLinesCleared();
+        }
+        if (simulation.getBoard().getHash() != replay.getFinalBoardHash()) {
+            return "hash do tabuleiro: gravado " + Long.toHexString(replay.getFinalBoardHash())
+                    + ", refeito " + Long.toHexString(simulation.getBoard().getHash());
+        }
+        return null;
+    }
+
+    public Replay getReplay() { return replay; }
+    public GameSimulation getSimulation() { return simulation; }
+}
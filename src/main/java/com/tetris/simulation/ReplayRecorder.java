@@ -0,0 +1,95 @@
+package com.tetris.simulation;
+
+import com.tetris.model.RotationSystem;
+import com.tetris.model.tetromino.Randomizer;
+
+import java.util.Arrays;
+
+/**
+ * Grava as entradas de uma {@link GameSimulation} (ligado com
+ * {@link GameSimulation#setRecorder(ReplayRecorder)}). A simulação chama
+ * {@link #begin(GameSimulation)} em cada initializeGame() e avisa cada
+ * entrada aplicada; {@link #finish(GameSimulation)} fecha o {@link Replay}.
+ *
+ * Os eventos vão para dois int[] que só crescem (dobrando), então gravar
+ * não aloca nada na maior parte da partida.
+ */
+public final class ReplayRecorder {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int width;
+    private int height;
+    private Randomizer.Kind randomizerKind;
+    private RotationSystem rotationSystem;
+    private GravityCurve gravityCurve;
+    private int lockDelayFrames;
+    private int maxLockResets;
+    private int lineClearFrames;
+    private long seed;
+
+    private int[] frames = new int[INITIAL_CAPACITY];
+    private int[] inputs = new int[INITIAL_CAPACITY];
+    private int count;
+    private boolean recording;
+
+    /** Começa uma gravação nova (descarta a anterior, se não foi fechada). */
+    public void begin(GameSimulation simulation) {
+        width = simulation.getBoard().getWidth();
+        height = simulation.getBoard().getHeight();
+        randomizerKind = simulation.getRandomizerKind();
+        rotationSystem = simulation.getRotationSystem();
+        gravityCurve = simulation.getGravityCurve();
+        lockDelayFrames = simulation.getLockDelayFrames();
+        maxLockResets = simulation.getMaxLockResets();
+        lineClearFrames = simulation.getLineClearFrames();
+        seed = simulation.getSeed();
+        count = 0;
+        recording = true;
+    }
+
+    /** Entradas aplicadas no quadro 'frame' (antes de o tempo andar). */
+    void record(long frame, int inputBits) {
+        if (!recording) {
+            return;
+        }
+        if (count == frames.length) {
+            frames = Arrays.copyOf(frames, count * 2);
+            inputs = Arrays.copyOf(inputs, count * 2);
+        }
+        frames[count] = Math.toIntExact(frame);
+        inputs[count] = inputBits;
+        count++;
+    }
+
+    /** O fim manual da limpeza de linhas no quadro 'frame'. */
+    void recordLineClear(long frame) {
+        record(frame, Replay.LINE_CLEAR);
+    }
+
+    /**
+     * Fecha a gravação com o resultado atual da simulação (fim de jogo ou partida abandonada).
+     * @throws IllegalStateException se nada estiver sendo gravado.
+     */
+    public Replay finish(GameSimulation simulation) {
+        if (!recording) {
+            throw new IllegalStateException("Nenhuma partida sendo gravada");
+        }
+        recording = false;
+        return new Replay(width, height, randomizerKind, rotationSystem, gravityCurve, lockDelayFrames,
+                maxLockResets, lineClearFrames, seed,
+                frames, inputs, count, Math.toIntExact(simulation.getFrame()),
+                simulation.getScore(), simulation.getLinesCleared(), simulation.getBoard().getHash());
+    }
+
+    /** Descarta a gravação atual (ex: o estado foi substituído por um save state). */
+    void cancel() {
+        recording = false;
+        count = 0;
+    }
+
+    public boolean isRecording() { return recording; }
+
+    /** @return Quantos eventos a gravação atual já tem. */
+    public int getEventCount() { return count; }
+}
@@ -0,0 +1,288 @@
+package com.tetris.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Sessão de rollback (estilo GGPO) para partidas em rede: cada par simula
+ * TODOS os jogadores, cada um na sua {@link GameSimulation}, sem esperar a
+ * rede. As entradas locais valem na hora; as de quem está do outro lado são
+ * previstas até chegarem. Quando uma entrada real chega diferente da prevista,
+ * a sessão volta para a foto daquele quadro e simula de novo até o presente.
+ *
+ * Tudo é pré-alocado no construtor: um anel de fotos ({@link SimulationState}
+ * planas, ver {@link GameSimulation#copyState(SimulationState)}) com os últimos
+ * quadros de cada jogador e um anel com as entradas de cada quadro. Salvar,
+ * voltar e resimular não alocam.
+ *
+ * Se a previsão for passar de {@link #getMaxRollbackFrames()} quadros (o outro
+ * lado sumiu ou está muito atrasado), {@link #advanceFrame()} não avança: o
+ * jogo espera, em vez de precisar voltar mais do que o anel guarda.
+ *
+ * Para os pares chegarem no mesmo jogo, todos criam a sessão com a mesma
+ * configuração e semente (a limpeza de linhas não pode ser manual).
+ */
+public final class RollbackSession {
+
+    /** Janela padrão: até 8 quadros de previsão (~133 ms de atraso na rede). */
+    public static final int DEFAULT_MAX_ROLLBACK_FRAMES = 8;
+
+    private static final long NONE = -1;
+
+    private final GameSimulation[] players;
+    private final int localPlayer;
+    private final int maxRollback;
+
+    // Fotos do começo de cada quadro (antes das entradas): [quadro % tamanho][jogador]
+    private final SimulationState[][] states;
+    private final int statesMask;
+
+    // Entradas de cada quadro: as usadas na simulação (reais ou previstas) e de que quadro elas são
+    private final int[][] inputs;
+    private final long[][] receivedFrame; // == quadro se a entrada já é a real
+    private final int inputsMask;
+
+    private final long[] confirmedFrame; // Último quadro com todas as entradas reais, por jogador
+    private final int[] lastConfirmedInputs;
+    private int predictionMask = Input.NONE;
+
+    private long currentFrame; // O próximo quadro a simular
+    private long rollbackFrom = NONE;
+    private int localPending;
+
+    // Estatísticas
+    private long rollbackCount;
+    private long resimulatedFrames;
+    private int maxRollbackDepth;
+    private long stallCount;
+
+    /**
+     * @param config      As regras (as mesmas em todos os pares).
+     * @param seed        A semente da partida (a mesma em todos os pares; todos os
+     *                    jogadores recebem a mesma sequência de peças).
+     * @param playerCount Quantos jogadores (tabuleiros).
+     * @param localPlayer Qual deles é controlado por este par.
+     * @param maxRollback Quantos quadros a sessão pode prever (e depois refazer).
+     */
+    public RollbackSession(GameConfig config, long seed, int playerCount, int localPlayer, int maxRollback) {
+        if (playerCount < 1 || localPlayer < 0 || localPlayer >= playerCount) {
+            throw new IllegalArgumentException("Jogador local " + localPlayer + " de " + playerCount);
+        }
+        if (maxRollback < 1) {
+            throw new IllegalArgumentException("Janela inválida: " + maxRollback);
+        }
+        this.players = new GameSimulation[playerCount];
+        for (int p = 0; p < playerCount; p++) {
+            players[p] = config.newSimulation(seed);
+        }
+        this.localPlayer = localPlayer;
+        this.maxRollback = maxRollback;
+
+        int stateSlots = Integer.highestOneBit(maxRollback + 1) * 2; // > maxRollback + 1
+        this.states = new SimulationState[stateSlots][playerCount];
+        for (SimulationState[] slot : states) {
+            for (int p = 0; p < playerCount; p++) {
+                slot[p] = new SimulationState();
+                players[p].copyState(slot[p]); // Aloca as células e a fila uma vez só
+            }
+        }
+        this.statesMask = stateSlots - 1;
+
+        // As entradas locais precisam durar até o outro lado confirmar (até 2 janelas atrás)
+        int inputSlots = Integer.highestOneBit(2 * maxRollback + 1) * 4;
+        this.inputs = new int[playerCount][inputSlots];
+        this.receivedFrame = new long[playerCount][inputSlots];
+        for (long[] frames : receivedFrame) {
+            Arrays.fill(frames, NONE);
+        }
+        this.inputsMask = inputSlots - 1;
+        this.confirmedFrame = new long[playerCount];
+        Arrays.fill(confirmedFrame, NONE);
+        this.lastConfirmedInputs = new int[playerCount];
+    }
+
+    public RollbackSession(GameConfig config, long seed, int playerCount, int localPlayer) {
+        this(config, seed, playerCount, localPlayer, DEFAULT_MAX_ROLLBACK_FRAMES);
+    }
+
+    // ========================================================================
+    // ==     ENTRADAS      ==
+    // ========================================================================
+
+    /** Entradas do jogador local para o próximo quadro (várias chamadas se juntam). */
+    public void addLocalInput(int bits) {
+        localPending |= bits;
+    }
+
+    /**
+     * Entrada real de um jogador remoto (repetidas e atrasadas são aceitas).
+     * Se o quadro já foi simulado com outra previsão, o próximo
+     * {@link #advanceFrame()} volta até ele.
+     * @throws IllegalArgumentException se o quadro estiver fora de
+     *         {@link #acceptsRemoteFrame(long)} (o outro lado está muito fora da janela).
+     */
+    public void addRemoteInput(int player, long frame, int bits) {
+        if (player == localPlayer) {
+            throw new IllegalArgumentException("O jogador " + player + " é o local");
+        }
+        int slot = (int) frame & inputsMask;
+        if (frame <= confirmedFrame[player] || receivedFrame[player][slot] == frame) {
+            return; // Repetida
+        }
+        if (!acceptsRemoteFrame(frame)) {
+            throw new IllegalArgumentException("Quadro " + frame + " fora da janela (atual " + currentFrame + ")");
+        }
+        if (frame < currentFrame && inputs[player][slot] != bits) {
+            rollbackFrom = rollbackFrom == NONE ? frame : Math.min(rollbackFrom, frame); // A previsão errou
+        }
+        inputs[player][slot] = bits;
+        receivedFrame[player][slot] = frame;
+        // Avança o confirmado enquanto os quadros seguintes também já chegaram
+        long next = confirmedFrame[player] + 1;
+        while (receivedFrame[player][(int) next & inputsMask] == next) {
+            lastConfirmedInputs[player] = inputs[player][(int) next & inputsMask];
+            confirmedFrame[player] = next++;
+        }
+    }
+
+    /**
+     * Bits que a previsão repete da última entrada confirmada. O padrão é nenhum:
+     * aqui cada bit é um toque (não uma tecla segurada), então repetir o último
+     * toque quase sempre erraria; o melhor palpite é "nada".
+     */
+    public void setPredictionMask(int bits) {
+        this.predictionMask = bits;
+    }
+
+    // ========================================================================
+    // ==     QUADRO      ==
+    // ========================================================================
+
+    /**
+     * Corrige o passado se alguma previsão errou e simula o quadro atual de todos.
+     * @return false se o quadro não pôde andar (previsão longa demais: esperando a rede).
+     */
+    public boolean advanceFrame() {
+        if (rollbackFrom != NONE) {
+            rollback();
+        }
+        if (currentFrame - getConfirmedFrame() > maxRollback) {
+            stallCount++;
+            return false;
+        }
+        int slot = (int) currentFrame & inputsMask;
+        inputs[localPlayer][slot] = localPending;
+        receivedFrame[localPlayer][slot] = currentFrame;
+        confirmedFrame[localPlayer] = currentFrame;
+        localPending = Input.NONE;
+        for (int p = 0; p < players.length; p++) {
+            if (receivedFrame[p][slot] != currentFrame) {
+                inputs[p][slot] = lastConfirmedInputs[p] & predictionMask;
+            }
+        }
+        simulate(currentFrame);
+        currentFrame++;
+        return true;
+    }
+
+    /** Volta para a foto de 'rollbackFrom' e refaz os quadros até o atual com as entradas corrigidas. */
+    private void rollback() {
+        long from = rollbackFrom;
+        rollbackFrom = NONE;
+        SimulationState[] saved = states[(int) from & statesMask];
+        for (int p = 0; p < players.length; p++) {
+            players[p].loadState(saved[p]);
+        }
+        int depth = (int) (currentFrame - from);
+        for (long frame = from; frame < currentFrame; frame++) {
+            int slot = (int) frame & inputsMask;
+            for (int p = 0; p < players.length; p++) {
+                if (receivedFrame[p][slot] != frame) {
+                    inputs[p][slot] = lastConfirmedInputs[p] & predictionMask; // Nova previsão
+                }
+            }
+            simulate(frame);
+        }
+        rollbackCount++;
+        resimulatedFrames += depth;
+        maxRollbackDepth = Math.max(maxRollbackDepth, depth);
+    }
+
+    /** Salva a foto do começo do quadro e anda um quadro em todos os tabuleiros. */
+    private void simulate(long frame) {
+        SimulationState[] slot = states[(int) frame & statesMask];
+        int inputSlot = (int) frame & inputsMask;
+        for (int p = 0; p < players.length; p++) {
+            players[p].copyState(slot[p]);
+            players[p].step(inputs[p][inputSlot]);
+        }
+    }
+
+    // ========================================================================
+    // ==     CONSULTA      ==
+    // ========================================================================
+
+    /** @return O próximo quadro a simular (quantos quadros a sessão já andou). */
+    public long getCurrentFrame() { return currentFrame; }
+
+    /** @return O último quadro em que as entradas de TODOS os jogadores são reais (-1 = nenhum). */
+    public long getConfirmedFrame() {
+        long confirmed = Long.MAX_VALUE;
+        for (long frame : confirmedFrame) {
+            confirmed = Math.min(confirmed, frame);
+        }
+        return confirmed;
+    }
+
+    /** @return O último quadro com entradas reais do jogador (-1 = nenhum). */
+    public long getConfirmedFrame(int player) { return confirmedFrame[player]; }
+
+    /**
+     * @return A entrada local de um quadro já simulado (para o transporte enviar).
+     * @throws IllegalArgumentException se o quadro já saiu do anel ou ainda não foi simulado.
+     */
+    public int getLocalInput(long frame) {
+        if (frame < 0 || frame >= currentFrame || frame <= currentFrame - inputsMask) {
+            throw new IllegalArgumentException("Quadro " + frame + " fora do anel (atual " + currentFrame + ")");
+        }
+        return inputs[localPlayer][(int) frame & inputsMask];
+    }
+
+    /**
+     * Um par honesto nunca passa mais de {@link #getMaxRollbackFrames()} quadros à
+     * frente (ele para esperando as nossas entradas); aceitar mais que isso
+     * deixaria um quadro futuro cair no slot de um quadro passado ainda não
+     * confirmado, e a entrada dele seria sobrescrita sem aviso.
+     * @return true se uma entrada remota desse quadro cabe no anel agora (senão
+     *         {@link #addRemoteInput(int, long, int)} recusa, a não ser que já esteja confirmada).
+     */
+    public boolean acceptsRemoteFrame(long frame) {
+        return frame >= currentFrame - inputsMask && frame <= currentFrame + maxRollback;
+    }
+
+    /** @return O quadro local mais antigo que {@link #getLocalInput(long)} ainda devolve. */
+    public long getOldestLocalFrame() {
+        return Math.max(0, currentFrame - inputsMask + 1);
+    }
+
+    public GameSimulation getPlayer(int player) { return players[player]; }
+    public int getPlayerCount() { return players.length; }
+    public int getLocalPlayer() { return localPlayer; }
+    public int getMaxRollbackFrames() { return maxRollback; }
+
+    /** @return Quantas vezes uma previsão errada fez a sessão voltar. */
+    public long getRollbackCount() { return rollbackCount; }
+    /** @return Quantos quadros foram simulados de novo por causa dos rollbacks. */
+    public long getResimulatedFrames() { return resimulatedFrames; }
+    public int getMaxRollbackDepth() { return maxRollbackDepth; }
+    /** @return Quantas vezes advanceFrame() não andou esperando a rede. */
+    public long getStallCount() { return stallCount; }
+
+    /** @return O hash das posições de todos os jogadores (para comparar os pares e achar dessincronia). */
+    public long getChecksum() {
+        long checksum = 0;
+        for (GameSimulation player : players) {
+            checksum = checksum * 31 + player.getPositionHash();
+        }
+        return checksum;
+    }
+}
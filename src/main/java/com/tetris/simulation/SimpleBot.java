@@ -0,0 +1,80 @@
+package com.tetris.simulation;
+
+import com.tetris.model.Board;
+import com.tetris.model.BoardSnapshot;
+import com.tetris.model.Placements;
+import com.tetris.model.tetromino.PackedPiece;
+
+/**
+ * Jogador automático simples (testes, benchmarks, lotes de simulação).
+ * A cada peça nova escolhe o melhor pouso (Placements + uma avaliação
+ * clássica de altura, linhas, buracos e irregularidade) e depois gera uma
+ * entrada por quadro até lá: gira e anda para o lado, depois a queda rápida.
+ */
+public final class SimpleBot implements InputPolicy {
+
+    private final Board scratch;
+    private final int[] candidates;
+    private final int[] fullLines;
+    private int plannedSerial = -1;
+    private int target = PackedPiece.NONE;
+
+    public SimpleBot(Board board) {
+        this.scratch = new Board(board.getWidth(), board.getHeight());
+        this.candidates = new int[Placements.maxCount(board)];
+        this.fullLines = new int[board.getHeight()];
+    }
+
+    @Override
+    public int nextInputs(GameSimulation simulation) {
+        if (simulation.getPieceSerial() != plannedSerial) {
+            plannedSerial = simulation.getPieceSerial();
+            target = plan(simulation);
+        }
+        int piece = simulation.getCurrentPiece().getState();
+        if (target == PackedPiece.NONE) {
+            return Input.HARD_DROP; // Nenhum pouso possível: o jogo vai acabar mesmo
+        }
+        // Gira e anda no mesmo quadro (a simulação aplica a rotação antes do movimento)
+        int dx = PackedPiece.x(target) - PackedPiece.x(piece);
+        int move = dx < 0 ? Input.LEFT : dx > 0 ? Input.RIGHT : Input.NONE;
+        if (PackedPiece.rotation(piece) != PackedPiece.rotation(target)) {
+            return Input.ROTATE_CW | move;
+        }
+        return move != Input.NONE ? move : Input.HARD_DROP;
+    }
+
+    private int plan(GameSimulation simulation) {
+        Board board = simulation.getBoard();
+        BoardSnapshot snapshot = board.snapshot();
+        int count = Placements.generate(board, simulation.getCurrentPiece().getType(), candidates);
+        int best = PackedPiece.NONE;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            scratch.restore(snapshot);
+            scratch.placePiece(candidates[i]);
+            int lines = scratch.findFullLines(fullLines);
+            if (lines > 0) {
+                scratch.removeLines(fullLines, lines);
+            }
+            double score = evaluate(scratch, lines);
+            if (score > bestScore) {
+                bestScore = score;
+                best = candidates[i];
+            }
+        }
+        return best;
+    }
+
+    private static double evaluate(Board board, int lines) {
+        int heights = 0;
+        int bumpiness = 0;
+        for (int x = 0; x < board.getWidth(); x++) {
+            heights += board.getColumnHeight(x);
+            if (x > 0) {
+                bumpiness += Math.abs(board.getColumnHeight(x) - board.getColumnHeight(x - 1));
+            }
+        }
+        return -0.51 * heights + 0.76 * lines - 0.36 * board.getTotalHoles() - 0.18 * bumpiness;
+    }
+}
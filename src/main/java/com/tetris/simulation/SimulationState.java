@@ -0,0 +1,81 @@
+package com.tetris.simulation;
+
+import com.tetris.model.BoardSnapshot;
+import com.tetris.model.GameState;
+import com.tetris.model.PieceType;
+import com.tetris.model.tetromino.PieceQueue;
+
+/**
+ * Uma foto completa de uma {@link GameSimulation} em algum quadro: tudo o que
+ * é preciso para continuar dali e chegar exatamente nos mesmos quadros
+ * seguintes (inclusive o ponto da sequência de peças, que o GameStateCodec
+ * não guarda). Preenchida por {@link GameSimulation#saveState(SimulationState)}.
+ *
+ * O objeto pode ser reaproveitado: a fila de peças é copiada por cima da
+ * anterior, e o tabuleiro é um {@link BoardSnapshot} (linhas compartilhadas
+ * com o Board e com as outras fotos, copy-on-write).
+ *
+ * Com {@link GameSimulation#copyState(SimulationState)} o tabuleiro vai numa
+ * cópia plana das células, própria desta foto: gasta mais memória por foto,
+ * mas reaproveitar a foto não aloca nada (o anel de rollback salva todo quadro).
+ */
+public final class SimulationState {
+
+    // Tamanhos aproximados (JVM de 64 bits com ponteiros comprimidos) para a estimativa de memória
+    private static final int OBJECT_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+
+    BoardSnapshot board; // null numa foto plana
+    PieceType[] cells;   // Cópia plana (só quando board == null)
+    PieceQueue queue;
+    int current;
+    int next;
+    int held;
+    boolean canHold;
+    int score;
+    int level;
+    int linesCleared;
+    GameState state;
+    long frame;
+    long lockCount;
+    int gravityCounter;
+    int lockTimer;
+    int lockResets;
+    int lowestY;
+    int lineClearCounter;
+
+    /** @return O quadro em que a foto foi tirada. */
+    public long getFrame() { return frame; }
+
+    /** @return Quantas peças já tinham travado no momento da foto. */
+    public long getLockCount() { return lockCount; }
+
+    public GameState getState() { return state; }
+
+    /**
+     * Estimativa dos bytes que esta foto ocupa. As linhas de células compartilhadas
+     * com 'previous' (a foto anterior da mesma partida) não contam, porque já
+     * foram contadas nela.
+     * @param previous A foto anterior, ou null para contar o tabuleiro inteiro.
+     */
+    public long estimateBytes(SimulationState previous) {
+        if (board == null) {
+            return OBJECT_BYTES + 4L * 17 + OBJECT_BYTES + (long) cells.length * REFERENCE_BYTES
+                    + OBJECT_BYTES * 4 + 64;
+        }
+        int width = board.getWidth();
+        int height = board.getHeight();
+        int words = (width + Long.SIZE - 1) / Long.SIZE;
+        long bytes = OBJECT_BYTES + 4L * 17                    // Este objeto
+                + OBJECT_BYTES * 2 + height * REFERENCE_BYTES   // BoardSnapshot + linhas
+                + OBJECT_BYTES * 2 + 8L * words * height        // Máscaras das linhas
+                + OBJECT_BYTES * 4 + 64;                        // Fila + gerador (anel pequeno)
+        long rowBytes = OBJECT_BYTES + (long) width * REFERENCE_BYTES;
+        for (int y = 0; y < height; y++) {
+            if (previous == null || previous.board == null || !board.sharesRowWith(previous.board, y)) {
+                bytes += rowBytes;
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,179 @@
+package com.tetris.simulation;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Roda uma {@link GameSimulation} numa thread própria, a 60 quadros por
+ * segundo pelo relógio do sistema, longe da thread do JavaFX: um quadro lento
+ * da interface (CSS, layout, efeitos no GamePanel) não atrasa a gravidade nem
+ * as teclas.
+ *
+ * Comunicação, toda sem trava:
+ * <ul>
+ *   <li>Entrada: as teclas com horário vão na {@link InputQueue} de um
+ *       {@link InputHandler} (DAS/ARR no relógio da simulação), ou viram bits
+ *       de {@link Input} somados num inteiro atômico e aplicados no próximo
+ *       quadro; o resto (pausa, fim da animação de limpeza, edições) vai numa
+ *       fila de comandos.</li>
+ *   <li>Saída: uma {@link FrameSnapshot} por quadro num {@link TripleBuffer}
+ *       (para desenhar) e os {@link StateDelta} no anel da simulação, se
+ *       houver um (para as propriedades do HUD).</li>
+ * </ul>
+ * O atraso de cada quadro em relação ao horário previsto fica em {@link #getJitter()}.
+ *
+ * Enquanto a thread roda, só ela pode mexer na simulação.
+ */
+public final class SimulationThread {
+
+    // Atrasada mais que isso (ex: a máquina dormiu), a simulação desiste de recuperar os quadros
+    private static final int MAX_CATCH_UP_FRAMES = 10;
+
+    private final GameSimulation simulation;
+    private final TripleBuffer<FrameSnapshot> frames;
+    private final TickJitter jitter = new TickJitter();
+    private final AtomicInteger pendingInputs = new AtomicInteger();
+    private final Queue<Consumer<GameSimulation>> commands = new ConcurrentLinkedQueue<>();
+    private volatile InputHandler inputHandler;
+    private volatile boolean running;
+    private Thread thread;
+
+    /**
+     * @param frames Onde as fotos de cada quadro são publicadas (a thread passa a ser
+     *               o produtor dele enquanto roda).
+     */
+    public SimulationThread(GameSimulation simulation, TripleBuffer<FrameSnapshot> frames) {
+        this.simulation = simulation;
+        this.frames = frames;
+    }
+
+    /** Começa a rodar a simulação (não faz nada se já estiver rodando). */
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true); // Não segura a JVM aberta ao fechar a janela
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Para a thread e espera ela terminar o quadro em curso. Comandos que ela
+     * não chegou a rodar rodam aqui, na ordem (quem configurou e depois parou
+     * vê a configuração aplicada). Depois disto a simulação volta a poder ser
+     * usada por quem chamou.
+     * @return true se a thread estava rodando.
+     */
+    public boolean stop() {
+        if (!running) {
+            return false;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+        runCommands();
+        return true;
+    }
+
+    public boolean isRunning() { return running; }
+
+    /** Entradas para o próximo quadro (várias teclas no mesmo quadro se juntam). */
+    public void submit(int inputs) {
+        pendingInputs.getAndAccumulate(inputs, (pending, bits) -> pending | bits);
+    }
+
+    /**
+     * Liga as teclas com horário: a cada quadro o handler aplica o que aconteceu
+     * até o horário previsto do quadro (null desliga).
+     */
+    public void setInputHandler(InputHandler inputHandler) {
+        this.inputHandler = inputHandler;
+    }
+
+    public InputHandler getInputHandler() { return inputHandler; }
+
+    /**
+     * Roda 'command' na thread da simulação, no começo do próximo quadro
+     * (ou em {@link #stop()}, se a thread parar antes; com a thread parada,
+     * no primeiro quadro depois de start()).
+     */
+    public void submit(Consumer<GameSimulation> command) {
+        commands.add(command);
+    }
+
+    // ========================================================================
+    // ==     LAÇO DA THREAD      ==
+    // ========================================================================
+
+    private void run() {
+        long deadline = System.nanoTime();
+        while (running) {
+            long now = System.nanoTime();
+            long wait = deadline - now;
+            if (wait > 0) {
+                LockSupport.parkNanos(this, wait);
+                continue; // Acordou cedo (ou stop()): confere de novo
+            }
+            jitter.record(-wait);
+            runCommands();
+            InputHandler handler = inputHandler;
+            if (handler != null) {
+                handler.update(simulation, deadline); // O horário previsto, não o de agora
+            }
+            simulation.step(pendingInputs.getAndSet(Input.NONE));
+            publishSnapshot();
+
+            deadline += GameSimulation.FRAME_NANOS;
+            if (now - deadline > MAX_CATCH_UP_FRAMES * GameSimulation.FRAME_NANOS) {
+                deadline = now; // Longe demais: recomeça a contar daqui
+            }
+        }
+        runCommands(); // O que chegou antes do stop() não se perde
+    }
+
+    private void publishSnapshot() {
+        frames.back().fill(simulation);
+        frames.publish();
+    }
+
+    /**
+     * Com a thread parada, publica uma foto do estado atual (ex: depois de
+     * mexer na simulação direto). Quem chama passa a ser o produtor do buffer.
+     * @throws IllegalStateException se a thread estiver rodando.
+     */
+    public void publishFrame() {
+        if (running) {
+            throw new IllegalStateException("A thread da simulação é quem publica enquanto roda");
+        }
+        publishSnapshot();
+    }
+
+    private void runCommands() {
+        Consumer<GameSimulation> command;
+        while ((command = commands.poll()) != null) {
+            command.accept(simulation);
+        }
+    }
+
+    /** @return O atraso dos quadros (escrito pela thread; exato depois de {@link #stop()}). */
+    public TickJitter getJitter() { return jitter; }
+
+    public GameSimulation getSimulation() { return simulation; }
+}
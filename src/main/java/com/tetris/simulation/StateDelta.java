@@ -0,0 +1,125 @@
+package com.tetris.simulation;
+
+import com.tetris.model.GameState;
+import com.tetris.model.PieceType;
+import com.tetris.model.tetromino.PackedPiece;
+
+/**
+ * O que mudou na simulação desde a última publicação, com os valores atuais
+ * (absolutos, não incrementos): juntar vários deltas é só somar as máscaras e
+ * ficar com os valores do mais novo.
+ *
+ * Os deltas moram nos slots pré-alocados de um {@link DeltaRing} e são
+ * preenchidos só pela simulação; para quem consome eles são somente leitura
+ * (não há setters públicos) até o slot ser devolvido ao anel.
+ */
+public final class StateDelta {
+
+    // Bits de getChanges()
+    public static final int SCORE = 1;
+    public static final int LEVEL = 1 << 1;
+    public static final int LINES = 1 << 2;
+    public static final int STATE = 1 << 3;
+    /** A peça em jogo mexeu (movimento, rotação, nascimento). */
+    public static final int CURRENT = 1 << 4;
+    /** A peça do "next" (ou a fila de prévia, ou a semente) ou a do hold mudou. */
+    public static final int PIECES = 1 << 5;
+    /** O tabuleiro mudou (peça travada, linhas removidas, jogo novo). */
+    public static final int BOARD = 1 << 6;
+    /** As linhas esperando a limpeza mudaram. */
+    public static final int CLEARING = 1 << 7;
+    public static final int ALL = (1 << 8) - 1;
+
+    private int changes;
+    private long frame;
+    private int score;
+    private int level;
+    private int linesCleared;
+    private GameState state = GameState.PLAYING;
+    private int current = PackedPiece.NONE;
+    private int next = PackedPiece.NONE;
+    private int held = PackedPiece.NONE;
+    private final PieceType[] preview = new PieceType[GameSimulation.PREVIEW_DEPTH];
+    private long seed;
+    private final int[] clearingLines;
+    private int clearingCount;
+
+    /** @param boardHeight Altura do tabuleiro (limite de linhas em limpeza). */
+    public StateDelta(int boardHeight) {
+        this.clearingLines = new int[boardHeight];
+    }
+
+    /** Preenche com o estado atual da simulação (só a simulação escreve). */
+    void fill(GameSimulation simulation, int changed) {
+        changes = changed;
+        frame = simulation.getFrame();
+        score = simulation.getScore();
+        level = simulation.getLevel();
+        linesCleared = simulation.getLinesCleared();
+        state = simulation.getState();
+        current = simulation.getCurrentPiece().getState();
+        next = simulation.getNextPiece().getState();
+        held = simulation.getHeldPiece() == null ? PackedPiece.NONE : simulation.getHeldPiece().getState();
+        for (int i = 0; i < preview.length; i++) {
+            preview[i] = simulation.getPreview(i);
+        }
+        seed = simulation.getSeed();
+        clearingCount = simulation.getClearingLineCount();
+        for (int i = 0; i < clearingCount; i++) {
+            clearingLines[i] = simulation.getClearingLine(i);
+        }
+    }
+
+    /** Junta um delta mais novo a este (usado por quem acumula vários antes de atualizar a UI). */
+    public void mergeFrom(StateDelta newer) {
+        changes |= newer.changes;
+        frame = newer.frame;
+        score = newer.score;
+        level = newer.level;
+        linesCleared = newer.linesCleared;
+        state = newer.state;
+        current = newer.current;
+        next = newer.next;
+        held = newer.held;
+        System.arraycopy(newer.preview, 0, preview, 0, preview.length);
+        seed = newer.seed;
+        clearingCount = newer.clearingCount;
+        System.arraycopy(newer.clearingLines, 0, clearingLines, 0, clearingCount);
+    }
+
+    /** Zera a máscara de mudanças (o acumulador do consumidor, depois de aplicado). */
+    public void clearChanges() {
+        changes = 0;
+    }
+
+    /** @return Os bits do que mudou (SCORE, LEVEL, ...). */
+    public int getChanges() { return changes; }
+
+    public boolean changed(int bits) { return (changes & bits) != 0; }
+
+    /** @return O quadro da simulação em que o delta foi publicado. */
+    public long getFrame() { return frame; }
+    public int getScore() { return score; }
+    public int getLevel() { return level; }
+    public int getLinesCleared() { return linesCleared; }
+    public GameState getState() { return state; }
+
+    /** @return A peça em jogo, empacotada (ver {@link PackedPiece}). */
+    public int getCurrent() { return current; }
+    public int getNext() { return next; }
+    /** @return A peça do hold empacotada, ou {@link PackedPiece#NONE}. */
+    public int getHeld() { return held; }
+
+    /** @param index 0 = a próxima peça (a mesma de getNext()), até PREVIEW_DEPTH - 1. */
+    public PieceType getPreview(int index) { return preview[index]; }
+    /** @return A semente do jogo em andamento. */
+    public long getSeed() { return seed; }
+
+    public int getClearingLineCount() { return clearingCount; }
+    public int getClearingLine(int i) {
+        if (i < 0 || i >= clearingCount) {
+            throw new IndexOutOfBoundsException("Linha " + i + " de " + clearingCount);
+        }
+        return clearingLines[i];
+    }
+}
@@ -0,0 +1,77 @@
+package com.tetris.simulation;
+
+import java.util.Arrays;
+
+/**
+ * Mede o atraso de cada quadro em relação ao horário previsto (o jitter do
+ * passo de tempo). Quem mede chama {@link #record(long)} com o atraso em
+ * nanossegundos; os atrasos vão para um histograma fixo (baldes de 10 µs até
+ * 100 ms), então registrar não aloca.
+ *
+ * Escrito por uma thread só (a da simulação). As leituras de outra thread
+ * são aproximadas enquanto ela roda; depois de {@link SimulationThread#stop()}
+ * são exatas.
+ */
+public final class TickJitter {
+
+    /** Largura de cada balde do histograma. */
+    public static final long BUCKET_NANOS = 10_000;
+    private static final int BUCKETS = 10_000; // Até 100 ms; o último balde junta o resto
+
+    private final long[] histogram = new long[BUCKETS];
+    private long count;
+    private long sum;
+    private long max;
+
+    /** @param lateNanos Quanto o quadro começou depois do previsto (negativo conta como 0). */
+    public void record(long lateNanos) {
+        long late = Math.max(0, lateNanos);
+        histogram[(int) Math.min(late / BUCKET_NANOS, BUCKETS - 1)]++;
+        count++;
+        sum += late;
+        if (late > max) {
+            max = late;
+        }
+    }
+
+    public void reset() {
+        Arrays.fill(histogram, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    /** @return Quantos quadros foram medidos. */
+    public long getCount() { return count; }
+
+    public long getMaxNanos() { return max; }
+
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * @param p Entre 0 e 100.
+     * @return O limite superior do balde onde cai o percentil (precisão de {@link #BUCKET_NANOS}).
+     */
+    public long getPercentileNanos(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(p / 100.0 * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= Math.max(1, rank)) {
+                return i == BUCKETS - 1 ? max : (i + 1) * BUCKET_NANOS;
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d quadros, atraso médio %.1f µs, p99 %.1f µs, máx %.1f µs",
+                count, getMeanNanos() / 1e3, getPercentileNanos(99) / 1e3, max / 1e3);
+    }
+}
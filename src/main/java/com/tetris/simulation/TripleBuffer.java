@@ -0,0 +1,66 @@
+package com.tetris.simulation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Buffer triplo sem trava entre um produtor e um consumidor (ex: a thread da
+ * simulação e a do JavaFX).
+ *
+ * São três slots: o produtor escreve sempre no seu ("de trás"), o consumidor
+ * lê sempre o seu ("da frente") e o terceiro fica no meio. Publicar troca o
+ * de trás pelo do meio; pegar o mais novo troca o da frente pelo do meio.
+ * Cada troca é um único getAndSet num inteiro, então nenhum lado espera o
+ * outro: o produtor nunca é atrasado por um quadro demorado do consumidor, e
+ * o consumidor sempre recebe a foto mais recente (as intermediárias são
+ * descartadas, o que é o certo para desenhar).
+ */
+public final class TripleBuffer<T> {
+
+    private static final int INDEX_MASK = 0b11;
+    private static final int FRESH = 0b100; // O slot do meio tem algo que o consumidor não viu
+
+    private final Object[] slots = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;  // Só o produtor mexe
+    private int front = 2; // Só o consumidor mexe
+
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = factory.get();
+        }
+    }
+
+    // --- Produtor ---
+
+    /** @return O slot para preencher (só do produtor até {@link #publish()}). */
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) slots[back];
+    }
+
+    /** Entrega o slot preenchido e passa a escrever em outro. */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    // --- Consumidor ---
+
+    /**
+     * @return A foto publicada mais recente. Vale até a próxima chamada (o
+     *         produtor não escreve nela enquanto isso). Antes da primeira
+     *         publicação é um slot ainda não preenchido.
+     */
+    @SuppressWarnings("unchecked")
+    public T latest() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) slots[front];
+    }
+
+    /** @return true se há uma publicação que {@link #latest()} ainda não entregou. */
+    public boolean hasFresh() {
+        return (middle.get() & FRESH) != 0;
+    }
+}
@@ -1,10 +1,11 @@
 package com.tetris.view;
 
 import com.tetris.controller.GameEngine;
-import com.tetris.model.Board;
 import com.tetris.model.GameState;
 import com.tetris.model.PieceType; // <-- IMPORT NOVO
-import com.tetris.model.tetromino.Tetromino;
+import com.tetris.model.tetromino.PackedPiece;
+import com.tetris.model.tetromino.PieceShape;
+import com.tetris.simulation.FrameSnapshot;
 import javafx.animation.AnimationTimer;
 import javafx.animation.PauseTransition;
 import javafx.scene.canvas.Canvas;
@@ -13,6 +14,8 @@ import javafx.scene.effect.BlurType;
 import javafx.scene.effect.DropShadow;
 import javafx.scene.effect.InnerShadow; // <-- IMPORT NOVO (para o "Botão 3D")
 import javafx.scene.image.Image; // <-- IMPORT NOVO (para as texturas)
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.TextAlignment;
@@ -48,7 +51,7 @@ public class GamePanel extends Canvas {
     // --- 1. O NOVO MAPA DE TEXTURAS ---
     private Map<PieceType, Image> textureMap;
     private Image lockedTexture; // Para sua ideia de "peças cinzas"
-    private Image ghostTexture; // Para o futuro "Ghost Piece"
+    private Image ghostTexture; // A "Ghost Piece" (gerada em código, ver createGhostTexture)
 
     // --- 2. OS EFEITOS DE "BOTÃO 3D" ---
     private final InnerShadow buttonShadowEffect = new InnerShadow(
@@ -67,6 +70,8 @@ public class GamePanel extends Canvas {
 
         // --- 3. CHAMA O NOVO MÉTODO DE CARREGAMENTO ---
         loadTextures();
+        // "Ghost Piece": gerada em código, fora do try dos PNGs (não depende deles)
+        ghostTexture = createGhostTexture();
 
         // --- Listeners de Responsividade (iguais) ---
         widthProperty().addListener(obs -> recalculateSizeAndDraw());
@@ -128,6 +133,22 @@ public class GamePanel extends Canvas {
         }
     }
 
+    /** Bloco branco quase transparente com a borda mais forte, desenhado uma vez só. */
+    private static Image createGhostTexture() {
+        int size = 32;
+        WritableImage image = new WritableImage(size, size);
+        PixelWriter pixels = image.getPixelWriter();
+        Color fill = Color.rgb(255, 255, 255, 0.15);
+        Color border = Color.rgb(255, 255, 255, 0.6);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                boolean edge = x < 2 || y < 2 || x >= size - 2 || y >= size - 2;
+                pixels.setColor(x, y, edge ? border : fill);
+            }
+        }
+        return image;
+    }
+
     /**
 
      NOVO MÉTODO: O "coração" da responsividade.
@@ -150,7 +171,7 @@ public class GamePanel extends Canvas {
         }
 
         // 2. Calcula o tamanho do bloco para PREENCHER A ALTURA
-        currentBlockSize = h / Board.HEIGHT;
+        currentBlockSize = h / gameEngine.getBoardHeight();
 
         // 3. O "vão" vertical (offsetY) é 0 (alinhado ao topo do seu espaço)
         offsetY = 0;
@@ -179,9 +200,11 @@ public class GamePanel extends Canvas {
             return;
         }
 
-        // 3. Calcula o tamanho real (dinâmico) do tabuleiro
-        double boardWidth = currentBlockSize * Board.WIDTH;
-        double boardHeight = currentBlockSize * Board.HEIGHT;
+        // 3. Pega a foto mais recente da simulação (que roda em outra thread):
+        //    nunca espera por ela e nunca vê um quadro pela metade
+        FrameSnapshot frame = gameEngine.latestFrame();
+        double boardWidth = currentBlockSize * frame.getWidth();
+        double boardHeight = currentBlockSize * frame.getHeight();
 
         // 4. Desenha o fundo do tabuleiro (PRETO SÓLIDO)
         gc.setFill(Color.BLACK);
@@ -189,22 +212,24 @@ public class GamePanel extends Canvas {
         gc.fillRect(offsetX, offsetY, boardWidth, boardHeight);
 
         // 5. Desenha o grid (peças já fixadas)
-        Board board = gameEngine.getBoard();
-        PieceType[][] grid = board.getGrid(); // (Já deve estar refatorado)
-        for (int y = 0; y < Board.HEIGHT; y++) {
-            for (int x = 0; x < Board.WIDTH; x++) {
-                if (grid[y][x] != null) {
-                    drawBlock(x, y, grid[y][x]);
+        for (int y = 0; y < frame.getHeight(); y++) {
+            for (int x = 0; x < frame.getWidth(); x++) {
+                PieceType cell = frame.getCell(x, y);
+                if (cell != null) {
+                    drawBlock(x, y, cell);
                 }
             }
         }
 
-        GameState state = gameEngine.gameStateProperty().get();
+        GameState state = frame.getState();
 
-        // 6. Desenha a peça caindo
-        Tetromino currentPiece = gameEngine.getCurrentPiece();
-        if (state == GameState.PLAYING && currentPiece != null) {
-            drawTetromino(currentPiece);
+        // 6. Desenha a fantasma (o pouso já vem pronto da simulação) e a peça caindo
+        if (state == GameState.PLAYING && frame.getCurrent() != PackedPiece.NONE) {
+            int ghost = frame.getGhost();
+            if (ghost != PackedPiece.NONE && ghost != frame.getCurrent()) {
+                drawTetromino(ghost, PieceType.GHOST);
+            }
+            drawTetromino(frame.getCurrent());
         }
 
         // 7. Desenha a animação de "flash" (Laser Vermelho)
@@ -224,19 +249,21 @@ public class GamePanel extends Canvas {
 
      MÉTODO ATUALIZADO: Agora usa PieceType
      */
-    private void drawTetromino(Tetromino piece) {
-        int[][] shape = piece.getShape();
-
+    private void drawTetromino(int piece) {
 // --- MUDANÇA CENTRAL ---
-        PieceType type = piece.getType(); // <-- Pega o TIPO, não a Cor
+        drawTetromino(piece, PackedPiece.type(piece)); // <-- Pega o TIPO, não a Cor
+    }
+
+    /** Desenha as células da peça com a textura de 'type' (ex: GHOST para a fantasma). */
+    private void drawTetromino(int piece, PieceType type) {
+        // Só as células ocupadas (pré-compiladas), sem varrer a matriz 5x5
+        PieceShape shape = PackedPiece.shape(piece);
 
-        for (int y = 0; y < shape.length; y++) {
-            for (int x = 0; x < shape[y].length; x++) {
-                if (shape[y][x] != 0) {
+        int x = PackedPiece.x(piece);
+        int y = PackedPiece.y(piece);
+        for (int i = 0; i < shape.getCellCount(); i++) {
 // Passa o TIPO para o drawBlock
-                    drawBlock(piece.getX() + x, piece.getY() + y, type);
-                }
-            }
+            drawBlock(x + shape.getCellX(i), y + shape.getCellY(i), type);
         }
     }
 
@@ -256,11 +283,17 @@ public class GamePanel extends Canvas {
         if (type == PieceType.LOCKED) {
             texture = lockedTexture;
         }
-// (Futuro) if (type == PieceType.GHOST) { texture = ghostTexture; }
-
         double px = offsetX + (x * currentBlockSize);
         double py = offsetY + (y * currentBlockSize);
 
+// A fantasma é só o contorno translúcido, sem o efeito 3D
+        if (type == PieceType.GHOST) {
+            if (ghostTexture != null) {
+                gc.drawImage(ghostTexture, px, py, currentBlockSize, currentBlockSize);
+            }
+            return;
+        }
+
         if (texture != null) {
 // 3. Desenha a IMAGEM do gradiente (em vez de 'fillRect')
             gc.drawImage(texture, px, py, currentBlockSize, currentBlockSize);
@@ -294,8 +327,8 @@ public class GamePanel extends Canvas {
      MÉTODO drawOverlay() (sem mudanças, já estava perfeito)
      */
     private void drawOverlay(String text) {
-        double boardWidth = currentBlockSize * Board.WIDTH;
-        double boardHeight = currentBlockSize * Board.HEIGHT;
+        double boardWidth = currentBlockSize * gameEngine.getBoardWidth();
+        double boardHeight = currentBlockSize * gameEngine.getBoardHeight();
         gc.setFill(new Color(0, 0, 0, 0.7));
         gc.fillRect(offsetX, offsetY, boardWidth, boardHeight);
 
@@ -356,7 +389,7 @@ public class GamePanel extends Canvas {
      MÉTODO drawFlashingLines() (sem mudanças, já estava perfeito)
      */
     private void drawFlashingLines(List<Integer> lines) {
-        double boardWidth = currentBlockSize * Board.WIDTH;
+        double boardWidth = currentBlockSize * gameEngine.getBoardWidth();
         Color laserColor = Color.web("#FF1111");
         gc.save();
         DropShadow glow = new DropShadow();
@@ -383,11 +416,11 @@ public class GamePanel extends Canvas {
 
     @Override
     public double prefWidth(double height) {
-        return height * ( (double)Board.WIDTH / Board.HEIGHT );
+        return height * ( (double)gameEngine.getBoardWidth() / gameEngine.getBoardHeight() );
     }
 
     @Override
     public double prefHeight(double width) {
-        return width * ( (double)Board.HEIGHT / Board.WIDTH );
+        return width * ( (double)gameEngine.getBoardHeight() / gameEngine.getBoardWidth() );
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.tetris.view;
 
 import com.tetris.controller.GameEngine;
+import com.tetris.model.tetromino.PieceShape;
 import com.tetris.model.tetromino.Tetromino;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -188,7 +189,7 @@ public class InfoPanel extends VBox {
 
         // 2. Pega o TIPO (não a cor)
         PieceType type = piece.getType();
-        int[][] shape = piece.getShape();
+        PieceShape shape = piece.getPieceShape(); // Células pré-compiladas
 
         // 3. Pega a textura correta do Mapa
         Image texture = textureMap.get(type);
@@ -202,45 +203,41 @@ public class InfoPanel extends VBox {
         double blockSize = PREVIEW_BLOCK_SIZE * 0.8;
 
         // Centraliza a peça
-        double startX = (canvas.getWidth() - (shape[0].length * blockSize)) / 2;
-        double startY = (canvas.getHeight() - (shape[0].length * blockSize)) / 2;
-
-        // 4. Desenha os blocos
-        for (int y = 0; y < shape.length; y++) {
-            for (int x = 0; x < shape[y].length; x++) {
-                if (shape[y][x] != 0) {
-
-                    double px = startX + x * blockSize;
-                    double py = startY + y * blockSize;
-
-                    if (texture != null) {
-                        // 5. Desenha a IMAGEM do gradiente
-                        gc.drawImage(texture, px, py, blockSize, blockSize);
-                    } else {
-                        // Plano B (se a imagem falhar em carregar)
-                        gc.setFill(Color.MAGENTA); // Cor de erro óbvia
-                        gc.fillRect(px, py, blockSize, blockSize);
-                    }
-
-                    // --- 6. A MÁGICA DO "BOTÃO 3D" (Cópia do GamePanel) ---
-                    gc.save();
-
-                    // Aplica o efeito de SOMBRA
-                    gc.setEffect(buttonShadowEffect);
-                    gc.setFill(Color.TRANSPARENT);
-                    gc.fillRect(px, py, blockSize, blockSize);
-
-                    // Aplica o efeito de DESTAQUE
-                    gc.setEffect(buttonHighlightEffect);
-                    gc.fillRect(px, py, blockSize, blockSize);
-
-                    gc.restore(); // Limpa os efeitos
-
-                    // 7. Contorno final
-                    gc.setStroke(Color.BLACK);
-                    gc.strokeRect(px, py, blockSize, blockSize);
-                }
+        int matrixSize = shape.getMatrix()[0].length;
+        double startX = (canvas.getWidth() - (matrixSize * blockSize)) / 2;
+        double startY = (canvas.getHeight() - (matrixSize * blockSize)) / 2;
+
+        // 4. Desenha os blocos (só as células ocupadas, sem varrer a matriz 5x5)
+        for (int i = 0; i < shape.getCellCount(); i++) {
+            double px = startX + shape.getCellX(i) * blockSize;
+            double py = startY + shape.getCellY(i) * blockSize;
+
+            if (texture != null) {
+                // 5. Desenha a IMAGEM do gradiente
+                gc.drawImage(texture, px, py, blockSize, blockSize);
+            } else {
+                // Plano B (se a imagem falhar em carregar)
+                gc.setFill(Color.MAGENTA); // Cor de erro óbvia
+                gc.fillRect(px, py, blockSize, blockSize);
             }
+
+            // --- 6. A MÁGICA DO "BOTÃO 3D" (Cópia do GamePanel) ---
+            gc.save();
+
+            // Aplica o efeito de SOMBRA
+            gc.setEffect(buttonShadowEffect);
+            gc.setFill(Color.TRANSPARENT);
+            gc.fillRect(px, py, blockSize, blockSize);
+
+            // Aplica o efeito de DESTAQUE
+            gc.setEffect(buttonHighlightEffect);
+            gc.fillRect(px, py, blockSize, blockSize);
+
+            gc.restore(); // Limpa os efeitos
+
+            // 7. Contorno final
+            gc.setStroke(Color.BLACK);
+            gc.strokeRect(px, py, blockSize, blockSize);
         }
     }
 
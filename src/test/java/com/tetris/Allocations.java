@@ -0,0 +1,48 @@
+package com.tetris;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Medição de alocação dos testes "não aloca", pelo contador de bytes alocados
+ * por thread da JVM (HotSpot). O JIT às vezes aloca um pouco durante a medição
+ * (ex: recompilando), então vale a menor de algumas rodadas; a própria leitura
+ * do contador é descontada.
+ */
+public final class Allocations {
+
+    /** Rodadas medidas (para antes, se uma der zero). */
+    public static final int ROUNDS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Allocations() {
+    }
+
+    /**
+     * Roda 'work' até {@link #ROUNDS} vezes (já aquecido por quem chama).
+     * @return Os bytes alocados pela thread na rodada que menos alocou.
+     */
+    public static long smallestAllocation(Runnable work) {
+        assertTrue(THREADS.isThreadAllocatedMemorySupported(),
+                "A JVM precisa suportar a contagem de alocação por thread.");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        long threadId = Thread.currentThread().threadId();
+        long smallest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS && smallest != 0; round++) {
+            long before = THREADS.getThreadAllocatedBytes(threadId);
+            work.run();
+            long calibration = THREADS.getThreadAllocatedBytes(threadId);
+            long after = THREADS.getThreadAllocatedBytes(threadId);
+            smallest = Math.min(smallest, (calibration - before) - (after - calibration));
+        }
+        return smallest;
+    }
+
+    /** Falha se todas as rodadas de 'work' alocaram alguma coisa. */
+    public static void assertNoAllocation(Runnable work, String message) {
+        assertEquals(0, smallestAllocation(work), message);
+    }
+}
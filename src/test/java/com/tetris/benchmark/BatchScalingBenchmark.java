@@ -0,0 +1,53 @@
+package com.tetris.benchmark;
+
+import com.tetris.model.tetromino.Randomizer;
+import com.tetris.simulation.BatchResult;
+import com.tetris.simulation.BatchSimulator;
+import com.tetris.simulation.GameConfig;
+import com.tetris.simulation.SimpleBot;
+
+/**
+ * Escalabilidade do BatchSimulator com o número de threads (não roda no 'mvn test').
+ * Executar com: java -cp target/classes:target/test-classes com.tetris.benchmark.BatchScalingBenchmark
+ *
+ * O mesmo lote (sprints de 40 linhas jogados pelo SimpleBot, saco de 7) com 1, 2, 4...
+ * threads até o número de núcleos. "eficiência" = aceleração / threads; perto de 100%
+ * quer dizer escala linear (os jogos não compartilham nada, então o limite é a máquina:
+ * núcleos físicos x hyperthreads, frequência turbo, banda de memória).
+ */
+public class BatchScalingBenchmark {
+
+    private static final int GAMES = 512;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 3;
+
+    public static void main(String[] args) {
+        GameConfig config = new GameConfig();
+        config.setRandomizer(Randomizer.Kind.BAG);
+        config.setLineGoal(40);
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("== Lote de " + GAMES + " sprints de 40 linhas (" + cores + " núcleos) ==");
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            run(config, cores);
+        }
+        double baseline = 0;
+        for (int threads = 1; threads <= cores; threads = threads < cores ? Math.min(threads * 2, cores) : threads + 1) {
+            double best = 0;
+            BatchResult last = null;
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                last = run(config, threads);
+                best = Math.max(best, last.getGamesPerSecond());
+            }
+            if (threads == 1) {
+                baseline = best;
+            }
+            System.out.printf("  %3d threads  %9.0f jogos/s  %6.1f M quadros/s  aceleração %5.2fx  eficiência %5.1f%%%n",
+                    threads, best, last.getFramesPerSecond() / 1e6, best / baseline, 100 * best / baseline / threads);
+        }
+    }
+
+    private static BatchResult run(GameConfig config, int threads) {
+        return new BatchSimulator(threads).run(config, 0, GAMES, (seed, simulation) -> new SimpleBot(simulation.getBoard()));
+    }
+}
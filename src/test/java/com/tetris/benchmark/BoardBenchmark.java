@@ -0,0 +1,320 @@
+package com.tetris.benchmark;
+
+import com.tetris.model.Board;
+import com.tetris.model.BoardSnapshot;
+import com.tetris.model.PieceType;
+import com.tetris.model.tetromino.IPiece;
+import com.tetris.model.tetromino.JPiece;
+import com.tetris.model.tetromino.LPiece;
+import com.tetris.model.tetromino.OPiece;
+import com.tetris.model.tetromino.SPiece;
+import com.tetris.model.tetromino.TPiece;
+import com.tetris.model.tetromino.Tetromino;
+import com.tetris.model.tetromino.ZPiece;
+
+import java.util.Random;
+
+/**
+ * Micro-benchmark do Board (não roda no 'mvn test': não é uma classe *Test).
+ * Executar com: java -cp target/classes:target/test-classes com.tetris.benchmark.BoardBenchmark
+ *
+ * Cenário 1: testes de colisão - bitboard vs. a varredura antiga do PieceType[][].
+ * Cenário 2: limpeza de 4 linhas (Tetris) - Board.removeLines completo (anel + máscaras +
+ *            índices de coluna) vs. só a cópia de células do removeLines antigo.
+ * Cenário 3: uma foto (BoardSnapshot) depois de cada lock num jogo simulado -
+ *            custo por foto e memória retida por 10.000 fotos.
+ * Cenário 4: hash Zobrist por lock - lock + limpeza com o hash incremental (já embutido
+ *            no Board) vs. o mesmo lock seguido de um computeHash() do zero.
+ * Cenário 5: o mesmo "jogo" aleatório em tabuleiros de várias dimensões, um para cada
+ *            armazenamento de linhas (int até 32 colunas, long até 64, várias palavras).
+ *            Para comparar o 10x20 com uma versão anterior, rode as duas e compare esta linha.
+ */
+public class BoardBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int PROBES = 2_000_000;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        Board board = new Board();
+        fillRandomStack(board, random);
+        PieceType[][] grid = board.getGrid();
+
+        Tetromino[] pieces = {
+                new IPiece(), new JPiece(), new LPiece(), new OPiece(),
+                new SPiece(), new TPiece(), new ZPiece()
+        };
+        int[] probeX = new int[1024];
+        int[] probeY = new int[1024];
+        for (int i = 0; i < probeX.length; i++) {
+            probeX[i] = random.nextInt(Board.WIDTH + 4) - 2;
+            probeY[i] = random.nextInt(Board.HEIGHT + 2) - 1;
+        }
+
+        System.out.println("== Colisão (" + PROBES + " testes por rodada) ==");
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            int valid = 0;
+            for (int i = 0; i < PROBES; i++) {
+                Tetromino p = pieces[i % pieces.length];
+                if (legacyIsValidPosition(grid, p.getShape(), probeX[i & 1023], probeY[i & 1023])) {
+                    valid++;
+                }
+            }
+            long legacyNs = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int validBits = 0;
+            for (int i = 0; i < PROBES; i++) {
+                Tetromino p = pieces[i % pieces.length];
+                if (board.isValidPosition(p.getShapeMasks(), probeX[i & 1023], probeY[i & 1023])) {
+                    validBits++;
+                }
+            }
+            long bitboardNs = System.nanoTime() - start;
+
+            if (valid != validBits) {
+                throw new IllegalStateException("Resultados divergentes: " + valid + " vs " + validBits);
+            }
+            if (round >= WARMUP_ROUNDS) {
+                report("grid[][] (antigo)", legacyNs, PROBES);
+                report("bitboard", bitboardNs, PROBES);
+            }
+        }
+
+        benchmarkLineClears(random);
+        benchmarkSnapshots(random);
+        benchmarkHashing(random);
+        benchmarkDimensions(random);
+    }
+
+    private static final int SIZED_LOCKS = 200_000;
+
+    /**
+     * Cenário 5: ns por lock (queda + placePiece + limpeza) em cada dimensão.
+     * O 10x20 roda primeiro e sozinho: enquanto só um armazenamento está em uso,
+     * as chamadas do Board para ele são monomórficas (o JIT as inlina), que é o
+     * caso de um jogo normal. Os tamanhos seguintes já medem o caso misto.
+     */
+    private static void benchmarkDimensions(Random random) {
+        int[][] sizes = {{Board.WIDTH, Board.HEIGHT}, {32, 40}, {40, 80}, {64, 64}, {100, 40}};
+        System.out.println("== Jogo por dimensão (" + SIZED_LOCKS + " locks por rodada) ==");
+        for (int[] size : sizes) {
+            for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+                Board board = new Board(size[0], size[1]);
+                Tetromino[] pieces = {
+                        new IPiece(), new JPiece(), new LPiece(), new OPiece(),
+                        new SPiece(), new TPiece(), new ZPiece()
+                };
+                int[] lines = new int[board.getHeight()];
+                long start = System.nanoTime();
+                for (int i = 0; i < SIZED_LOCKS; i++) {
+                    dropRandomPiece(board, pieces[random.nextInt(pieces.length)], random);
+                    board.removeLines(lines, board.findFullLines(lines));
+                }
+                long ns = System.nanoTime() - start;
+                if (round >= WARMUP_ROUNDS) {
+                    report("lock " + size[0] + "x" + size[1], ns, SIZED_LOCKS);
+                }
+            }
+        }
+    }
+
+    private static final int HASHED_LOCKS = 200_000;
+
+    /**
+     * Cenário 4: o mesmo "jogo" aleatório duas vezes (mesma semente), lendo o hash
+     * depois de cada lock. A diferença entre as linhas é o custo de recalcular do zero;
+     * a primeira já inclui a manutenção incremental do hash dentro do placePiece/removeLines.
+     */
+    private static void benchmarkHashing(Random random) {
+        int[] lines = new int[Board.HEIGHT];
+
+        System.out.println("== Hash Zobrist (" + HASHED_LOCKS + " locks por rodada) ==");
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long seed = random.nextLong();
+            long[] ns = new long[2];
+            long[] sinks = new long[2];
+            for (int mode = 0; mode < 2; mode++) {
+                Random game = new Random(seed);
+                Board board = new Board();
+                Tetromino[] pieces = { // Peças novas: a rotação delas também faz parte do "jogo"
+                        new IPiece(), new JPiece(), new LPiece(), new OPiece(),
+                        new SPiece(), new TPiece(), new ZPiece()
+                };
+                long start = System.nanoTime();
+                for (int i = 0; i < HASHED_LOCKS; i++) {
+                    dropRandomPiece(board, pieces[game.nextInt(pieces.length)], game);
+                    board.removeLines(lines, board.findFullLines(lines));
+                    sinks[mode] += mode == 0 ? board.getHash() : board.computeHash();
+                }
+                ns[mode] = System.nanoTime() - start;
+            }
+            if (sinks[0] != sinks[1]) {
+                throw new IllegalStateException("Hash incremental divergente do recalculado");
+            }
+            if (round >= WARMUP_ROUNDS) {
+                report("lock + getHash() (incremental)", ns[0], HASHED_LOCKS);
+                report("lock + computeHash() (do zero)", ns[1], HASHED_LOCKS);
+            }
+        }
+    }
+
+    private static final int SNAPSHOTS = 10_000;
+
+    /** Cenário 3: "jogo" aleatório (peça cai numa coluna qualquer) com uma foto por lock. */
+    private static void benchmarkSnapshots(Random random) {
+        Tetromino[] pieces = {
+                new IPiece(), new JPiece(), new LPiece(), new OPiece(),
+                new SPiece(), new TPiece(), new ZPiece()
+        };
+        int[] lines = new int[Board.HEIGHT];
+
+        System.out.println("== Fotos persistentes (" + SNAPSHOTS + " locks, 1 foto por lock) ==");
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            Board board = new Board();
+            BoardSnapshot[] history = new BoardSnapshot[SNAPSHOTS];
+            long heapBefore = usedHeap();
+            long snapshotNs = 0;
+
+            for (int i = 0; i < SNAPSHOTS; i++) {
+                dropRandomPiece(board, pieces[random.nextInt(pieces.length)], random);
+                int count = board.findFullLines(lines);
+                board.removeLines(lines, count);
+
+                long start = System.nanoTime();
+                history[i] = board.snapshot();
+                snapshotNs += System.nanoTime() - start;
+            }
+            long retained = usedHeap() - heapBefore;
+
+            if (round >= WARMUP_ROUNDS) {
+                report("board.snapshot()", snapshotNs, SNAPSHOTS);
+                System.out.printf("  %-30s %8.2f MB  (%.0f bytes/foto)%n", "memória retida",
+                        retained / (1024.0 * 1024.0), (double) retained / SNAPSHOTS);
+            }
+            if (history[SNAPSHOTS - 1] == null) {
+                throw new IllegalStateException("Histórico vazio");
+            }
+        }
+    }
+
+    /** Solta a peça numa coluna/rotação aleatória (recomeça o tabuleiro se empilhar até o topo). */
+    private static void dropRandomPiece(Board board, Tetromino piece, Random random) {
+        piece.rotate();
+        piece.setY(0);
+        for (int attempt = 0; attempt < 20; attempt++) {
+            piece.setX(random.nextInt(board.getWidth() + 2) - 2);
+            if (board.isValidPosition(piece)) {
+                piece.setY(board.dropDistance(piece));
+                board.placePiece(piece);
+                return;
+            }
+        }
+        board.clear();
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static final int CLEARS = 500_000;
+
+    /** Cenário 2: pilha de 12 linhas com buracos, 4 linhas cheias no meio dela. */
+    private static void benchmarkLineClears(Random random) {
+        Board board = new Board();
+        PieceType[][] legacyGrid = new PieceType[Board.HEIGHT][Board.WIDTH];
+        int[] lines = {Board.HEIGHT - 3, Board.HEIGHT - 4, Board.HEIGHT - 5, Board.HEIGHT - 6};
+
+        System.out.println("== Limpeza de 4 linhas (" + CLEARS + " por rodada) ==");
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long legacyNs = 0;
+            long ringNs = 0;
+            for (int i = 0; i < CLEARS; i++) {
+                refillStack(board, legacyGrid, lines, random);
+                long start = System.nanoTime();
+                legacyRemoveLines(legacyGrid, lines);
+                legacyNs += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                board.removeLines(lines, lines.length);
+                ringNs += System.nanoTime() - start;
+            }
+            if (round >= WARMUP_ROUNDS) {
+                report("só cópia de células (antigo)", legacyNs, CLEARS);
+                report("Board.removeLines (anel)", ringNs, CLEARS);
+            }
+        }
+    }
+
+    /** Recompõe a pilha (fora da medição): 12 linhas com buracos e as 4 de 'lines' cheias. */
+    private static void refillStack(Board board, PieceType[][] legacyGrid, int[] lines, Random random) {
+        for (int y = Board.HEIGHT - 12; y < Board.HEIGHT; y++) {
+            for (int x = 0; x < Board.WIDTH; x++) {
+                boolean full = y <= lines[0] && y >= lines[lines.length - 1];
+                PieceType type = full || (x + y + random.nextInt(4)) % 4 != 0 ? PieceType.LOCKED : null;
+                board.setCell(x, y, type);
+                legacyGrid[y][x] = type;
+            }
+        }
+    }
+
+    /** O removeLines "de cópia" (compactação copiando células, sem alocar). */
+    static void legacyRemoveLines(PieceType[][] grid, int[] lines) {
+        int next = 0;
+        int write = Board.HEIGHT - 1;
+        for (int y = Board.HEIGHT - 1; y >= 0; y--) {
+            if (next < lines.length && lines[next] == y) {
+                next++;
+            } else {
+                if (write != y) {
+                    System.arraycopy(grid[y], 0, grid[write], 0, Board.WIDTH);
+                }
+                write--;
+            }
+        }
+        for (int y = write; y >= 0; y--) {
+            java.util.Arrays.fill(grid[y], null);
+        }
+    }
+
+    /** Preenche a metade de baixo com buracos aleatórios (um tabuleiro "de meio de jogo"). */
+    static void fillRandomStack(Board board, Random random) {
+        for (int y = Board.HEIGHT / 2; y < Board.HEIGHT; y++) {
+            for (int x = 0; x < Board.WIDTH; x++) {
+                if (random.nextInt(10) < 7) {
+                    board.setCell(x, y, PieceType.LOCKED);
+                }
+            }
+        }
+    }
+
+    /** Cópia fiel do isValidPosition antigo (varredura célula a célula) para comparação. */
+    static boolean legacyIsValidPosition(PieceType[][] grid, int[][] shape, int pieceX, int pieceY) {
+        for (int y = 0; y < shape.length; y++) {
+            for (int x = 0; x < shape[y].length; x++) {
+                if (shape[y][x] != 0) {
+                    int boardX = pieceX + x;
+                    int boardY = pieceY + y;
+                    if (boardX < 0 || boardX >= Board.WIDTH || boardY >= Board.HEIGHT) {
+                        return false;
+                    }
+                    if (boardY >= 0 && grid[boardY][boardX] != null) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    static void report(String name, long nanos, int operations) {
+        System.out.printf("  %-30s %8.2f ns/op  (%6.1f M ops/s)%n",
+                name, (double) nanos / operations, operations * 1_000.0 / nanos);
+    }
+}
@@ -0,0 +1,100 @@
+package com.tetris.benchmark;
+
+import com.tetris.model.Board;
+import com.tetris.model.GameState;
+import com.tetris.model.PieceType;
+import com.tetris.model.tetromino.PackedPiece;
+import com.tetris.simulation.GameSimulation;
+import com.tetris.simulation.GravityCurve;
+import com.tetris.simulation.Input;
+
+import java.util.Random;
+
+/**
+ * Micro-benchmark da queda por gravidade (não roda no 'mvn test').
+ * Executar com: java -cp target/classes:target/test-classes com.tetris.benchmark.GravityBenchmark
+ *
+ * "linha a linha" desce a peça testando a colisão a cada linha (o custo de uma
+ * gravidade alta feita com moveDown repetido); "analítica" é o dropDistance do
+ * Board (alturas das colunas), que a gravidade e a queda rápida usam. Depois,
+ * quadros por segundo de uma partida em 20G com atraso de travamento.
+ */
+public class GravityBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int DROPS = 5_000_000;
+    private static final int FRAMES = 2_000_000;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        Board board = new Board();
+        BoardBenchmark.fillRandomStack(board, random);
+
+        // Peças válidas perto do topo (a queda mais longa possível nesse tabuleiro)
+        int[] pieces = new int[1024];
+        for (int i = 0; i < pieces.length; ) {
+            PieceType type = PieceType.values()[random.nextInt(7)];
+            int piece = PackedPiece.of(type, random.nextInt(4), random.nextInt(Board.WIDTH) - 2, random.nextInt(3) - 1);
+            if (board.isValidPosition(piece)) {
+                pieces[i++] = piece;
+            }
+        }
+
+        System.out.println("== Distância até encostar (" + DROPS + " peças por rodada) ==");
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            long probed = 0;
+            for (int i = 0; i < DROPS; i++) {
+                probed += probeDistance(board, pieces[i & 1023]);
+            }
+            long probeNs = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long analytic = 0;
+            for (int i = 0; i < DROPS; i++) {
+                analytic += board.dropDistance(pieces[i & 1023]);
+            }
+            long analyticNs = System.nanoTime() - start;
+            if (probed != analytic) {
+                throw new IllegalStateException("Distâncias divergentes: " + probed + " vs " + analytic);
+            }
+
+            if (round >= WARMUP_ROUNDS) {
+                System.out.printf("linha a linha: %5.1f ns/peça | analítica: %5.1f ns/peça (%.1fx) | %.1f linhas em média%n",
+                        (double) probeNs / DROPS, (double) analyticNs / DROPS,
+                        (double) probeNs / analyticNs, (double) analytic / DROPS);
+            }
+        }
+
+        System.out.println("== Partida em 20G (" + FRAMES + " quadros por rodada) ==");
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            GameSimulation simulation = new GameSimulation();
+            simulation.setGravityCurve(GravityCurve.GUIDELINE);
+            simulation.setSeed((long) round);
+            simulation.initializeGame();
+            simulation.setLevel(20);
+            long start = System.nanoTime();
+            for (int frame = 0; frame < FRAMES; frame++) {
+                if (simulation.step((frame & 15) == 0 ? Input.LEFT : Input.NONE) == GameState.GAME_OVER) {
+                    simulation.initializeGame();
+                    simulation.setLevel(20);
+                }
+            }
+            long ns = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) {
+                System.out.printf("%5.1f ns/quadro (%.0f quadros/s), %d peças travadas na última partida%n",
+                        (double) ns / FRAMES, FRAMES * 1e9 / ns, simulation.getLockCount());
+            }
+        }
+    }
+
+    /** A queda antiga: uma linha por vez, testando a colisão em cada uma. */
+    private static int probeDistance(Board board, int piece) {
+        int distance = 0;
+        while (board.isValidPosition(PackedPiece.moved(piece, 0, distance + 1))) {
+            distance++;
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,121 @@
+package com.tetris.benchmark;
+
+import com.tetris.model.Board;
+import com.tetris.model.PieceType;
+import com.tetris.model.tetromino.PieceSet;
+import com.tetris.model.tetromino.PieceShape;
+import com.tetris.model.tetromino.PieceShapes;
+
+import java.util.Random;
+
+/**
+ * Micro-benchmark de colisão por conjunto de peças (não roda no 'mvn test').
+ * Executar com: java -cp target/classes:target/test-classes com.tetris.benchmark.PieceSetBenchmark
+ *
+ * As mesmas posições no mesmo tabuleiro 10x20, testadas com: as formas 5x5 escritas
+ * à mão (PieceShapes), os tetrominós gerados (PieceSet.TETROMINOES) e os 18 pentominós
+ * (PieceSet.PENTOMINOES). Todas passam pelo mesmo Board.isValidPosition(PieceShape, ...),
+ * então a diferença esperada é só a linha a mais da caixa de um pentominó.
+ */
+public class PieceSetBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int PROBES = 5_000_000;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        Board board = new Board();
+        BoardBenchmark.fillRandomStack(board, random);
+
+        int[] probeX = new int[1024];
+        int[] probeY = new int[1024];
+        for (int i = 0; i < probeX.length; i++) {
+            probeX[i] = random.nextInt(Board.WIDTH + 4) - 2;
+            probeY[i] = random.nextInt(Board.HEIGHT + 2) - 1;
+        }
+
+        PieceShape[] handWritten = new PieceShape[7 * 4];
+        for (int i = 0; i < handWritten.length; i++) {
+            handWritten[i] = PieceShapes.get(PieceType.values()[i / 4], i % 4);
+        }
+        PieceShape[] tetrominoes = shapesOf(PieceSet.TETROMINOES);
+        PieceShape[] pentominoes = shapesOf(PieceSet.PENTOMINOES);
+
+        // Uma forma sorteada por posição (mesmo ciclo de 1024 para os três conjuntos,
+        // para que o preditor de desvios não favoreça nenhum deles)
+        handWritten = perProbe(handWritten, random);
+        tetrominoes = perProbe(tetrominoes, random);
+        pentominoes = perProbe(pentominoes, random);
+
+        System.out.println("== Colisão por conjunto (" + PROBES + " testes por rodada) ==");
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long a = probe(board, handWritten, probeX, probeY);
+            long b = probe(board, tetrominoes, probeX, probeY);
+            long c = probe(board, pentominoes, probeX, probeY);
+            if (round == WARMUP_ROUNDS) {
+                System.out.printf("  (posições válidas: %.1f%% / %.1f%% / %.1f%%)%n",
+                        validRate(board, handWritten, probeX, probeY), validRate(board, tetrominoes, probeX, probeY),
+                        validRate(board, pentominoes, probeX, probeY));
+            }
+            if (round >= WARMUP_ROUNDS) {
+                BoardBenchmark.report("tetrominós 5x5 (à mão)", a, PROBES);
+                BoardBenchmark.report("tetrominós gerados", b, PROBES);
+                BoardBenchmark.report("pentominós gerados", c, PROBES);
+            }
+        }
+    }
+
+    private static PieceShape[] perProbe(PieceShape[] shapes, Random random) {
+        PieceShape[] picked = new PieceShape[1024];
+        for (int i = 0; i < picked.length; i++) {
+            picked[i] = shapes[random.nextInt(shapes.length)];
+        }
+        return picked;
+    }
+
+    /** Todas as rotações de todas as peças do conjunto, numa lista só. */
+    private static PieceShape[] shapesOf(PieceSet set) {
+        int total = 0;
+        for (int p = 0; p < set.size(); p++) {
+            total += set.get(p).getRotationCount();
+        }
+        PieceShape[] shapes = new PieceShape[total];
+        int i = 0;
+        for (int p = 0; p < set.size(); p++) {
+            for (int r = 0; r < set.get(p).getRotationCount(); r++) {
+                shapes[i++] = set.get(p).getShape(r);
+            }
+        }
+        return shapes;
+    }
+
+    private static double validRate(Board board, PieceShape[] shapes, int[] probeX, int[] probeY) {
+        int valid = 0;
+        for (int i = 0; i < PROBES; i++) {
+            PieceShape shape = shapes[i & 1023];
+            if (board.isValidPosition(shape, probeX[i & 1023] - shape.getMinX(), probeY[i & 1023] - shape.getMinY())) {
+                valid++;
+            }
+        }
+        return 100.0 * valid / PROBES;
+    }
+
+    private static long probe(Board board, PieceShape[] shapes, int[] probeX, int[] probeY) {
+        long start = System.nanoTime();
+        int valid = 0;
+        for (int i = 0; i < PROBES; i++) {
+            PieceShape shape = shapes[i & 1023];
+            // A posição sorteada é a do canto da caixa envolvente, para que formas
+            // com origens diferentes (5x5 vs. geradas) caiam nas mesmas células
+            if (board.isValidPosition(shape, probeX[i & 1023] - shape.getMinX(), probeY[i & 1023] - shape.getMinY())) {
+                valid++;
+            }
+        }
+        long ns = System.nanoTime() - start;
+        if (valid == 0) {
+            throw new IllegalStateException("Nenhuma posição válida?");
+        }
+        return ns;
+    }
+}
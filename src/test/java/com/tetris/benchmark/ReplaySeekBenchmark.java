@@ -0,0 +1,99 @@
+package com.tetris.benchmark;
+
+import com.tetris.model.GameState;
+import com.tetris.model.tetromino.Randomizer;
+import com.tetris.simulation.GameSimulation;
+import com.tetris.simulation.Input;
+import com.tetris.simulation.Replay;
+import com.tetris.simulation.ReplayPlayer;
+import com.tetris.simulation.ReplayRecorder;
+import com.tetris.simulation.SimpleBot;
+
+import java.util.SplittableRandom;
+
+/**
+ * Latência de busca em replays, por duração do replay e intervalo de keyframes
+ * (não roda no 'mvn test').
+ * Executar com: java -cp target/classes:target/test-classes com.tetris.benchmark.ReplaySeekBenchmark
+ *
+ * Os replays são gravados com o SimpleBot num ritmo de gente: espera THINK_FRAMES quadros
+ * a cada peça nova e depois aperta uma tecla a cada 2 quadros.
+ * Cada configuração faz SEEKS buscas para quadros aleatórios (para frente e para trás)
+ * depois de buildKeyframes(). "sem keyframes" refaz tudo desde o quadro 0 a cada busca.
+ * Um quadro de tela a 60 Hz tem 16.667 µs.
+ */
+public class ReplaySeekBenchmark {
+
+    private static final int[] MINUTES = {1, 5, 10, 30};
+    private static final int THINK_FRAMES = 20;
+    private static final int WARMUP_SEEKS = 200;
+    private static final int SEEKS = 500;
+
+    public static void main(String[] args) {
+        System.out.println("== Busca em replays (" + SEEKS + " buscas aleatórias por linha) ==");
+        System.out.printf("  %-8s %-22s %12s %12s %10s %12s%n",
+                "duração", "keyframes", "média µs", "máx µs", "keyframes", "memória KB");
+        for (int minutes : MINUTES) {
+            Replay replay = record(minutes * 60 * GameSimulation.FPS);
+            measure(replay, minutes, "sem keyframes", 0, 0);
+            measure(replay, minutes, "a cada 600 quadros", ReplayPlayer.DEFAULT_KEYFRAME_FRAMES, 0);
+            measure(replay, minutes, "a cada 60 quadros", 60, 0);
+            measure(replay, minutes, "a cada 25 peças", 0, 25);
+        }
+    }
+
+    private static void measure(Replay replay, int minutes, String name, int frames, int locks) {
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.setKeyframeInterval(frames, locks);
+        player.buildKeyframes();
+
+        SplittableRandom random = new SplittableRandom(7);
+        long sink = 0;
+        for (int i = 0; i < WARMUP_SEEKS; i++) {
+            player.seek(random.nextInt(replay.getFinalFrame() + 1));
+            sink += player.getSimulation().getScore();
+        }
+        long total = 0;
+        long max = 0;
+        for (int i = 0; i < SEEKS; i++) {
+            int target = random.nextInt(replay.getFinalFrame() + 1);
+            long start = System.nanoTime();
+            player.seek(target);
+            long elapsed = System.nanoTime() - start;
+            total += elapsed;
+            max = Math.max(max, elapsed);
+            sink += player.getSimulation().getScore();
+        }
+        System.out.printf("  %-8s %-22s %12.1f %12.1f %10d %12.1f%n",
+                minutes + " min", name, total / 1_000.0 / SEEKS, max / 1_000.0,
+                player.getKeyframeCount(), player.getKeyframeMemoryBytes() / 1024.0);
+        if (sink == 42) {
+            System.out.println(); // Mantém os resultados vivos
+        }
+    }
+
+    /** Grava uma partida do bot com 'frames' quadros (ou até o fim do jogo). */
+    private static Replay record(int frames) {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setSeed(2024L);
+        simulation.setRandomizer(Randomizer.Kind.BAG);
+        simulation.setRecorder(new ReplayRecorder());
+        simulation.initializeGame();
+        SimpleBot bot = new SimpleBot(simulation.getBoard());
+        int serial = -1;
+        long spawnFrame = 0;
+        while (simulation.getFrame() < frames && simulation.getState() != GameState.GAME_OVER) {
+            long frame = simulation.getFrame();
+            if (simulation.getPieceSerial() != serial) {
+                serial = simulation.getPieceSerial();
+                spawnFrame = frame;
+            }
+            boolean acts = frame - spawnFrame >= THINK_FRAMES && frame % 2 == 0;
+            simulation.step(acts ? bot.nextInputs(simulation) : Input.NONE);
+        }
+        if (simulation.getFrame() < frames) {
+            System.out.println("  (o bot perdeu no quadro " + simulation.getFrame() + ")");
+        }
+        return simulation.getRecorder().finish(simulation);
+    }
+}
@@ -0,0 +1,143 @@
+package com.tetris.benchmark;
+
+import com.tetris.model.GameState;
+import com.tetris.model.tetromino.Randomizer;
+import com.tetris.simulation.GameConfig;
+import com.tetris.simulation.GameSimulation;
+import com.tetris.simulation.Input;
+import com.tetris.simulation.RollbackSession;
+import com.tetris.simulation.SimpleBot;
+import com.tetris.simulation.SimulationState;
+
+/**
+ * Custo do rollback por quadro (não roda no 'mvn test').
+ * Executar com: java -cp target/classes:target/test-classes com.tetris.benchmark.RollbackBenchmark
+ *
+ * Com um tabuleiro de meio de jogo (o SimpleBot joga um pouco antes):
+ * <ul>
+ *   <li>salvar / restaurar: uma foto plana de UM jogador (copyState / loadState);</li>
+ *   <li>pior quadro: a sessão de dois jogadores (o local é o SimpleBot) recebe, todo
+ *       quadro, uma entrada remota que desmente a previsão de N quadros atrás; o quadro
+ *       inclui voltar, resimular os N quadros (salvando de novo cada um) e simular o atual.</li>
+ * </ul>
+ * Um quadro de tela a 60 Hz tem 16.667 µs.
+ */
+public class RollbackBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    public static void main(String[] args) {
+        GameConfig config = new GameConfig();
+        config.setRandomizer(Randomizer.Kind.BAG);
+        config.setLineClearFrames(20);
+
+        System.out.println("== Rollback (tabuleiro de meio de jogo) ==");
+        GameSimulation simulation = midGame(config);
+        SimulationState state = new SimulationState();
+        System.out.printf("  salvar (1 jogador):    %8.3f µs%n", saveNanos(simulation, state) / 1e3);
+        System.out.printf("  restaurar (1 jogador): %8.3f µs%n", restoreNanos(simulation, state) / 1e3);
+
+        for (int depth : new int[]{1, 4, 8}) {
+            System.out.printf("  pior quadro, 2 jogadores, voltando %d quadros: %8.3f µs%n",
+                    depth, worstFrameNanos(config, depth) / 1e3);
+        }
+    }
+
+    private static GameSimulation midGame(GameConfig config) {
+        GameSimulation simulation = config.newSimulation(3L);
+        SimpleBot bot = new SimpleBot(simulation.getBoard());
+        while (simulation.getLockCount() < 30) {
+            simulation.step(bot.nextInputs(simulation));
+        }
+        return simulation;
+    }
+
+    private static double saveNanos(GameSimulation simulation, SimulationState state) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            simulation.copyState(state);
+            sink += state.getFrame();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            simulation.copyState(state);
+            sink += state.getFrame();
+        }
+        long elapsed = System.nanoTime() - start;
+        consume(sink);
+        return (double) elapsed / ITERATIONS;
+    }
+
+    private static double restoreNanos(GameSimulation simulation, SimulationState state) {
+        simulation.copyState(state);
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            simulation.loadState(state);
+            sink += simulation.getScore();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            simulation.loadState(state);
+            sink += simulation.getScore();
+        }
+        long elapsed = System.nanoTime() - start;
+        consume(sink);
+        return (double) elapsed / ITERATIONS;
+    }
+
+    /**
+     * A entrada remota chega 'depth' quadros atrasada e é sempre diferente da
+     * previsão (nada), então cada quadro volta 'depth' quadros. As entradas locais
+     * do SimpleBot são gravadas antes, numa simulação à parte com a mesma semente
+     * (o jogo local é o mesmo), para o tempo do bot não entrar na medida.
+     */
+    private static double worstFrameNanos(GameConfig config, int depth) {
+        int frames = 3_000; // O remoto só gira: empilha no meio e perde por volta do quadro 4.000
+        long total = 0;
+        long measured = 0;
+        for (int round = 0; round < 4; round++) {
+            long seed = 3L + round;
+            int[] local = botInputs(config, seed, frames);
+            RollbackSession session = new RollbackSession(config, seed, 2, 0, Math.max(depth, 1));
+            long start = 0;
+            for (int frame = 0; frame < frames; frame++) {
+                if (frame == frames / 5) {
+                    start = System.nanoTime(); // O começo aquece o JIT
+                }
+                if (frame >= depth) {
+                    session.addRemoteInput(1, frame - depth, (frame & 1) == 0 ? Input.ROTATE_CW : Input.ROTATE_CCW);
+                }
+                session.addLocalInput(local[frame]);
+                session.advanceFrame();
+            }
+            long elapsed = System.nanoTime() - start;
+            if (session.getPlayer(0).getState() == GameState.GAME_OVER
+                    || session.getPlayer(1).getState() == GameState.GAME_OVER) {
+                System.out.println("  (aviso: um dos jogos acabou antes do fim da medição)");
+            }
+            if (round > 0) { // A primeira rodada é só aquecimento
+                total += elapsed;
+                measured += frames - frames / 5;
+            }
+        }
+        return (double) total / measured;
+    }
+
+    private static int[] botInputs(GameConfig config, long seed, int frames) {
+        GameSimulation simulation = config.newSimulation(seed);
+        SimpleBot bot = new SimpleBot(simulation.getBoard());
+        int[] inputs = new int[frames];
+        for (int frame = 0; frame < frames; frame++) {
+            inputs[frame] = bot.nextInputs(simulation);
+            simulation.step(inputs[frame]);
+        }
+        return inputs;
+    }
+
+    private static void consume(long sink) {
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+}
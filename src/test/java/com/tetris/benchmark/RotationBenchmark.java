@@ -0,0 +1,101 @@
+package com.tetris.benchmark;
+
+import com.tetris.model.Board;
+import com.tetris.model.PieceType;
+import com.tetris.model.RotationSystem;
+import com.tetris.model.tetromino.PackedPiece;
+import com.tetris.model.tetromino.PieceShape;
+import com.tetris.model.tetromino.PieceShapes;
+
+import java.util.Random;
+
+/**
+ * Micro-benchmark das tentativas de rotação (não roda no 'mvn test').
+ * Executar com: java -cp target/classes:target/test-classes com.tetris.benchmark.RotationBenchmark
+ *
+ * Mesmo tabuleiro com pilha aleatória (BoardBenchmark.fillRandomStack) e as mesmas
+ * peças/posições para todos. "chutes antigos" é o rotate() de antes: um int[] de chutes
+ * alocado por rotação e a forma futura testada coluna a coluna. Os outros usam as
+ * tabelas pré-calculadas de cada RotationSystem sobre o estado empacotado.
+ */
+public class RotationBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int ATTEMPTS = 5_000_000;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        Board board = new Board();
+        BoardBenchmark.fillRandomStack(board, random);
+
+        // Peças válidas espalhadas pelo tabuleiro (metade encostada na pilha)
+        int[] pieces = new int[1024];
+        for (int i = 0; i < pieces.length; ) {
+            PieceType type = PieceType.values()[random.nextInt(7)];
+            int piece = PackedPiece.of(type, random.nextInt(4), random.nextInt(Board.WIDTH) - 2,
+                    random.nextInt(Board.HEIGHT) - 2);
+            if (board.isValidPosition(piece)) {
+                if (random.nextBoolean()) {
+                    piece = PackedPiece.moved(piece, 0, board.dropDistance(piece));
+                }
+                pieces[i++] = piece;
+            }
+        }
+        int[] turns = {RotationSystem.CW, RotationSystem.CCW, RotationSystem.HALF};
+
+        System.out.println("== Rotações (" + ATTEMPTS + " tentativas por rodada) ==");
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            int legacy = 0;
+            for (int i = 0; i < ATTEMPTS; i++) {
+                legacy += legacyRotate(board, pieces[i & 1023]) != PackedPiece.NONE ? 1 : 0;
+            }
+            long legacyNs = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int classic = 0;
+            for (int i = 0; i < ATTEMPTS; i++) {
+                classic += RotationSystem.CLASSIC.rotate(board, pieces[i & 1023], RotationSystem.CW) != PackedPiece.NONE ? 1 : 0;
+            }
+            long classicNs = System.nanoTime() - start;
+            if (legacy != classic) {
+                throw new IllegalStateException("CLASSIC divergente do antigo: " + legacy + " vs " + classic);
+            }
+
+            long[] systemNs = new long[2];
+            RotationSystem[] systems = {RotationSystem.SRS, RotationSystem.ARS};
+            for (int s = 0; s < systems.length; s++) {
+                start = System.nanoTime();
+                int ok = 0;
+                for (int i = 0; i < ATTEMPTS; i++) {
+                    ok += systems[s].rotate(board, pieces[i & 1023], turns[i % 3]) != PackedPiece.NONE ? 1 : 0;
+                }
+                systemNs[s] = System.nanoTime() - start;
+                if (ok == 0) {
+                    throw new IllegalStateException("Nenhuma rotação válida?");
+                }
+            }
+
+            if (round >= WARMUP_ROUNDS) {
+                BoardBenchmark.report("chutes antigos (aloca)", legacyNs, ATTEMPTS);
+                BoardBenchmark.report("CLASSIC (tabela)", classicNs, ATTEMPTS);
+                BoardBenchmark.report("SRS (CW/CCW/180)", systemNs[0], ATTEMPTS);
+                BoardBenchmark.report("ARS (CW/CCW/180)", systemNs[1], ATTEMPTS);
+            }
+        }
+    }
+
+    /** O rotate() antigo do GameEngine, só que devolvendo o estado em vez de gravar na peça. */
+    private static int legacyRotate(Board board, int piece) {
+        PieceShape futuraForma = PieceShapes.get(PackedPiece.type(piece), (PackedPiece.rotation(piece) + 1) & 3);
+        int[] chutesX = {0, 1, -1, 2, -2};
+        for (int chute : chutesX) {
+            int novoX = PackedPiece.x(piece) + chute;
+            if (board.isValidPosition(futuraForma.getRowMasks(), novoX, PackedPiece.y(piece))) {
+                return PackedPiece.withX(PackedPiece.rotated(piece, 1), novoX);
+            }
+        }
+        return PackedPiece.NONE;
+    }
+}
@@ -0,0 +1,85 @@
+package com.tetris.benchmark;
+
+import com.tetris.model.GameState;
+import com.tetris.simulation.GameSimulation;
+import com.tetris.simulation.SimpleBot;
+
+import java.util.Arrays;
+
+/**
+ * Benchmark da simulação sem JavaFX (não roda no 'mvn test').
+ * Executar com: java -cp target/classes:target/test-classes com.tetris.benchmark.SimulationBenchmark
+ *
+ * O SimpleBot joga uma vez uma partida de 40 linhas com semente fixa e as entradas de
+ * cada quadro são gravadas; as rodadas medidas só repetem essas entradas (step() por
+ * quadro), então o custo do bot não entra na conta. "só gravidade" mede tick() sem
+ * entradas: as peças caem sozinhas até o fim do jogo.
+ */
+public class SimulationBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int GAMES_PER_ROUND = 2_000;
+    private static final long SEED = 42L;
+
+    public static void main(String[] args) {
+        int[] inputs = recordSprint();
+        System.out.println("== Simulação (40 linhas = " + inputs.length + " quadros, "
+                + GAMES_PER_ROUND + " partidas por rodada) ==");
+
+        GameSimulation simulation = new GameSimulation();
+        simulation.setSeed(SEED);
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int game = 0; game < GAMES_PER_ROUND; game++) {
+                simulation.initializeGame();
+                for (int input : inputs) {
+                    simulation.step(input);
+                }
+                sink += simulation.getLinesCleared();
+            }
+            long sprintNs = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long gravityFrames = 0;
+            for (int game = 0; game < GAMES_PER_ROUND; game++) {
+                simulation.initializeGame();
+                gravityFrames += simulation.tick(Integer.MAX_VALUE);
+            }
+            long gravityNs = System.nanoTime() - start;
+
+            if (round >= WARMUP_ROUNDS) {
+                System.out.println("Rodada " + (round - WARMUP_ROUNDS + 1) + ":");
+                System.out.printf("  %-30s %8.2f µs/partida%n", "40 linhas (entradas gravadas)",
+                        sprintNs / 1_000.0 / GAMES_PER_ROUND);
+                BoardBenchmark.report("quadro com entradas", sprintNs, inputs.length * GAMES_PER_ROUND);
+                BoardBenchmark.report("quadro só gravidade", gravityNs, (int) gravityFrames);
+            }
+        }
+        if (sink == 42) {
+            System.out.println(); // Mantém os resultados vivos
+        }
+    }
+
+    /** Joga uma partida de 40 linhas com o bot e devolve as entradas de cada quadro. */
+    private static int[] recordSprint() {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setSeed(SEED);
+        simulation.initializeGame();
+        SimpleBot bot = new SimpleBot(simulation.getBoard());
+        int[] inputs = new int[1024];
+        int frames = 0;
+        while (simulation.getLinesCleared() < 40) {
+            if (simulation.getState() == GameState.GAME_OVER) {
+                throw new IllegalStateException("O bot perdeu antes das 40 linhas");
+            }
+            if (frames == inputs.length) {
+                inputs = Arrays.copyOf(inputs, frames * 2);
+            }
+            inputs[frames] = bot.nextInputs(simulation);
+            simulation.step(inputs[frames++]);
+        }
+        return Arrays.copyOf(inputs, frames);
+    }
+}
@@ -0,0 +1,109 @@
+package com.tetris.benchmark;
+
+import com.tetris.model.Board;
+import com.tetris.simulation.FrameSnapshot;
+import com.tetris.simulation.GameSimulation;
+import com.tetris.simulation.SimulationThread;
+import com.tetris.simulation.TickJitter;
+import com.tetris.simulation.TripleBuffer;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Jitter do passo de tempo com engasgos no renderizador (não roda no 'mvn test').
+ * Executar com: java -cp target/classes:target/test-classes com.tetris.benchmark.TickJitterBenchmark
+ *
+ * O "renderizador" gasta ~2 ms por quadro e, a cada 30 quadros, engasga 40 ms
+ * (CSS, layout, GC da interface). Duas montagens:
+ * <ul>
+ *   <li>mesma thread: como era o AnimationTimer, a simulação só anda quando o
+ *       quadro da interface termina, então cada engasgo atrasa a gravidade;</li>
+ *   <li>thread própria: a simulação roda na {@link SimulationThread} e o
+ *       renderizador só pega a foto mais recente do buffer triplo.</li>
+ * </ul>
+ * "atraso" = quanto cada quadro da simulação começou depois do horário previsto.
+ */
+public class TickJitterBenchmark {
+
+    private static final int SECONDS = 5;
+    private static final long RENDER_NANOS = 2_000_000;
+    private static final long HITCH_NANOS = 40_000_000;
+    private static final int HITCH_EVERY = 30;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("== Atraso dos quadros da simulação, " + SECONDS + " s cada, engasgo de "
+                + HITCH_NANOS / 1_000_000 + " ms a cada " + HITCH_EVERY + " quadros ==");
+        System.out.println("mesma thread:  " + sameThread());
+        System.out.println("thread própria: " + ownThread());
+    }
+
+    /** A simulação anda dentro do laço de renderização (o antigo AnimationTimer). */
+    private static TickJitter sameThread() {
+        GameSimulation simulation = newSimulation();
+        TickJitter jitter = new TickJitter();
+        long deadline = System.nanoTime();
+        long end = deadline + SECONDS * 1_000_000_000L;
+        int rendered = 0;
+        while (System.nanoTime() < end) {
+            waitUntil(deadline);
+            // Recupera os quadros perdidos no pulso, todos atrasados
+            long now = System.nanoTime();
+            while (deadline <= now) {
+                jitter.record(now - deadline);
+                simulation.step(0);
+                deadline += GameSimulation.FRAME_NANOS;
+            }
+            render(++rendered);
+        }
+        return jitter;
+    }
+
+    /** A simulação na sua thread; o renderizador só lê o buffer triplo. */
+    private static TickJitter ownThread() throws InterruptedException {
+        GameSimulation simulation = newSimulation();
+        TripleBuffer<FrameSnapshot> frames = new TripleBuffer<>(() -> new FrameSnapshot(Board.WIDTH, Board.HEIGHT));
+        SimulationThread thread = new SimulationThread(simulation, frames);
+        thread.start();
+        long end = System.nanoTime() + SECONDS * 1_000_000_000L;
+        long next = System.nanoTime();
+        int rendered = 0;
+        long sink = 0;
+        while (System.nanoTime() < end) {
+            waitUntil(next);
+            sink += frames.latest().getFrame();
+            render(++rendered);
+            next += GameSimulation.FRAME_NANOS;
+        }
+        thread.stop();
+        if (sink < 0) {
+            System.out.println(sink);
+        }
+        return thread.getJitter();
+    }
+
+    private static GameSimulation newSimulation() {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setSeed(1L);
+        simulation.initializeGame();
+        return simulation;
+    }
+
+    private static void render(int frame) {
+        busy(frame % HITCH_EVERY == 0 ? HITCH_NANOS : RENDER_NANOS);
+    }
+
+    /** Ocupa a CPU como um quadro de interface de verdade (não dorme). */
+    private static void busy(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void waitUntil(long deadline) {
+        long wait = deadline - System.nanoTime();
+        if (wait > 0) {
+            LockSupport.parkNanos(wait);
+        }
+    }
+}
@@ -3,6 +3,10 @@ package com.tetris.controller;
 import com.tetris.model.Board;
 import com.tetris.model.GameState;
 import com.tetris.model.PieceType; // <-- IMPORT NOVO
+import com.tetris.model.tetromino.Randomizer;
+import com.tetris.simulation.Replay;
+import com.tetris.simulation.ReplayPlayer;
+import javafx.scene.input.KeyCode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,9 +43,8 @@ class GameEngineTest {
      */
     private void fillLine(Board board, int y) {
 // Agora usa o grid de PieceType
-        PieceType[][] grid = board.getGrid();
         for (int x = 0; x < Board.WIDTH; x++) {
-            grid[y][x] = PieceType.LOCKED; // <-- MUDOU DE Color.RED
+            board.setCell(x, y, PieceType.LOCKED); // <-- MUDOU DE Color.RED
         }
     }
 
@@ -111,7 +114,7 @@ class GameEngineTest {
 
         // Preenche a linha 1 com o tipo "LOCKED"
         for (int x = 3; x < 6; x++) {
-            board.getGrid()[1][x] = PieceType.LOCKED; // <-- MUDOU DE Color.RED
+            board.setCell(x, 1, PieceType.LOCKED); // <-- MUDOU DE Color.RED
         }
 
         // 2. Ação: Tenta "nascer" uma nova peça
@@ -169,4 +172,94 @@ class GameEngineTest {
 
 
     }
-}
\ No newline at end of file
+
+// --- QUEDA RÁPIDA (HARD DROP) PELO ÍNDICE DE COLUNAS ---
+
+    @Test
+    void testHardDropLandsOnFloorAndScores() {
+        Board board = gameEngine.getBoard();
+        int distance = board.dropDistance(gameEngine.getCurrentPiece());
+
+        gameEngine.handleKeyPress(javafx.scene.input.KeyCode.SPACE);
+
+        assertEquals(2 * (distance + 1), gameEngine.scoreProperty().get(),
+                "A queda rápida deveria dar 2 pontos por passo testado.");
+        int blocksOnFloor = board.getRowFill(Board.HEIGHT - 1);
+        assertTrue(blocksOnFloor > 0, "A peça deveria ter travado apoiada no chão.");
+    }
+
+    @Test
+    void testHardDropNotifiesEachPropertyOnce() {
+        // Saco de 7: a próxima peça sempre muda dentro do saco (no sorteio uniforme pode repetir)
+        gameEngine.setRandomizer(Randomizer.Kind.BAG);
+        gameEngine.initializeGame();
+        int[] scoreChanges = new int[1];
+        int[] nextChanges = new int[1];
+        int[] levelChanges = new int[1];
+        gameEngine.scoreProperty().addListener((obs, old, value) -> scoreChanges[0]++);
+        gameEngine.nextPieceProperty().addListener((obs, old, piece) -> {
+            nextChanges[0]++;
+            assertNotNull(old, "O valor antigo deveria ser a prévia anterior, não null.");
+            assertNotSame(old, piece, "Cada mudança deveria publicar uma peça nova.");
+        });
+        gameEngine.levelProperty().addListener((obs, old, value) -> levelChanges[0]++);
+
+        gameEngine.handleKeyPress(KeyCode.SPACE);
+
+        assertEquals(1, scoreChanges[0], "A pontuação deveria ser publicada uma vez por queda.");
+        assertEquals(1, nextChanges[0], "A peça nova deveria ser publicada uma vez.");
+        assertEquals(0, levelChanges[0], "O nível não mudou.");
+        assertEquals(gameEngine.getPreview(0), gameEngine.nextPieceProperty().get().getType());
+    }
+
+// --- SEQUÊNCIA DE PEÇAS COM SEMENTE ---
+
+    @Test
+    void testSameSeedGivesSamePieceSequence() {
+        GameEngine other = new GameEngine();
+        other.setTestMode(true);
+        for (GameEngine engine : new GameEngine[]{gameEngine, other}) {
+            engine.setRandomizer(Randomizer.Kind.BAG);
+            engine.setSeed(2024L);
+            engine.initializeGame();
+        }
+        assertEquals(2024L, gameEngine.getSeed());
+
+        for (int i = 0; i < 30; i++) {
+            assertEquals(gameEngine.getCurrentPiece().getType(), other.getCurrentPiece().getType());
+            assertEquals(gameEngine.nextPieceProperty().get().getType(), gameEngine.getPreview(0),
+                    "O 'next' do HUD deveria ser a frente da fila.");
+            for (int k = 0; k < GameEngine.PREVIEW_DEPTH; k++) {
+                assertEquals(gameEngine.getPreview(k), other.getPreview(k));
+            }
+            gameEngine.spawnNewPiece();
+            other.spawnNewPiece();
+        }
+    }
+
+// --- GRAVAÇÃO DA PARTIDA ---
+
+    @Test
+    void testGameOverPublishesVerifiableReplay() {
+        gameEngine.setSeed(77L);
+        gameEngine.initializeGame(); // O jogo do setUp() sai como partida abandonada
+        assertNotEquals(77L, gameEngine.lastReplayProperty().get().getSeed());
+
+        KeyCode[] keys = {KeyCode.LEFT, KeyCode.UP, KeyCode.SPACE, KeyCode.C, KeyCode.RIGHT, KeyCode.SPACE};
+        for (int i = 0; gameEngine.gameStateProperty().get() != GameState.GAME_OVER && i < 10_000; i++) {
+            if (gameEngine.gameStateProperty().get() == GameState.LINE_CLEARING) {
+                gameEngine.onAnimationFinished();
+            } else {
+                gameEngine.handleKeyPress(keys[i % keys.length]);
+            }
+        }
+        assertEquals(GameState.GAME_OVER, gameEngine.gameStateProperty().get());
+
+        Replay replay = gameEngine.lastReplayProperty().get();
+        assertNotNull(replay, "O fim de jogo deveria publicar o replay.");
+        assertEquals(77L, replay.getSeed());
+        ReplayPlayer player = new ReplayPlayer(Replay.fromBytes(replay.toBytes()));
+        assertTrue(player.verify(), player.getMismatch());
+        assertEquals(gameEngine.scoreProperty().get(), player.getSimulation().getScore());
+    }
+}
@@ -0,0 +1,150 @@
+package com.tetris.controller;
+
+import com.tetris.model.Board;
+import com.tetris.model.GameState;
+import com.tetris.model.PieceType;
+import com.tetris.model.tetromino.PieceQueue;
+import com.tetris.model.tetromino.Randomizer;
+import javafx.scene.input.KeyCode;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa o codec binário do estado do jogo: ida e volta exata e tamanho compacto.
+ */
+class GameStateCodecTest {
+
+    private static final KeyCode[] KEYS = {
+            KeyCode.LEFT, KeyCode.RIGHT, KeyCode.DOWN, KeyCode.UP, KeyCode.SPACE, KeyCode.C
+    };
+
+    @Test
+    void testRoundTripOverRandomGames() {
+        Random random = new Random(11);
+        for (int game = 0; game < 20; game++) {
+            GameEngine engine = newEngine();
+            for (int step = 0; step < 500 && engine.gameStateProperty().get() != GameState.GAME_OVER; step++) {
+                if (engine.gameStateProperty().get() == GameState.LINE_CLEARING) {
+                    if (random.nextBoolean()) { // Às vezes salva no meio da animação
+                        engine.onAnimationFinished();
+                    }
+                } else {
+                    engine.handleKeyPress(KEYS[random.nextInt(KEYS.length)]);
+                }
+                if (step % 25 == 0) {
+                    assertRoundTrip(engine);
+                }
+            }
+            assertRoundTrip(engine);
+        }
+    }
+
+    @Test
+    void testRoundTripKeepsTheNextSpawns() {
+        for (Randomizer.Kind kind : Randomizer.Kind.values()) {
+            GameEngine engine = new GameEngine();
+            engine.setTestMode(true);
+            engine.setRandomizer(kind);
+            engine.setSeed(77L);
+            engine.initializeGame();
+            for (int i = 0; i < 5; i++) {
+                engine.handleKeyPress(KeyCode.SPACE); // Meio de um saco / histórico já girando
+            }
+
+            GameEngine copy = newEngine(); // Outro gerador, outra semente
+            GameStateCodec.decode(ByteBuffer.wrap(GameStateCodec.encode(engine)), copy);
+
+            assertEquals(engine.getSimulation().getSeed(), copy.getSimulation().getSeed(), kind + ": semente");
+            PieceQueue original = engine.getSimulation().getPieceQueue();
+            PieceQueue restored = copy.getSimulation().getPieceQueue();
+            assertEquals(kind, restored.getRandomizer().getKind());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(original.next(), restored.next(), kind + ": peça " + i + " depois do decode");
+            }
+        }
+    }
+
+    @Test
+    void testStandardBoardFitsIn96Bytes() {
+        GameEngine engine = newEngine();
+        Board board = engine.getBoard();
+        // Pior caso do tabuleiro: tudo ocupado menos uma coluna (nenhuma linha cheia)
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            for (int x = 1; x < Board.WIDTH; x++) {
+                board.setCell(x, y, PieceType.LOCKED);
+            }
+        }
+        engine.scoreProperty().set(Integer.MAX_VALUE);
+        engine.linesClearedProperty().set(999_999);
+        engine.handleKeyPress(KeyCode.C); // Põe uma peça no hold
+
+        byte[] bytes = GameStateCodec.encode(engine);
+        assertTrue(bytes.length < 96, "Um 10x20 deveria caber em menos de 96 bytes, usou " + bytes.length);
+        assertRoundTrip(engine);
+    }
+
+    @Test
+    void testTypedCellsAndWideBoardsRoundTrip() {
+        GameEngine engine = new GameEngine(100, 40);
+        engine.setTestMode(true);
+        engine.initializeGame();
+        engine.getBoard().setCell(0, 39, PieceType.T);
+        engine.getBoard().setCell(70, 39, PieceType.LOCKED);
+        engine.getBoard().setCell(99, 5, PieceType.I);
+
+        GameEngine copy = GameStateCodec.decode(ByteBuffer.wrap(GameStateCodec.encode(engine)));
+
+        assertEquals(100, copy.getBoard().getWidth());
+        assertEquals(PieceType.T, copy.getBoard().getCell(0, 39));
+        assertEquals(PieceType.LOCKED, copy.getBoard().getCell(70, 39));
+        assertEquals(PieceType.I, copy.getBoard().getCell(99, 5));
+        assertEquals(engine.getPositionHash(), copy.getPositionHash());
+    }
+
+    @Test
+    void testRejectsUnknownVersionAndWrongDimensions() {
+        byte[] bytes = GameStateCodec.encode(newEngine());
+        GameEngine wide = new GameEngine(40, 80);
+        assertThrows(IllegalArgumentException.class, () -> GameStateCodec.decode(ByteBuffer.wrap(bytes), wide));
+
+        bytes[0] = (byte) (GameStateCodec.VERSION + 1);
+        assertThrows(IllegalArgumentException.class, () -> GameStateCodec.decode(ByteBuffer.wrap(bytes)));
+    }
+
+    private GameEngine newEngine() {
+        GameEngine engine = new GameEngine();
+        engine.setTestMode(true);
+        engine.initializeGame();
+        return engine;
+    }
+
+    /** Codifica, decodifica num motor novo e compara tudo (inclusive re-codificando). */
+    private void assertRoundTrip(GameEngine engine) {
+        ByteBuffer buffer = ByteBuffer.allocate(128);
+        GameStateCodec.encode(engine, buffer);
+        buffer.flip();
+        GameEngine copy = newEngine();
+        GameStateCodec.decode(buffer, copy);
+        assertFalse(buffer.hasRemaining(), "O decode deveria consumir exatamente o que o encode escreveu.");
+
+        Board board = engine.getBoard();
+        for (int y = 0; y < board.getHeight(); y++) {
+            for (int x = 0; x < board.getWidth(); x++) {
+                assertEquals(board.getCell(x, y), copy.getBoard().getCell(x, y), "Célula (" + x + ", " + y + ")");
+            }
+        }
+        assertEquals(engine.getPositionHash(), copy.getPositionHash(), "Hash da posição diverge.");
+        assertEquals(engine.getCurrentPiece().getX(), copy.getCurrentPiece().getX());
+        assertEquals(engine.getCurrentPiece().getY(), copy.getCurrentPiece().getY());
+        assertEquals(engine.scoreProperty().get(), copy.scoreProperty().get());
+        assertEquals(engine.levelProperty().get(), copy.levelProperty().get());
+        assertEquals(engine.linesClearedProperty().get(), copy.linesClearedProperty().get());
+        assertEquals(engine.gameStateProperty().get(), copy.gameStateProperty().get());
+        assertEquals(engine.linesToClearProperty().get(), copy.linesToClearProperty().get());
+        assertArrayEquals(GameStateCodec.encode(engine), GameStateCodec.encode(copy));
+    }
+}
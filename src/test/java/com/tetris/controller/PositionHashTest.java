@@ -0,0 +1,78 @@
+package com.tetris.controller;
+
+import com.tetris.model.Board;
+import com.tetris.model.GameState;
+import com.tetris.model.PieceType;
+import javafx.scene.input.KeyCode;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Confere o hash Zobrist incremental da posição contra o hash recalculado do zero,
+ * ao longo de partidas aleatórias (movimentos, rotações, hold, quedas e limpezas).
+ */
+class PositionHashTest {
+
+    private static final KeyCode[] KEYS = {
+            KeyCode.LEFT, KeyCode.RIGHT, KeyCode.DOWN, KeyCode.UP, KeyCode.SPACE, KeyCode.C
+    };
+
+    @Test
+    void testIncrementalHashMatchesRecomputedOverRandomGames() {
+        Random random = new Random(7);
+        for (int game = 0; game < 50; game++) {
+            GameEngine engine = new GameEngine();
+            engine.setTestMode(true);
+            engine.initializeGame();
+            assertEquals(engine.computePositionHash(), engine.getPositionHash());
+
+            for (int step = 0; step < 2_000 && engine.gameStateProperty().get() != GameState.GAME_OVER; step++) {
+                if (engine.gameStateProperty().get() == GameState.LINE_CLEARING) {
+                    engine.onAnimationFinished();
+                } else {
+                    engine.handleKeyPress(KEYS[random.nextInt(KEYS.length)]);
+                }
+                assertEquals(engine.computePositionHash(), engine.getPositionHash(),
+                        "Hash divergente no jogo " + game + ", passo " + step);
+            }
+        }
+    }
+
+    @Test
+    void testHashChangesWithPieceMoveAndReturns() {
+        GameEngine engine = new GameEngine();
+        engine.setTestMode(true);
+        engine.initializeGame();
+        long start = engine.getPositionHash();
+
+        engine.handleKeyPress(KeyCode.DOWN);
+        assertNotEquals(start, engine.getPositionHash(), "Descer a peça deveria mudar o hash.");
+
+        engine.getCurrentPiece().setY(engine.getCurrentPiece().getY() - 1);
+        assertEquals(start, engine.getPositionHash(), "Voltar à mesma posição deveria voltar ao mesmo hash.");
+    }
+
+    @Test
+    void testBoardHashFollowsCellWritesAndLineClears() {
+        Board board = new Board();
+        assertEquals(0, board.getHash(), "O tabuleiro vazio tem hash 0.");
+
+        for (int x = 0; x < Board.WIDTH; x++) {
+            board.setCell(x, Board.HEIGHT - 1, PieceType.LOCKED);
+        }
+        board.setCell(4, Board.HEIGHT - 2, PieceType.LOCKED);
+        assertEquals(board.computeHash(), board.getHash());
+
+        int[] lines = new int[Board.HEIGHT];
+        board.removeLines(lines, board.findFullLines(lines));
+        assertEquals(board.computeHash(), board.getHash());
+
+        // Depois da limpeza sobra um único bloco, agora na última linha
+        Board expected = new Board();
+        expected.setCell(4, Board.HEIGHT - 1, PieceType.LOCKED);
+        assertEquals(expected.getHash(), board.getHash());
+    }
+}
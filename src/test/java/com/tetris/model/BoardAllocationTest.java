@@ -0,0 +1,59 @@
+package com.tetris.model;
+
+import com.tetris.model.tetromino.IPiece;
+import com.tetris.model.tetromino.Tetromino;
+import org.junit.jupiter.api.Test;
+
+import static com.tetris.Allocations.smallestAllocation;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Garante que o caminho "trava a peça + limpa 4 linhas" do Board não gera lixo.
+ * Usa o contador de bytes alocados por thread da JVM (HotSpot).
+ */
+class BoardAllocationTest {
+
+    private static final int WARMUP = 20_000;
+    private static final int MEASURED = 20_000;
+
+    private final Board board = new Board();
+    private final Tetromino iPiece = new IPiece(); // Estado 0: vertical, coluna 2 da forma
+    private final int[] fullLines = new int[Board.HEIGHT];
+
+    @Test
+    void testLockPlusTetrisAllocatesNothing() {
+        // Aquecimento (JIT + confere que o cenário faz mesmo um Tetris)
+        for (int i = 0; i < WARMUP; i++) {
+            assertEquals(4, lockAndClearTetris(), "O cenário deveria limpar 4 linhas.");
+        }
+
+        // Qualquer objeto por iteração daria pelo menos 16 bytes cada
+        long smallest = smallestAllocation(() -> {
+            int sink = 0;
+            for (int i = 0; i < MEASURED; i++) {
+                sink += lockAndClearTetris();
+            }
+            assertEquals(4 * MEASURED, sink);
+        });
+
+        assertTrue(smallest < MEASURED,
+                "Lock + limpeza de 4 linhas não deveria alocar (" + smallest + " bytes em " + MEASURED + " iterações).");
+        assertNull(board.getCell(0, Board.HEIGHT - 1), "O tabuleiro deveria estar vazio após o Tetris.");
+    }
+
+    /** Prepara 4 linhas cheias menos a coluna 0, encaixa uma 'I' vertical e limpa. */
+    private int lockAndClearTetris() {
+        for (int y = Board.HEIGHT - 4; y < Board.HEIGHT; y++) {
+            for (int x = 1; x < Board.WIDTH; x++) {
+                board.setCell(x, y, PieceType.LOCKED);
+            }
+        }
+        iPiece.setX(-2); // A coluna 2 da forma cai na coluna 0 do tabuleiro
+        iPiece.setY(Board.HEIGHT - 4);
+
+        board.placePiece(iPiece);
+        int count = board.findFullLines(fullLines);
+        board.removeLines(fullLines, count);
+        return count;
+    }
+}
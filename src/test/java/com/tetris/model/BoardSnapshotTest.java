@@ -0,0 +1,101 @@
+package com.tetris.model;
+
+import com.tetris.model.tetromino.IPiece;
+import com.tetris.model.tetromino.OPiece;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa as fotos persistentes do tabuleiro (BoardSnapshot):
+ * imutabilidade, restauração e compartilhamento de linhas.
+ */
+class BoardSnapshotTest {
+
+    private Board board;
+
+    @BeforeEach
+    void setUp() {
+        board = new Board();
+    }
+
+    private void fillLineExceptColumn0(int y) {
+        for (int x = 1; x < Board.WIDTH; x++) {
+            board.setCell(x, y, PieceType.LOCKED);
+        }
+    }
+
+    @Test
+    void testSnapshotIsNotAffectedByLaterChanges() {
+        fillLineExceptColumn0(19);
+        board.setCell(5, 18, PieceType.T);
+        BoardSnapshot before = board.snapshot();
+
+        // Trava uma 'I' vertical na coluna 0 e limpa a linha 19
+        IPiece piece = new IPiece();
+        piece.setX(-2);
+        piece.setY(16);
+        board.placePiece(piece);
+        board.removeLines(board.findFullLines());
+        board.setCell(9, 0, PieceType.Z);
+
+        assertNull(before.getCell(0, 19), "A foto não deveria ver a peça travada depois.");
+        assertEquals(PieceType.T, before.getCell(5, 18), "A foto deveria manter o bloco T na linha 18.");
+        assertEquals(PieceType.LOCKED, before.getCell(1, 19), "A foto deveria manter a linha 19.");
+        assertNull(before.getCell(9, 0), "A foto não deveria ver o setCell posterior.");
+        assertEquals(PieceType.T, board.getCell(5, 19), "No tabuleiro, o T deveria ter descido.");
+    }
+
+    @Test
+    void testRestoreBringsBackCellsAndIndexes() {
+        fillLineExceptColumn0(19);
+        board.setCell(3, 15, PieceType.S);
+        BoardSnapshot saved = board.snapshot();
+
+        board.setCell(0, 19, PieceType.LOCKED); // Completa a linha
+        board.removeLines(board.findFullLines());
+        board.restore(saved);
+
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            assertEquals(saved.getRowMask(y), board.getRowMask(y), "Máscara diverge na linha " + y);
+            for (int x = 0; x < Board.WIDTH; x++) {
+                assertEquals(saved.getCell(x, y), board.getCell(x, y), "Célula diverge em (" + x + ", " + y + ")");
+            }
+        }
+        assertEquals(5, board.getColumnHeight(3), "Altura da coluna 3 não foi restaurada.");
+        assertEquals(3, board.getColumnHoles(3), "Buracos da coluna 3 não foram restaurados.");
+        assertEquals(0, board.findFullLines().size(), "Nenhuma linha cheia deveria existir após restaurar.");
+
+        // Escrever no tabuleiro restaurado não pode alterar a foto
+        board.setCell(0, 19, PieceType.LOCKED);
+        assertNull(saved.getCell(0, 19), "A escrita após restore() vazou para a foto.");
+    }
+
+    @Test
+    void testConsecutiveSnapshotsShareUntouchedRows() {
+        fillLineExceptColumn0(19);
+        BoardSnapshot first = board.snapshot();
+
+        OPiece piece = new OPiece(); // Ocupa as linhas 2 e 3 da forma
+        piece.setX(3);
+        piece.setY(Board.HEIGHT - 6); // -> linhas 16 e 17 do tabuleiro
+        board.placePiece(piece);
+        BoardSnapshot second = board.snapshot();
+
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            boolean touched = y == 16 || y == 17;
+            assertEquals(!touched, first.sharesRowWith(second, y),
+                    "Linha " + y + (touched ? " deveria ter sido copiada." : " deveria ser compartilhada."));
+        }
+    }
+
+    @Test
+    void testGetGridNeverExposesSharedRows() {
+        BoardSnapshot saved = board.snapshot();
+        board.getGrid()[10][4] = PieceType.L;
+
+        assertNull(saved.getCell(4, 10), "Escrita via getGrid() vazou para a foto.");
+        assertNull(board.getCell(4, 10), "getGrid() é uma cópia: a escrita não chega no tabuleiro.");
+    }
+}
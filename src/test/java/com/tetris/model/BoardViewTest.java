@@ -0,0 +1,80 @@
+package com.tetris.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa a leitura concorrente do Board pelo BoardView (seqlock).
+ */
+class BoardViewTest {
+
+    @Test
+    void testCopyMatchesBoardAndVersionAdvancesPerWrite() {
+        Board board = new Board();
+        BoardView view = board.view();
+        PieceType[] buffer = view.newBuffer();
+
+        long start = view.copyInto(buffer);
+        assertEquals(0, start % 2, "Uma versão estável é sempre par.");
+
+        board.setCell(3, Board.HEIGHT - 1, PieceType.T);
+        long after = view.copyInto(buffer);
+        assertEquals(start + 2, after, "Cada escrita avança a versão em 2 (ímpar durante, par depois).");
+        assertEquals(PieceType.T, buffer[(Board.HEIGHT - 1) * Board.WIDTH + 3]);
+
+        assertEquals(after, view.copyIfChanged(buffer, after), "Sem mudanças não há nova cópia.");
+    }
+
+    /**
+     * Uma thread alterna o tabuleiro entre dois estados (4 linhas cheias + um marcador,
+     * e o resultado de limpá-las) enquanto outra copia sem parar:
+     * toda cópia tem que ser exatamente um dos dois estados.
+     */
+    @Test
+    void testReaderNeverSeesHalfClearedBoard() throws InterruptedException {
+        Board board = new Board();
+        for (int y = Board.HEIGHT - 4; y < Board.HEIGHT; y++) {
+            for (int x = 0; x < Board.WIDTH; x++) {
+                board.setCell(x, y, PieceType.LOCKED);
+            }
+        }
+        board.setCell(2, Board.HEIGHT - 5, PieceType.S);
+        board.setCell(7, Board.HEIGHT - 6, PieceType.Z);
+        BoardSnapshot full = board.snapshot();
+
+        BoardView view = board.view();
+        PieceType[] beforeClear = view.newBuffer();
+        view.copyInto(beforeClear);
+        int[] lines = new int[Board.HEIGHT];
+        board.removeLines(lines, board.findFullLines(lines));
+        PieceType[] afterClear = view.newBuffer();
+        view.copyInto(afterClear);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            PieceType[] copy = view.newBuffer();
+            while (running.get()) {
+                view.copyInto(copy);
+                if (!Arrays.equals(copy, beforeClear) && !Arrays.equals(copy, afterClear)) {
+                    failure.compareAndSet(null, "Cópia inconsistente: " + Arrays.toString(copy));
+                }
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 50_000; i++) {
+            board.restore(full);
+            board.removeLines(lines, board.findFullLines(lines));
+        }
+        running.set(false);
+        reader.join();
+
+        assertNull(failure.get());
+    }
+}
@@ -4,7 +4,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 // O 'import javafx.scene.paint.Color;' FOI REMOVIDO!
 import com.tetris.model.PieceType; // <-- IMPORT NOVO
+import com.tetris.model.tetromino.IPiece;
+import com.tetris.model.tetromino.JPiece;
+import com.tetris.model.tetromino.LPiece;
+import com.tetris.model.tetromino.OPiece;
+import com.tetris.model.tetromino.SPiece;
+import com.tetris.model.tetromino.TPiece;
+import com.tetris.model.tetromino.Tetromino;
+import com.tetris.model.tetromino.ZPiece;
 import java.util.List; // <-- IMPORT JÁ EXISTENTE
+import java.util.Random;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -71,9 +80,8 @@ class BoardTest {
     void testCollisionWithOtherPieces() {
 // 1. Setup: Coloca uma "parede" de blocos no tabuleiro
 // Vamos preencher a coluna 5 com o tipo LOCKED
-        PieceType[][] grid = board.getGrid();
         for (int y = 10; y < 15; y++) {
-            grid[y][5] = PieceType.LOCKED; // <-- MUDOU DE Color.BLUE
+            board.setCell(5, y, PieceType.LOCKED); // <-- MUDOU DE Color.BLUE
         }
 
         // 2. Ação e Verificação
@@ -86,7 +94,7 @@ class BoardTest {
     @Test
     void testNoCollisionWhenAdjacent() {
 // 1. Setup: Coloca um bloco em [5][10]
-        board.getGrid()[10][5] = PieceType.LOCKED; // <-- MUDOU DE Color.BLUE
+        board.setCell(5, 10, PieceType.LOCKED); // <-- MUDOU DE Color.BLUE
 
         // 2. Ação e Verificação
         assertTrue(board.isValidPosition(singleBlockShape, 5, 9),
@@ -105,9 +113,8 @@ class BoardTest {
      Preenche uma linha inteira do tabuleiro com um tipo de bloco.
      */
     private void fillLine(int y) {
-        PieceType[][] grid = board.getGrid();
         for (int x = 0; x < Board.WIDTH; x++) {
-            grid[y][x] = PieceType.LOCKED; // <-- MUDOU DE Color.RED
+            board.setCell(x, y, PieceType.LOCKED); // <-- MUDOU DE Color.RED
         }
     }
 
@@ -115,7 +122,7 @@ class BoardTest {
     void testSingleLineClear() {
 // 1. Setup: Preenche a linha 19 e coloca um marcador (J) na 18
         fillLine(19);
-        board.getGrid()[18][5] = PieceType.J; // <-- MUDOU DE Color.BLUE (J é um marcador)
+        board.setCell(5, 18, PieceType.J); // <-- MUDOU DE Color.BLUE (J é um marcador)
 
         // 2. Ação: Agora em duas etapas!
         List<Integer> linesToClear = board.findFullLines(); // Etapa 1: Encontra
@@ -139,7 +146,7 @@ class BoardTest {
         fillLine(18);
         fillLine(17);
         fillLine(16);
-        board.getGrid()[15][0] = PieceType.L; // <-- MUDOU DE Color.GREEN (L é um marcador)
+        board.setCell(0, 15, PieceType.L); // <-- MUDOU DE Color.GREEN (L é um marcador)
 
         // 2. Ação: Em duas etapas!
         List<Integer> linesToClear = board.findFullLines(); // Etapa 1: Encontra
@@ -159,7 +166,7 @@ class BoardTest {
     void testNoLinesCleared() {
 // 1. Setup: Preenche uma linha quase completa
         for (int x = 0; x < Board.WIDTH - 1; x++) {
-            board.getGrid()[19][x] = PieceType.LOCKED; // <-- MUDOU DE Color.RED
+            board.setCell(x, 19, PieceType.LOCKED); // <-- MUDOU DE Color.RED
         }
 
         // 2. Ação: Em duas etapas!
@@ -171,4 +178,324 @@ class BoardTest {
 
 
     }
-}
\ No newline at end of file
+
+// --- BITBOARD: o caminho por máscaras deve dar o mesmo resultado da varredura antiga ---
+
+    @Test
+    void testBitboardMatchesGridScan() {
+        Random random = new Random(7);
+        for (int y = 8; y < Board.HEIGHT; y++) {
+            for (int x = 0; x < Board.WIDTH; x++) {
+                if (random.nextBoolean()) {
+                    board.setCell(x, y, PieceType.LOCKED);
+                }
+            }
+        }
+        int[][] shape = new TPiece().getShape();
+        int[] masks = Tetromino.toRowMasks(shape);
+
+        for (int py = -3; py < Board.HEIGHT + 1; py++) {
+            for (int px = -4; px < Board.WIDTH + 2; px++) {
+                boolean expected = true;
+                for (int sy = 0; sy < shape.length && expected; sy++) {
+                    for (int sx = 0; sx < shape[sy].length; sx++) {
+                        if (shape[sy][sx] == 0) continue;
+                        int bx = px + sx, by = py + sy;
+                        if (bx < 0 || bx >= Board.WIDTH || by >= Board.HEIGHT
+                                || (by >= 0 && board.getCell(bx, by) != null)) {
+                            expected = false;
+                            break;
+                        }
+                    }
+                }
+                assertEquals(expected, board.isValidPosition(masks, px, py),
+                        "Máscaras divergem da varredura em (" + px + ", " + py + ")");
+                assertEquals(expected, board.isValidPosition(shape, px, py),
+                        "Matriz diverge da varredura em (" + px + ", " + py + ")");
+            }
+        }
+    }
+
+    @Test
+    void testGetGridEUmaCopiaSolta() {
+        board.setCell(4, 4, PieceType.LOCKED);
+        PieceType[][] grid = board.getGrid();
+        assertEquals(PieceType.LOCKED, grid[4][4], "A cópia traz as células atuais.");
+
+        long version = board.view().getVersion();
+        grid[6][2] = PieceType.LOCKED; // Não é o tabuleiro: não muda nada
+        assertTrue(board.isValidPosition(singleBlockShape, 2, 6));
+        assertEquals(0, board.getRowMask(6));
+        assertNull(board.getCell(2, 6));
+        assertEquals(version, board.view().getVersion(), "Consultar não é escrever.");
+        assertNotSame(grid[4], board.getGrid()[4], "Cada chamada devolve uma cópia nova.");
+    }
+
+// --- CONTADORES INCREMENTAIS DE LINHA ---
+
+    @Test
+    void testRowFillCountersFollowPlacePieceAndRemoveLines() {
+        for (int x = 1; x < Board.WIDTH; x++) {
+            board.setCell(x, 19, PieceType.LOCKED);
+        }
+        assertEquals(Board.WIDTH - 1, board.getRowFill(19), "Linha 19 deveria ter WIDTH-1 blocos.");
+        int[] buffer = new int[Board.HEIGHT];
+        assertEquals(0, board.findFullLines(buffer), "Nenhuma linha deveria estar cheia ainda.");
+
+        IPiece piece = new IPiece();
+        piece.setX(-2); // Coluna 2 da forma -> coluna 0 do tabuleiro
+        piece.setY(16);
+        board.placePiece(piece);
+
+        assertEquals(Board.WIDTH, board.getRowFill(19), "O lock deveria completar a linha 19.");
+        assertEquals(1, board.getRowFill(16), "O lock deveria contar 1 bloco na linha 16.");
+        assertEquals(1, board.findFullLines(buffer), "Deveria encontrar só a linha 19.");
+        assertEquals(19, buffer[0]);
+
+        board.removeLines(buffer, 1);
+        assertEquals(1, board.getRowFill(19), "O bloco da linha 18 deveria ter descido para a 19.");
+        assertEquals(0, board.findFullLines(buffer), "Nenhuma linha cheia deveria restar.");
+    }
+
+    @Test
+    void testRowThatStopsBeingFullIsNotReported() {
+        fillLine(19);
+        board.setCell(3, 19, null);
+        assertEquals(0, board.findFullLines().size(), "Linha esvaziada não deveria ser reportada.");
+        board.setCell(3, 19, PieceType.LOCKED);
+        assertEquals(1, board.findFullLines().size(), "Linha completada por setCell deveria ser reportada.");
+    }
+
+// --- ÍNDICE DE COLUNAS (ALTURAS / BURACOS / QUEDA) ---
+
+    @Test
+    void testColumnHeightsAndHoles() {
+        board.setCell(2, 19, PieceType.LOCKED);
+        board.setCell(2, 16, PieceType.LOCKED); // Deixa 2 buracos (17 e 18)
+
+        assertEquals(4, board.getColumnHeight(2), "Altura da coluna 2 deveria ser 4.");
+        assertEquals(2, board.getColumnHoles(2), "Coluna 2 deveria ter 2 buracos.");
+        assertEquals(0, board.getColumnHeight(3), "Coluna 3 deveria estar vazia.");
+
+        board.setCell(2, 16, null); // Remove o topo
+        assertEquals(1, board.getColumnHeight(2), "Altura deveria voltar para 1.");
+        assertEquals(0, board.getTotalHoles(), "Não deveria restar buraco.");
+    }
+
+    @Test
+    void testColumnIndexSurvivesLineClear() {
+        fillLine(19);
+        fillLine(18);
+        board.setCell(4, 17, PieceType.LOCKED);
+        board.setCell(4, 15, PieceType.LOCKED); // Buraco em (4, 16)
+
+        board.removeLines(board.findFullLines());
+
+        assertEquals(3, board.getColumnHeight(4), "A pilha da coluna 4 deveria ter descido 2 linhas.");
+        assertEquals(1, board.getColumnHoles(4), "O buraco deveria ter descido junto.");
+        assertEquals(0, board.getColumnHeight(0), "A coluna 0 só tinha blocos nas linhas removidas.");
+    }
+
+    @Test
+    void testDropDistanceMatchesProbing() {
+        Random random = new Random(11);
+        Tetromino[] pieces = {
+                new IPiece(), new JPiece(),
+                new LPiece(), new OPiece(),
+                new SPiece(), new TPiece(),
+                new ZPiece()
+        };
+        for (int round = 0; round < 200; round++) {
+            board.clear();
+            for (int y = 10; y < Board.HEIGHT; y++) {
+                for (int x = 0; x < Board.WIDTH; x++) {
+                    if (random.nextInt(3) == 0) {
+                        board.setCell(x, y, PieceType.LOCKED);
+                    }
+                }
+            }
+            for (Tetromino piece : pieces) {
+                piece.rotate();
+                for (int x = -2; x < Board.WIDTH; x++) {
+                    for (int y = -1; y < Board.HEIGHT; y++) {
+                        if (!board.isValidPosition(piece.getShapeMasks(), x, y)) {
+                            continue;
+                        }
+                        int expected = 0;
+                        while (board.isValidPosition(piece.getShapeMasks(), x, y + expected + 1)) {
+                            expected++;
+                        }
+                        assertEquals(expected,
+                                board.dropDistance(piece.getShapeMasks(), piece.getColumnBottoms(), x, y),
+                                "Queda errada para " + piece.getType() + " em (" + x + ", " + y + ")");
+                    }
+                }
+            }
+        }
+    }
+
+// --- ANEL DE LINHAS: limpezas sucessivas devem bater com um modelo ingênuo ---
+
+    @Test
+    void testRingRowsMatchNaiveModelAcrossManyClears() {
+        Random random = new Random(3);
+        PieceType[][] model = new PieceType[Board.HEIGHT][Board.WIDTH];
+        PieceType[] types = PieceType.values();
+
+        for (int round = 0; round < 300; round++) {
+            // Espalha alguns blocos (de tipos variados) e completa algumas linhas
+            for (int i = 0; i < 15; i++) {
+                int x = random.nextInt(Board.WIDTH);
+                int y = random.nextInt(Board.HEIGHT);
+                PieceType type = types[random.nextInt(types.length)];
+                board.setCell(x, y, type);
+                model[y][x] = type;
+            }
+            int y = random.nextInt(Board.HEIGHT);
+            for (int x = 0; x < Board.WIDTH; x++) {
+                board.setCell(x, y, PieceType.LOCKED);
+                model[y][x] = PieceType.LOCKED;
+            }
+
+            int[] lines = new int[Board.HEIGHT];
+            int count = board.findFullLines(lines);
+            assertTrue(count >= 1, "Deveria haver ao menos uma linha cheia.");
+            board.removeLines(lines, count);
+
+            // Modelo ingênuo: reconstrói de baixo para cima sem as linhas cheias
+            PieceType[][] next = new PieceType[Board.HEIGHT][Board.WIDTH];
+            int write = Board.HEIGHT - 1;
+            for (int src = Board.HEIGHT - 1; src >= 0; src--) {
+                boolean full = true;
+                for (PieceType cell : model[src]) {
+                    full &= cell != null;
+                }
+                if (!full) {
+                    next[write--] = model[src];
+                }
+            }
+            model = next;
+
+            for (int my = 0; my < Board.HEIGHT; my++) {
+                for (int mx = 0; mx < Board.WIDTH; mx++) {
+                    assertEquals(model[my][mx], board.getCell(mx, my),
+                            "Célula (" + mx + ", " + my + ") diverge na rodada " + round);
+                }
+                assertArrayEquals(model[my], board.getGrid()[my], "getGrid() diverge na linha " + my);
+            }
+        }
+    }
+
+// --- DIMENSÕES POR INSTÂNCIA: cada armazenamento (int, long, várias palavras) contra um modelo ingênuo ---
+
+    @Test
+    void testCustomDimensionsMatchNaiveModelForEveryStorage() {
+        int[][] sizes = {{10, 20}, {32, 24}, {40, 80}, {64, 30}, {100, 40}};
+        for (int[] size : sizes) {
+            checkAgainstNaiveModel(size[0], size[1]);
+        }
+    }
+
+    @Test
+    void testInvalidDimensionsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new Board(0, 20));
+        assertThrows(IllegalArgumentException.class, () -> new Board(10, Board.MAX_DIMENSION + 1));
+        assertThrows(UnsupportedOperationException.class, () -> new Board(40, 80).getRowMask(0));
+    }
+
+    @Test
+    void testSnapshotOfWideBoardRestoresExactly() {
+        Board wide = new Board(100, 40);
+        wide.setCell(0, 39, PieceType.LOCKED);
+        wide.setCell(63, 39, PieceType.T);
+        wide.setCell(64, 39, PieceType.I);
+        wide.setCell(99, 10, PieceType.LOCKED);
+        BoardSnapshot saved = wide.snapshot();
+        long hash = wide.getHash();
+
+        wide.clear();
+        wide.restore(saved);
+
+        assertEquals(hash, wide.getHash());
+        assertEquals(PieceType.T, wide.getCell(63, 39));
+        assertEquals(PieceType.I, wide.getCell(64, 39));
+        assertEquals(1L | 1L << 63, wide.getRowWord(39, 0));
+        assertEquals(1L, wide.getRowWord(39, 1));
+        assertEquals(30, wide.getColumnHeight(99));
+        assertThrows(IllegalArgumentException.class, () -> new Board().restore(saved));
+    }
+
+    private void checkAgainstNaiveModel(int width, int height) {
+        Random random = new Random(width * 31 + height);
+        Board sized = new Board(width, height);
+        boolean[][] model = new boolean[height][width];
+        int[][] shape = new LPiece().getShape();
+        int[] masks = Tetromino.toRowMasks(shape);
+        String where = " (" + width + "x" + height + ")";
+
+        for (int round = 0; round < 40; round++) {
+            for (int i = 0; i < width; i++) {
+                int x = random.nextInt(width);
+                int y = height / 2 + random.nextInt(height - height / 2);
+                boolean on = random.nextInt(4) != 0;
+                sized.setCell(x, y, on ? PieceType.LOCKED : null);
+                model[y][x] = on;
+            }
+            int full = height - 1 - random.nextInt(height / 2);
+            for (int x = 0; x < width; x++) {
+                sized.setCell(x, full, PieceType.LOCKED);
+                model[full][x] = true;
+            }
+
+            // Colisão em posições aleatórias, inclusive fora das bordas
+            for (int probe = 0; probe < 200; probe++) {
+                int px = random.nextInt(width + 6) - 3;
+                int py = random.nextInt(height + 4) - 3;
+                boolean expected = true;
+                for (int sy = 0; sy < shape.length && expected; sy++) {
+                    for (int sx = 0; sx < shape[sy].length; sx++) {
+                        if (shape[sy][sx] == 0) continue;
+                        int bx = px + sx, by = py + sy;
+                        if (bx < 0 || bx >= width || by >= height || (by >= 0 && model[by][bx])) {
+                            expected = false;
+                            break;
+                        }
+                    }
+                }
+                assertEquals(expected, sized.isValidPosition(masks, px, py),
+                        "Colisão diverge em (" + px + ", " + py + ")" + where);
+            }
+
+            int[] lines = new int[height];
+            int count = sized.findFullLines(lines);
+            assertTrue(count >= 1, "Deveria haver ao menos uma linha cheia" + where);
+            sized.removeLines(lines, count);
+
+            boolean[][] next = new boolean[height][width];
+            int write = height - 1;
+            for (int src = height - 1; src >= 0; src--) {
+                boolean rowFull = true;
+                for (boolean cell : model[src]) {
+                    rowFull &= cell;
+                }
+                if (!rowFull) {
+                    next[write--] = model[src];
+                }
+            }
+            model = next;
+
+            for (int x = 0; x < width; x++) {
+                int columnHeight = 0;
+                for (int y = height - 1; y >= 0; y--) {
+                    assertEquals(model[y][x], sized.getCell(x, y) != null,
+                            "Célula (" + x + ", " + y + ") diverge" + where);
+                    if (model[y][x]) {
+                        columnHeight = height - y;
+                    }
+                }
+                assertEquals(columnHeight, sized.getColumnHeight(x), "Altura da coluna " + x + where);
+            }
+            assertEquals(sized.computeHash(), sized.getHash(), "Hash diverge" + where);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.tetris.model;
+
+import com.tetris.model.tetromino.PackedPiece;
+import com.tetris.model.tetromino.PieceDefinition;
+import com.tetris.model.tetromino.PieceShape;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.tetris.Allocations.assertNoAllocation;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa a geração de candidatos (Placements) e confere que ela, junto com
+ * os movimentos do estado empacotado, não aloca nada.
+ */
+class PlacementsTest {
+
+    private final Board board = new Board();
+    private final int[] out = new int[Placements.maxCount(board)];
+
+    @Test
+    void testTabuleiroVazio() {
+        // Colunas possíveis por rotação distinta: O=9, I=7+10, T=8+9+8+9
+        assertEquals(9, Placements.generate(board, PieceType.O, out));
+        assertEquals(17, Placements.generate(board, PieceType.I, out));
+        assertEquals(34, Placements.generate(board, PieceType.T, out));
+    }
+
+    @Test
+    void testCandidatosPousamDentroDoTabuleiro() {
+        for (int x = 0; x < Board.WIDTH; x += 2) {
+            board.setCell(x, Board.HEIGHT - 1, PieceType.LOCKED);
+        }
+        board.setCell(5, Board.HEIGHT - 6, PieceType.LOCKED);
+
+        for (int t = 0; t < PieceDefinition.count(); t++) {
+            PieceType type = PieceDefinition.of(t).getType();
+            int count = Placements.generate(board, type, out);
+            assertTrue(count > 0);
+            Set<Integer> unique = new HashSet<>();
+            for (int i = 0; i < count; i++) {
+                int piece = out[i];
+                assertEquals(type, PackedPiece.type(piece));
+                assertTrue(board.isValidPosition(piece), PackedPiece.toString(piece));
+                assertFalse(board.isValidPosition(PackedPiece.moved(piece, 0, 1)),
+                        "Deveria estar pousada: " + PackedPiece.toString(piece));
+                assertTrue(unique.add(piece));
+            }
+        }
+    }
+
+    @Test
+    void testPlacePieceEmpacotadoIgualAoTetromino() {
+        int piece = PackedPiece.of(PieceType.J, 1, 2, 10);
+        Board expected = new Board();
+        PieceShape shape = PackedPiece.shape(piece);
+        expected.placePiece(shape, 2, 10);
+
+        board.placePiece(piece);
+        assertEquals(expected.getHash(), board.getHash());
+        for (int y = 0; y < Board.HEIGHT; y++) {
+            assertEquals(expected.getRowMask(y), board.getRowMask(y));
+        }
+    }
+
+    @Test
+    void testGeracaoEMovimentosNaoAlocam() {
+        board.setCell(3, Board.HEIGHT - 1, PieceType.LOCKED);
+
+        for (int i = 0; i < 20_000; i++) {
+            work(i);
+        }
+        assertNoAllocation(() -> {
+            long sink = 0;
+            for (int i = 0; i < 20_000; i++) {
+                sink += work(i);
+            }
+            assertTrue(sink > 0);
+        }, "Gerar candidatos e mover/girar peças empacotadas não deveria alocar.");
+    }
+
+    /** Um passo de "busca": gera os candidatos e anda/gira uma peça até pousar. */
+    private long work(int i) {
+        PieceType type = PieceDefinition.of(i % PieceDefinition.count()).getType();
+        long sum = Placements.generate(board, type, out);
+        int piece = PackedPiece.of(type, 0, 3, 0);
+        piece = PackedPiece.rotated(piece, i & 3);
+        while (board.isValidPosition(PackedPiece.moved(piece, 0, 1))) {
+            piece = PackedPiece.moved(piece, 0, 1);
+        }
+        return sum + PackedPiece.y(piece) + PackedPiece.hash(piece) % 2;
+    }
+}
@@ -0,0 +1,146 @@
+package com.tetris.model;
+
+import com.tetris.model.tetromino.PackedPiece;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static com.tetris.Allocations.assertNoAllocation;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa os sistemas de rotação (tabelas de chutes e escolha do primeiro chute válido).
+ */
+class RotationSystemTest {
+
+    private static final PieceType[] PIECES = {
+            PieceType.I, PieceType.J, PieceType.L, PieceType.O,
+            PieceType.S, PieceType.T, PieceType.Z
+    };
+
+    @Test
+    void testTamanhoDasTabelas() {
+        for (PieceType type : PIECES) {
+            for (int from = 0; from < 4; from++) {
+                assertEquals(5, RotationSystem.CLASSIC.kickCount(type, from, RotationSystem.CW));
+                assertEquals(type == PieceType.I ? 1 : 3, RotationSystem.ARS.kickCount(type, from, RotationSystem.CCW));
+                int srs = type == PieceType.O ? 1 : 5;
+                assertEquals(srs, RotationSystem.SRS.kickCount(type, from, RotationSystem.CW));
+                assertEquals(srs, RotationSystem.SRS.kickCount(type, from, RotationSystem.CCW));
+                assertEquals(type == PieceType.O ? 1 : 6, RotationSystem.SRS.kickCount(type, from, RotationSystem.HALF));
+                // Todo sistema testa primeiro a rotação sem chute
+                for (RotationSystem system : RotationSystem.values()) {
+                    assertEquals(0, system.kickX(type, from, RotationSystem.CW, 0));
+                    assertEquals(0, system.kickY(type, from, RotationSystem.CW, 0));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testChutesDoSrsParaT() {
+        // Nossa rotação 2 da 'T' é a de nascimento do SRS (0); 0 -> R, em y para baixo:
+        // (0,0), (-1,0), (-1,-1), (0,+2), (-1,+2)
+        int[][] expected = {{0, 0}, {-1, 0}, {-1, -1}, {0, 2}, {-1, 2}};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i][0], RotationSystem.SRS.kickX(PieceType.T, 2, RotationSystem.CW, i));
+            assertEquals(expected[i][1], RotationSystem.SRS.kickY(PieceType.T, 2, RotationSystem.CW, i));
+        }
+        // Ida e volta: R -> 0 é o oposto de 0 -> R
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(-expected[i][0], RotationSystem.SRS.kickX(PieceType.T, 3, RotationSystem.CCW, i));
+            assertEquals(-expected[i][1], RotationSystem.SRS.kickY(PieceType.T, 3, RotationSystem.CCW, i));
+        }
+    }
+
+    @Test
+    void testTSpinPrecisaDoChuteVertical() {
+        Board board = new Board();
+        for (int y = 13; y < Board.HEIGHT; y++) {
+            for (int x = 0; x < Board.WIDTH; x++) {
+                board.setCell(x, y, PieceType.LOCKED);
+            }
+        }
+        // O buraco em forma de 'T' deitada (apontando para a direita) duas linhas abaixo
+        board.setCell(4, 13, null);
+        board.setCell(4, 14, null);
+        board.setCell(5, 14, null);
+        board.setCell(4, 15, null);
+        board.setCell(4, 11, PieceType.LOCKED); // "Teto" que bloqueia os chutes (-1,0) e (-1,-1)
+
+        int piece = PackedPiece.of(PieceType.T, 2, 3, 10); // 'T' apontando para cima
+        assertTrue(board.isValidPosition(piece));
+
+        assertEquals(PackedPiece.NONE, RotationSystem.CLASSIC.rotate(board, piece, RotationSystem.CW));
+        int spun = RotationSystem.SRS.rotate(board, piece, RotationSystem.CW);
+        assertEquals(PackedPiece.of(PieceType.T, 3, 2, 12), spun, "Deveria usar o chute (-1, +2).");
+        assertFalse(board.isValidPosition(PackedPiece.moved(spun, 0, 1)), "A 'T' deveria estar encaixada.");
+    }
+
+    @Test
+    void testOPrimeiroChuteValidoVence() {
+        Random random = new Random(7);
+        for (int round = 0; round < 300; round++) {
+            Board board = new Board();
+            for (int y = 8; y < Board.HEIGHT; y++) {
+                for (int x = 0; x < Board.WIDTH; x++) {
+                    if (random.nextInt(10) < 4) board.setCell(x, y, PieceType.LOCKED);
+                }
+            }
+            for (RotationSystem system : RotationSystem.values()) {
+                for (PieceType type : PIECES) {
+                    int from = random.nextInt(4);
+                    int turns = new int[]{RotationSystem.CW, RotationSystem.CCW, RotationSystem.HALF}[random.nextInt(3)];
+                    int piece = PackedPiece.of(type, from, random.nextInt(8) - 1, random.nextInt(16));
+
+                    int expected = PackedPiece.NONE;
+                    int target = PackedPiece.rotated(piece, turns);
+                    for (int i = 0; i < system.kickCount(type, from, turns); i++) {
+                        int candidate = PackedPiece.moved(target,
+                                system.kickX(type, from, turns, i), system.kickY(type, from, turns, i));
+                        if (board.isValidPosition(candidate)) {
+                            expected = candidate;
+                            break;
+                        }
+                    }
+                    assertEquals(expected, system.rotate(board, piece, turns), system + " " + type);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testArsNaoChutaAI() {
+        Board board = new Board();
+        // 'I' vertical (rotação 0, coluna 2 da forma) colada na parede esquerda
+        int piece = PackedPiece.of(PieceType.I, 0, -2, 5);
+        assertTrue(board.isValidPosition(piece));
+        assertEquals(PackedPiece.NONE, RotationSystem.ARS.rotate(board, piece, RotationSystem.CW));
+        assertNotEquals(PackedPiece.NONE, RotationSystem.CLASSIC.rotate(board, piece, RotationSystem.CW));
+    }
+
+    @Test
+    void testRotacaoNaoAloca() {
+        Board board = new Board();
+        board.setCell(4, Board.HEIGHT - 1, PieceType.LOCKED);
+
+        for (int i = 0; i < 20_000; i++) {
+            spin(board, i);
+        }
+        assertNoAllocation(() -> {
+            long sink = 0;
+            for (int i = 0; i < 20_000; i++) {
+                sink += spin(board, i);
+            }
+            assertNotEquals(0, sink);
+        }, "Girar não deveria alocar.");
+    }
+
+    private static final RotationSystem[] SYSTEMS = RotationSystem.values();
+
+    private static int spin(Board board, int i) {
+        RotationSystem system = SYSTEMS[i % SYSTEMS.length];
+        int piece = PackedPiece.of(PIECES[i % PIECES.length], i & 3, 3, Board.HEIGHT - 4);
+        return system.rotate(board, piece, (i & 1) == 0 ? RotationSystem.CW : RotationSystem.HALF);
+    }
+}
@@ -0,0 +1,110 @@
+package com.tetris.model.tetromino;
+
+import com.tetris.model.PieceType;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa o estado empacotado das peças (PackedPiece), as definições
+ * compartilhadas (PieceDefinition) e o Tetromino como adaptador.
+ */
+class PackedPieceTest {
+
+    @Test
+    void testEmpacotaEDesempacota() {
+        for (PieceType type : new PieceType[]{PieceType.I, PieceType.O, PieceType.Z}) {
+            for (int rotation = 0; rotation < 4; rotation++) {
+                for (int x : new int[]{PackedPiece.MIN_COORD, -2, 0, 3, 255, PackedPiece.MAX_COORD}) {
+                    int y = -x / 2;
+                    int piece = PackedPiece.of(type, rotation, x, y);
+                    assertNotEquals(PackedPiece.NONE, piece);
+                    assertEquals(type, PackedPiece.type(piece));
+                    assertEquals(rotation, PackedPiece.rotation(piece));
+                    assertEquals(x, PackedPiece.x(piece));
+                    assertEquals(y, PackedPiece.y(piece));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testForaDoLayout() {
+        assertThrows(IllegalArgumentException.class, () -> PackedPiece.of(PieceType.T, 4, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> PackedPiece.of(PieceType.T, 0, PackedPiece.MAX_COORD + 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> PackedPiece.of(PieceType.T, 0, 0, PackedPiece.MIN_COORD - 1));
+    }
+
+    @Test
+    void testMovimentosNaoMexemNosOutrosCampos() {
+        int piece = PackedPiece.of(PieceType.L, 3, 0, 0);
+
+        int moved = PackedPiece.moved(piece, -3, 5);
+        assertEquals(-3, PackedPiece.x(moved));
+        assertEquals(5, PackedPiece.y(moved));
+        assertEquals(PieceType.L, PackedPiece.type(moved));
+        assertEquals(3, PackedPiece.rotation(moved));
+
+        assertEquals(piece, PackedPiece.moved(moved, 3, -5));
+        assertEquals(0, PackedPiece.rotation(PackedPiece.rotated(piece, 1)));
+        assertEquals(2, PackedPiece.rotation(PackedPiece.rotated(piece, -1)));
+        assertEquals(PackedPiece.of(PieceType.L, 3, 7, -1), PackedPiece.withPosition(piece, 7, -1));
+    }
+
+    @Test
+    void testFormaEHashBatemComOTetromino() {
+        Tetromino piece = new SPiece();
+        piece.rotate();
+        piece.setX(-1);
+        piece.setY(12);
+
+        int state = piece.getState();
+        assertSame(piece.getPieceShape(), PackedPiece.shape(state));
+        assertEquals(piece.computeHash(), PackedPiece.hash(state));
+        assertEquals(piece.getHash(), PackedPiece.hash(state));
+    }
+
+    @Test
+    void testAdaptadorAceitaEstadoDoMesmoTipo() {
+        Tetromino piece = new TPiece();
+        piece.setState(PackedPiece.of(PieceType.T, 2, 4, 9));
+        assertEquals(2, piece.getRotation());
+        assertEquals(4, piece.getX());
+        assertEquals(9, piece.getY());
+        assertEquals(piece.computeHash(), piece.getHash());
+
+        // Os setters antigos continuam escrevendo no mesmo 'int'
+        piece.setY(10);
+        assertEquals(PackedPiece.of(PieceType.T, 2, 4, 10), piece.getState());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> piece.setState(PackedPiece.of(PieceType.Z, 0, 0, 0)));
+    }
+
+    @Test
+    void testDefinicoesCompartilhadas() {
+        assertSame(PieceDefinition.of(PieceType.J), PieceDefinition.of(PieceType.J.ordinal()));
+        assertSame(PieceShapes.get(PieceType.J, 1), PieceDefinition.of(PieceType.J).getShape(1));
+        assertEquals(7, PieceDefinition.count());
+        assertThrows(IllegalArgumentException.class, () -> PieceDefinition.of(PieceType.LOCKED));
+    }
+
+    @Test
+    void testRotacoesRepetidas() {
+        assertEquals(1, distinctRotations(PieceType.O));
+        assertEquals(2, distinctRotations(PieceType.I));
+        assertEquals(2, distinctRotations(PieceType.S));
+        assertEquals(2, distinctRotations(PieceType.Z));
+        assertEquals(4, distinctRotations(PieceType.T));
+        assertEquals(4, distinctRotations(PieceType.J));
+        assertEquals(4, distinctRotations(PieceType.L));
+    }
+
+    private static int distinctRotations(PieceType type) {
+        PieceDefinition definition = PieceDefinition.of(type);
+        int count = 0;
+        for (int r = 0; r < definition.getRotationCount(); r++) {
+            if (!definition.isDuplicateRotation(r)) count++;
+        }
+        return count;
+    }
+}
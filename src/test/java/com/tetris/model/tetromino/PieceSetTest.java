@@ -0,0 +1,136 @@
+package com.tetris.model.tetromino;
+
+import com.tetris.model.Board;
+import com.tetris.model.PieceType;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa a biblioteca genérica de peças (Polyomino / PieceSet).
+ */
+class PieceSetTest {
+
+    @Test
+    void testQuantidadeDePecasGeradas() {
+        assertEquals(1, PieceSet.oneSided(1).size());
+        assertEquals(1, PieceSet.oneSided(2).size());
+        assertEquals(2, PieceSet.oneSided(3).size());
+        assertEquals(7, PieceSet.oneSided(4).size());
+        assertEquals(18, PieceSet.oneSided(5).size());
+        assertEquals(60, PieceSet.oneSided(6).size());
+    }
+
+    @Test
+    void testConjuntosNomeadosBatemComAEnumeracao() {
+        assertEquals(canonicalKeys(PieceSet.oneSided(4)), canonicalKeys(PieceSet.TETROMINOES));
+        assertEquals(canonicalKeys(PieceSet.oneSided(5)), canonicalKeys(PieceSet.PENTOMINOES));
+    }
+
+    @Test
+    void testRotacoesDistintas() {
+        PieceSet set = PieceSet.TETROMINOES;
+        assertEquals(1, set.find("O").getRotationCount());
+        assertEquals(2, set.find("I").getRotationCount());
+        assertEquals(2, set.find("S").getRotationCount());
+        assertEquals(4, set.find("T").getRotationCount());
+        assertEquals(1, PieceSet.PENTOMINOES.find("X").getRotationCount());
+        assertEquals(2, PieceSet.PENTOMINOES.find("Z").getRotationCount()); // Simetria de 180°
+        assertEquals(4, PieceSet.PENTOMINOES.find("F").getRotationCount());
+        assertEquals(2, set.find("T").rotate(0, -2));
+        assertEquals(1, set.find("I").rotate(0, 3));
+    }
+
+    @Test
+    void testFormasGeradasBatemComAsClassesEscritasAMao() {
+        // Mesmas células (a menos de deslocamento) das matrizes 5x5 das classes, em algum estado
+        String[] names = {"I", "J", "L", "O", "S", "T", "Z"};
+        for (int t = 0; t < names.length; t++) {
+            Polyomino generated = PieceSet.TETROMINOES.find(names[t]);
+            PieceType type = PieceType.values()[t];
+            for (int r = 0; r < generated.getRotationCount(); r++) {
+                boolean found = false;
+                for (int h = 0; h < 4 && !found; h++) {
+                    found = sameFootprint(generated.getShape(r), PieceShapes.get(type, h));
+                }
+                assertTrue(found, names[t] + " rotação " + r);
+            }
+        }
+    }
+
+    @Test
+    void testRotacaoGiraNaCaixa() {
+        Polyomino t = PieceSet.TETROMINOES.find("T");
+        assertEquals(3, t.getBoxSize());
+        // .X. / XXX -> (horário) .X. / .XX / .X.
+        assertArrayEquals(new int[]{0b010, 0b110, 0b010}, t.getShape(1).getRowMasks());
+        assertEquals(4, t.getShape(1).getCellCount());
+    }
+
+    @Test
+    void testNascimentoCentralizado() {
+        Polyomino i = PieceSet.PENTOMINOES.find("I");
+        assertEquals(2, i.spawnX(Board.WIDTH)); // 5 colunas centralizadas em 10
+        assertEquals(0, i.spawnY());
+
+        Board board = new Board();
+        for (int p = 0; p < PieceSet.PENTOMINOES.size(); p++) {
+            Polyomino piece = PieceSet.PENTOMINOES.get(p);
+            PieceShape shape = piece.getShape(0);
+            int x = piece.spawnX(Board.WIDTH);
+            int y = piece.spawnY();
+            assertTrue(board.isValidPosition(shape, x, y), piece.getName());
+            assertEquals(0, y + shape.getMinY(), piece.getName() + " deveria encostar no topo");
+        }
+    }
+
+    @Test
+    void testPentominoNoTabuleiro() {
+        Board board = new Board();
+        Polyomino u = PieceSet.PENTOMINOES.find("U"); // X.X / XXX
+        PieceShape shape = u.getShape(0);
+        int distance = board.dropDistance(shape, 0, 0);
+        assertEquals(Board.HEIGHT - 2, distance);
+        board.placePiece(shape, 0, distance);
+        assertEquals(0b101, board.getRowMask(Board.HEIGHT - 2));
+        assertEquals(0b111, board.getRowMask(Board.HEIGHT - 1));
+    }
+
+    @Test
+    void testDefinicoesInvalidas() {
+        assertThrows(IllegalArgumentException.class, () -> PieceSet.parse("semIgual"));
+        assertThrows(IllegalArgumentException.class, () -> PieceSet.parse("A=X?X"));
+        assertThrows(IllegalArgumentException.class, () -> PieceSet.parse("A=..."));
+        assertThrows(IllegalArgumentException.class, () -> new Polyomino("dup", new int[][]{{0, 0}, {0, 0}}));
+        assertThrows(IllegalArgumentException.class, () -> PieceSet.oneSided(0));
+    }
+
+    private static Set<String> canonicalKeys(PieceSet set) {
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < set.size(); i++) {
+            Polyomino piece = set.get(i);
+            PieceShape shape = piece.getShape(0);
+            int[][] cells = new int[shape.getCellCount()][];
+            for (int c = 0; c < cells.length; c++) {
+                cells[c] = new int[]{shape.getCellX(c), shape.getCellY(c)};
+            }
+            assertTrue(keys.add(PieceSet.canonicalKey(cells)), "Peça repetida: " + piece.getName());
+        }
+        return keys;
+    }
+
+    private static boolean sameFootprint(PieceShape a, PieceShape b) {
+        if (a.getCellCount() != b.getCellCount()) return false;
+        int dx = b.getMinX() - a.getMinX();
+        int dy = b.getMinY() - a.getMinY();
+        for (int i = 0; i < a.getCellCount(); i++) {
+            if (((b.getRowMask(a.getCellY(i) + dy) >>> (a.getCellX(i) + dx)) & 1) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,90 @@
+package com.tetris.model.tetromino;
+
+import com.tetris.model.PieceType;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa as formas pré-compiladas (PieceShape) e a tabela PieceShapes:
+ * tudo o que foi pré-calculado tem que bater com a varredura da matriz.
+ */
+class PieceShapeTest {
+
+    private static final PieceType[] PIECES = {
+            PieceType.I, PieceType.J, PieceType.L, PieceType.O,
+            PieceType.S, PieceType.T, PieceType.Z
+    };
+
+    @Test
+    void testTabelaBateComAsMatrizes() {
+        for (PieceType type : PIECES) {
+            assertEquals(4, PieceShapes.rotationCount(type));
+            for (int r = 0; r < 4; r++) {
+                PieceShape shape = PieceShapes.get(type, r);
+                int[][] matrix = shape.getMatrix();
+
+                assertEquals(4, shape.getCellCount(), type + " rot " + r);
+                int cells = 0;
+                int minX = 99, maxX = -1, minY = 99, maxY = -1;
+                for (int y = 0; y < matrix.length; y++) {
+                    int mask = 0;
+                    for (int x = 0; x < matrix[y].length; x++) {
+                        if (matrix[y][x] != 0) {
+                            cells++;
+                            mask |= 1 << x;
+                            minX = Math.min(minX, x);
+                            maxX = Math.max(maxX, x);
+                            minY = Math.min(minY, y);
+                            maxY = Math.max(maxY, y);
+                        }
+                    }
+                    assertEquals(mask, shape.getRowMask(y), type + " rot " + r + " linha " + y);
+                }
+                assertEquals(cells, shape.getCellCount());
+                assertEquals(minX, shape.getMinX());
+                assertEquals(maxX, shape.getMaxX());
+                assertEquals(minY, shape.getMinY());
+                assertEquals(maxY, shape.getMaxY());
+
+                for (int i = 0; i < shape.getCellCount(); i++) {
+                    assertEquals(1, matrix[shape.getCellY(i)][shape.getCellX(i)]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testFormaForaDaMatrizEhVazia() {
+        PieceShape shape = PieceShapes.get(PieceType.T, 0);
+        assertEquals(0, shape.getRowMask(-1));
+        assertEquals(0, shape.getRowMask(5));
+    }
+
+    @Test
+    void testPecasCompartilhamATabela() {
+        Tetromino a = new TPiece();
+        Tetromino b = new TPiece();
+        assertSame(a.getPieceShape(), b.getPieceShape());
+        assertSame(PieceShapes.get(PieceType.T, 0), a.getPieceShape());
+
+        a.rotate();
+        assertSame(PieceShapes.get(PieceType.T, 1), a.getPieceShape());
+        assertSame(PieceShapes.get(PieceType.T, 2), a.getNextPieceShape());
+        // A matriz exposta continua a mesma da tabela
+        assertSame(PieceShapes.get(PieceType.T, 1).getMatrix(), a.getShape());
+    }
+
+    @Test
+    void testTiposQueNaoSaoPecas() {
+        assertThrows(IllegalArgumentException.class, () -> PieceShapes.get(PieceType.LOCKED, 0));
+        assertThrows(IllegalArgumentException.class, () -> PieceShapes.rotationCount(PieceType.GHOST));
+    }
+
+    @Test
+    void testFormaVazia() {
+        PieceShape empty = PieceShape.compile(new int[][]{{0, 0}, {0, 0}});
+        assertEquals(0, empty.getCellCount());
+        assertEquals(0, empty.getBoxWidth());
+        assertEquals(0, empty.getBoxHeight());
+    }
+}
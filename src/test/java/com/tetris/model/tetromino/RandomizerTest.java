@@ -0,0 +1,183 @@
+package com.tetris.model.tetromino;
+
+import com.tetris.model.PieceType;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa os geradores de peças com semente e a fila de pré-visualização.
+ */
+class RandomizerTest {
+
+    @Test
+    void testMesmaSementeMesmaSequencia() {
+        for (Randomizer.Kind kind : Randomizer.Kind.values()) {
+            Randomizer a = kind.create(1234);
+            Randomizer b = kind.create(1234);
+            Randomizer c = kind.create(4321);
+            boolean differs = false;
+            for (int i = 0; i < 500; i++) {
+                int piece = a.next();
+                assertEquals(piece, b.next(), kind + " na peça " + i);
+                assertTrue(piece >= 0 && piece < 7);
+                differs |= piece != c.next();
+            }
+            assertTrue(differs, kind + ": sementes diferentes deveriam dar sequências diferentes");
+        }
+    }
+
+    @Test
+    void testSacoDeSete() {
+        Randomizer bag = new BagRandomizer(99);
+        for (int group = 0; group < 200; group++) {
+            boolean[] seen = new boolean[7];
+            for (int i = 0; i < 7; i++) {
+                int piece = bag.next();
+                assertFalse(seen[piece], "Peça repetida no mesmo saco: " + PieceType.values()[piece]);
+                seen[piece] = true;
+            }
+        }
+    }
+
+    @Test
+    void testHistoricoEvitaRepeticoes() {
+        int repeats = 0;
+        int total = 20_000;
+        for (long seed = 0; seed < 20; seed++) {
+            Randomizer history = new HistoryRandomizer(seed);
+            int first = history.next();
+            assertTrue(first == PieceType.I.ordinal() || first == PieceType.J.ordinal()
+                    || first == PieceType.L.ordinal() || first == PieceType.T.ordinal(),
+                    "A primeira peça não pode ser S, Z ou O");
+            int previous = first;
+            for (int i = 0; i < total / 20; i++) {
+                int piece = history.next();
+                if (piece == previous) repeats++;
+                previous = piece;
+            }
+        }
+        // Uniforme repetiria ~1/7 (14%); com 6 sorteios contra um histórico de 4, bem menos
+        assertTrue(repeats < total / 50, "Repetições demais: " + repeats);
+    }
+
+    @Test
+    void testUniformeUsaTodasAsPecas() {
+        int[] counts = new int[7];
+        Randomizer uniform = new UniformRandomizer(5);
+        for (int i = 0; i < 7_000; i++) {
+            counts[uniform.next()]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 800 && count < 1200, "Distribuição estranha: " + count);
+        }
+    }
+
+    @Test
+    void testFilaMostraAsProximasNaOrdem() {
+        PieceQueue queue = new PieceQueue(new BagRandomizer(7), 5);
+        Randomizer reference = new BagRandomizer(7);
+        int[] expected = new int[1000];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = reference.next();
+        }
+
+        assertEquals(5, queue.getDepth());
+        for (int i = 0; i + 5 < expected.length; i++) {
+            for (int k = 0; k < 5; k++) {
+                assertEquals(expected[i + k], queue.peek(k), "posição " + k + " após " + i + " peças");
+            }
+            assertEquals(PieceDefinition.of(expected[i]).getType(), queue.peekType(0));
+            assertEquals(expected[i], queue.next());
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> queue.peek(5));
+    }
+
+    @Test
+    void testFilaDeUmaPeca() {
+        PieceQueue queue = new PieceQueue(new UniformRandomizer(3), 1);
+        Randomizer reference = new UniformRandomizer(3);
+        for (int i = 0; i < 50; i++) {
+            assertEquals(reference.next(), queue.next());
+        }
+        queue.replaceFront(PieceType.O.ordinal());
+        assertEquals(PieceType.O.ordinal(), queue.peek(0));
+        assertThrows(IllegalArgumentException.class, () -> new PieceQueue(new UniformRandomizer(3), 0));
+    }
+
+    @Test
+    void testSplitMixIgualAoSplittableRandom() {
+        java.util.SplittableRandom reference = new java.util.SplittableRandom(123);
+        SplitMix64 random = new SplitMix64(123);
+        for (int i = 0; i < 10_000; i++) {
+            int bound = 1 + i % 13;
+            assertEquals(reference.nextInt(bound), random.nextInt(bound));
+        }
+    }
+
+    @Test
+    void testCopiaContinuaAMesmaSequencia() {
+        for (Randomizer.Kind kind : Randomizer.Kind.values()) {
+            Randomizer original = kind.create(99);
+            for (int i = 0; i < 10; i++) {
+                original.next(); // Meio de um saco / histórico já girando
+            }
+            Randomizer copy = original.copy();
+            Randomizer reused = kind.create(1);
+            reused.copyFrom(original);
+            assertEquals(kind, copy.getKind());
+            for (int i = 0; i < 100; i++) {
+                int expected = original.next();
+                assertEquals(expected, copy.next(), kind + " (copy)");
+                assertEquals(expected, reused.next(), kind + " (copyFrom)");
+            }
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new BagRandomizer(1).copyFrom(new UniformRandomizer(1)));
+    }
+
+    @Test
+    void testCopiaDaFila() {
+        PieceQueue queue = new PieceQueue(new BagRandomizer(5), 5);
+        queue.next();
+        queue.next();
+        PieceQueue copy = new PieceQueue(queue);
+        PieceQueue reused = new PieceQueue(new BagRandomizer(8), 5);
+        reused.copyFrom(queue);
+        for (int i = 0; i < 50; i++) {
+            int expected = queue.next();
+            assertEquals(expected, copy.next());
+            assertEquals(expected, reused.next());
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new PieceQueue(new BagRandomizer(5), 3).copyFrom(queue));
+    }
+
+    @Test
+    void testFilaEmBytesContinuaAMesmaSequencia() {
+        for (Randomizer.Kind kind : Randomizer.Kind.values()) {
+            PieceQueue queue = new PieceQueue(kind.create(42), 5);
+            for (int i = 0; i < 10; i++) {
+                queue.next();
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(PieceQueue.maxEncodedSize(5));
+            queue.writeTo(buffer);
+            buffer.flip();
+            PieceQueue read = PieceQueue.readFrom(buffer);
+            assertFalse(buffer.hasRemaining(), kind + ": deveria ler exatamente o que escreveu");
+            assertEquals(kind, read.getRandomizer().getKind());
+            assertEquals(42, read.getRandomizer().getSeed());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(queue.next(), read.next(), kind + ": peça " + i);
+            }
+        }
+
+        ByteBuffer invalid = ByteBuffer.allocate(PieceQueue.maxEncodedSize(5));
+        new PieceQueue(new BagRandomizer(1), 5).writeTo(invalid);
+        invalid.put(1 + 8 + 8, invalid.get(1 + 8 + 8 + 1)); // Peça repetida no saco
+        invalid.flip();
+        assertThrows(IllegalArgumentException.class, () -> PieceQueue.readFrom(invalid));
+    }
+}
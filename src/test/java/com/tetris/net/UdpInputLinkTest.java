@@ -0,0 +1,103 @@
+package com.tetris.net;
+
+import com.tetris.model.tetromino.Randomizer;
+import com.tetris.simulation.GameConfig;
+import com.tetris.simulation.Input;
+import com.tetris.simulation.InputPolicy;
+import com.tetris.simulation.RandomAgent;
+import com.tetris.simulation.RollbackSession;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dois pares na mesma JVM, cada um com a sua sessão de rollback, trocando
+ * entradas por UDP no loopback: no fim os dois têm o mesmo jogo.
+ */
+class UdpInputLinkTest {
+
+    @Test
+    void testDoisParesNoLoopbackTerminamSincronizados() throws Exception {
+        GameConfig config = new GameConfig();
+        config.setRandomizer(Randomizer.Kind.BAG);
+        config.setLineClearFrames(20);
+        RollbackSession[] peers = {
+                new RollbackSession(config, 5L, 2, 0),
+                new RollbackSession(config, 5L, 2, 1)
+        };
+        InputPolicy[] agents = {new RandomAgent(10, 5), new RandomAgent(20, 5)};
+        InetSocketAddress any = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (UdpInputLink a = new UdpInputLink(peers[0], 1, DatagramChannel.open().bind(any));
+             UdpInputLink b = new UdpInputLink(peers[1], 0, DatagramChannel.open().bind(any))) {
+            a.connect(b.getLocalAddress());
+            b.connect(a.getLocalAddress());
+            UdpInputLink[] links = {a, b};
+
+            int frames = 600;
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while ((peers[0].getConfirmedFrame() < frames || peers[1].getConfirmedFrame() < frames)
+                    && System.nanoTime() < deadline) {
+                for (int p = 0; p < 2; p++) {
+                    links[p].poll();
+                    if (peers[p].getCurrentFrame() <= frames) {
+                        peers[p].addLocalInput(agents[p].nextInputs(peers[p].getPlayer(p)));
+                        if (!peers[p].advanceFrame()) {
+                            Thread.onSpinWait(); // Esperando o outro lado
+                        }
+                    }
+                    links[p].send();
+                }
+            }
+            assertTrue(peers[0].getConfirmedFrame() >= frames, "As entradas não chegaram pelo loopback");
+            assertTrue(peers[1].getConfirmedFrame() >= frames);
+            // Os dois param no mesmo quadro, já com todas as entradas reais
+            for (RollbackSession peer : peers) {
+                peer.advanceFrame(); // Corrige alguma previsão pendente
+            }
+            assertEquals(peers[0].getCurrentFrame(), peers[1].getCurrentFrame());
+            assertEquals(peers[0].getChecksum(), peers[1].getChecksum(), "Os pares dessincronizaram");
+            assertTrue(a.getPacketsReceived() > 0 && b.getPacketsReceived() > 0);
+        }
+    }
+
+    @Test
+    void testPacotesForaDaJanelaSaoDescartados() throws Exception {
+        RollbackSession session = new RollbackSession(new GameConfig(), 5L, 2, 0);
+        InetSocketAddress any = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        try (DatagramChannel peer = DatagramChannel.open().bind(any);
+             UdpInputLink link = new UdpInputLink(session, 1, DatagramChannel.open().bind(any))) {
+            link.connect((InetSocketAddress) peer.getLocalAddress());
+            peer.connect(link.getLocalAddress());
+
+            peer.write(packet(1, 1_000_000L, Input.LEFT));       // Muito à frente da sessão
+            peer.write(packet(1, Long.MAX_VALUE, Input.LEFT));   // Lixo
+            peer.write(packet(0, 0L, Input.LEFT));               // O jogador local
+            peer.write(ByteBuffer.wrap(new byte[]{1, 2, 3}));    // Curto demais
+            peer.write(packet(1, 0L, Input.LEFT, Input.NONE, Input.RIGHT));
+
+            long deadline = System.nanoTime() + 2_000_000_000L;
+            int read = 0;
+            while (session.getConfirmedFrame(1) < 2 && System.nanoTime() < deadline) {
+                read += link.poll(); // Não lança: os ruins não derrubam o bom
+            }
+            assertEquals(1, read);
+            assertEquals(4, link.getPacketsDropped());
+            assertEquals(2, session.getConfirmedFrame(1), "As entradas do pacote bom chegaram");
+        }
+    }
+
+    /** Um pacote no formato do {@link UdpInputLink}, sem confirmação. */
+    private static ByteBuffer packet(int player, long first, int... inputs) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 8 + 2 + inputs.length);
+        buffer.put((byte) player).putLong(first).putLong(-1).putShort((short) inputs.length);
+        for (int input : inputs) {
+            buffer.put((byte) input);
+        }
+        return buffer.flip();
+    }
+}
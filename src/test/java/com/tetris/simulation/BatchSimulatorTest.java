@@ -0,0 +1,95 @@
+package com.tetris.simulation;
+
+import com.tetris.model.tetromino.Randomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa o lote de jogos em paralelo: resultados iguais com qualquer número
+ * de threads, as distribuições agregadas e a verificação de replays em lote.
+ */
+class BatchSimulatorTest {
+
+    private static GameConfig sprint() {
+        GameConfig config = new GameConfig();
+        config.setRandomizer(Randomizer.Kind.BAG);
+        config.setLineGoal(40);
+        return config;
+    }
+
+    @Test
+    void testResultadoNaoDependeDoNumeroDeThreads() {
+        BatchResult single = new BatchSimulator(1).run(sprint(), 100, 8, (seed, s) -> new SimpleBot(s.getBoard()));
+        BatchResult parallel = new BatchSimulator(4).run(sprint(), 100, 8, (seed, s) -> new SimpleBot(s.getBoard()));
+        assertEquals(8, parallel.getGames());
+        for (int game = 0; game < 8; game++) {
+            assertEquals(100 + game, parallel.getSeed(game));
+            assertEquals(single.getScore(game), parallel.getScore(game), "Jogo " + game);
+            assertEquals(single.getFrames(game), parallel.getFrames(game));
+            assertTrue(parallel.getLines(game) >= 40);
+        }
+        assertEquals(0, parallel.getGameOverCount());
+    }
+
+    @Test
+    void testAgenteAleatorioAteOFim() {
+        GameConfig config = new GameConfig();
+        BatchResult result = new BatchSimulator(2).run(config, 1, 20, (seed, s) -> new RandomAgent(seed, 4));
+        assertEquals(20, result.getGameOverCount(), "Jogando ao acaso, todo jogo acaba");
+
+        BatchResult.Distribution duration = result.getDurationDistribution();
+        assertTrue(duration.getMin() > 0);
+        assertTrue(duration.getMin() <= duration.percentile(50));
+        assertTrue(duration.percentile(50) <= duration.getMax());
+        assertTrue(result.getPiecesPerSecondDistribution().getMean() > 0);
+        assertTrue(result.getFramesPerSecond() > 0);
+        assertThrows(IllegalArgumentException.class, () -> duration.percentile(101));
+    }
+
+    @Test
+    void testLimiteDeQuadros() {
+        GameConfig config = new GameConfig();
+        config.setMaxFrames(300);
+        BatchResult result = new BatchSimulator(2).run(config, 5, 4, (seed, s) -> sim -> Input.NONE);
+        for (int game = 0; game < 4; game++) {
+            assertEquals(300, result.getFrames(game));
+            assertFalse(result.isGameOver(game));
+        }
+    }
+
+    @Test
+    void testReplaysEmLote() {
+        List<Replay> replays = new ArrayList<>();
+        for (long seed = 0; seed < 6; seed++) {
+            GameSimulation simulation = sprint().newSimulation(seed);
+            ReplayRecorder recorder = new ReplayRecorder();
+            simulation.setRecorder(recorder);
+            simulation.initializeGame();
+            SimpleBot bot = new SimpleBot(simulation.getBoard());
+            while (!sprint().isFinished(simulation)) {
+                simulation.step(bot.nextInputs(simulation));
+            }
+            replays.add(recorder.finish(simulation));
+        }
+        BatchResult result = new BatchSimulator(3).runReplays(replays);
+        assertEquals(0, result.getMismatchCount());
+        assertEquals(replays.get(2).getFinalScore(), result.getScore(2));
+
+        byte[] bytes = replays.get(4).toBytes();
+        bytes[12] ^= 1; // Outra semente
+        replays.set(4, Replay.fromBytes(bytes));
+        assertEquals(1, new BatchSimulator(3).runReplays(replays).getMismatchCount());
+    }
+
+    @Test
+    void testConfiguracaoInvalida() {
+        GameConfig config = new GameConfig();
+        assertThrows(IllegalArgumentException.class,
+                () -> config.setLineClearFrames(GameSimulation.MANUAL_LINE_CLEAR));
+        assertThrows(IllegalArgumentException.class, () -> new BatchSimulator(0));
+    }
+}
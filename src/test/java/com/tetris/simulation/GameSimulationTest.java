@@ -0,0 +1,311 @@
+package com.tetris.simulation;
+
+import com.tetris.model.Board;
+import com.tetris.model.GameState;
+import com.tetris.model.PieceType;
+import com.tetris.model.tetromino.PackedPiece;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static com.tetris.Allocations.assertNoAllocation;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa a simulação sem JavaFX: passo de tempo fixo, determinismo por
+ * semente, a publicação dos deltas por quadro e um jogo completo de 40
+ * linhas jogado por um bot.
+ */
+class GameSimulationTest {
+
+    private GameSimulation simulation;
+
+    @BeforeEach
+    void setUp() {
+        simulation = new GameSimulation();
+        simulation.setSeed(7L);
+        simulation.initializeGame();
+    }
+
+    @Test
+    void testGravidadeEmQuadros() {
+        int y = simulation.getCurrentPiece().getY();
+        assertEquals(GameSimulation.FPS - 1, simulation.tick(GameSimulation.FPS - 1));
+        assertEquals(y, simulation.getCurrentPiece().getY(), "A peça desceu antes de 1 s (60 quadros)");
+
+        simulation.step(Input.NONE);
+        assertEquals(y + 1, simulation.getCurrentPiece().getY());
+        assertEquals(GameSimulation.FPS, simulation.getFrame());
+    }
+
+    @Test
+    void testCurvasDeGravidade() {
+        int frame = GravityCurve.FRAME_UNIT;
+        assertEquals(60 * frame, GravityCurve.CLASSIC.framesPerRow(1));
+        assertEquals(42 * frame, GravityCurve.CLASSIC.framesPerRow(4));
+        assertEquals(24 * frame, GravityCurve.CLASSIC.framesPerRow(99));
+        assertEquals(60 * frame, GravityCurve.GUIDELINE.framesPerRow(1));
+        assertEquals(frame / 20, GravityCurve.GUIDELINE.framesPerRow(20), "Nível 20 do guideline = 20G");
+        assertEquals(48 * frame, GravityCurve.NES.framesPerRow(1));
+        assertEquals(frame, GravityCurve.NES.framesPerRow(30));
+        for (GravityCurve curve : GravityCurve.values()) {
+            for (int level = 2; level <= 40; level++) {
+                assertTrue(curve.framesPerRow(level) <= curve.framesPerRow(level - 1), curve + " nível " + level);
+            }
+        }
+    }
+
+    @Test
+    void testGravidadeFracionariaNaoPerdeLinhas() {
+        GameSimulation tall = new GameSimulation(10, 80);
+        tall.setGravityCurve(GravityCurve.GUIDELINE);
+        tall.setSeed(7L);
+        tall.initializeGame();
+        tall.setLevel(8); // ~8,1 quadros por linha
+        int y = tall.getCurrentPiece().getY();
+        tall.tick(400);
+        long expected = 400L * GravityCurve.FRAME_UNIT / tall.getFramesPerRow();
+        assertEquals(expected, tall.getCurrentPiece().getY() - y);
+    }
+
+    @Test
+    void testVinteGCaiAteOFundoEEsperaOAtraso() {
+        simulation.setGravityCurve(GravityCurve.GUIDELINE);
+        simulation.initializeGame();
+        simulation.setLevel(20);
+        simulation.step(Input.NONE);
+        assertEquals(0, simulation.getBoard().dropDistance(simulation.getCurrentPiece().getState()),
+                "20G: no fundo no primeiro quadro");
+        assertEquals(0, simulation.getLockCount(), "Encostar não trava na hora");
+
+        simulation.step(Input.SOFT_DROP);
+        assertEquals(0, simulation.getScore(), "Queda suave encostada não faz nada");
+        simulation.tick(GravityCurve.GUIDELINE.getLockDelayFrames() - 3);
+        assertEquals(0, simulation.getLockCount());
+        simulation.step(Input.NONE);
+        assertEquals(1, simulation.getLockCount(), "Travou depois de meio segundo encostada");
+    }
+
+    @Test
+    void testVinteGEInstantaneoEmTabuleiroAlto() {
+        GameSimulation tall = new GameSimulation(10, 80);
+        tall.setGravityCurve(GravityCurve.GUIDELINE);
+        tall.setSeed(7L);
+        tall.initializeGame();
+        tall.setLevel(20);
+        assertEquals(GravityCurve.TWENTY_G, tall.getFramesPerRow());
+        tall.step(Input.NONE);
+        assertEquals(0, tall.getBoard().dropDistance(tall.getCurrentPiece().getState()),
+                "20G: no fundo do tabuleiro de 80 linhas no primeiro quadro");
+    }
+
+    @Test
+    void testMoveResetTemLimite() {
+        simulation.setGravityCurve(GravityCurve.GUIDELINE);
+        simulation.initializeGame();
+        simulation.setLevel(20);
+        int frames = 0;
+        while (simulation.getLockCount() == 0 && frames < 200) {
+            simulation.step((frames & 1) == 0 ? Input.LEFT : Input.RIGHT); // Mexe sem parar no chão
+            frames++;
+        }
+        int resets = GravityCurve.GUIDELINE.getMaxLockResets();
+        assertEquals(resets + GravityCurve.GUIDELINE.getLockDelayFrames(), frames,
+                "Cada movimento encostado adia o travamento, só até acabarem os resets");
+    }
+
+    @Test
+    void testEntradasDoQuadro() {
+        int x = simulation.getCurrentPiece().getX();
+        simulation.step(Input.LEFT);
+        assertEquals(x - 1, simulation.getCurrentPiece().getX());
+
+        simulation.step(Input.SOFT_DROP);
+        assertEquals(1, simulation.getScore(), "Queda suave vale 1 ponto");
+
+        simulation.step(Input.HOLD);
+        assertNotNull(simulation.getHeldPiece());
+        assertFalse(simulation.isHoldAvailable());
+    }
+
+    @Test
+    void testPausaNaoPassaTempo() {
+        simulation.togglePause();
+        assertEquals(0, simulation.tick(100));
+        assertEquals(GameState.PAUSED, simulation.step(Input.HARD_DROP));
+        assertEquals(0, simulation.getFrame());
+        simulation.togglePause();
+        assertEquals(GameState.PLAYING, simulation.getState());
+    }
+
+    @Test
+    void testMesmaSementeMesmasEntradasMesmoJogo() {
+        GameSimulation other = new GameSimulation();
+        other.setSeed(7L);
+        other.initializeGame();
+
+        SplittableRandom random = new SplittableRandom(99);
+        for (int frame = 0; frame < 20_000 && simulation.getState() != GameState.GAME_OVER; frame++) {
+            int inputs = random.nextInt(8) == 0 ? random.nextInt(Input.ALL + 1) : Input.NONE;
+            simulation.step(inputs);
+            other.step(inputs);
+            assertEquals(simulation.getPositionHash(), other.getPositionHash(), "Desync no quadro " + frame);
+        }
+        assertEquals(simulation.getScore(), other.getScore());
+        assertEquals(simulation.getFrame(), other.getFrame());
+    }
+
+    @Test
+    void testLimpezaDeLinhasEsperaOsQuadros() {
+        simulation.setLineClearFrames(3);
+        Board board = simulation.getBoard();
+        for (int x = 0; x < Board.WIDTH; x++) {
+            board.setCell(x, Board.HEIGHT - 1, PieceType.LOCKED);
+        }
+        simulation.getCurrentPiece().setY(15);
+        simulation.lockPiece();
+        assertEquals(GameState.LINE_CLEARING, simulation.getState());
+        assertEquals(1, simulation.getClearingLineCount());
+        assertEquals(Board.HEIGHT - 1, simulation.getClearingLine(0));
+
+        simulation.tick(3);
+        assertEquals(GameState.LINE_CLEARING, simulation.getState());
+        simulation.tick(1);
+        assertEquals(GameState.PLAYING, simulation.getState());
+        assertEquals(1, simulation.getLinesCleared());
+        assertEquals(40, simulation.getScore());
+    }
+
+    @Test
+    void testTickParaNoGameOver() {
+        Board board = simulation.getBoard();
+        for (int y = 2; y < Board.HEIGHT; y++) {
+            for (int x = 0; x < Board.WIDTH - 1; x++) {
+                board.setCell(x, y, PieceType.LOCKED);
+            }
+        }
+        int simulated = simulation.tick(100_000);
+        assertEquals(GameState.GAME_OVER, simulation.getState());
+        assertTrue(simulated < 100_000);
+        assertEquals(0, simulation.tick(10), "Depois do fim o tempo não anda");
+    }
+
+    @Test
+    void testJogoDe40LinhasSemJavaFX() {
+        SimpleBot bot = new SimpleBot(simulation.getBoard());
+        while (simulation.getLinesCleared() < 40 && simulation.getState() != GameState.GAME_OVER
+                && simulation.getFrame() < 100_000) {
+            simulation.step(bot.nextInputs(simulation));
+        }
+        assertTrue(simulation.getLinesCleared() >= 40,
+                "O bot fez só " + simulation.getLinesCleared() + " linhas (" + simulation.getState() + ")");
+        assertEquals(simulation.computePositionHash(), simulation.getPositionHash());
+    }
+
+    @Test
+    void testUmDeltaPorQuadroComTudoQueMudou() {
+        DeltaRing ring = new DeltaRing(4, Board.HEIGHT);
+        simulation.setEventRing(ring);
+        StateDelta merged = new StateDelta(Board.HEIGHT);
+
+        assertTrue(simulation.flushEvents());
+        assertEquals(1, ring.drainInto(merged));
+        assertEquals(StateDelta.ALL, merged.getChanges(), "O primeiro delta traz tudo");
+        merged.clearChanges();
+
+        simulation.step(Input.NONE);
+        assertEquals(0, ring.size(), "Nada mudou, nada publicado");
+
+        simulation.step(Input.HARD_DROP);
+        assertEquals(1, ring.drainInto(merged), "Mover, travar, pontuar e nascer viram um delta só");
+        assertTrue(merged.changed(StateDelta.SCORE | StateDelta.CURRENT | StateDelta.BOARD | StateDelta.PIECES));
+        assertFalse(merged.changed(StateDelta.LEVEL | StateDelta.LINES | StateDelta.STATE));
+        assertEquals(simulation.getScore(), merged.getScore());
+        assertEquals(simulation.getCurrentPiece().getState(), merged.getCurrent());
+        assertEquals(simulation.getFrame(), merged.getFrame());
+    }
+
+    @Test
+    void testAnelCheioAcumulaParaOProximoDelta() {
+        DeltaRing ring = new DeltaRing(2, Board.HEIGHT);
+        simulation.setEventRing(ring);
+        simulation.step(Input.LEFT);
+        simulation.step(Input.RIGHT);
+        simulation.step(Input.HARD_DROP); // Anel cheio: não sai agora
+        simulation.step(Input.LEFT);
+        assertEquals(2, ring.size());
+
+        StateDelta merged = new StateDelta(Board.HEIGHT);
+        assertEquals(2, ring.drainInto(merged));
+        merged.clearChanges();
+        assertTrue(simulation.flushEvents());
+        ring.drainInto(merged);
+        assertTrue(merged.changed(StateDelta.SCORE | StateDelta.BOARD), "A queda rápida ficou acumulada");
+        assertEquals(simulation.getScore(), merged.getScore());
+        assertEquals(simulation.getCurrentPiece().getState(), merged.getCurrent());
+    }
+
+    @Test
+    void testFantasmaSoRecalculaQuandoPrecisa() {
+        int ghost = simulation.getGhostPiece();
+        int current = simulation.getCurrentPiece().getState();
+        assertEquals(PackedPiece.moved(current, 0, simulation.getBoard().dropDistance(current)), ghost);
+        assertEquals(1, simulation.getGhostComputations());
+
+        simulation.tick(3 * GameSimulation.FPS); // Desce 3 linhas pela gravidade
+        simulation.step(Input.SOFT_DROP);
+        for (int i = 0; i < 240; i++) {
+            assertEquals(ghost, simulation.getGhostPiece(), "Descer não muda o pouso");
+        }
+        assertEquals(1, simulation.getGhostComputations());
+
+        simulation.step(Input.LEFT);
+        assertEquals(PackedPiece.moved(ghost, -1, 0), simulation.getGhostPiece());
+        assertEquals(2, simulation.getGhostComputations());
+
+        simulation.step(Input.HARD_DROP); // O tabuleiro muda e nasce outra peça
+        current = simulation.getCurrentPiece().getState();
+        assertEquals(PackedPiece.moved(current, 0, simulation.getBoard().dropDistance(current)),
+                simulation.getGhostPiece());
+        assertEquals(3, simulation.getGhostComputations());
+
+        simulation.togglePause();
+        assertEquals(PackedPiece.NONE, simulation.getGhostPiece(), "Fora de PLAYING não há fantasma");
+        simulation.togglePause();
+
+        sideStepsWithGhost(200); // Aquece
+        assertNoAllocation(() -> sideStepsWithGhost(1000), "Recalcular a fantasma não deveria alocar.");
+    }
+
+    /** Para um lado e para o outro, pedindo a fantasma a cada passo (sempre recalcula). */
+    private void sideStepsWithGhost(int steps) {
+        for (int i = 0; i < steps; i++) {
+            simulation.apply((i & 1) == 0 ? Input.LEFT : Input.RIGHT);
+            simulation.getGhostPiece();
+        }
+    }
+
+    @Test
+    void testPublicarDeltasNaoAloca() {
+        DeltaRing ring = new DeltaRing(4, Board.HEIGHT);
+        simulation.setEventRing(ring);
+        StateDelta merged = new StateDelta(Board.HEIGHT);
+        wiggle(ring, merged, 60); // Aquece (e esvazia o primeiro delta)
+
+        // Rodadas de 60 quadros: no máximo 5 linhas de gravidade no total, sem travar
+        assertNoAllocation(() -> assertEquals(60, wiggle(ring, merged, 60), "Um delta por quadro"),
+                "Publicar e drenar não deveria alocar.");
+    }
+
+    /** Esquerda/direita a cada quadro (sempre muda algo), drenando como a interface faria. */
+    private int wiggle(DeltaRing ring, StateDelta merged, int frames) {
+        int drained = 0;
+        for (int i = 0; i < frames; i++) {
+            simulation.step((i & 1) == 0 ? Input.LEFT : Input.RIGHT);
+            drained += ring.drainInto(merged);
+            merged.clearChanges();
+        }
+        return drained;
+    }
+}
@@ -0,0 +1,205 @@
+package com.tetris.simulation;
+
+import com.tetris.model.GameState;
+import com.tetris.model.tetromino.PackedPiece;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa DAS, ARR e fator de queda suave no relógio da simulação, com
+ * horários escolhidos pelo teste (a simulação não anda: só as teclas mexem).
+ */
+class InputHandlerTest {
+
+    private static final long MS = 1_000_000L;
+
+    private GameSimulation simulation;
+    private InputHandler handler;
+    private InputQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        simulation = new GameSimulation(40, 20); // Largo: as repetições não batem na parede
+        simulation.setSeed(5L);
+        simulation.initializeGame();
+        handler = new InputHandler();
+        handler.setDasMillis(100);
+        handler.setArrMillis(20);
+        handler.setSoftDropFactor(20);
+        queue = handler.getQueue();
+    }
+
+    @Test
+    void testToqueMoveUmaVez() {
+        int x = pieceX();
+        queue.press(Input.LEFT, 0);
+        queue.release(Input.LEFT, 50 * MS);
+        handler.update(simulation, 16 * MS);
+        assertEquals(x - 1, pieceX());
+        handler.update(simulation, 500 * MS);
+        assertEquals(x - 1, pieceX(), "Soltou antes do DAS: não repete");
+        assertEquals(Input.NONE, handler.getHeld());
+    }
+
+    @Test
+    void testDasEArrNoRelogioDaSimulacao() {
+        int x = pieceX();
+        queue.press(Input.RIGHT, 0);
+        handler.update(simulation, 99 * MS);
+        assertEquals(x + 1, pieceX(), "Antes do DAS, só o toque");
+        handler.update(simulation, 100 * MS);
+        assertEquals(x + 2, pieceX(), "No DAS, a primeira repetição");
+        handler.update(simulation, 160 * MS);
+        assertEquals(x + 5, pieceX(), "Repetições em 120, 140 e 160 ms");
+    }
+
+    @Test
+    void testQuadroAtrasadoNaoMudaOResultado() {
+        // Os mesmos eventos, num quadro por vez ou num quadro só bem atrasado
+        queue.press(Input.RIGHT, 0);
+        queue.release(Input.RIGHT, 150 * MS);
+        handler.update(simulation, 400 * MS);
+        int late = pieceX();
+
+        setUp();
+        queue.press(Input.RIGHT, 0);
+        queue.release(Input.RIGHT, 150 * MS);
+        for (long t = 0; t <= 400 * MS; t += GameSimulation.FRAME_NANOS) {
+            handler.update(simulation, t);
+        }
+        assertEquals(pieceX(), late);
+    }
+
+    @Test
+    void testEventoFuturoEsperaOQuadroDele() {
+        int x = pieceX();
+        queue.press(Input.LEFT, 40 * MS);
+        handler.update(simulation, 33 * MS);
+        assertEquals(x, pieceX());
+        assertEquals(1, queue.size());
+        handler.update(simulation, 50 * MS);
+        assertEquals(x - 1, pieceX());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void testArrZeroVaiAteAParede() {
+        handler.setArrMillis(0);
+        queue.press(Input.LEFT, 0);
+        handler.update(simulation, 100 * MS);
+        int piece = simulation.getCurrentPiece().getState();
+        assertFalse(simulation.getBoard().isValidPosition(PackedPiece.moved(piece, -1, 0)), "Não chegou na parede");
+        int events = recordedEventsAfter(() -> handler.update(simulation, 200 * MS));
+        assertEquals(0, events, "Na parede, passos que falham não viram entrada");
+    }
+
+    @Test
+    void testRepeticaoDoSistemaEIgnorada() {
+        int x = pieceX();
+        queue.press(Input.LEFT, 0);
+        queue.press(Input.LEFT, 30 * MS); // Repetição de tecla do sistema
+        queue.press(Input.LEFT, 63 * MS);
+        handler.update(simulation, 90 * MS);
+        assertEquals(x - 1, pieceX());
+    }
+
+    @Test
+    void testDirecaoMaisRecenteManda() {
+        int x = pieceX();
+        queue.press(Input.LEFT, 0);
+        queue.press(Input.RIGHT, 50 * MS);
+        handler.update(simulation, 60 * MS);
+        assertEquals(x, pieceX(), "Um toque para cada lado");
+
+        queue.release(Input.RIGHT, 70 * MS);
+        handler.update(simulation, 169 * MS);
+        assertEquals(x, pieceX(), "A esquerda volta a valer só depois de um DAS novo");
+        handler.update(simulation, 170 * MS);
+        assertEquals(x - 1, pieceX());
+    }
+
+    @Test
+    void testFatorDeQuedaSuave() {
+        // Nível 1: uma linha por segundo; fator 20 = uma linha a cada 50 ms
+        int y = pieceY();
+        int score = simulation.getScore();
+        queue.press(Input.SOFT_DROP, 0);
+        handler.update(simulation, 249 * MS);
+        assertEquals(y + 1 + 4, pieceY(), "O toque + 4 linhas em 249 ms");
+        assertEquals(score + 5, simulation.getScore(), "1 ponto por linha de queda suave");
+    }
+
+    @Test
+    void testQuedaSuaveInstantaneaNaoTravaAPeca() {
+        handler.setSoftDropFactor(InputHandler.INSTANT_SOFT_DROP);
+        long locks = simulation.getLockCount();
+        queue.press(Input.SOFT_DROP, 0);
+        handler.update(simulation, 500 * MS);
+        assertEquals(0, simulation.getBoard().dropDistance(simulation.getCurrentPiece().getState()));
+        assertEquals(locks, simulation.getLockCount(), "A queda suave encosta, quem trava é a gravidade");
+        assertEquals(GameState.PLAYING, simulation.getState());
+    }
+
+    @Test
+    void testToquesValemUmaVezPorAperto() {
+        queue.press(Input.HARD_DROP, 0);
+        handler.update(simulation, 500 * MS);
+        assertEquals(1, simulation.getLockCount(), "Segurar a queda rápida não derruba outra peça");
+    }
+
+    @Test
+    void testResetSoltaTudo() {
+        queue.press(Input.RIGHT, 0);
+        queue.press(Input.SOFT_DROP, 0);
+        handler.update(simulation, 10 * MS);
+        queue.press(Input.HOLD, 20 * MS);
+        handler.reset();
+        assertEquals(Input.NONE, handler.getHeld());
+        assertEquals(0, queue.size());
+        int x = pieceX();
+        int y = pieceY();
+        handler.update(simulation, 500 * MS);
+        assertEquals(x, pieceX());
+        assertEquals(y, pieceY());
+    }
+
+    @Test
+    void testFilaCheiaRecusaEventos() {
+        InputQueue small = new InputQueue(2);
+        assertTrue(small.press(Input.LEFT, 0));
+        assertTrue(small.release(Input.LEFT, 1));
+        assertFalse(small.press(Input.LEFT, 2));
+        assertThrows(IllegalArgumentException.class, () -> small.press(Input.LEFT | Input.RIGHT, 3));
+    }
+
+    @Test
+    void testEntradasSaoGravadasNoReplay() {
+        ReplayRecorder recorder = new ReplayRecorder();
+        simulation.setRecorder(recorder);
+        simulation.initializeGame();
+        queue.press(Input.RIGHT, 0);
+        queue.press(Input.ROTATE_CW, 10 * MS);
+        queue.press(Input.HARD_DROP, 200 * MS);
+        for (long t = 0; t <= 300 * MS; t += GameSimulation.FRAME_NANOS) {
+            handler.update(simulation, t);
+            simulation.step(Input.NONE);
+        }
+        Replay replay = recorder.finish(simulation);
+        ReplayPlayer player = new ReplayPlayer(replay);
+        assertTrue(player.verify(), player.getMismatch());
+    }
+
+    private int recordedEventsAfter(Runnable action) {
+        ReplayRecorder recorder = new ReplayRecorder();
+        recorder.begin(simulation);
+        simulation.setRecorder(recorder);
+        action.run();
+        simulation.setRecorder(null);
+        return recorder.getEventCount();
+    }
+
+    private int pieceX() { return simulation.getCurrentPiece().getX(); }
+    private int pieceY() { return simulation.getCurrentPiece().getY(); }
+}
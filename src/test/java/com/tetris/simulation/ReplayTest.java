@@ -0,0 +1,219 @@
+package com.tetris.simulation;
+
+import com.tetris.model.GameState;
+import com.tetris.model.RotationSystem;
+import com.tetris.model.tetromino.Randomizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa a gravação de entradas, o formato binário dos replays e a
+ * reprodução determinística (com o modo de verificação).
+ */
+class ReplayTest {
+
+    /** O bot joga 40 linhas com gravação ligada. */
+    private static Replay recordSprint(long seed) {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setSeed(seed);
+        simulation.setRecorder(new ReplayRecorder());
+        simulation.initializeGame();
+        SimpleBot bot = new SimpleBot(simulation.getBoard());
+        while (simulation.getLinesCleared() < 40 && simulation.getState() != GameState.GAME_OVER) {
+            simulation.step(bot.nextInputs(simulation));
+        }
+        return simulation.getRecorder().finish(simulation);
+    }
+
+    @Test
+    void testPartidaDe40LinhasCabeEm1KB() {
+        Replay replay = recordSprint(11L);
+        byte[] bytes = replay.toBytes();
+        assertEquals(40, replay.getFinalLines(), replay.toString());
+        assertTrue(bytes.length < 1024, "Replay com " + bytes.length + " bytes");
+
+        ReplayPlayer player = new ReplayPlayer(Replay.fromBytes(bytes));
+        assertTrue(player.verify(), player.getMismatch());
+    }
+
+    @Test
+    void testIdaEVoltaDoFormato() {
+        Replay replay = recordSprint(3L);
+        Replay read = Replay.fromBytes(replay.toBytes());
+        assertEquals(replay.getSeed(), read.getSeed());
+        assertEquals(replay.getRandomizerKind(), read.getRandomizerKind());
+        assertEquals(replay.getRotationSystem(), read.getRotationSystem());
+        assertEquals(replay.getLineClearFrames(), read.getLineClearFrames());
+        assertEquals(replay.getEventCount(), read.getEventCount());
+        for (int i = 0; i < replay.getEventCount(); i++) {
+            assertEquals(replay.getEventFrame(i), read.getEventFrame(i));
+            assertEquals(replay.getEventInputs(i), read.getEventInputs(i));
+        }
+        assertEquals(replay.getFinalFrame(), read.getFinalFrame());
+        assertEquals(replay.getFinalScore(), read.getFinalScore());
+        assertEquals(replay.getFinalBoardHash(), read.getFinalBoardHash());
+    }
+
+    @Test
+    void testReplayComGravidadeGuideline() {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setSeed(21L);
+        simulation.setGravityCurve(GravityCurve.GUIDELINE);
+        simulation.setLockDelay(20, 10);
+        simulation.setRecorder(new ReplayRecorder());
+        simulation.initializeGame();
+        SplittableRandom random = new SplittableRandom(4);
+        while (simulation.getFrame() < 3000 && simulation.getState() != GameState.GAME_OVER) {
+            simulation.step(random.nextInt(8) == 0 ? 1 << random.nextInt(8) : Input.NONE);
+        }
+        Replay read = Replay.fromBytes(simulation.getRecorder().finish(simulation).toBytes());
+        assertEquals(GravityCurve.GUIDELINE, read.getGravityCurve());
+        assertEquals(20, read.getLockDelayFrames());
+        assertEquals(10, read.getMaxLockResets());
+        ReplayPlayer player = new ReplayPlayer(read);
+        assertTrue(player.verify(), player.getMismatch());
+    }
+
+    @Test
+    void testReplayDaVersao1AindaELido() {
+        byte[] v2 = recordSprint(5L).toBytes();
+        // A versão 1 não tinha os 3 bytes da gravidade (curva + atraso 0 + resets 0)
+        byte[] v1 = new byte[v2.length - 3];
+        v1[0] = 1;
+        System.arraycopy(v2, 1, v1, 1, 3);
+        System.arraycopy(v2, 7, v1, 4, v2.length - 7);
+        Replay read = Replay.fromBytes(v1);
+        assertEquals(GravityCurve.CLASSIC, read.getGravityCurve());
+        ReplayPlayer player = new ReplayPlayer(read);
+        assertTrue(player.verify(), player.getMismatch());
+    }
+
+    @Test
+    void testLimpezaManualEEntradasAleatorias() {
+        // Como no GameEngine: a limpeza espera um finishLineClear() vindo de fora
+        GameSimulation simulation = new GameSimulation();
+        simulation.setSeed(5L);
+        simulation.setRandomizer(Randomizer.Kind.BAG);
+        simulation.setRotationSystem(RotationSystem.SRS);
+        simulation.setLineClearFrames(GameSimulation.MANUAL_LINE_CLEAR);
+        simulation.setRecorder(new ReplayRecorder());
+        simulation.initializeGame();
+
+        SplittableRandom random = new SplittableRandom(8);
+        SimpleBot bot = new SimpleBot(simulation.getBoard());
+        for (int frame = 0; frame < 20_000 && simulation.getState() != GameState.GAME_OVER; frame++) {
+            if (simulation.getState() == GameState.LINE_CLEARING) {
+                if (random.nextInt(4) == 0) {
+                    simulation.finishLineClear();
+                }
+                simulation.tick(1);
+            } else if (random.nextInt(10) == 0) {
+                simulation.apply(random.nextInt(Input.ALL + 1) & ~Input.HARD_DROP);
+                simulation.apply(bot.nextInputs(simulation)); // Dois eventos no mesmo quadro
+                simulation.tick(1);
+            } else {
+                simulation.step(random.nextBoolean() ? bot.nextInputs(simulation) : Input.NONE);
+            }
+        }
+        Replay replay = simulation.getRecorder().finish(simulation);
+        assertTrue(replay.getFinalLines() > 0, "O teste precisa passar por limpezas de linha");
+
+        ReplayPlayer player = new ReplayPlayer(Replay.fromBytes(replay.toBytes()));
+        assertTrue(player.verify(), player.getMismatch());
+        assertEquals(simulation.getPositionHash(), player.getSimulation().getPositionHash());
+    }
+
+    @Test
+    void testAvancoEmPedacosIgualAoDeUmaVez() {
+        Replay replay = recordSprint(21L);
+        ReplayPlayer player = new ReplayPlayer(replay);
+        int total = 0;
+        for (int step = 1; !player.isFinished(); step = step % 7 + 1) {
+            total += player.advance(step);
+        }
+        assertEquals(replay.getFinalFrame(), total);
+        assertNull(player.getMismatch());
+    }
+
+    @Test
+    void testVerificacaoDetectaReplayAlterado() {
+        byte[] bytes = recordSprint(13L).toBytes();
+        bytes[12] ^= 1; // Último byte da semente (cabeçalho: 4 bytes + varint de 1 byte + long)
+        ReplayPlayer player = new ReplayPlayer(Replay.fromBytes(bytes));
+        assertFalse(player.verify());
+        assertNotNull(player.getMismatch());
+    }
+
+    @Test
+    void testEdicaoNoMeioDaPartidaCancelaAGravacao() {
+        GameSimulation simulation = new GameSimulation();
+        simulation.setRecorder(new ReplayRecorder());
+        simulation.initializeGame();
+        simulation.step(Input.LEFT);
+        simulation.setScore(5000); // Fora das entradas: o replay não reproduziria
+        assertFalse(simulation.getRecorder().isRecording());
+        assertThrows(IllegalStateException.class, () -> simulation.getRecorder().finish(simulation));
+
+        simulation.initializeGame(); // A próxima partida volta a gravar
+        simulation.step(Input.HARD_DROP);
+        simulation.setGravityCurve(GravityCurve.NES); // Regra nova no meio: idem
+        assertFalse(simulation.getRecorder().isRecording());
+    }
+
+    @Test
+    void testReplayTruncadoOuInvalido() {
+        byte[] bytes = recordSprint(17L).toBytes();
+        assertThrows(IllegalArgumentException.class,
+                () -> Replay.fromBytes(Arrays.copyOf(bytes, bytes.length - 3)));
+        bytes[0] = 99;
+        assertThrows(IllegalArgumentException.class, () -> Replay.fromBytes(bytes));
+    }
+
+    @Test
+    void testBuscaIgualAReproduzirDoInicio() {
+        Replay replay = recordSprint(31L);
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.setKeyframeInterval(50, 0);
+        player.buildKeyframes();
+        assertTrue(player.getKeyframeCount() >= replay.getFinalFrame() / 50);
+
+        SplittableRandom random = new SplittableRandom(4);
+        for (int i = 0; i < 40; i++) {
+            int frame = random.nextInt(replay.getFinalFrame() + 1);
+            player.seek(frame);
+
+            ReplayPlayer fresh = new ReplayPlayer(replay);
+            fresh.advance(frame);
+            assertEquals(frame, player.getSimulation().getFrame());
+            assertEquals(fresh.getSimulation().getPositionHash(), player.getSimulation().getPositionHash(),
+                    "Busca para o quadro " + frame);
+            assertEquals(fresh.getSimulation().getScore(), player.getSimulation().getScore());
+        }
+        player.seek(replay.getFinalFrame());
+        assertTrue(player.isFinished());
+        assertNull(player.getMismatch());
+    }
+
+    @Test
+    void testKeyframesPorPecasTravadas() {
+        Replay replay = recordSprint(41L);
+        ReplayPlayer player = new ReplayPlayer(replay);
+        player.setKeyframeInterval(0, 10);
+        player.runToEnd();
+        long locks = player.getSimulation().getLockCount();
+        assertEquals(locks / 10 + 1, player.getKeyframeCount(), "Um keyframe a cada 10 peças (+ o do quadro 0)");
+
+        // As linhas que não mudaram entre keyframes não são contadas de novo
+        long bytes = player.getKeyframeMemoryBytes();
+        assertTrue(bytes > 0);
+        assertTrue(bytes / player.getKeyframeCount() < 2048, bytes + " bytes em " + player.getKeyframeCount());
+
+        player.seek(0);
+        assertEquals(0, player.getSimulation().getFrame());
+        assertTrue(player.verify(), player.getMismatch());
+    }
+}
@@ -0,0 +1,152 @@
+package com.tetris.simulation;
+
+import com.tetris.model.tetromino.Randomizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.tetris.Allocations.assertNoAllocation;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa a sessão de rollback com dois pares na mesma thread e uma "rede"
+ * de mentira com atraso fixo: os dois chegam exatamente no jogo que as
+ * entradas reais dariam, mesmo prevendo errado no caminho.
+ */
+class RollbackSessionTest {
+
+    private static final long SEED = 99L;
+    private static final int FRAMES = 1200;
+
+    private GameConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new GameConfig();
+        config.setRandomizer(Randomizer.Kind.BAG);
+        config.setLineClearFrames(20);
+    }
+
+    @Test
+    void testParesChegamNoMesmoJogoQueAsEntradasReais() {
+        int delay = 4; // Quadros de "rede" em cada sentido
+        RollbackSession[] peers = {
+                new RollbackSession(config, SEED, 2, 0),
+                new RollbackSession(config, SEED, 2, 1)
+        };
+        InputPolicy[] agents = {new RandomAgent(1, 6), new RandomAgent(2, 6)};
+        int[][] sent = new int[2][FRAMES];
+
+        for (int frame = 0; frame < FRAMES + delay; frame++) {
+            for (int p = 0; p < 2; p++) {
+                // O que o outro lado mandou há 'delay' quadros chega agora
+                int arrived = frame - delay;
+                if (arrived >= 0 && arrived < FRAMES) {
+                    peers[p].addRemoteInput(1 - p, arrived, sent[1 - p][arrived]);
+                }
+            }
+            for (int p = 0; p < 2 && frame < FRAMES; p++) {
+                sent[p][frame] = agents[p].nextInputs(peers[p].getPlayer(p));
+                peers[p].addLocalInput(sent[p][frame]);
+                assertTrue(peers[p].advanceFrame(), "Com 4 quadros de atraso não deveria esperar");
+            }
+        }
+        // Um quadro a mais corrige a última previsão (sem entradas novas depois do fim)
+        GameSimulation[] reference = {config.newSimulation(SEED), config.newSimulation(SEED)};
+        for (int frame = 0; frame < FRAMES; frame++) {
+            reference[0].step(sent[0][frame]);
+            reference[1].step(sent[1][frame]);
+        }
+        for (RollbackSession peer : peers) {
+            peer.advanceFrame();
+            assertTrue(peer.getRollbackCount() > 0, "As previsões deveriam errar às vezes");
+            assertTrue(peer.getMaxRollbackDepth() <= delay + 1);
+        }
+        assertEquals(peers[0].getChecksum(), peers[1].getChecksum(), "Os pares dessincronizaram");
+        // O quadro extra só passa o tempo; compara com a referência no mesmo quadro
+        reference[0].step(Input.NONE);
+        reference[1].step(Input.NONE);
+        for (int p = 0; p < 2; p++) {
+            assertEquals(reference[p].getPositionHash(), peers[0].getPlayer(p).getPositionHash());
+            assertEquals(reference[p].getScore(), peers[1].getPlayer(p).getScore());
+        }
+    }
+
+    @Test
+    void testEsperaQuandoAPrevisaoPassaDaJanela() {
+        RollbackSession session = new RollbackSession(config, SEED, 2, 0, 3);
+        int advanced = 0;
+        for (int i = 0; i < 10; i++) {
+            if (session.advanceFrame()) {
+                advanced++;
+            }
+        }
+        assertEquals(3, advanced, "Sem nada do outro lado, prevê só a janela");
+        assertEquals(7, session.getStallCount());
+
+        for (int frame = 0; frame < 3; frame++) {
+            session.addRemoteInput(1, frame, Input.NONE);
+        }
+        assertTrue(session.advanceFrame(), "Com as entradas confirmadas, volta a andar");
+        assertEquals(0, session.getRollbackCount(), "A previsão (nada) estava certa");
+    }
+
+    @Test
+    void testEntradaRepetidaOuAtrasadaNaoQuebra() {
+        RollbackSession session = new RollbackSession(config, SEED, 2, 0);
+        session.advanceFrame();
+        session.advanceFrame();
+        session.addRemoteInput(1, 1, Input.LEFT); // Fora de ordem: o quadro 0 ainda não chegou
+        assertEquals(-1, session.getConfirmedFrame(1));
+        session.addRemoteInput(1, 0, Input.NONE);
+        session.addRemoteInput(1, 0, Input.NONE); // Repetida
+        assertEquals(1, session.getConfirmedFrame(1));
+        session.advanceFrame();
+        assertEquals(1, session.getRollbackCount(), "Só o quadro 1 foi previsto errado");
+        assertEquals(1, session.getResimulatedFrames());
+    }
+
+    @Test
+    void testQuadroMuitoAFrenteERecusado() {
+        RollbackSession session = new RollbackSession(config, SEED, 2, 0);
+        for (int frame = 0; frame < 5; frame++) {
+            session.advanceFrame(); // Quadros 0..4 previstos para o remoto
+        }
+        long tooFar = session.getCurrentFrame() + session.getMaxRollbackFrames() + 1;
+        assertTrue(session.acceptsRemoteFrame(tooFar - 1));
+        assertFalse(session.acceptsRemoteFrame(tooFar));
+        // 64 à frente cairia no slot do quadro 3, que ainda espera a entrada real
+        long sameSlotAsFrame3 = 3 + 64;
+        assertFalse(session.acceptsRemoteFrame(sameSlotAsFrame3));
+        assertThrows(IllegalArgumentException.class, () -> session.addRemoteInput(1, sameSlotAsFrame3, Input.LEFT));
+
+        for (int frame = 0; frame < 5; frame++) {
+            session.addRemoteInput(1, frame, Input.NONE);
+        }
+        assertEquals(4, session.getConfirmedFrame(1), "O quadro 3 continua esperando (e recebendo) a entrada dele");
+    }
+
+    @Test
+    void testRollbackNaoAloca() {
+        RollbackSession session = new RollbackSession(config, SEED, 2, 0);
+        InputPolicy agent = new RandomAgent(5, 4);
+        play(session, agent, 0, 300); // Aquece
+
+        int[] from = {300}; // Cada rodada continua a partida de onde a anterior parou
+        assertNoAllocation(() -> {
+            play(session, agent, from[0], from[0] + 300);
+            from[0] += 300;
+        }, "Salvar, voltar e resimular não deveria alocar.");
+        assertTrue(session.getResimulatedFrames() > 0);
+    }
+
+    /** O remoto sempre aperta "esquerda", que a previsão (nada) nunca acerta: volta todo quadro. */
+    private static void play(RollbackSession session, InputPolicy agent, int from, int to) {
+        for (int frame = from; frame < to; frame++) {
+            if (frame >= 3) {
+                session.addRemoteInput(1, frame - 3, (frame & 7) == 0 ? Input.LEFT : Input.NONE);
+            }
+            session.addLocalInput(agent.nextInputs(session.getPlayer(0)));
+            session.advanceFrame();
+        }
+    }
+}
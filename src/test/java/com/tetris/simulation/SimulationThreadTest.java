@@ -0,0 +1,157 @@
+package com.tetris.simulation;
+
+import com.tetris.model.Board;
+import com.tetris.model.GameState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testa o buffer triplo (sozinho e com duas threads) e a thread da simulação:
+ * fotos sempre inteiras, teclas aplicadas no quadro seguinte e um leitor
+ * lento que não atrasa a simulação.
+ */
+class SimulationThreadTest {
+
+    private GameSimulation simulation;
+    private TripleBuffer<FrameSnapshot> frames;
+    private SimulationThread thread;
+
+    @BeforeEach
+    void setUp() {
+        simulation = new GameSimulation();
+        simulation.setSeed(11L);
+        simulation.initializeGame();
+        frames = new TripleBuffer<>(() -> new FrameSnapshot(Board.WIDTH, Board.HEIGHT));
+        thread = new SimulationThread(simulation, frames);
+    }
+
+    @AfterEach
+    void tearDown() {
+        thread.stop();
+    }
+
+    @Test
+    void testBufferTriploEntregaSoOMaisRecente() {
+        TripleBuffer<int[]> buffer = new TripleBuffer<>(() -> new int[1]);
+        for (int i = 1; i <= 3; i++) {
+            buffer.back()[0] = i;
+            buffer.publish();
+        }
+        assertTrue(buffer.hasFresh());
+        int[] latest = buffer.latest();
+        assertEquals(3, latest[0]);
+        assertFalse(buffer.hasFresh());
+        assertSame(latest, buffer.latest(), "Sem publicação nova, continua a mesma foto");
+        assertNotSame(latest, buffer.back(), "O produtor nunca escreve na foto do leitor");
+    }
+
+    @Test
+    void testBufferTriploNuncaEntregaFotoPelaMetade() throws InterruptedException {
+        TripleBuffer<long[]> buffer = new TripleBuffer<>(() -> new long[8]);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread producer = new Thread(() -> {
+            for (long n = 1; n <= 200_000; n++) {
+                long[] slot = buffer.back();
+                for (int i = 0; i < slot.length; i++) {
+                    slot[i] = n;
+                }
+                buffer.publish();
+            }
+            done.set(true);
+        });
+        producer.start();
+        long last = 0;
+        while (!done.get() || buffer.hasFresh()) {
+            long[] seen = buffer.latest();
+            for (long value : seen) {
+                assertEquals(seen[0], value, "Foto misturada de dois quadros");
+            }
+            assertTrue(seen[0] >= last, "Voltou no tempo: " + seen[0] + " depois de " + last);
+            last = seen[0];
+        }
+        producer.join();
+        assertEquals(200_000, buffer.latest()[0]);
+    }
+
+    @Test
+    void testThreadAplicaTeclasEPublicaQuadros() throws InterruptedException {
+        thread.start();
+        waitForFrame(3);
+        thread.submit(Input.HARD_DROP);
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (frames.latest().getScore() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(thread.stop());
+
+        FrameSnapshot frame = frames.latest();
+        assertTrue(frame.getScore() > 0, "A queda rápida não chegou na simulação");
+        assertEquals(simulation.getFrame(), frame.getFrame(), "A última foto é do último quadro");
+        assertEquals(simulation.getScore(), frame.getScore());
+        assertTrue(thread.getJitter().getCount() >= frame.getFrame());
+    }
+
+    @Test
+    void testTeclasComHorarioPassamPeloInputHandler() throws InterruptedException {
+        InputHandler handler = new InputHandler();
+        thread.setInputHandler(handler);
+        thread.start();
+        waitForFrame(3);
+        handler.getQueue().press(Input.HARD_DROP, System.nanoTime());
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (frames.latest().getScore() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(thread.stop());
+        assertTrue(simulation.getScore() > 0, "A tecla da fila não chegou na simulação");
+        assertEquals(0, handler.getQueue().size());
+        assertEquals(Input.HARD_DROP, handler.getHeld(), "Apertada e ainda não solta");
+    }
+
+    @Test
+    void testLeitorLentoNaoAtrasaASimulacao() throws InterruptedException {
+        thread.start();
+        long before = waitForFrame(1).getFrame();
+        Thread.sleep(250); // Um "quadro" de 250 ms do renderizador
+        long after = frames.latest().getFrame();
+        assertTrue(after - before >= 5, "A simulação andou só " + (after - before) + " quadros");
+    }
+
+    @Test
+    void testComandosRodamNaThreadDaSimulacao() throws InterruptedException {
+        thread.start();
+        thread.submit(GameSimulation::togglePause);
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (frames.latest().getState() != GameState.PAUSED && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(GameState.PAUSED, frames.latest().getState());
+    }
+
+    @Test
+    void testStopRodaOsComandosQueFaltaram() {
+        thread.start();
+        for (int i = 0; i < 100; i++) {
+            thread.submit(sim -> sim.setSeed(99L)); // Alguns podem ficar para o stop()
+        }
+        thread.submit(sim -> sim.setSeed(42L));
+        assertTrue(thread.stop());
+        simulation.initializeGame();
+        assertEquals(42L, simulation.getSeed(), "O último comando, em ordem, antes de voltar");
+    }
+
+    private FrameSnapshot waitForFrame(long frame) throws InterruptedException {
+        long deadline = System.nanoTime() + 2_000_000_000L;
+        while (frames.latest().getFrame() < frame && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        FrameSnapshot latest = frames.latest();
+        assertTrue(latest.getFrame() >= frame, "A thread não publicou quadros");
+        return latest;
+    }
+}